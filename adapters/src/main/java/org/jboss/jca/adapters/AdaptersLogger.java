@@ -333,4 +333,22 @@ public interface AdaptersLogger extends BasicLogger
    @LogMessage(level = WARN)
    @Message(id = 30061, value = "Error resetting auto-commit for: %s")
    public void errorResettingAutoCommit(String msg, @Cause Throwable t);
+
+   /**
+    * Validation timeout
+    * @param timeout The timeout
+    * @param msg The message
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 30062, value = "Destroying connection that didn't validate within %d ms: %s")
+   public void validationTimeout(long timeout, String msg);
+
+   /**
+    * Validation hang
+    * @param time The time since the validation was cancelled
+    * @param msg The message
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 30063, value = "Validation is still running %d ms after it was cancelled: %s")
+   public void validationHang(long time, String msg);
 }
@@ -106,8 +106,17 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
    /** The state lock */
    protected final Object stateLock = new Object();
 
+   /** The auto-commit state may differ from the underlying connection */
+   protected static final int DIRTY_AUTO_COMMIT = 1;
+
+   /** The read-only state may differ from the underlying connection */
+   protected static final int DIRTY_READ_ONLY = 2;
+
+   /** The transaction isolation may differ from the underlying connection */
+   protected static final int DIRTY_TRANSACTION_ISOLATION = 4;
+
    /** Is inside a managed transaction */
-   protected boolean inManagedTransaction = false;
+   protected volatile boolean inManagedTransaction = false;
 
    /** Is inside a local transaction */
    protected AtomicBoolean inLocalTransaction = new AtomicBoolean(false);
@@ -118,6 +127,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
    /** Ignore in managed auto commit calls */
    protected static boolean ignoreInManagedAutoCommitCalls = false;
 
+   /** Defer the reset of the connection state until the next use */
+   protected static boolean lazyReset = false;
+
    /** Underlying auto-commit */
    protected boolean underlyingAutoCommit = true;
 
@@ -130,6 +142,12 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
    /** JDBC transaction isolation */
    protected int jdbcTransactionIsolation;
 
+   /** Underlying transaction isolation */
+   protected int underlyingTransactionIsolation;
+
+   /** The states which may differ from the underlying connection */
+   private volatile int dirty;
+
    /** Destroyed */
    protected boolean destroyed = false;
 
@@ -170,6 +188,10 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       String ignAutoCommit = SecurityActions.getSystemProperty("ironjacamar.jdbc.ignoreautocommit");
       if (ignAutoCommit != null)
          ignoreInManagedAutoCommitCalls = Boolean.valueOf(ignAutoCommit);
+
+      String lr = SecurityActions.getSystemProperty("ironjacamar.jdbc.lazyreset");
+      if (lr != null)
+         lazyReset = Boolean.valueOf(lr);
    }
 
    /**
@@ -195,7 +217,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
 
       if (psCacheSize > 0)
       {
-         psCache = new PreparedStatementCache(psCacheSize, mcf.getStatistics());
+         psCache = new PreparedStatementCache(psCacheSize, mcf.getPreparedStatementCacheType(),
+                                              mcf.getStatistics());
          mcf.getStatistics().registerPreparedStatementCache(psCache);
       }
 
@@ -226,6 +249,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       underlyingReadOnly = readOnly;
       jdbcReadOnly = readOnly;
       jdbcTransactionIsolation = this.transactionIsolation;
+      underlyingTransactionIsolation = this.transactionIsolation;
+      dirty = 0;
 
       metadata = new ManagedConnectionMetaDataImpl(con, props.getProperty("user"));
    }
@@ -350,30 +375,55 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
          handles.clear();
       }
 
-      // Reset all the properties we know about to defaults.
+      // Reset all the properties we know about to defaults. In lazy mode the underlying
+      // connection is only updated when the next user needs a different state, unless
+      // auto-commit was turned off by the application, as there may be pending work
       synchronized (stateLock)
       {
+         boolean lazy = lazyReset && jdbcAutoCommit;
+
          jdbcAutoCommit = true;
          if (jdbcAutoCommit != underlyingAutoCommit)
          {
-            try {
-               con.setAutoCommit(jdbcAutoCommit);
-               underlyingAutoCommit = jdbcAutoCommit;
-            } catch (SQLException e) {
-               mcf.log.errorResettingAutoCommit(mcf.getJndiName(), e);
+            if (lazy)
+            {
+               markDirty(DIRTY_AUTO_COMMIT);
+            }
+            else
+            {
+               try {
+                  con.setAutoCommit(jdbcAutoCommit);
+                  underlyingAutoCommit = jdbcAutoCommit;
+               } catch (SQLException e) {
+                  mcf.log.errorResettingAutoCommit(mcf.getJndiName(), e);
+               }
             }
          }
+
          jdbcReadOnly = readOnly;
-         if (jdbcTransactionIsolation != transactionIsolation)
+         if (jdbcReadOnly != underlyingReadOnly)
+            markDirty(DIRTY_READ_ONLY);
+
+         if (jdbcTransactionIsolation != transactionIsolation ||
+             underlyingTransactionIsolation != transactionIsolation)
          {
-            try
+            if (lazy)
             {
-               con.setTransactionIsolation(transactionIsolation);
                jdbcTransactionIsolation = transactionIsolation;
+               markDirty(DIRTY_TRANSACTION_ISOLATION);
             }
-            catch (SQLException e)
+            else
             {
-               mcf.log.transactionIsolationReset(mcf.getJndiName(), e);
+               try
+               {
+                  con.setTransactionIsolation(transactionIsolation);
+                  jdbcTransactionIsolation = transactionIsolation;
+                  underlyingTransactionIsolation = transactionIsolation;
+               }
+               catch (SQLException e)
+               {
+                  mcf.log.transactionIsolationReset(mcf.getJndiName(), e);
+               }
             }
          }
       }
@@ -724,13 +774,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       {
          mcf.getStatistics().deltaPreparedStatementCacheAccessCount();
 
-         PreparedStatementCache.Key key = 
-            new PreparedStatementCache.Key(sql,
-                                           PreparedStatementCache.Key.PREPARED_STATEMENT, 
-                                           resultSetType, 
-                                           resultSetConcurrency);
-
-         CachedPreparedStatement cachedps = psCache.get(key);
+         CachedPreparedStatement cachedps = psCache.get(sql, PreparedStatementCache.Key.PREPARED_STATEMENT,
+                                                        resultSetType, resultSetConcurrency);
          if (cachedps != null)
          {
             if (canUse(cachedps))
@@ -750,7 +795,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
          {
             PreparedStatement ps = doPrepareStatement(sql, resultSetType, resultSetConcurrency);
             cachedps = WRAPPED_CONNECTION_FACTORY.createCachedPreparedStatement(ps);
-            psCache.put(key, cachedps);
+            psCache.put(sql, PreparedStatementCache.Key.PREPARED_STATEMENT, resultSetType, resultSetConcurrency,
+                        cachedps);
 
             mcf.getStatistics().deltaPreparedStatementCacheAddCount();
          }
@@ -790,13 +836,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
       {
          mcf.getStatistics().deltaPreparedStatementCacheAccessCount();
 
-         PreparedStatementCache.Key key = 
-            new PreparedStatementCache.Key(sql, 
-                                           PreparedStatementCache.Key.CALLABLE_STATEMENT, 
-                                           resultSetType, 
-                                           resultSetConcurrency);
-
-         CachedCallableStatement cachedps = (CachedCallableStatement) psCache.get(key);
+         CachedCallableStatement cachedps =
+            (CachedCallableStatement) psCache.get(sql, PreparedStatementCache.Key.CALLABLE_STATEMENT,
+                                                  resultSetType, resultSetConcurrency);
 
          if (cachedps != null)
          {
@@ -815,7 +857,8 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
          {
             CallableStatement cs = doPrepareCall(sql, resultSetType, resultSetConcurrency);
             cachedps = WRAPPED_CONNECTION_FACTORY.createCachedCallableStatement(cs);
-            psCache.put(key, cachedps);
+            psCache.put(sql, PreparedStatementCache.Key.CALLABLE_STATEMENT, resultSetType, resultSetConcurrency,
+                        cachedps);
             mcf.getStatistics().deltaPreparedStatementCacheAddCount();
          }
          return cachedps;
@@ -913,16 +956,24 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
     */
    void checkTransaction() throws SQLException
    {
-      synchronized (stateLock)
-      {
-         if (inManagedTransaction)
-            return;
+      if (inManagedTransaction)
+         return;
 
-         // Check autocommit
-         if (jdbcAutoCommit != underlyingAutoCommit)
+      if ((dirty & DIRTY_AUTO_COMMIT) != 0)
+      {
+         synchronized (stateLock)
          {
-            con.setAutoCommit(jdbcAutoCommit);
-            underlyingAutoCommit = jdbcAutoCommit;
+            if (inManagedTransaction)
+               return;
+
+            // Check autocommit
+            if (jdbcAutoCommit != underlyingAutoCommit)
+            {
+               con.setAutoCommit(jdbcAutoCommit);
+               underlyingAutoCommit = jdbcAutoCommit;
+            }
+
+            dirty &= ~DIRTY_AUTO_COMMIT;
          }
       }
 
@@ -956,6 +1007,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
     */
    protected void checkState() throws SQLException
    {
+      if ((dirty & (DIRTY_READ_ONLY | DIRTY_TRANSACTION_ISOLATION)) == 0)
+         return;
+
       synchronized (stateLock)
       {
          // Check readonly
@@ -964,9 +1018,37 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
             con.setReadOnly(jdbcReadOnly);
             underlyingReadOnly = jdbcReadOnly;
          }
+
+         // Check transaction isolation
+         if (jdbcTransactionIsolation != underlyingTransactionIsolation)
+         {
+            con.setTransactionIsolation(jdbcTransactionIsolation);
+            underlyingTransactionIsolation = jdbcTransactionIsolation;
+         }
+
+         dirty &= ~(DIRTY_READ_ONLY | DIRTY_TRANSACTION_ISOLATION);
       }
    }
 
+   /**
+    * Mark a state as possibly different from the underlying connection, so it is
+    * checked before the next use. Must be called while holding the state lock
+    * @param state The state
+    */
+   protected void markDirty(int state)
+   {
+      dirty |= state;
+   }
+
+   /**
+    * Get the states which may differ from the underlying connection
+    * @return The value
+    */
+   int getDirty()
+   {
+      return dirty;
+   }
+
    /**
     * Is JDBC auto-commit
     * @return <code>True</code> if auto-commit; otherwise <code>false</code>
@@ -998,6 +1080,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
          }
 
          this.jdbcAutoCommit = jdbcAutoCommit;
+
+         if (jdbcAutoCommit != underlyingAutoCommit)
+            markDirty(DIRTY_AUTO_COMMIT);
       }
 
       if (mcf.isJTA().booleanValue())
@@ -1044,6 +1129,9 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
             throw new SQLException(bundle.readonlyManagedTransaction());
 
          this.jdbcReadOnly = readOnly;
+
+         if (readOnly != underlyingReadOnly)
+            markDirty(DIRTY_READ_ONLY);
       }
    }
 
@@ -1065,7 +1153,11 @@ public abstract class BaseWrapperManagedConnection implements NotifyingManagedCo
    {
       synchronized (stateLock)
       {
-         con.setTransactionIsolation(isolationLevel);
+         if (isolationLevel != underlyingTransactionIsolation)
+         {
+            con.setTransactionIsolation(isolationLevel);
+            underlyingTransactionIsolation = isolationLevel;
+         }
          this.jdbcTransactionIsolation = isolationLevel;
       }
    }
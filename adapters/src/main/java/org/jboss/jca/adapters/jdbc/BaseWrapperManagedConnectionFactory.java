@@ -47,15 +47,20 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import javax.resource.ResourceException;
 import javax.resource.spi.ConnectionManager;
@@ -149,11 +154,17 @@ public abstract class BaseWrapperManagedConnectionFactory
    /** The prepared statement cache size */
    protected Integer preparedStatementCacheSize = Integer.valueOf(0);
 
+   /** The prepared statement cache type */
+   protected String preparedStatementCacheType = PreparedStatementCache.LRU;
+
    /** Query timeout enabled */
    protected boolean doQueryTimeout = false;
 
    protected boolean poolValidationLoggingEnabled = true;
 
+   /** The executor for parallel validation */
+   private transient ValidationExecutor validationExecutor;
+
    /**
     * The variable <code>newConnectionSQL</code> holds an SQL
     * statement which if not null is executed when a new Connection is
@@ -392,6 +403,25 @@ public abstract class BaseWrapperManagedConnectionFactory
          preparedStatementCacheSize = size;
    }
 
+   /**
+    * Get the prepared statement cache type
+    * @return The value
+    */
+   public String getPreparedStatementCacheType()
+   {
+      return preparedStatementCacheType;
+   }
+
+   /**
+    * Set the prepared statement cache type; <code>lru</code> or <code>concurrent</code>
+    * @param type The value
+    */
+   public void setPreparedStatementCacheType(String type)
+   {
+      if (type != null)
+         preparedStatementCacheType = type.trim().toLowerCase(Locale.US);
+   }
+
    /**
     * Get the prepared statement share status
     * @return The value
@@ -1163,37 +1193,178 @@ public abstract class BaseWrapperManagedConnectionFactory
    public Set<BaseWrapperManagedConnection> getInvalidConnections(final Set connectionSet) throws ResourceException
    {
       final Set<BaseWrapperManagedConnection> invalid = new HashSet<BaseWrapperManagedConnection>();
+      final List<BaseWrapperManagedConnection> candidates =
+         new ArrayList<BaseWrapperManagedConnection>(connectionSet.size());
 
       for (Iterator<?> iter = connectionSet.iterator(); iter.hasNext();)
       {
          final Object anonymous = iter.next();
 
          if (anonymous instanceof BaseWrapperManagedConnection)
+            candidates.add((BaseWrapperManagedConnection) anonymous);
+      }
+
+      if (candidates.size() <= 1 || !ValidationExecutor.isEnabled())
+      {
+         for (BaseWrapperManagedConnection mc : candidates)
          {
-            BaseWrapperManagedConnection mc = (BaseWrapperManagedConnection) anonymous;
-            Connection c = null;
-            try
-            {
-               mc.checkTransaction(); // this prevents connection validator from opening a transaction (JBJCA-1338)
-               c = mc.getRealConnection();
-               SQLException e = isValidConnection(c);
+            if (!isValid(mc))
+               invalid.add(mc);
+         }
+
+         return invalid;
+      }
 
-               if (e != null && poolValidationLoggingEnabled)
+      // Validate the first connection on this thread, so the valid connection checker is initialized once
+      BaseWrapperManagedConnection first = candidates.remove(0);
+      if (!isValid(first))
+         invalid.add(first);
+
+      final ClassLoader tccl = SecurityActions.getThreadContextClassLoader();
+      ValidationExecutor executor = getValidationExecutor();
+      List<ValidationExecutor.Task> tasks = new ArrayList<ValidationExecutor.Task>(candidates.size());
+
+      for (final BaseWrapperManagedConnection mc : candidates)
+      {
+         tasks.add(executor.submit(new Callable<Boolean>()
+         {
+            public Boolean call()
+            {
+               ClassLoader old = SecurityActions.getThreadContextClassLoader();
+               try
                {
-                  log.invalidConnection(c.toString(), e);
-                  invalid.add(mc);
+                  SecurityActions.setThreadContextClassLoader(tccl);
+                  return Boolean.valueOf(isValid(mc));
+               }
+               finally
+               {
+                  SecurityActions.setThreadContextClassLoader(old);
                }
             }
-            catch (SQLException se)
-            {
+         }));
+      }
+
+      // Each thread validates its share of the connections in sequence
+      int rounds = (candidates.size() + ValidationExecutor.THREADS - 1) / ValidationExecutor.THREADS;
+      long deadline = System.currentTimeMillis() + ValidationExecutor.TIMEOUT * rounds;
+      boolean interrupted = false;
+
+      for (int i = 0; i < tasks.size(); i++)
+      {
+         ValidationExecutor.Task task = tasks.get(i);
+         BaseWrapperManagedConnection mc = candidates.get(i);
+
+         if (interrupted)
+         {
+            // Connections that weren't checked are treated as valid
+            cancelValidation(task, mc);
+            continue;
+         }
+
+         try
+         {
+            long timeout = Math.max(deadline - System.currentTimeMillis(), 0L);
+
+            if (!task.get(timeout).booleanValue())
                invalid.add(mc);
-            }
+         }
+         catch (TimeoutException te)
+         {
+            log.validationTimeout(ValidationExecutor.TIMEOUT, mc.toString());
+            cancelValidation(task, mc);
+            invalid.add(mc);
+         }
+         catch (ExecutionException ee)
+         {
+            invalid.add(mc);
+         }
+         catch (InterruptedException ie)
+         {
+            interrupted = true;
+            cancelValidation(task, mc);
          }
       }
 
+      if (interrupted)
+         Thread.currentThread().interrupt();
+
       return invalid;
    }
 
+   /**
+    * Cancel a validation, and wait until it isn't running anymore, such that the connection
+    * isn't destroyed, or handed out, while the validation is still using it
+    * @param task The validation task
+    * @param mc The connection
+    */
+   private void cancelValidation(ValidationExecutor.Task task, BaseWrapperManagedConnection mc)
+   {
+      if (task.cancel())
+         return;
+
+      boolean interrupted = false;
+      long waited = 0L;
+
+      while (true)
+      {
+         try
+         {
+            if (task.await(ValidationExecutor.TIMEOUT))
+               break;
+
+            waited += ValidationExecutor.TIMEOUT;
+            log.validationHang(waited, mc.toString());
+         }
+         catch (InterruptedException ie)
+         {
+            interrupted = true;
+         }
+      }
+
+      if (interrupted)
+         Thread.currentThread().interrupt();
+   }
+
+   /**
+    * Get the executor used to validate the connections of this factory in parallel
+    * @return The value
+    */
+   private synchronized ValidationExecutor getValidationExecutor()
+   {
+      if (validationExecutor == null)
+         validationExecutor = new ValidationExecutor();
+
+      return validationExecutor;
+   }
+
+   /**
+    * Is the connection valid
+    * @param mc The connection
+    * @return <code>True</code> if valid; otherwise <code>false</code>
+    */
+   private boolean isValid(BaseWrapperManagedConnection mc)
+   {
+      Connection c = null;
+      try
+      {
+         mc.checkTransaction(); // this prevents connection validator from opening a transaction (JBJCA-1338)
+         c = mc.getRealConnection();
+         SQLException e = isValidConnection(c);
+
+         if (e != null && poolValidationLoggingEnabled)
+         {
+            log.invalidConnection(c.toString(), e);
+            return false;
+         }
+      }
+      catch (SQLException se)
+      {
+         return false;
+      }
+
+      return true;
+   }
+
 
    /**
     * Gets full set of connection properties, i.e. whatever is provided
@@ -25,6 +25,7 @@ package org.jboss.jca.adapters.jdbc;
 import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
 import org.jboss.jca.adapters.jdbc.util.Cache;
 import org.jboss.jca.adapters.jdbc.util.CacheListener;
+import org.jboss.jca.adapters.jdbc.util.ClockCache;
 import org.jboss.jca.adapters.jdbc.util.LRUCache;
 
 import java.sql.ResultSet;
@@ -41,9 +42,19 @@ import org.jboss.logging.Logger;
 @SuppressWarnings("unchecked")
 public class PreparedStatementCache implements CacheListener<CachedPreparedStatement>
 {
+   /** LRU cache */
+   public static final String LRU = "lru";
+
+   /** Concurrent cache using an approximate LRU policy */
+   public static final String CONCURRENT = "concurrent";
+
    private final Logger log = Logger.getLogger(getClass());
 
-   private Cache<Key, CachedPreparedStatement> cache;
+   /**
+    * The cache; a prepared statement with the default result set type and concurrency
+    * is keyed by its SQL string, everything else by a {@link Key}
+    */
+   private Cache<Object, CachedPreparedStatement> cache;
    private JdbcStatisticsPlugin statistics;
 
    /**
@@ -178,7 +189,25 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
     */
    public PreparedStatementCache(int max, JdbcStatisticsPlugin stats)
    {
-      this.cache = new LRUCache<Key, CachedPreparedStatement>(max);
+      this(max, LRU, stats);
+   }
+
+   /**
+    * Constructor
+    * @param max The max value
+    * @param type The type of the cache; <code>null</code> for the default
+    * @param stats The statistics plugin
+    */
+   public PreparedStatementCache(int max, String type, JdbcStatisticsPlugin stats)
+   {
+      if (CONCURRENT.equalsIgnoreCase(type))
+      {
+         this.cache = new ClockCache<Object, CachedPreparedStatement>(max);
+      }
+      else
+      {
+         this.cache = new LRUCache<Object, CachedPreparedStatement>(max);
+      }
       this.cache.setListener(this);
       this.statistics = stats;
    }
@@ -190,7 +219,20 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
     */
    public CachedPreparedStatement get(Key key)
    {
-      return cache.get(key);
+      return cache.get(toCacheKey(key.sql, key.type, key.resultSetType, key.resultSetConcurrency));
+   }
+
+   /**
+    * Get
+    * @param sql The SQL string
+    * @param type The type
+    * @param resultSetType The result set type
+    * @param resultSetConcurrency The result set concurrency
+    * @return The value
+    */
+   public CachedPreparedStatement get(String sql, int type, int resultSetType, int resultSetConcurrency)
+   {
+      return cache.get(toCacheKey(sql, type, resultSetType, resultSetConcurrency));
    }
 
    /**
@@ -200,7 +242,20 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
     */
    public void put(Key key, CachedPreparedStatement value)
    {
-      cache.insert(key, value);
+      cache.insert(toCacheKey(key.sql, key.type, key.resultSetType, key.resultSetConcurrency), value);
+   }
+
+   /**
+    * Put
+    * @param sql The SQL string
+    * @param type The type
+    * @param resultSetType The result set type
+    * @param resultSetConcurrency The result set concurrency
+    * @param value The value
+    */
+   public void put(String sql, int type, int resultSetType, int resultSetConcurrency, CachedPreparedStatement value)
+   {
+      cache.insert(toCacheKey(sql, type, resultSetType, resultSetConcurrency), value);
    }
 
    /**
@@ -212,6 +267,25 @@ public class PreparedStatementCache implements CacheListener<CachedPreparedState
       return cache.size();
    }
 
+   /**
+    * Get the key used in the cache. The common case of a prepared statement with
+    * the default result set type and concurrency uses the SQL string itself, so the
+    * lookup doesn't allocate
+    * @param sql The SQL string
+    * @param type The type
+    * @param resultSetType The result set type
+    * @param resultSetConcurrency The result set concurrency
+    * @return The key
+    */
+   private static Object toCacheKey(String sql, int type, int resultSetType, int resultSetConcurrency)
+   {
+      if (sql != null && type == Key.PREPARED_STATEMENT &&
+          resultSetType == ResultSet.TYPE_FORWARD_ONLY && resultSetConcurrency == ResultSet.CONCUR_READ_ONLY)
+         return sql;
+
+      return new Key(sql, type, resultSetType, resultSetConcurrency);
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -0,0 +1,242 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The bounded executor used to validate the connections of a managed connection factory in parallel.
+ * Each factory has its own executor, such that a hanging validation of one datasource doesn't
+ * delay the validation of the others.
+ *
+ * Parallel validation is opt-in. The number of threads is controlled by
+ * <code>ironjacamar.jdbc.validation.threads</code> (default 1, which disables parallel validation),
+ * and the time a single connection validation may take by <code>ironjacamar.jdbc.validation.timeout</code>
+ * in milliseconds (default 30000). The threads are only kept while validations are running.
+ * A validation that times out isn't interrupted, as the thread is inside a driver call.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+final class ValidationExecutor
+{
+   /** The number of threads */
+   static final int THREADS;
+
+   /** The timeout for a single validation in milliseconds */
+   static final long TIMEOUT;
+
+   /** Thread name */
+   private static final String THREAD_NAME = "IronJacamar JDBC validation";
+
+   /** The executor counter */
+   private static final AtomicInteger EXECUTORS = new AtomicInteger();
+
+   static
+   {
+      THREADS = (int)Math.max(1L, getProperty("ironjacamar.jdbc.validation.threads", 1L));
+      TIMEOUT = getProperty("ironjacamar.jdbc.validation.timeout", 30000L);
+   }
+
+   /** The executor */
+   private final ThreadPoolExecutor executor;
+
+   /**
+    * Constructor
+    */
+   ValidationExecutor()
+   {
+      executor = new ThreadPoolExecutor(THREADS, THREADS, 60L, TimeUnit.SECONDS,
+                                        new LinkedBlockingQueue<Runnable>(),
+                                        new ValidationThreadFactory(EXECUTORS.incrementAndGet()));
+      executor.allowCoreThreadTimeOut(true);
+   }
+
+   /**
+    * Is parallel validation enabled
+    * @return <code>True</code> if enabled; otherwise <code>false</code>
+    */
+   static boolean isEnabled()
+   {
+      return THREADS > 1;
+   }
+
+   /**
+    * Submit a validation
+    * @param validation The validation
+    * @return The task
+    */
+   Task submit(Callable<Boolean> validation)
+   {
+      Task task = new Task(validation);
+      task.future = executor.submit(task);
+      return task;
+   }
+
+   /**
+    * Get a numeric system property
+    * @param name The name
+    * @param def The default value
+    * @return The value
+    */
+   private static long getProperty(String name, long def)
+   {
+      String value = SecurityActions.getSystemProperty(name);
+
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            return Long.parseLong(value.trim());
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use default
+         }
+      }
+
+      return def;
+   }
+
+   /**
+    * A submitted validation, which can be cancelled and waited for, such that the
+    * connection isn't destroyed while it is still being validated
+    */
+   static final class Task implements Callable<Boolean>
+   {
+      /** The validation */
+      private final Callable<Boolean> validation;
+
+      /** Has the validation been started, or cancelled before it was started */
+      private final AtomicBoolean started = new AtomicBoolean();
+
+      /** Signalled when a started validation is done */
+      private final CountDownLatch done = new CountDownLatch(1);
+
+      /** The future */
+      private Future<Boolean> future;
+
+      /**
+       * Constructor
+       * @param validation The validation
+       */
+      private Task(Callable<Boolean> validation)
+      {
+         this.validation = validation;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Boolean call() throws Exception
+      {
+         if (!started.compareAndSet(false, true))
+            return Boolean.FALSE;
+
+         try
+         {
+            return validation.call();
+         }
+         finally
+         {
+            done.countDown();
+         }
+      }
+
+      /**
+       * Get the result of the validation
+       * @param timeout The timeout in milliseconds
+       * @return The value
+       * @exception InterruptedException Thrown if interrupted while waiting
+       * @exception ExecutionException Thrown if the validation failed
+       * @exception TimeoutException Thrown if the validation didn't finish in time
+       */
+      Boolean get(long timeout) throws InterruptedException, ExecutionException, TimeoutException
+      {
+         return future.get(timeout, TimeUnit.MILLISECONDS);
+      }
+
+      /**
+       * Cancel the validation; a running validation isn't interrupted, since the thread
+       * may be inside a driver call, but has to be waited for
+       * @return <code>True</code> if the validation isn't running anymore; otherwise <code>false</code>
+       */
+      boolean cancel()
+      {
+         future.cancel(false);
+
+         return started.compareAndSet(false, true) || done.getCount() == 0;
+      }
+
+      /**
+       * Wait for a started validation to finish
+       * @param timeout The timeout in milliseconds
+       * @return <code>True</code> if finished; otherwise <code>false</code>
+       * @exception InterruptedException Thrown if interrupted while waiting
+       */
+      boolean await(long timeout) throws InterruptedException
+      {
+         return done.await(timeout, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /**
+    * Creates daemon threads for the validation
+    */
+   private static class ValidationThreadFactory implements ThreadFactory
+   {
+      /** The executor number */
+      private final int executor;
+
+      /** The thread counter */
+      private final AtomicInteger counter = new AtomicInteger();
+
+      /**
+       * Constructor
+       * @param executor The executor number
+       */
+      ValidationThreadFactory(int executor)
+      {
+         this.executor = executor;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, THREAD_NAME + "-" + executor + "-" + counter.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+}
@@ -175,6 +175,7 @@ public class LocalManagedConnection extends BaseWrapperManagedConnection impleme
                   {
                      underlyingAutoCommit = false;
                      con.setAutoCommit(false);
+                     markDirty(DIRTY_AUTO_COMMIT);
                   }
                   checkState();
                   inManagedTransaction = true;
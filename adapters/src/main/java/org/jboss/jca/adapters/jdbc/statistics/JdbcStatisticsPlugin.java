@@ -32,7 +32,7 @@ import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * JDBC statistics.
@@ -51,11 +51,11 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    private static final String PREPARED_STATEMENT_CACHE_HIT_COUNT = "PreparedStatementCacheHitCount";
    private static final String PREPARED_STATEMENT_CACHE_MISS_COUNT = "PreparedStatementCacheMissCount";
 
-   private AtomicLong preparedStatementCacheAccessCount;
-   private AtomicLong preparedStatementCacheAddCount;
-   private AtomicLong preparedStatementCacheDeleteCount;
-   private AtomicLong preparedStatementCacheHitCount;
-   private AtomicLong preparedStatementCacheMissCount;
+   private LongAdder preparedStatementCacheAccessCount;
+   private LongAdder preparedStatementCacheAddCount;
+   private LongAdder preparedStatementCacheDeleteCount;
+   private LongAdder preparedStatementCacheHitCount;
+   private LongAdder preparedStatementCacheMissCount;
 
    private Set<String> names;
    private Map<String, Class> types;
@@ -99,11 +99,11 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
       this.rbs = new HashMap<Locale, ResourceBundle>(1);
       this.rbs.put(Locale.US, defaultResourceBundle);
 
-      this.preparedStatementCacheAccessCount = new AtomicLong(0);
-      this.preparedStatementCacheAddCount = new AtomicLong(0);
-      this.preparedStatementCacheDeleteCount = new AtomicLong(0);
-      this.preparedStatementCacheHitCount = new AtomicLong(0);
-      this.preparedStatementCacheMissCount = new AtomicLong(0);
+      this.preparedStatementCacheAccessCount = new LongAdder();
+      this.preparedStatementCacheAddCount = new LongAdder();
+      this.preparedStatementCacheDeleteCount = new LongAdder();
+      this.preparedStatementCacheHitCount = new LongAdder();
+      this.preparedStatementCacheMissCount = new LongAdder();
 
       this.psCaches = Collections.synchronizedSet(new HashSet<PreparedStatementCache>());
 
@@ -234,7 +234,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public long getPreparedStatementCacheAccessCount()
    {
       if (isEnabled())
-         return preparedStatementCacheAccessCount.get();
+         return preparedStatementCacheAccessCount.sum();
 
       return 0;
    }
@@ -245,7 +245,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public void deltaPreparedStatementCacheAccessCount()
    {
       if (isEnabled())
-         preparedStatementCacheAccessCount.incrementAndGet();
+         preparedStatementCacheAccessCount.increment();
    }
 
    /**
@@ -255,7 +255,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public long getPreparedStatementCacheAddCount()
    {
       if (isEnabled())
-         return preparedStatementCacheAddCount.get();
+         return preparedStatementCacheAddCount.sum();
 
       return 0;
    }
@@ -266,7 +266,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public void deltaPreparedStatementCacheAddCount()
    {
       if (isEnabled())
-         preparedStatementCacheAddCount.incrementAndGet();
+         preparedStatementCacheAddCount.increment();
    }
 
    /**
@@ -298,7 +298,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public long getPreparedStatementCacheDeleteCount()
    {
       if (isEnabled())
-         return preparedStatementCacheDeleteCount.get();
+         return preparedStatementCacheDeleteCount.sum();
 
       return 0;
    }
@@ -309,7 +309,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public void deltaPreparedStatementCacheDeleteCount()
    {
       if (isEnabled())
-         preparedStatementCacheDeleteCount.incrementAndGet();
+         preparedStatementCacheDeleteCount.increment();
    }
 
    /**
@@ -319,7 +319,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public long getPreparedStatementCacheHitCount()
    {
       if (isEnabled())
-         return preparedStatementCacheHitCount.get();
+         return preparedStatementCacheHitCount.sum();
 
       return 0;
    }
@@ -330,7 +330,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public void deltaPreparedStatementCacheHitCount()
    {
       if (isEnabled())
-         preparedStatementCacheHitCount.incrementAndGet();
+         preparedStatementCacheHitCount.increment();
    }
 
    /**
@@ -340,7 +340,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public long getPreparedStatementCacheMissCount()
    {
       if (isEnabled())
-         return preparedStatementCacheMissCount.get();
+         return preparedStatementCacheMissCount.sum();
 
       return 0;
    }
@@ -351,7 +351,7 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    public void deltaPreparedStatementCacheMissCount()
    {
       if (isEnabled())
-         preparedStatementCacheMissCount.incrementAndGet();
+         preparedStatementCacheMissCount.increment();
    }
 
    /**
@@ -361,11 +361,11 @@ public class JdbcStatisticsPlugin implements StatisticsPlugin
    {
       if (isEnabled())
       {
-         preparedStatementCacheAccessCount.set(0);
-         preparedStatementCacheAddCount.set(0);
-         preparedStatementCacheDeleteCount.set(0);
-         preparedStatementCacheHitCount.set(0);
-         preparedStatementCacheMissCount.set(0);
+         preparedStatementCacheAccessCount.reset();
+         preparedStatementCacheAddCount.reset();
+         preparedStatementCacheDeleteCount.reset();
+         preparedStatementCacheHitCount.reset();
+         preparedStatementCacheMissCount.reset();
       }
    }
 }
@@ -0,0 +1,268 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of an approximate Least Recently Used cache policy using the CLOCK algorithm.
+ *
+ * A lookup only marks the entry as referenced, so readers never lock or reorder a list.
+ * When the cache is full the entries are visited in insertion order; a referenced entry
+ * gets a second chance, and the first entry that hasn't been referenced since the last
+ * visit is evicted.
+ *
+ * @param <K> The key
+ * @param <V> The value
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ClockCache<K, V> implements Cache<K, V>
+{
+   /** The map holding the cached objects */
+   private final ConcurrentMap<K, ClockCacheEntry<K, V>> map;
+
+   /** The clock */
+   private final Queue<ClockCacheEntry<K, V>> clock;
+
+   /** The number of cached objects */
+   private final AtomicInteger count;
+
+   /** The maximum capacity of this cache */
+   private final int maxCapacity;
+
+   /** The listener */
+   private volatile CacheListener<V> listener;
+
+   /**
+    * Creates a CLOCK cache
+    * @param max The maximum number of entries
+    */
+   public ClockCache(int max)
+   {
+      if (max < 1)
+         throw new IllegalArgumentException("Can't work with capacity < 1");
+
+      this.map = new ConcurrentHashMap<K, ClockCacheEntry<K, V>>();
+      this.clock = new ConcurrentLinkedQueue<ClockCacheEntry<K, V>>();
+      this.count = new AtomicInteger(0);
+      this.maxCapacity = max;
+      this.listener = null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public V get(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Requesting an object using a null key");
+
+      ClockCacheEntry<K, V> entry = map.get(key);
+      if (entry == null)
+         return null;
+
+      // Only write when needed, so hot entries don't bounce their cache line between readers
+      if (!entry.referenced)
+         entry.referenced = true;
+
+      return entry.value;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public V peek(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Requesting an object using a null key");
+
+      ClockCacheEntry<K, V> entry = map.get(key);
+      return entry != null ? entry.value : null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void insert(K key, V o)
+   {
+      if (o == null)
+         throw new IllegalArgumentException("Cannot insert a null object in the cache");
+
+      if (key == null)
+         throw new IllegalArgumentException("Cannot insert an object in the cache with null key");
+
+      ClockCacheEntry<K, V> entry = new ClockCacheEntry<K, V>(key, o);
+      if (map.putIfAbsent(key, entry) != null)
+         throw new IllegalStateException("Attempt to put in the cache an object that is already there");
+
+      // Evict before the new entry is on the clock, so it isn't the victim itself
+      if (count.incrementAndGet() > maxCapacity)
+         evict();
+
+      clock.offer(entry);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void remove(K key)
+   {
+      if (key == null)
+         throw new IllegalArgumentException("Removing an object using a null key");
+
+      ClockCacheEntry<K, V> entry = map.remove(key);
+      if (entry != null)
+      {
+         clock.remove(entry);
+         count.decrementAndGet();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void flush()
+   {
+      ClockCacheEntry<K, V> entry = null;
+      while ((entry = clock.poll()) != null)
+      {
+         ageOut(entry);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int size()
+   {
+      return count.get();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setListener(CacheListener<V> listener)
+   {
+      this.listener = listener;
+   }
+
+   /**
+    * Evict the first entry which hasn't been referenced since the hand passed it
+    */
+   private void evict()
+   {
+      // Each entry is passed at most twice before an unreferenced one is found
+      int attempts = 2 * maxCapacity + 1;
+      ClockCacheEntry<K, V> entry = null;
+
+      while (attempts-- > 0 && (entry = clock.poll()) != null)
+      {
+         if (entry.referenced)
+         {
+            entry.referenced = false;
+            clock.offer(entry);
+         }
+         else if (ageOut(entry))
+         {
+            return;
+         }
+      }
+   }
+
+   /**
+    * Remove an entry from the cache, and notify the listener
+    * @param entry The entry, which has been taken off the clock
+    * @return True if the entry was removed, false if it already was
+    */
+   private boolean ageOut(ClockCacheEntry<K, V> entry)
+   {
+      if (!map.remove(entry.key, entry))
+         return false;
+
+      count.decrementAndGet();
+
+      CacheListener<V> l = listener;
+      if (l != null)
+         l.onEviction(entry.value);
+
+      return true;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder(Integer.toHexString(super.hashCode()));
+      sb.append(" size: ").append(count.get());
+      for (ClockCacheEntry<K, V> entry : clock)
+      {
+         sb.append("\n").append(entry);
+      }
+      return sb.toString();
+   }
+
+   /**
+    * An entry in the cache
+    * @param <K> The key
+    * @param <V> The value
+    */
+   private static class ClockCacheEntry<K, V>
+   {
+      /** The key used to retrieve the cached object */
+      private final K key;
+
+      /** The cached object */
+      private final V value;
+
+      /** Has the entry been referenced since the hand passed it */
+      private volatile boolean referenced;
+
+      /**
+       * Constructor
+       * @param key The key
+       * @param value The value
+       */
+      ClockCacheEntry(K key, V value)
+      {
+         this.key = key;
+         this.value = value;
+         this.referenced = false;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public String toString()
+      {
+         return "key: " + key + ", object: " + Integer.toHexString(value.hashCode()) +
+            ", referenced: " + referenced;
+      }
+   }
+}
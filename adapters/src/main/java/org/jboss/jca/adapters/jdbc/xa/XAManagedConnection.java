@@ -113,6 +113,7 @@ public class XAManagedConnection extends BaseWrapperManagedConnection implements
                   {
                      underlyingAutoCommit = false;
                      con.setAutoCommit(false);
+                     markDirty(DIRTY_AUTO_COMMIT);
                   }
                   checkState();
                   inManagedTransaction = true;
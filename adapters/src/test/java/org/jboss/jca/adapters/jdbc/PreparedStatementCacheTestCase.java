@@ -0,0 +1,184 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc;
+
+import org.jboss.jca.adapters.jdbc.jdk8.CachedPreparedStatementJDK8;
+import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * PreparedStatementCache tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PreparedStatementCacheTestCase
+{
+   /**
+    * The concurrent cache closes an evicted prepared statement that isn't in use
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testConcurrentEvictionClosesStatement() throws Exception
+   {
+      testEvictionClosesStatement(PreparedStatementCache.CONCURRENT);
+   }
+
+   /**
+    * The LRU cache closes an evicted prepared statement that isn't in use
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testLRUEvictionClosesStatement() throws Exception
+   {
+      testEvictionClosesStatement(PreparedStatementCache.LRU);
+   }
+
+   /**
+    * An evicted prepared statement that is in use is closed when it is returned
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testEvictionInUse() throws Exception
+   {
+      JdbcStatisticsPlugin statistics = new JdbcStatisticsPlugin();
+      PreparedStatementCache cache = new PreparedStatementCache(1, PreparedStatementCache.CONCURRENT, statistics);
+
+      StatementHandler h1 = new StatementHandler();
+      CachedPreparedStatement cps1 = new CachedPreparedStatementJDK8(h1.create());
+      put(cache, "SELECT 1", cps1);
+
+      put(cache, "SELECT 2", new CachedPreparedStatementJDK8(new StatementHandler().create()));
+
+      Assert.assertFalse(h1.closed);
+      Assert.assertEquals(1L, statistics.getPreparedStatementCacheDeleteCount());
+
+      cps1.close();
+      Assert.assertTrue(h1.closed);
+   }
+
+   /**
+    * Evict a statement, and verify that it is closed
+    * @param type The cache type
+    * @exception Exception Thrown in case of an error
+    */
+   private void testEvictionClosesStatement(String type) throws Exception
+   {
+      JdbcStatisticsPlugin statistics = new JdbcStatisticsPlugin();
+      PreparedStatementCache cache = new PreparedStatementCache(1, type, statistics);
+
+      StatementHandler h1 = new StatementHandler();
+      CachedPreparedStatement cps1 = new CachedPreparedStatementJDK8(h1.create());
+      put(cache, "SELECT 1", cps1);
+      cps1.close();
+
+      Assert.assertFalse(h1.closed);
+      Assert.assertSame(cps1, cache.get("SELECT 1", PreparedStatementCache.Key.PREPARED_STATEMENT,
+                                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+
+      StatementHandler h2 = new StatementHandler();
+      put(cache, "SELECT 2", new CachedPreparedStatementJDK8(h2.create()));
+
+      Assert.assertTrue(h1.closed);
+      Assert.assertFalse(h2.closed);
+      Assert.assertEquals(1, cache.size());
+      Assert.assertEquals(1L, statistics.getPreparedStatementCacheDeleteCount());
+   }
+
+   /**
+    * Put a prepared statement with the default result set type and concurrency
+    * @param cache The cache
+    * @param sql The SQL string
+    * @param cps The statement
+    */
+   private static void put(PreparedStatementCache cache, String sql, CachedPreparedStatement cps)
+   {
+      cache.put(sql, PreparedStatementCache.Key.PREPARED_STATEMENT,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, cps);
+   }
+
+   /**
+    * A prepared statement that records whether it was closed
+    */
+   static class StatementHandler implements InvocationHandler
+   {
+      /** Closed */
+      volatile boolean closed;
+
+      /**
+       * Create the statement
+       * @return The value
+       */
+      PreparedStatement create()
+      {
+         return (PreparedStatement)Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                          new Class<?>[] {PreparedStatement.class}, this);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Object invoke(Object proxy, Method method, Object[] args)
+      {
+         String name = method.getName();
+
+         if ("close".equals(name))
+         {
+            closed = true;
+            return null;
+         }
+         else if ("isClosed".equals(name))
+         {
+            return Boolean.valueOf(closed);
+         }
+         else if ("hashCode".equals(name))
+         {
+            return Integer.valueOf(System.identityHashCode(proxy));
+         }
+         else if ("equals".equals(name))
+         {
+            return Boolean.valueOf(proxy == args[0]);
+         }
+         else if ("toString".equals(name))
+         {
+            return "PreparedStatement@" + Integer.toHexString(System.identityHashCode(proxy));
+         }
+         else if (method.getReturnType() == int.class)
+         {
+            return Integer.valueOf(0);
+         }
+         else if (method.getReturnType() == boolean.class)
+         {
+            return Boolean.FALSE;
+         }
+
+         return null;
+      }
+   }
+}
@@ -0,0 +1,198 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.adapters.jdbc;
+
+import org.jboss.jca.adapters.jdbc.local.LocalManagedConnectionFactory;
+import org.jboss.jca.adapters.jdbc.local.testimpl.MockConnection;
+import org.jboss.jca.adapters.jdbc.local.testimpl.MockDriver;
+
+import java.sql.Connection;
+
+import javax.resource.spi.LocalTransaction;
+import javax.resource.spi.security.PasswordCredential;
+import javax.security.auth.Subject;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Connection state change elision tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class StateChangeTestCase
+{
+   private LocalManagedConnectionFactory mcf;
+   private Subject subject;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setup()
+   {
+      mcf = new LocalManagedConnectionFactory();
+      mcf.setDriverClass(MockDriver.class.getName());
+
+      subject = new Subject();
+      PasswordCredential pc = new PasswordCredential("test", "test".toCharArray());
+      pc.setManagedConnectionFactory(mcf);
+      subject.getPrivateCredentials().add(pc);
+
+      MockConnection.reset();
+   }
+
+   /**
+    * Teardown
+    */
+   @After
+   public void teardown()
+   {
+      BaseWrapperManagedConnection.lazyReset = false;
+   }
+
+   /**
+    * Setting a state to its current value doesn't reach the driver
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testUnchanged() throws Exception
+   {
+      BaseWrapperManagedConnection mc = createManagedConnection();
+      int before = MockConnection.getStateChanges();
+
+      mc.setJdbcAutoCommit(true);
+      mc.setJdbcReadOnly(false);
+      mc.setJdbcTransactionIsolation(mc.getJdbcTransactionIsolation());
+      mc.checkTransaction();
+      mc.cleanup();
+      mc.checkTransaction();
+
+      Assert.assertEquals(0, mc.getDirty());
+      Assert.assertEquals(before, MockConnection.getStateChanges());
+   }
+
+   /**
+    * A changed state is applied once, on the next use
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testChanged() throws Exception
+   {
+      BaseWrapperManagedConnection mc = createManagedConnection();
+      int before = MockConnection.getStateChanges();
+
+      mc.setJdbcReadOnly(true);
+      mc.setJdbcReadOnly(false);
+      mc.setJdbcReadOnly(true);
+      Assert.assertEquals(before, MockConnection.getStateChanges());
+
+      mc.checkTransaction();
+      mc.checkTransaction();
+      Assert.assertEquals(before + 1, MockConnection.getStateChanges());
+      Assert.assertEquals(0, mc.getDirty());
+
+      mc.setJdbcTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+      mc.setJdbcTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+      Assert.assertEquals(before + 2, MockConnection.getStateChanges());
+   }
+
+   /**
+    * The auto-commit state is reset when the connection is returned
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testEagerReset() throws Exception
+   {
+      BaseWrapperManagedConnection mc = createManagedConnection();
+      int before = MockConnection.getStateChanges();
+
+      LocalTransaction lt = mc.getLocalTransaction();
+      lt.begin();
+      lt.commit();
+      Assert.assertEquals(before + 1, MockConnection.getStateChanges());
+
+      mc.cleanup();
+      Assert.assertEquals(before + 2, MockConnection.getStateChanges());
+
+      mc.checkTransaction();
+      Assert.assertEquals(before + 2, MockConnection.getStateChanges());
+   }
+
+   /**
+    * The auto-commit state is reset on the next use in lazy mode, or not at all
+    * when the next user starts a transaction
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testLazyReset() throws Exception
+   {
+      BaseWrapperManagedConnection.lazyReset = true;
+
+      BaseWrapperManagedConnection mc = createManagedConnection();
+      int before = MockConnection.getStateChanges();
+
+      LocalTransaction lt = mc.getLocalTransaction();
+      lt.begin();
+      lt.commit();
+      mc.cleanup();
+      Assert.assertEquals(before + 1, MockConnection.getStateChanges());
+      Assert.assertTrue(mc.isJdbcAutoCommit());
+
+      lt.begin();
+      lt.commit();
+      mc.cleanup();
+      Assert.assertEquals(before + 1, MockConnection.getStateChanges());
+
+      mc.checkTransaction();
+      Assert.assertEquals(before + 2, MockConnection.getStateChanges());
+      Assert.assertEquals(0, mc.getDirty());
+   }
+
+   /**
+    * An application turning off auto-commit is always reset eagerly
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testLazyResetApplicationAutoCommit() throws Exception
+   {
+      BaseWrapperManagedConnection.lazyReset = true;
+
+      BaseWrapperManagedConnection mc = createManagedConnection();
+      int before = MockConnection.getStateChanges();
+
+      mc.setJdbcAutoCommit(false);
+      mc.checkTransaction();
+      Assert.assertEquals(before + 1, MockConnection.getStateChanges());
+
+      mc.cleanup();
+      Assert.assertEquals(before + 2, MockConnection.getStateChanges());
+   }
+
+   private BaseWrapperManagedConnection createManagedConnection() throws Exception
+   {
+      return (BaseWrapperManagedConnection)mcf.createManagedConnection(subject, null);
+   }
+}
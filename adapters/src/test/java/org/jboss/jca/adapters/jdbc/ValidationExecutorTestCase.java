@@ -0,0 +1,153 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Parallel validation executor tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ValidationExecutorTestCase
+{
+   /**
+    * A running validation isn't interrupted when it is cancelled, and can be waited for
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testCancelRunning() throws Exception
+   {
+      ValidationExecutor executor = new ValidationExecutor();
+      final CountDownLatch running = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicBoolean interrupted = new AtomicBoolean();
+
+      ValidationExecutor.Task task = executor.submit(new Callable<Boolean>()
+      {
+         public Boolean call() throws Exception
+         {
+            running.countDown();
+
+            try
+            {
+               release.await();
+               return Boolean.TRUE;
+            }
+            catch (InterruptedException ie)
+            {
+               interrupted.set(true);
+               throw ie;
+            }
+         }
+      });
+
+      Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+      try
+      {
+         task.get(10L);
+         Assert.fail("Validation should time out");
+      }
+      catch (TimeoutException te)
+      {
+         // Expected
+      }
+
+      Assert.assertFalse(task.cancel());
+      Assert.assertFalse(task.await(50L));
+
+      release.countDown();
+      Assert.assertTrue(task.await(5000L));
+      Assert.assertFalse(interrupted.get());
+   }
+
+   /**
+    * Parallel validation is opt-in
+    */
+   @Test
+   public void testDefault()
+   {
+      if (System.getProperty("ironjacamar.jdbc.validation.threads") == null)
+      {
+         Assert.assertEquals(1, ValidationExecutor.THREADS);
+         Assert.assertFalse(ValidationExecutor.isEnabled());
+      }
+   }
+
+   /**
+    * A validation cancelled before it was started is never run
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testCancelQueued() throws Exception
+   {
+      ValidationExecutor executor = new ValidationExecutor();
+      final CountDownLatch running = new CountDownLatch(ValidationExecutor.THREADS);
+      final CountDownLatch release = new CountDownLatch(1);
+      List<ValidationExecutor.Task> busy = new ArrayList<ValidationExecutor.Task>();
+
+      for (int i = 0; i < ValidationExecutor.THREADS; i++)
+      {
+         busy.add(executor.submit(new Callable<Boolean>()
+         {
+            public Boolean call() throws Exception
+            {
+               running.countDown();
+               release.await();
+               return Boolean.TRUE;
+            }
+         }));
+      }
+
+      Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+      final AtomicBoolean run = new AtomicBoolean();
+      ValidationExecutor.Task queued = executor.submit(new Callable<Boolean>()
+      {
+         public Boolean call() throws Exception
+         {
+            run.set(true);
+            return Boolean.TRUE;
+         }
+      });
+
+      Assert.assertTrue(queued.cancel());
+
+      release.countDown();
+      for (ValidationExecutor.Task task : busy)
+      {
+         Assert.assertTrue(task.get(5000L).booleanValue());
+      }
+
+      Assert.assertFalse(run.get());
+   }
+}
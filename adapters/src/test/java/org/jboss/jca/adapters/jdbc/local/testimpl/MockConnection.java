@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class MockConnection implements Connection {
 	
@@ -61,6 +62,13 @@ public class MockConnection implements Connection {
 	
 	public static void reset() {
 		badUrls = new HashSet<>();
+		stateChanges.set(0);
+	}
+
+	private static AtomicInteger stateChanges = new AtomicInteger();
+
+	public static int getStateChanges() {
+		return stateChanges.get();
 	}
 
 	public static Connection create(String url) {
@@ -109,8 +117,7 @@ public class MockConnection implements Connection {
 
 	@Override
 	public void setAutoCommit(boolean autoCommit) throws SQLException {
-		// TODO Auto-generated method stub
-		
+		stateChanges.incrementAndGet();
 	}
 
 	@Override
@@ -151,8 +158,7 @@ public class MockConnection implements Connection {
 
 	@Override
 	public void setReadOnly(boolean readOnly) throws SQLException {
-		// TODO Auto-generated method stub
-		
+		stateChanges.incrementAndGet();
 	}
 
 	@Override
@@ -175,8 +181,7 @@ public class MockConnection implements Connection {
 
 	@Override
 	public void setTransactionIsolation(int level) throws SQLException {
-		// TODO Auto-generated method stub
-		
+		stateChanges.incrementAndGet();
 	}
 
 	@Override
@@ -0,0 +1,187 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.adapters.jdbc.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ClockCache tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ClockCacheTestCase
+{
+   private ClockCache<String, String> cache;
+   private List<String> evicted;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setup()
+   {
+      cache = new ClockCache<String, String>(3);
+      evicted = new ArrayList<String>();
+      cache.setListener(new CacheListener<String>()
+      {
+         public void onEviction(String value)
+         {
+            evicted.add(value);
+         }
+      });
+   }
+
+   /**
+    * Entries that haven't been referenced are evicted in insertion order
+    */
+   @Test
+   public void testEvictionOrder()
+   {
+      cache.insert("a", "A");
+      cache.insert("b", "B");
+      cache.insert("c", "C");
+      Assert.assertTrue(evicted.isEmpty());
+
+      cache.insert("d", "D");
+      cache.insert("e", "E");
+
+      Assert.assertEquals(Arrays.asList("A", "B"), evicted);
+      Assert.assertEquals(3, cache.size());
+      Assert.assertNull(cache.peek("a"));
+      Assert.assertNull(cache.peek("b"));
+      Assert.assertEquals("C", cache.peek("c"));
+      Assert.assertEquals("D", cache.peek("d"));
+      Assert.assertEquals("E", cache.peek("e"));
+   }
+
+   /**
+    * A referenced entry gets a second chance, and loses its reference bit
+    * when the hand passes it
+    */
+   @Test
+   public void testSecondChance()
+   {
+      cache.insert("a", "A");
+      cache.insert("b", "B");
+      cache.insert("c", "C");
+
+      Assert.assertEquals("A", cache.get("a"));
+
+      cache.insert("d", "D");
+      Assert.assertEquals(Arrays.asList("B"), evicted);
+      Assert.assertEquals("A", cache.peek("a"));
+
+      // The hand cleared the bit of "a", which is now between "c" and "d"
+      cache.insert("e", "E");
+      cache.insert("f", "F");
+      cache.insert("g", "G");
+
+      Assert.assertEquals(Arrays.asList("B", "C", "A", "D"), evicted);
+   }
+
+   /**
+    * When all entries are referenced the hand clears every bit, and evicts the oldest entry
+    * instead of the one being inserted
+    */
+   @Test
+   public void testAllReferenced()
+   {
+      cache.insert("a", "A");
+      cache.insert("b", "B");
+      cache.insert("c", "C");
+
+      cache.get("a");
+      cache.get("b");
+      cache.get("c");
+
+      cache.insert("d", "D");
+
+      Assert.assertEquals(Arrays.asList("A"), evicted);
+      Assert.assertEquals(3, cache.size());
+      Assert.assertEquals("D", cache.peek("d"));
+   }
+
+   /**
+    * A peek doesn't reference the entry
+    */
+   @Test
+   public void testPeek()
+   {
+      cache.insert("a", "A");
+      cache.insert("b", "B");
+      cache.insert("c", "C");
+
+      Assert.assertEquals("A", cache.peek("a"));
+
+      cache.insert("d", "D");
+
+      Assert.assertEquals(Arrays.asList("A"), evicted);
+   }
+
+   /**
+    * A removed entry isn't passed to the listener, and flush evicts all entries
+    */
+   @Test
+   public void testRemoveAndFlush()
+   {
+      cache.insert("a", "A");
+      cache.insert("b", "B");
+      cache.insert("c", "C");
+
+      cache.remove("b");
+      Assert.assertEquals(2, cache.size());
+      Assert.assertNull(cache.get("b"));
+      Assert.assertTrue(evicted.isEmpty());
+
+      cache.insert("d", "D");
+      Assert.assertTrue(evicted.isEmpty());
+
+      cache.flush();
+      Assert.assertEquals(Arrays.asList("A", "C", "D"), evicted);
+      Assert.assertEquals(0, cache.size());
+   }
+
+   /**
+    * The same key can't be inserted twice
+    */
+   @Test(expected = IllegalStateException.class)
+   public void testDuplicate()
+   {
+      cache.insert("a", "A");
+      cache.insert("a", "B");
+   }
+
+   /**
+    * The capacity must be positive
+    */
+   @Test(expected = IllegalArgumentException.class)
+   public void testCapacity()
+   {
+      new ClockCache<String, String>(0);
+   }
+}
@@ -26,7 +26,6 @@ import org.jboss.jca.Version;
 import org.jboss.jca.core.tracer.TraceEvent;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.util.ArrayList;
 import java.util.Date;
@@ -2155,7 +2154,6 @@ public class HTMLReport
       }
 
       File logFile = new File(args[argCount]);
-      FileReader logReader = null;
 
       String rootDirectory = "report";
       if (args.length > argCount + 1)
@@ -2165,10 +2163,9 @@ public class HTMLReport
 
       try
       {
-         logReader = new FileReader(logFile);
          root.mkdirs();
 
-         List<TraceEvent> events = TraceEventHelper.getEvents(logReader, root);
+         List<TraceEvent> events = TraceEventHelper.getEvents(logFile, root);
          Map<String, List<Interaction>> poolData =
             TraceEventHelper.getPoolData(TraceEventHelper.filterPoolEvents(events),
                                          ignoreDelist, ignoreTracking, ignoreIncomplete);
@@ -2573,19 +2570,5 @@ public class HTMLReport
       {
          e.printStackTrace();
       }
-      finally
-      {
-         if (logReader != null)
-         {
-            try
-            {
-               logReader.close();
-            }
-            catch (Exception e)
-            {
-               // Ignore
-            }
-         }
-      }
    }
 }
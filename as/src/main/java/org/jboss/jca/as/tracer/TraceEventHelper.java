@@ -23,6 +23,7 @@
 package org.jboss.jca.as.tracer;
 
 import org.jboss.jca.core.tracer.TraceEvent;
+import org.jboss.jca.core.tracer.TraceFile;
 
 import java.io.File;
 import java.io.FileReader;
@@ -31,7 +32,9 @@ import java.io.IOException;
 import java.io.LineNumberReader;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -336,6 +339,79 @@ public class TraceEventHelper
       return getEvents(getData(fr, directory));
    }
 
+   /**
+    * Get the events from a log file, a binary trace file or a directory of binary trace files
+    * @param file The file
+    * @param directory The directory
+    * @return The events
+    * @exception Exception If an error occurs
+    */
+   public static List<TraceEvent> getEvents(File file, File directory) throws Exception
+   {
+      File[] traceFiles = null;
+
+      if (file.isDirectory())
+      {
+         List<File> l = new ArrayList<File>();
+         File[] files = file.listFiles();
+         if (files != null)
+         {
+            for (File f : files)
+            {
+               if (TraceFile.isTraceFile(f))
+                  l.add(f);
+            }
+         }
+         traceFiles = l.toArray(new File[l.size()]);
+      }
+      else if (TraceFile.isTraceFile(file))
+      {
+         traceFiles = new File[] {file};
+      }
+
+      if (traceFiles == null)
+      {
+         FileReader fr = null;
+         try
+         {
+            fr = new FileReader(file);
+            return getEvents(fr, directory);
+         }
+         finally
+         {
+            if (fr != null)
+            {
+               try
+               {
+                  fr.close();
+               }
+               catch (IOException ignore)
+               {
+                  // Ignore
+               }
+            }
+         }
+      }
+
+      Arrays.sort(traceFiles, new Comparator<File>()
+      {
+         public int compare(File f1, File f2)
+         {
+            return f1.getName().compareTo(f2.getName());
+         }
+      });
+
+      List<TraceEvent> result = TraceFile.read(traceFiles);
+      List<String> data = new ArrayList<String>(result.size());
+      for (TraceEvent te : result)
+      {
+         data.add(te.toString());
+      }
+      writeRaw(data, directory);
+
+      return result;
+   }
+
    /**
     * Get status
     * @param input The input
@@ -1093,13 +1169,26 @@ public class TraceEventHelper
          s = r.readLine();
       }
 
+      writeRaw(result, directory);
+
+      return result;
+   }
+
+   /**
+    * Write the raw data
+    * @param data The data
+    * @param directory The directory
+    * @exception Exception If an error occurs
+    */
+   private static void writeRaw(List<String> data, File directory) throws Exception
+   {
       FileWriter fw = null;
       try
       {
          fw = new FileWriter(directory.getAbsolutePath() + "/" + "raw.txt");
-         for (String data : result)
+         for (String s : data)
          {
-            HTMLReport.writeString(fw, data);
+            HTMLReport.writeString(fw, s);
             HTMLReport.writeEOL(fw);
          }
       }
@@ -1118,9 +1207,6 @@ public class TraceEventHelper
             }
          }
       }
-
-      
-      return result;
    }
 
    /**
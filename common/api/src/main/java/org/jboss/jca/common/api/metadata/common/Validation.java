@@ -56,6 +56,13 @@ public interface Validation extends JCAMetadata
     */
    public Long getBackgroundValidationMillis();
 
+   /**
+    * Get the backgroundValidationBatch.
+    *
+    * @return the backgroundValidationBatch.
+    */
+   public Boolean isBackgroundValidationBatch();
+
    /**
     * Get the useFastFail.
     *
@@ -92,6 +99,11 @@ public interface Validation extends JCAMetadata
        */
       BACKGROUND_VALIDATION_MILLIS("background-validation-millis"),
 
+      /**
+       * background-validation-batch tag
+       */
+      BACKGROUND_VALIDATION_BATCH("background-validation-batch"),
+
       /**
        * use-fast-fail tag
        */
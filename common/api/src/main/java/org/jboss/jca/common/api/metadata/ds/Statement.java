@@ -81,6 +81,45 @@ public interface Statement extends JCAMetadata, ValidatableMetadata
       }
    }
 
+   /**
+    *
+    * A PreparedStatementCacheTypeEnum.
+    *
+    * @author <a href="jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+    *
+    */
+   public enum PreparedStatementCacheTypeEnum
+   {
+      /**
+       * lru
+       */
+      LRU("lru"),
+
+      /**
+       * concurrent
+       */
+      CONCURRENT("concurrent");
+
+      private String value;
+
+      /**
+       * Constructor
+       * @param v The value
+       */
+      PreparedStatementCacheTypeEnum(String v)
+      {
+         this.value = v;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public String toString()
+      {
+         return value;
+      }
+   }
+
    /**
     * Get the sharePreparedStatements.
     *
@@ -95,6 +134,13 @@ public interface Statement extends JCAMetadata, ValidatableMetadata
     */
    public Long getPreparedStatementsCacheSize();
 
+   /**
+    * Get the preparedStatementCacheType.
+    *
+    * @return the preparedStatementCacheType.
+    */
+   public PreparedStatementCacheTypeEnum getPreparedStatementCacheType();
+
    /**
     * Get the trackStatements.
     *
@@ -125,6 +171,10 @@ public interface Statement extends JCAMetadata, ValidatableMetadata
       */
       PREPARED_STATEMENT_CACHE_SIZE("prepared-statement-cache-size"),
       /**
+      * preparedStatementCacheType tag
+      */
+      PREPARED_STATEMENT_CACHE_TYPE("prepared-statement-cache-type"),
+      /**
       * sharePreparedStatements tag
       */
       SHARE_PREPARED_STATEMENTS("share-prepared-statements");
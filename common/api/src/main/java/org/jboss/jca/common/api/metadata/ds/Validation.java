@@ -103,6 +103,10 @@ public interface Validation extends org.jboss.jca.common.api.metadata.common.Val
       */
       BACKGROUND_VALIDATION_MILLIS("background-validation-millis"),
       /**
+      * backgroundValidationBatch tag
+      */
+      BACKGROUND_VALIDATION_BATCH("background-validation-batch"),
+      /**
       * useFastFail tag
       */
       USE_FAST_FAIL("use-fast-fail"),
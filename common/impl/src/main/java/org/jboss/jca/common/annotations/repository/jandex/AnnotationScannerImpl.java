@@ -24,32 +24,97 @@ package org.jboss.jca.common.annotations.repository.jandex;
 import org.jboss.jca.common.spi.annotations.repository.AnnotationRepository;
 import org.jboss.jca.common.spi.annotations.repository.AnnotationScanner;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+import org.jboss.jandex.CompositeIndex;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.IndexWriter;
 import org.jboss.jandex.Indexer;
 import org.jboss.logging.Logger;
 
 /**
  * An AnnotationScannerImpl based on jandex.
  *
+ * Each jar is indexed on its own, in parallel, and the indexes are combined into a
+ * composite index. A jar containing a <code>META-INF/jandex.idx</code> file uses that index.
+ * When the <code>ironjacamar.jandex.cache</code> system property names a directory the
+ * computed indexes are stored there. There is one entry per jar path, which records a digest
+ * of the size, modification time and content of the jar, so an unchanged jar isn't scanned
+ * again and the entry of a changed jar is replaced.
+ *
  * @author <a href="jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 public class AnnotationScannerImpl implements AnnotationScanner
 {
    private static Logger log = Logger.getLogger(AnnotationScannerImpl.class);
 
+   /** The pre-built index of a jar */
+   private static final String JANDEX_IDX = "META-INF/jandex.idx";
+
+   /** The index cache directory */
+   private File cacheDirectory;
+
+   /**
+    * Holder for the executor, so it is only created when used
+    */
+   private static class Holder
+   {
+      /** The executor */
+      static final ExecutorService EXECUTOR;
+
+      static
+      {
+         int threads = Runtime.getRuntime().availableProcessors();
+
+         String t = SecurityActions.getSystemProperty("ironjacamar.jandex.threads");
+         if (t != null && !t.trim().equals(""))
+            threads = Math.max(1, Integer.parseInt(t.trim()));
+
+         ThreadPoolExecutor tpe = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<Runnable>(),
+                                                         new IndexerThreadFactory());
+         tpe.allowCoreThreadTimeOut(true);
+         EXECUTOR = tpe;
+      }
+   }
+
    /**
     * Create a new AnnotationScannerImpl with a jandex backend
     */
    public AnnotationScannerImpl()
    {
+      String cache = SecurityActions.getSystemProperty("ironjacamar.jandex.cache");
+
+      if (cache != null && !cache.trim().equals(""))
+         cacheDirectory = new File(cache.trim());
    }
 
    /**
@@ -59,6 +124,7 @@ public class AnnotationScannerImpl implements AnnotationScanner
    public AnnotationRepository scan(URL[] urls, ClassLoader cl)
    {
       Indexer indexer = new Indexer();
+      List<URL> jars = new ArrayList<URL>();
 
       if (urls != null && urls.length > 0)
       {
@@ -95,54 +161,131 @@ public class AnnotationScannerImpl implements AnnotationScanner
             }
             else if (externalForm.endsWith(".jar"))
             {
-               JarFile jarFile = null;
+               jars.add(url);
+            }
+         }
+      }
+
+      List<IndexView> indexes = new ArrayList<IndexView>(jars.size() + 1);
+      indexes.add(indexer.complete());
+
+      if (jars.size() == 1)
+      {
+         Index index = indexJar(jars.get(0));
+         if (index != null)
+            indexes.add(index);
+      }
+      else if (jars.size() > 1)
+      {
+         List<Future<Index>> futures = new ArrayList<Future<Index>>(jars.size());
+
+         for (final URL url : jars)
+         {
+            futures.add(Holder.EXECUTOR.submit(new Callable<Index>()
+            {
+               public Index call()
+               {
+                  return indexJar(url);
+               }
+            }));
+         }
+
+         for (int i = 0; i < futures.size(); i++)
+         {
+            try
+            {
+               Index index = futures.get(i).get();
+               if (index != null)
+                  indexes.add(index);
+            }
+            catch (InterruptedException ie)
+            {
+               Thread.currentThread().interrupt();
+               log.error("Unable to process: " + jars.get(i).toExternalForm(), ie);
+            }
+            catch (ExecutionException ee)
+            {
+               log.error("Unable to process: " + jars.get(i).toExternalForm(), ee.getCause());
+            }
+         }
+      }
+
+      return new AnnotationRepositoryImpl(CompositeIndex.create(indexes), cl);
+   }
+
+   /**
+    * Index a jar file
+    * @param url The url of the jar file
+    * @return The index; <code>null</code> if the jar couldn't be processed
+    */
+   private Index indexJar(URL url)
+   {
+      String externalForm = url.toExternalForm();
+      JarFile jarFile = null;
+      try
+      {
+         File file = new File(url.toURI());
+         jarFile = new JarFile(file);
+
+         JarEntry idx = jarFile.getJarEntry(JANDEX_IDX);
+         if (idx != null)
+         {
+            try
+            {
+               return readIndex(jarFile.getInputStream(idx));
+            }
+            catch (Throwable t)
+            {
+               log.debugf(t, "Unable to read %s from %s", JANDEX_IDX, externalForm);
+            }
+         }
+
+         File cached = null;
+         String digest = null;
+         if (cacheDirectory != null)
+         {
+            try
+            {
+               cached = new File(cacheDirectory, toHex(digest(file.getCanonicalPath())) + ".idx");
+               digest = getDigest(file);
+
+               if (cached.exists())
+               {
+                  Index index = readCachedIndex(cached, digest);
+                  if (index != null)
+                     return index;
+               }
+            }
+            catch (Throwable t)
+            {
+               log.debugf(t, "Unable to read cached index for %s", externalForm);
+            }
+         }
+
+         Indexer indexer = new Indexer();
+         Enumeration<JarEntry> entries = jarFile.entries();
+         while (entries.hasMoreElements())
+         {
+            JarEntry jarEntry = entries.nextElement();
+            if (jarEntry.getName().endsWith(".class"))
+            {
+               InputStream is = null;
                try
                {
-                  jarFile = new JarFile(new File(url.toURI()));
-                  Enumeration<JarEntry> entries = jarFile.entries();
-                  while (entries.hasMoreElements())
-                  {
-                     JarEntry jarEntry = entries.nextElement();
-                     if (jarEntry.getName().endsWith(".class"))
-                     {
-                        InputStream is = null;
-                        try
-                        {
-                           is = jarFile.getInputStream(jarEntry);
-                           indexer.index(is);
-                        }
-                        catch (Throwable t)
-                        {
-                           log.error("Unable to process: " + jarEntry.getName(), t);
-                        }
-                        finally
-                        {
-                           if (is != null)
-                           {
-                              try
-                              {
-                                 is.close();
-                              }
-                              catch (IOException ioe)
-                              {
-                                 // Nothing
-                              }
-                           }
-                        }
-                     }
-                  }
+                  is = jarFile.getInputStream(jarEntry);
+                  indexer.index(is);
                }
                catch (Throwable t)
                {
-                  log.error("Unable to process: " + externalForm, t);
+                  log.error("Unable to process: " + jarEntry.getName(), t);
                }
                finally
                {
-                  if (jarFile != null)
+                  if (is != null)
                   {
                      try
                      {
-                        jarFile.close();
+                        is.close();
                      }
                      catch (IOException ioe)
                      {
@@ -152,8 +295,220 @@ public class AnnotationScannerImpl implements AnnotationScanner
                }
             }
          }
+
+         Index index = indexer.complete();
+
+         if (cached != null && digest != null)
+            writeIndex(index, digest, cached);
+
+         return index;
+      }
+      catch (Throwable t)
+      {
+         log.error("Unable to process: " + externalForm, t);
+      }
+      finally
+      {
+         if (jarFile != null)
+         {
+            try
+            {
+               jarFile.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * Read an index
+    * @param is The input stream, which is closed
+    * @return The index
+    * @exception IOException Thrown if the index couldn't be read
+    */
+   private static Index readIndex(InputStream is) throws IOException
+   {
+      try
+      {
+         return new IndexReader(new BufferedInputStream(is)).read();
+      }
+      finally
+      {
+         try
+         {
+            is.close();
+         }
+         catch (IOException ioe)
+         {
+            // Nothing
+         }
+      }
+   }
+
+   /**
+    * Read a cached index
+    * @param file The file
+    * @param digest The digest of the jar
+    * @return The index; <code>null</code> if the entry is for a different version of the jar
+    * @exception IOException Thrown if the index couldn't be read
+    */
+   private static Index readCachedIndex(File file, String digest) throws IOException
+   {
+      InputStream is = new BufferedInputStream(new FileInputStream(file));
+      try
+      {
+         if (!digest.equals(new DataInputStream(is).readUTF()))
+            return null;
+      }
+      catch (IOException ioe)
+      {
+         is.close();
+         throw ioe;
+      }
+
+      return readIndex(is);
+   }
+
+   /**
+    * Store an index in the cache, replacing the entry of an older version of the jar.
+    * The index is written to a temporary file first, so a concurrent reader never sees
+    * a partial index
+    * @param index The index
+    * @param digest The digest of the jar
+    * @param file The file
+    */
+   private void writeIndex(Index index, String digest, File file)
+   {
+      File tmp = null;
+      OutputStream os = null;
+      try
+      {
+         if (!cacheDirectory.exists() && !cacheDirectory.mkdirs() && !cacheDirectory.exists())
+            throw new IOException("Unable to create " + cacheDirectory);
+
+         tmp = File.createTempFile("jandex", ".tmp", cacheDirectory);
+         os = new BufferedOutputStream(new FileOutputStream(tmp));
+         DataOutputStream dos = new DataOutputStream(os);
+         dos.writeUTF(digest);
+         dos.flush();
+         new IndexWriter(os).write(index);
+         os.close();
+         os = null;
+
+         if (!tmp.renameTo(file))
+         {
+            // Some platforms don't replace an existing file
+            if (file.exists() && !file.delete())
+               throw new IOException("Unable to delete " + file);
+
+            if (!tmp.renameTo(file))
+               throw new IOException("Unable to rename " + tmp + " to " + file);
+         }
+
+         tmp = null;
+      }
+      catch (Throwable t)
+      {
+         log.debugf(t, "Unable to store index in %s", file);
+      }
+      finally
+      {
+         if (os != null)
+         {
+            try
+            {
+               os.close();
+            }
+            catch (IOException ioe)
+            {
+               // Nothing
+            }
+         }
+
+         if (tmp != null && !tmp.delete())
+            tmp.deleteOnExit();
+      }
+   }
+
+   /**
+    * Get the digest of a jar file
+    * @param file The file
+    * @return The digest
+    * @exception Exception Thrown if the digest couldn't be calculated
+    */
+   private static String getDigest(File file) throws Exception
+   {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update(Long.toString(file.length()).getBytes(StandardCharsets.UTF_8));
+      md.update(Long.toString(file.lastModified()).getBytes(StandardCharsets.UTF_8));
+
+      InputStream is = new FileInputStream(file);
+      try
+      {
+         byte[] buffer = new byte[65536];
+         int read;
+         while ((read = is.read(buffer)) != -1)
+         {
+            md.update(buffer, 0, read);
+         }
+      }
+      finally
+      {
+         is.close();
       }
 
-      return new AnnotationRepositoryImpl(indexer.complete(), cl);
+      return toHex(md.digest());
+   }
+
+   /**
+    * Get the digest of a string
+    * @param s The string
+    * @return The digest
+    * @exception Exception Thrown if the digest couldn't be calculated
+    */
+   private static byte[] digest(String s) throws Exception
+   {
+      return MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Get the hexadecimal representation of a digest
+    * @param digest The digest
+    * @return The value
+    */
+   private static String toHex(byte[] digest)
+   {
+      StringBuilder sb = new StringBuilder(digest.length * 2);
+      for (byte b : digest)
+      {
+         sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+         sb.append(Character.forDigit(b & 0xF, 16));
+      }
+
+      return sb.toString();
+   }
+
+   /**
+    * Creates daemon threads for the indexing
+    */
+   private static class IndexerThreadFactory implements ThreadFactory
+   {
+      /** The thread counter */
+      private final AtomicInteger counter = new AtomicInteger();
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, "JCA Indexer-" + counter.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
    }
 }
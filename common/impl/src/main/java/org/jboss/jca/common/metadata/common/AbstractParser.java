@@ -908,6 +908,7 @@ public abstract class AbstractParser
       Boolean useFastFail = Defaults.USE_FAST_FAIL;
       Boolean backgroundValidation = Defaults.BACKGROUND_VALIDATION;
       Long backgroundValidationMillis = null;
+      Boolean backgroundValidationBatch = null;
 
       while (reader.hasNext())
       {
@@ -917,7 +918,7 @@ public abstract class AbstractParser
                if (ConnectionDefinition.Tag.forName(reader.getLocalName()) == ConnectionDefinition.Tag.VALIDATION)
                {
                   return new ValidationImpl(validateOnMatch, backgroundValidation, backgroundValidationMillis,
-                                            useFastFail);
+                                            backgroundValidationBatch, useFastFail);
                }
                else
                {
@@ -939,6 +940,10 @@ public abstract class AbstractParser
                      backgroundValidationMillis = elementAsLong(reader);
                      break;
                   }
+                  case BACKGROUND_VALIDATION_BATCH : {
+                     backgroundValidationBatch = elementAsBoolean(reader);
+                     break;
+                  }
                   case BACKGROUND_VALIDATION : {
                      backgroundValidation = elementAsBoolean(reader);
                      break;
@@ -51,6 +51,9 @@ public class ValidationImpl implements Validation
    /** backgroundValidationMillis **/
    protected Long backgroundValidationMillis;
 
+   /** backgroundValidationBatch **/
+   protected Boolean backgroundValidationBatch;
+
    /** useFastFail **/
    protected Boolean useFastFail;
 
@@ -67,10 +70,29 @@ public class ValidationImpl implements Validation
                          Boolean backgroundValidation, Long backgroundValidationMillis,
                          Boolean useFastFail)
       throws ValidateException
+   {
+      this(validateOnMatch, backgroundValidation, backgroundValidationMillis, null, useFastFail);
+   }
+
+   /**
+    * Constructor
+    *
+    * @param validateOnMatch validateOnMatch
+    * @param backgroundValidation backgroundValidation
+    * @param backgroundValidationMillis backgroundValidationMillis
+    * @param backgroundValidationBatch backgroundValidationBatch
+    * @param useFastFail useFastFail
+    * @throws ValidateException in case of error
+    */
+   public ValidationImpl(Boolean validateOnMatch,
+                         Boolean backgroundValidation, Long backgroundValidationMillis,
+                         Boolean backgroundValidationBatch, Boolean useFastFail)
+      throws ValidateException
    {
       this.validateOnMatch = validateOnMatch;
       this.backgroundValidation = backgroundValidation;
       this.backgroundValidationMillis = backgroundValidationMillis;
+      this.backgroundValidationBatch = backgroundValidationBatch;
       this.useFastFail = useFastFail;
       partialCommonValidate();
    }
@@ -99,6 +121,14 @@ public class ValidationImpl implements Validation
       return backgroundValidationMillis;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public Boolean isBackgroundValidationBatch()
+   {
+      return backgroundValidationBatch;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -129,6 +159,7 @@ public class ValidationImpl implements Validation
       result = prime * result + ((validateOnMatch == null) ? 0 : validateOnMatch.hashCode());
       result = prime * result + ((backgroundValidation == null) ? 0 : backgroundValidation.hashCode());
       result = prime * result + ((backgroundValidationMillis == null) ? 0 : backgroundValidationMillis.hashCode());
+      result = prime * result + ((backgroundValidationBatch == null) ? 0 : backgroundValidationBatch.hashCode());
       result = prime * result + ((useFastFail == null) ? 0 : useFastFail.hashCode());
       return result;
    }
@@ -166,6 +197,13 @@ public class ValidationImpl implements Validation
       }
       else if (!backgroundValidationMillis.equals(other.backgroundValidationMillis))
          return false;
+      if (backgroundValidationBatch == null)
+      {
+         if (other.backgroundValidationBatch != null)
+            return false;
+      }
+      else if (!backgroundValidationBatch.equals(other.backgroundValidationBatch))
+         return false;
       if (useFastFail == null)
       {
          if (other.useFastFail != null)
@@ -206,6 +244,13 @@ public class ValidationImpl implements Validation
          sb.append("</").append(Validation.Tag.BACKGROUND_VALIDATION_MILLIS).append(">");
       }
 
+      if (backgroundValidationBatch != null)
+      {
+         sb.append("<").append(Validation.Tag.BACKGROUND_VALIDATION_BATCH).append(">");
+         sb.append(backgroundValidationBatch);
+         sb.append("</").append(Validation.Tag.BACKGROUND_VALIDATION_BATCH).append(">");
+      }
+
       if (useFastFail != null)
       {
          sb.append("<").append(Validation.Tag.USE_FAST_FAIL).append(">");
@@ -32,6 +32,7 @@ import org.jboss.jca.common.api.metadata.ds.DsPool;
 import org.jboss.jca.common.api.metadata.ds.DsSecurity;
 import org.jboss.jca.common.api.metadata.ds.DsXaPool;
 import org.jboss.jca.common.api.metadata.ds.Statement;
+import org.jboss.jca.common.api.metadata.ds.Statement.PreparedStatementCacheTypeEnum;
 import org.jboss.jca.common.api.metadata.ds.Statement.TrackStatementsEnum;
 import org.jboss.jca.common.api.metadata.ds.TimeOut;
 import org.jboss.jca.common.api.metadata.ds.TransactionIsolation;
@@ -377,6 +378,7 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
       Boolean validateOnMatch = Defaults.VALIDATE_ON_MATCH;
       Boolean useFastFail = Defaults.USE_CCM;
       Long backgroundValidationMillis = null;
+      Boolean backgroundValidationBatch = null;
       Extension staleConnectionChecker = null;
       Boolean backgroundValidation = Defaults.BACKGROUND_VALIDATION;
       String checkValidConnectionSql = null;
@@ -392,7 +394,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                    org.jboss.jca.common.api.metadata.ds.DataSource.Tag.VALIDATION)
                {
 
-                  return new ValidationImpl(backgroundValidation, backgroundValidationMillis, useFastFail,
+                  return new ValidationImpl(backgroundValidation, backgroundValidationMillis,
+                                            backgroundValidationBatch, useFastFail,
                                             validConnectionChecker, checkValidConnectionSql, validateOnMatch,
                                             staleConnectionChecker, exceptionSorter);
 
@@ -418,6 +421,10 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                      backgroundValidationMillis = elementAsLong(reader);
                      break;
                   }
+                  case BACKGROUND_VALIDATION_BATCH : {
+                     backgroundValidationBatch = elementAsBoolean(reader);
+                     break;
+                  }
                   case CHECK_VALID_CONNECTION_SQL : {
                      checkValidConnectionSql = elementAsString(reader);
                      break;
@@ -553,6 +560,7 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
    {
 
       Long preparedStatementsCacheSize = null;
+      PreparedStatementCacheTypeEnum preparedStatementCacheType = null;
       Boolean sharePreparedStatements = Defaults.SHARE_PREPARED_STATEMENTS;
       TrackStatementsEnum trackStatements = null;
 
@@ -565,7 +573,8 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                    org.jboss.jca.common.api.metadata.ds.DataSource.Tag.STATEMENT)
                {
 
-                  return new StatementImpl(sharePreparedStatements, preparedStatementsCacheSize, trackStatements);
+                  return new StatementImpl(sharePreparedStatements, preparedStatementsCacheSize,
+                                           preparedStatementCacheType, trackStatements);
                }
                else
                {
@@ -583,6 +592,12 @@ public class DsParser extends AbstractParser implements MetadataParser<DataSourc
                      preparedStatementsCacheSize = elementAsLong(reader);
                      break;
                   }
+                  case PREPARED_STATEMENT_CACHE_TYPE : {
+                     String elementString = elementAsString(reader);
+                     preparedStatementCacheType = PreparedStatementCacheTypeEnum.valueOf(elementString == null ?
+                        "LRU" : elementString.toUpperCase(Locale.US));
+                     break;
+                  }
                   case TRACK_STATEMENTS : {
                      String elementString = elementAsString(reader);
                      trackStatements = TrackStatementsEnum.valueOf(elementString == null ? "FALSE" : elementString
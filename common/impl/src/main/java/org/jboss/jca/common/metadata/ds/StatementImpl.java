@@ -48,6 +48,8 @@ public class StatementImpl implements Statement
 
    private final TrackStatementsEnum trackStatements;
 
+   private final PreparedStatementCacheTypeEnum preparedStatementCacheType;
+
    /**
     * Create a new StatementImpl.
     *
@@ -58,10 +60,27 @@ public class StatementImpl implements Statement
     */
    public StatementImpl(Boolean sharePreparedStatements, Long preparedStatementsCacheSize,
       TrackStatementsEnum trackStatements) throws ValidateException
+   {
+      this(sharePreparedStatements, preparedStatementsCacheSize, null, trackStatements);
+   }
+
+   /**
+    * Create a new StatementImpl.
+    *
+    * @param sharePreparedStatements sharePreparedStatements
+    * @param preparedStatementsCacheSize preparedStatementsCacheSize
+    * @param preparedStatementCacheType preparedStatementCacheType
+    * @param trackStatements trackStatements
+    * @throws ValidateException ValidateException
+    */
+   public StatementImpl(Boolean sharePreparedStatements, Long preparedStatementsCacheSize,
+      PreparedStatementCacheTypeEnum preparedStatementCacheType, TrackStatementsEnum trackStatements)
+      throws ValidateException
    {
       super();
       this.sharePreparedStatements = sharePreparedStatements;
       this.preparedStatementsCacheSize = preparedStatementsCacheSize;
+      this.preparedStatementCacheType = preparedStatementCacheType;
       this.trackStatements = trackStatements;
       this.validate();
    }
@@ -88,6 +107,17 @@ public class StatementImpl implements Statement
       return preparedStatementsCacheSize;
    }
 
+   /**
+    * Get the preparedStatementCacheType.
+    *
+    * @return the preparedStatementCacheType.
+    */
+   @Override
+   public final PreparedStatementCacheTypeEnum getPreparedStatementCacheType()
+   {
+      return preparedStatementCacheType;
+   }
+
    /**
     * Get the trackStatements.
     *
@@ -105,6 +135,7 @@ public class StatementImpl implements Statement
       final int prime = 31;
       int result = 1;
       result = prime * result + ((preparedStatementsCacheSize == null) ? 0 : preparedStatementsCacheSize.hashCode());
+      result = prime * result + ((preparedStatementCacheType == null) ? 0 : preparedStatementCacheType.hashCode());
       result = prime * result + ((sharePreparedStatements == null) ? 0 : sharePreparedStatements.hashCode());
       result = prime * result + ((trackStatements == null) ? 0 : trackStatements.hashCode());
       return result;
@@ -127,6 +158,8 @@ public class StatementImpl implements Statement
       }
       else if (!preparedStatementsCacheSize.equals(other.preparedStatementsCacheSize))
          return false;
+      if (preparedStatementCacheType != other.preparedStatementCacheType)
+         return false;
       if (sharePreparedStatements == null)
       {
          if (other.sharePreparedStatements != null)
@@ -160,6 +193,13 @@ public class StatementImpl implements Statement
          sb.append("</").append(Statement.Tag.PREPARED_STATEMENT_CACHE_SIZE).append(">");
       }
 
+      if (preparedStatementCacheType != null)
+      {
+         sb.append("<").append(Statement.Tag.PREPARED_STATEMENT_CACHE_TYPE).append(">");
+         sb.append(preparedStatementCacheType);
+         sb.append("</").append(Statement.Tag.PREPARED_STATEMENT_CACHE_TYPE).append(">");
+      }
+
       if (sharePreparedStatements != null && Boolean.TRUE.equals(sharePreparedStatements))
       {
          sb.append("<").append(Statement.Tag.SHARE_PREPARED_STATEMENTS).append("/>");
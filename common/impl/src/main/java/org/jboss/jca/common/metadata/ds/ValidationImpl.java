@@ -71,7 +71,30 @@ public class ValidationImpl extends org.jboss.jca.common.metadata.common.Validat
       Extension validConnectionChecker, String checkValidConnectionSql, Boolean validateOnMatch,
       Extension staleConnectionChecker, Extension exceptionSorter) throws ValidateException
    {
-      super(validateOnMatch, backgroundValidation, backgroundValidationMillis, useFastFail);
+      this(backgroundValidation, backgroundValidationMillis, null, useFastFail, validConnectionChecker,
+           checkValidConnectionSql, validateOnMatch, staleConnectionChecker, exceptionSorter);
+   }
+
+   /**
+    * Create a new ValidationImpl.
+    *
+    * @param backgroundValidation backgroundValidation
+    * @param backgroundValidationMillis backgroundValidationMillis
+    * @param backgroundValidationBatch backgroundValidationBatch
+    * @param useFastFail useFastFail
+    * @param validConnectionChecker validConnectionChecker
+    * @param checkValidConnectionSql checkValidConnectionSql
+    * @param validateOnMatch validateOnMatch
+    * @param staleConnectionChecker staleConnectionChecker
+    * @param exceptionSorter exceptionSorter
+    * @throws ValidateException ValidateException
+    */
+   public ValidationImpl(Boolean backgroundValidation, Long backgroundValidationMillis,
+      Boolean backgroundValidationBatch, Boolean useFastFail,
+      Extension validConnectionChecker, String checkValidConnectionSql, Boolean validateOnMatch,
+      Extension staleConnectionChecker, Extension exceptionSorter) throws ValidateException
+   {
+      super(validateOnMatch, backgroundValidation, backgroundValidationMillis, backgroundValidationBatch, useFastFail);
       this.validConnectionChecker = validConnectionChecker;
       this.checkValidConnectionSql = checkValidConnectionSql;
       this.staleConnectionChecker = staleConnectionChecker;
@@ -220,6 +243,13 @@ public class ValidationImpl extends org.jboss.jca.common.metadata.common.Validat
          sb.append("</").append(Validation.Tag.BACKGROUND_VALIDATION_MILLIS).append(">");
       }
 
+      if (backgroundValidationBatch != null)
+      {
+         sb.append("<").append(Validation.Tag.BACKGROUND_VALIDATION_BATCH).append(">");
+         sb.append(backgroundValidationBatch);
+         sb.append("</").append(Validation.Tag.BACKGROUND_VALIDATION_BATCH).append(">");
+      }
+
       if (useFastFail != null)
       {
          sb.append("<").append(Validation.Tag.USE_FAST_FAIL).append(">");
@@ -475,6 +475,17 @@ public class Merger
                   break;
                }
 
+               case PREPAREDSTATEMENTCACHETYPE : {
+                  if (ds != null && ds.getStatement() != null &&
+                      ds.getStatement().getPreparedStatementCacheType() != null)
+                  {
+                     configProperties.add(ConfigPropertyFactory.createConfigProperty(prototype, ds.getStatement()
+                        .getPreparedStatementCacheType().toString()));
+                  }
+
+                  break;
+               }
+
                case SHAREPREPAREDSTATEMENTS : {
                   if (ds != null && ds.getStatement() != null)
                   {
@@ -814,6 +825,9 @@ public class Merger
          /** PREPAREDSTATEMENTCACHESIZE **/
          PREPAREDSTATEMENTCACHESIZE("PreparedStatementCacheSize", "java.lang.Integer",
             "The number of cached prepared statements per connection."),
+         /** PREPAREDSTATEMENTCACHETYPE **/
+         PREPAREDSTATEMENTCACHETYPE("PreparedStatementCacheType", "java.lang.String",
+            "The type of the prepared statement cache: lru or concurrent."),
          /** SHAREPREPAREDSTATEMENTS **/
          SHAREPREPAREDSTATEMENTS("SharePreparedStatements", "java.lang.Boolean",
             "Whether to share prepared statements."),
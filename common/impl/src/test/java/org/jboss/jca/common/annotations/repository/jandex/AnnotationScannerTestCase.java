@@ -0,0 +1,314 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.common.annotations.repository.jandex;
+
+import org.jboss.jca.common.spi.annotations.repository.Annotation;
+import org.jboss.jca.common.spi.annotations.repository.AnnotationRepository;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * AnnotationScannerImpl tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AnnotationScannerTestCase
+{
+   private File root;
+
+   /**
+    * Setup
+    * @exception Exception Thrown in case of an error
+    */
+   @Before
+   public void setUp() throws Exception
+   {
+      root = File.createTempFile("jandex", "test");
+      root.delete();
+      root.mkdirs();
+   }
+
+   /**
+    * Tear down
+    */
+   @After
+   public void tearDown()
+   {
+      System.clearProperty("ironjacamar.jandex.cache");
+      delete(root);
+   }
+
+   /**
+    * The indexes of several jars are combined
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testJars() throws Exception
+   {
+      File a = createJar("a.jar", classBytes(First.class), null);
+      File b = createJar("b.jar", classBytes(Second.class), null);
+
+      AnnotationRepository ar = scan(a, b);
+
+      assertEquals(names(First.class, Second.class), names(ar.getAnnotation(Marker.class)));
+   }
+
+   /**
+    * A pre-built index is used instead of scanning the jar
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testJandexIdx() throws Exception
+   {
+      File a = createJar("a.jar", classBytes(First.class), index(Second.class));
+
+      AnnotationRepository ar = scan(a);
+
+      assertEquals(names(Second.class), names(ar.getAnnotation(Marker.class)));
+   }
+
+   /**
+    * A computed index is stored, and used the next time the jar is scanned
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testCache() throws Exception
+   {
+      File cache = new File(root, "cache");
+      System.setProperty("ironjacamar.jandex.cache", cache.getAbsolutePath());
+
+      File a = createJar("a.jar", classBytes(First.class), null);
+
+      AnnotationRepository ar = scan(a);
+      assertEquals(names(First.class), names(ar.getAnnotation(Marker.class)));
+
+      File[] cached = cache.listFiles();
+      assertEquals(1, cached.length);
+      assertTrue(cached[0].getName().endsWith(".idx"));
+
+      // Replace the cached index, so it shows if it is used
+      write(cached[0], digest(cached[0]), index(Second.class));
+
+      ar = scan(a);
+      assertEquals(names(Second.class), names(ar.getAnnotation(Marker.class)));
+
+      // A changed jar is scanned again, and its entry replaced
+      createJar("a.jar", classBytes(First.class), null);
+      a.setLastModified(a.lastModified() + 2000L);
+
+      ar = scan(a);
+      assertEquals(names(First.class), names(ar.getAnnotation(Marker.class)));
+
+      cached = cache.listFiles();
+      assertEquals(1, cached.length);
+
+      ar = scan(a);
+      assertEquals(names(First.class), names(ar.getAnnotation(Marker.class)));
+   }
+
+   /**
+    * Each jar has its own cache entry
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testCacheEntries() throws Exception
+   {
+      File cache = new File(root, "cache");
+      System.setProperty("ironjacamar.jandex.cache", cache.getAbsolutePath());
+
+      File a = createJar("a.jar", classBytes(First.class), null);
+      File b = createJar("b.jar", classBytes(Second.class), null);
+
+      scan(a, b);
+      assertEquals(2, cache.listFiles().length);
+
+      AnnotationRepository ar = scan(a, b);
+      assertEquals(names(First.class, Second.class), names(ar.getAnnotation(Marker.class)));
+      assertEquals(2, cache.listFiles().length);
+   }
+
+   private AnnotationRepository scan(File... files) throws Exception
+   {
+      URL[] urls = new URL[files.length];
+      for (int i = 0; i < files.length; i++)
+         urls[i] = files[i].toURI().toURL();
+
+      return new AnnotationScannerImpl().scan(urls, AnnotationScannerTestCase.class.getClassLoader());
+   }
+
+   private File createJar(String name, byte[] clz, byte[] idx) throws IOException
+   {
+      File f = new File(root, name);
+      JarOutputStream jos = new JarOutputStream(new FileOutputStream(f));
+      try
+      {
+         jos.putNextEntry(new JarEntry("test/Annotated.class"));
+         jos.write(clz);
+         jos.closeEntry();
+
+         if (idx != null)
+         {
+            jos.putNextEntry(new JarEntry("META-INF/jandex.idx"));
+            jos.write(idx);
+            jos.closeEntry();
+         }
+      }
+      finally
+      {
+         jos.close();
+      }
+      return f;
+   }
+
+   private static byte[] classBytes(Class<?> clz) throws IOException
+   {
+      String resource = clz.getName().replace('.', '/') + ".class";
+      InputStream is = clz.getClassLoader().getResourceAsStream(resource);
+      try
+      {
+         byte[] buffer = new byte[8192];
+         java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+         int read;
+         while ((read = is.read(buffer)) != -1)
+            baos.write(buffer, 0, read);
+         return baos.toByteArray();
+      }
+      finally
+      {
+         is.close();
+      }
+   }
+
+   private static byte[] index(Class<?> clz) throws IOException
+   {
+      Indexer indexer = new Indexer();
+      indexer.index(new java.io.ByteArrayInputStream(classBytes(clz)));
+      Index index = indexer.complete();
+
+      java.io.ByteArrayOutputStream baos = new java.io.ByteArrayOutputStream();
+      new IndexWriter(baos).write(index);
+      return baos.toByteArray();
+   }
+
+   private static String digest(File f) throws IOException
+   {
+      DataInputStream dis = new DataInputStream(new FileInputStream(f));
+      try
+      {
+         return dis.readUTF();
+      }
+      finally
+      {
+         dis.close();
+      }
+   }
+
+   private static void write(File f, String digest, byte[] data) throws IOException
+   {
+      DataOutputStream os = new DataOutputStream(new FileOutputStream(f));
+      try
+      {
+         os.writeUTF(digest);
+         os.write(data);
+      }
+      finally
+      {
+         os.close();
+      }
+   }
+
+   private static Set<String> names(Class<?>... classes)
+   {
+      Set<String> result = new HashSet<String>();
+      for (Class<?> c : classes)
+         result.add(c.getName());
+      return result;
+   }
+
+   private static Set<String> names(Collection<Annotation> annotations)
+   {
+      Set<String> result = new HashSet<String>();
+      for (Annotation a : annotations)
+         result.add(a.getClassName());
+      return result;
+   }
+
+   private static void delete(File f)
+   {
+      File[] children = f.listFiles();
+      if (children != null)
+      {
+         for (File c : children)
+            delete(c);
+      }
+      f.delete();
+   }
+
+   /**
+    * A marker annotation
+    */
+   @Retention(RetentionPolicy.RUNTIME)
+   public @interface Marker
+   {
+   }
+
+   /**
+    * An annotated class
+    */
+   @Marker
+   public static class First
+   {
+   }
+
+   /**
+    * Another annotated class
+    */
+   @Marker
+   public static class Second
+   {
+   }
+}
@@ -153,6 +153,7 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertNotNull(validation);
       assertTrue(validation.isBackgroundValidation());
       assertEquals((long) validation.getBackgroundValidationMillis(), 2000L);
+      assertTrue(validation.isBackgroundValidationBatch());
       assertTrue(validation.isUseFastFail());
       assertEquals(validation.getCheckValidConnectionSql(), "select 1");
       assertTrue(validation.isValidateOnMatch());
@@ -175,6 +176,7 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertNotNull(statement);
       assertTrue(statement.isSharePreparedStatements());
       assertEquals((long) statement.getPreparedStatementsCacheSize(), 30L);
+      assertEquals(statement.getPreparedStatementCacheType(), Statement.PreparedStatementCacheTypeEnum.CONCURRENT);
       assertEquals(statement.getTrackStatements(), Statement.TrackStatementsEnum.NOWARN);
 
       // Xa Ds part
@@ -228,6 +230,7 @@ public class DsParserXMLTestCase extends XMLParserTestBase
       assertNotNull(validation);
       assertTrue(validation.isBackgroundValidation());
       assertEquals((long) validation.getBackgroundValidationMillis(), 2000L);
+      assertNull(validation.isBackgroundValidationBatch());
       assertTrue(validation.isUseFastFail());
       assertEquals(validation.getCheckValidConnectionSql(), "select 1");
       assertTrue(validation.isValidateOnMatch());
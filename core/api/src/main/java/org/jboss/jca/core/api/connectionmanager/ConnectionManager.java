@@ -24,6 +24,8 @@ package org.jboss.jca.core.api.connectionmanager;
 
 import org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener;
 
+import java.util.concurrent.CompletionStage;
+
 import javax.resource.ResourceException;
 import javax.resource.spi.ConnectionRequestInfo;
 import javax.resource.spi.LazyAssociatableConnectionManager;
@@ -41,6 +43,20 @@ public interface ConnectionManager extends javax.resource.spi.ConnectionManager,
                                            LazyAssociatableConnectionManager,
                                            LazyEnlistableConnectionManager
 {
+   /**
+    * Allocate a connection without blocking the caller. When the pool is exhausted the
+    * request waits, in order, for a connection to be returned to the pool, and fails after
+    * the blocking timeout of the pool.
+    *
+    * A caller with an active transaction is served on its own thread, as the connection
+    * must be enlisted in that transaction.
+    *
+    * @param mcf The managed connection factory
+    * @param cri The connection request information
+    * @return The connection, or the <code>ResourceException</code> in case of an error
+    */
+   public CompletionStage<Object> allocateConnectionAsync(ManagedConnectionFactory mcf, ConnectionRequestInfo cri);
+
    /**
     * Associate a managed connection to a logical connection
     *
@@ -83,6 +83,9 @@ public class PoolConfiguration {
    
    /** Background validation - millis */
    private AtomicLong backgroundValidationMillis;
+
+   /** Background validation - validate all due connections with one call */
+   private AtomicBoolean backgroundValidationBatch;
    
    /** Prefill pool*/
    private AtomicBoolean prefill;
@@ -114,6 +117,7 @@ public class PoolConfiguration {
       validateOnMatch = new AtomicBoolean(false);
       backgroundValidation = new AtomicBoolean(false);
       backgroundValidationMillis = new AtomicLong(0);
+      backgroundValidationBatch = new AtomicBoolean(false);
       prefill = new AtomicBoolean(false);
       strictMin = new AtomicBoolean(false);
       useFastFail = new AtomicBoolean(false);
@@ -268,6 +272,24 @@ public class PoolConfiguration {
       this.backgroundValidationMillis.set(v);
    }
 
+   /**
+    * Is background validation done for all due connections with one call
+    * @return The value
+    */
+   public boolean isBackgroundValidationBatch()
+   {
+      return backgroundValidationBatch.get();
+   }
+
+   /**
+    * Set the background validation batch setting
+    * @param v The value
+    */
+   public void setBackgroundValidationBatch(boolean v)
+   {
+      this.backgroundValidationBatch.set(v);
+   }
+
    /**
     * @return the prefill
     */
@@ -352,6 +374,7 @@ public class PoolConfiguration {
       sb.append(" validateOnMatch=").append(validateOnMatch.get());
       sb.append(" backgroundValidation=").append(backgroundValidation.get());
       sb.append(" backgroundValidationMillis=").append(backgroundValidationMillis.get());
+      sb.append(" backgroundValidationBatch=").append(backgroundValidationBatch.get());
       sb.append(" prefill=").append(prefill.get());
       sb.append(" strictMin=").append(strictMin.get());
       sb.append(" useFastFail=").append(useFastFail.get());
@@ -54,6 +54,12 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public long getAverageCreationTime();
 
+   /**
+    * Get the average time spent filling the pool by the pool filler (milliseconds)
+    * @return The value
+    */
+   public long getAverageFillTime();
+
    /**
     * Get the average time spent obtaining a connection (milliseconds)
     * @return The value
@@ -108,6 +114,12 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public long getMaxCreationTime();
 
+   /**
+    * Get the maximum time spent filling the pool by the pool filler (milliseconds)
+    * @return The value
+    */
+   public long getMaxFillTime();
+
    /**
     * Get max get time (milliseconds)
     * @return The value
@@ -162,6 +174,12 @@ public interface PoolStatistics extends StatisticsPlugin
     */
    public long getTotalCreationTime();
 
+   /**
+    * Get the total time spent filling the pool by the pool filler (milliseconds)
+    * @return The value
+    */
+   public long getTotalFillTime();
+
    /**
     * Get the total time spent obtaining connections (milliseconds)
     * @return The value
@@ -178,6 +178,15 @@ public interface CoreBundle
     */
    @Message(id = 266, value = "Invalid number of parameters %d (%s)")
    public String invalidNumberOfParameters(int number, String c);
+
+   /**
+    * Unknown class definition
+    * @param name The name of the class
+    * @param hash The hash of the class
+    * @return The value
+    */
+   @Message(id = 267, value = "Unknown class definition %s (%s)")
+   public String unknownClassDefinition(String name, String hash);
    
    // CONNECTION MANAGER LISTENER (300)
 
@@ -594,6 +594,15 @@ public interface CoreLogger extends BasicLogger
    @Message(id = 906, value = "Error during crash recovery: %s (%s)")
    public void exceptionDuringCrashRecovery(String jndiName, String reason, @Cause Throwable t);
 
+   /**
+    * Crash recovery timed out
+    * @param jndiName The JNDI name
+    * @param timeout The timeout
+    */
+   @LogMessage(level = WARN)
+   @Message(id = 907, value = "No recovery connection for %s within %d ms, skipping it for this scan")
+   public void crashRecoveryTimeout(String jndiName, long timeout);
+
    // SECURITY (1000)
 
    /**
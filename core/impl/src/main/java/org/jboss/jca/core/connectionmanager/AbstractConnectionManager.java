@@ -27,6 +27,7 @@ import org.jboss.jca.core.CoreBundle;
 import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.api.connectionmanager.ccm.CachedConnectionManager;
 import org.jboss.jca.core.api.management.ManagedEnlistmentTrace;
+import org.jboss.jca.core.connectionmanager.ccm.CachedConnectionManagerImpl;
 import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
 import org.jboss.jca.core.connectionmanager.listener.ConnectionState;
 import org.jboss.jca.core.connectionmanager.pool.api.Pool;
@@ -36,6 +37,8 @@ import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -134,6 +137,9 @@ public abstract class AbstractConnectionManager implements ConnectionManager
    /** Enlistment trace */
    protected ManagedEnlistmentTrace enlistmentTrace;
 
+   /** The asynchronous allocator */
+   private volatile AsyncConnectionAllocator asyncAllocator;
+
    /**
     * Creates a new instance of connection manager.
     */
@@ -143,6 +149,7 @@ public abstract class AbstractConnectionManager implements ConnectionManager
       this.scheduledExecutorService = null;
       this.scheduledGraceful = null;
       this.gracefulCallback = null;
+      this.asyncAllocator = null;
    }
 
    /**
@@ -317,6 +324,9 @@ public abstract class AbstractConnectionManager implements ConnectionManager
          this.scheduledExecutorService = null;
       }
 
+      if (asyncAllocator != null)
+         asyncAllocator.shutdown();
+
       if (pool != null)
          pool.shutdown();
 
@@ -754,6 +764,10 @@ public abstract class AbstractConnectionManager implements ConnectionManager
          }
       }
 
+      AsyncConnectionAllocator aca = asyncAllocator;
+      if (aca != null)
+         aca.connectionReturned();
+
       if (shutdown.get() && pool.isIdle())
       {
          synchronized (this)
@@ -788,6 +802,130 @@ public abstract class AbstractConnectionManager implements ConnectionManager
       Subject subject = getSubject();
       ConnectionListener cl = getManagedConnection(subject, cri);
 
+      return createConnection(cl, subject, cri);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CompletionStage<Object> allocateConnectionAsync(ManagedConnectionFactory mcf, ConnectionRequestInfo cri)
+   {
+      try
+      {
+         if (pool == null || shutdown.get())
+         {
+            throw new ResourceException(bundle.tryingUseConnectionFactoryShutDown(jndiName));
+         }
+
+         if (!pool.getManagedConnectionFactory().equals(mcf))
+         {
+            throw new ResourceException(
+               bundle.wrongManagedConnectionFactorySentToAllocateConnection(pool.getManagedConnectionFactory(), mcf));
+         }
+
+         // The enlistment is bound to the thread of the transaction
+         if (isTransactional())
+         {
+            return CompletableFuture.completedFuture(allocateConnection(mcf, cri));
+         }
+
+         return getAsyncAllocator().allocate(getSubject(), cri);
+      }
+      catch (Throwable t)
+      {
+         CompletableFuture<Object> result = new CompletableFuture<Object>();
+         result.completeExceptionally(t);
+         return result;
+      }
+   }
+
+   /**
+    * Get the asynchronous allocator
+    * @return The value
+    */
+   AsyncConnectionAllocator getAsyncAllocator()
+   {
+      AsyncConnectionAllocator aca = asyncAllocator;
+
+      if (aca == null)
+      {
+         synchronized (this)
+         {
+            aca = asyncAllocator;
+            if (aca == null)
+            {
+               aca = new AsyncConnectionAllocator(this);
+               asyncAllocator = aca;
+            }
+         }
+      }
+
+      return aca;
+   }
+
+   /**
+    * Get a managed connection from the pool for an asynchronous allocation. There is
+    * no transaction, the caller holds a permit of the pool, and the retries are handled
+    * by the caller
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param create Can a new managed connection be created
+    * @return The connection listener; <code>null</code> if <code>create</code> is false and
+    *         there is no idle connection, in which case the permit is still held
+    * @exception ResourceException Thrown if an error occurs; the permit has been released
+    */
+   ConnectionListener getManagedConnectionAsync(Subject subject, ConnectionRequestInfo cri, boolean create)
+      throws ResourceException
+   {
+      if (shutdown.get())
+      {
+         pool.getLock().release();
+         throw new ResourceException(bundle.connectionManagerIsShutdown(jndiName));
+      }
+
+      return pool.getConnection(subject, cri, true, create);
+   }
+
+   /**
+    * Create a connection handle for a managed connection from the pool
+    * @param cl The connection listener
+    * @param subject The subject
+    * @param cri The connection request information
+    * @return The connection
+    * @exception ResourceException Thrown if an error occurs
+    */
+   Object createConnection(ConnectionListener cl, Subject subject, ConnectionRequestInfo cri)
+      throws ResourceException
+   {
+      return createConnection(cl, subject, cri, null);
+   }
+
+   /**
+    * Capture the cached connection manager context of the current thread, such that a
+    * connection created on another thread on its behalf is registered with it
+    * @return The context; <code>null</code> if there is none
+    */
+   Object captureCachedConnectionManagerContext()
+   {
+      if (cachedConnectionManager instanceof CachedConnectionManagerImpl)
+         return ((CachedConnectionManagerImpl)cachedConnectionManager).captureContext();
+
+      return null;
+   }
+
+   /**
+    * Create a connection handle for a managed connection from the pool
+    * @param cl The connection listener
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param ccmContext The captured cached connection manager context; <code>null</code>
+    *                   for the context of the current thread
+    * @return The connection
+    * @exception ResourceException Thrown if an error occurs
+    */
+   Object createConnection(ConnectionListener cl, Subject subject, ConnectionRequestInfo cri, Object ccmContext)
+      throws ResourceException
+   {
       // Tell each connection manager the managed connection is active
       reconnectManagedConnection(cl);
 
@@ -816,7 +954,15 @@ public abstract class AbstractConnectionManager implements ConnectionManager
 
       if (cachedConnectionManager != null)
       {
-         cachedConnectionManager.registerConnection(this, cl, connection);
+         if (ccmContext != null)
+         {
+            ((CachedConnectionManagerImpl)cachedConnectionManager).registerConnection(ccmContext, this,
+                                                                                       cl, connection);
+         }
+         else
+         {
+            cachedConnectionManager.registerConnection(this, cl, connection);
+         }
       }
 
       return connection;
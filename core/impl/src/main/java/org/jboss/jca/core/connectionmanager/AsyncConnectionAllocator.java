@@ -0,0 +1,479 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager;
+
+import org.jboss.jca.core.CoreBundle;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.Semaphore;
+
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.RetryableException;
+import javax.security.auth.Subject;
+
+import org.jboss.logging.Messages;
+
+/**
+ * Allocates connections for a connection manager without blocking the caller.
+ *
+ * A request is served right away on the caller's thread when a permit of the pool can be
+ * taken without waiting, nobody is waiting in front of it, and an idle connection is
+ * available. If a new connection has to be created, the creation is handed to the allocation
+ * executor, so the caller never waits for a physical connect. Otherwise the request is parked
+ * in a FIFO queue, and served when a connection is returned to the pool. A request which
+ * is still waiting after the blocking timeout of the pool fails.
+ *
+ * A permit is always taken without waiting before the pool is asked for a connection, and
+ * handed to the pool explicitly, so the pool never waits for a permit on behalf of an
+ * asynchronous request. The parked requests are served on the allocation executor, as
+ * serving may create a physical connection; the timer only runs the timeouts and schedules
+ * the retries.
+ *
+ * Allocation retries use an exponential backoff starting at the allocation retry wait,
+ * and are scheduled instead of sleeping.
+ *
+ * The cached connection manager context of the caller is captured with the request, so
+ * a connection created on the allocation executor is registered with the caller's context.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class AsyncConnectionAllocator
+{
+   /** The bundle */
+   private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
+
+   /** The maximum number of doublings of the retry wait */
+   private static final int MAX_BACKOFF_SHIFT = 10;
+
+   /** The connection manager */
+   private final AbstractConnectionManager cm;
+
+   /** The waiting requests */
+   private final Deque<Request> waiters;
+
+   /** Is a thread serving the waiting requests */
+   private final AtomicBoolean serving;
+
+   /** Shutdown */
+   private volatile boolean shutdown;
+
+   /**
+    * Holder for the executors, so they are only created when used
+    */
+   private static class Holder
+   {
+      /** The timer for the timeouts and the retries */
+      static final ScheduledExecutorService TIMER;
+
+      /**
+       * The executor serving the parked requests; there is at most one serving task
+       * per connection manager, so the number of threads is bounded by the number of
+       * connection managers with parked requests
+       */
+      static final ExecutorService EXECUTOR;
+
+      static
+      {
+         ScheduledThreadPoolExecutor stpe =
+            new ScheduledThreadPoolExecutor(1, new AllocatorThreadFactory("JCA AsyncAllocation-Timer-"));
+         stpe.setRemoveOnCancelPolicy(true);
+         TIMER = stpe;
+
+         EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                                           new SynchronousQueue<Runnable>(),
+                                           new AllocatorThreadFactory("JCA AsyncAllocation-"));
+      }
+   }
+
+   /**
+    * Constructor
+    * @param cm The connection manager
+    */
+   AsyncConnectionAllocator(AbstractConnectionManager cm)
+   {
+      this.cm = cm;
+      this.waiters = new ConcurrentLinkedDeque<Request>();
+      this.serving = new AtomicBoolean(false);
+      this.shutdown = false;
+   }
+
+   /**
+    * Allocate a connection
+    * @param subject The subject
+    * @param cri The connection request information
+    * @return The connection once allocated
+    */
+   CompletableFuture<Object> allocate(Subject subject, ConnectionRequestInfo cri)
+   {
+      final Request request = new Request(subject, cri, cm.captureCachedConnectionManagerContext());
+
+      if (waiters.isEmpty() && getPool().getLock().tryAcquire())
+      {
+         // An idle connection is handed out on the caller's thread, so the connection
+         // is registered with the current context
+         if (!attempt(request, null, false))
+         {
+            // The permit is still held; the physical connection is created on the executor
+            getExecutor().execute(new Runnable()
+            {
+               public void run()
+               {
+                  attempt(request, request.ccmContext, true);
+               }
+            });
+         }
+
+         return request.future;
+      }
+
+      long blockingTimeout = getPool().getBlockingTimeout();
+      request.timeout = getTimer().schedule(new Runnable()
+      {
+         public void run()
+         {
+            timeout(request);
+         }
+      }, blockingTimeout, TimeUnit.MILLISECONDS);
+
+      waiters.offerLast(request);
+
+      if (shutdown)
+      {
+         fail(request, new ResourceException(bundle.connectionManagerIsShutdown(cm.getJndiName())));
+         return request.future;
+      }
+
+      cm.getLogger().tracef("%s: Parked allocation request %s", cm.getJndiName(), request);
+
+      serve();
+
+      return request.future;
+   }
+
+   /**
+    * A connection was returned to the pool
+    */
+   void connectionReturned()
+   {
+      if (!waiters.isEmpty())
+         serve();
+   }
+
+   /**
+    * Get the number of waiting requests
+    * @return The value
+    */
+   int getWaiting()
+   {
+      return waiters.size();
+   }
+
+   /**
+    * Shutdown; fails all waiting requests
+    */
+   void shutdown()
+   {
+      shutdown = true;
+
+      Request request = waiters.pollFirst();
+      while (request != null)
+      {
+         fail(request, new ResourceException(bundle.connectionManagerIsShutdown(cm.getJndiName())));
+         request = waiters.pollFirst();
+      }
+   }
+
+   /**
+    * Serve the waiting requests, in order, while permits of the pool can be taken without waiting
+    */
+   private void serve()
+   {
+      if (!serving.compareAndSet(false, true))
+         return;
+
+      getExecutor().execute(new Runnable()
+      {
+         public void run()
+         {
+            Semaphore lock = getPool().getLock();
+            try
+            {
+               while (!waiters.isEmpty() && lock.tryAcquire())
+               {
+                  Request request = waiters.pollFirst();
+                  if (request != null && !request.future.isDone())
+                  {
+                     attempt(request, request.ccmContext, true);
+                  }
+                  else
+                  {
+                     lock.release();
+                  }
+               }
+            }
+            finally
+            {
+               serving.set(false);
+            }
+
+            // A connection may have been returned after the last permit couldn't be taken
+            if (!waiters.isEmpty() && lock.availablePermits() > 0)
+               serve();
+         }
+      });
+   }
+
+   /**
+    * Try to allocate a connection for a request; the caller must hold a permit of the
+    * pool, which is handed to the pool
+    * @param request The request
+    * @param ccmContext The cached connection manager context; <code>null</code>
+    *                   for the context of the current thread
+    * @param create Can a new managed connection be created
+    * @return False if <code>create</code> is false and there is no idle connection, in which
+    *         case the caller still holds the permit; otherwise true
+    */
+   private boolean attempt(Request request, Object ccmContext, boolean create)
+   {
+      ConnectionListener cl = null;
+      try
+      {
+         cl = cm.getManagedConnectionAsync(request.subject, request.cri, create);
+      }
+      catch (ResourceException re)
+      {
+         retry(request, re);
+         return true;
+      }
+
+      if (cl == null)
+         return false;
+
+      if (request.future.isDone())
+      {
+         cm.returnManagedConnection(cl, false);
+         return true;
+      }
+
+      try
+      {
+         Object connection = cm.createConnection(cl, request.subject, request.cri, ccmContext);
+
+         if (request.timeout != null)
+            request.timeout.cancel(false);
+
+         if (!request.future.complete(connection))
+         {
+            // The request was cancelled while the connection was created
+            cm.unregisterAssociation(cl, connection);
+            if (cl.isManagedConnectionFree())
+               cm.returnManagedConnection(cl, false);
+         }
+      }
+      catch (Throwable t)
+      {
+         fail(request, t);
+      }
+
+      return true;
+   }
+
+   /**
+    * Schedule a retry of a request
+    * @param request The request
+    * @param failure The failure
+    */
+   private void retry(final Request request, ResourceException failure)
+   {
+      int retries = cm.getAllocationRetry();
+      if (retries == 0 && failure instanceof RetryableException)
+         retries = 1;
+
+      int attempt = request.attempts.incrementAndGet();
+      if (attempt > retries || shutdown)
+      {
+         fail(request, new ResourceException(bundle.unableGetManagedConnection(cm.getJndiName()), failure));
+         return;
+      }
+
+      long delay = cm.getAllocationRetryWaitMillis() << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+
+      cm.getLogger().tracef("%s: Attempting allocation retry %d of %s in %d ms",
+                            cm.getJndiName(), attempt, request, delay);
+
+      getTimer().schedule(new Runnable()
+      {
+         public void run()
+         {
+            if (!request.future.isDone())
+            {
+               waiters.offerFirst(request);
+               serve();
+            }
+         }
+      }, delay, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * The blocking timeout of a request expired
+    * @param request The request
+    */
+   private void timeout(Request request)
+   {
+      if (waiters.remove(request))
+      {
+         request.future.completeExceptionally(new ResourceException(
+            bundle.noMManagedConnectionsAvailableWithinConfiguredBlockingTimeout(getPool().getBlockingTimeout())));
+      }
+
+      connectionReturned();
+   }
+
+   /**
+    * Fail a request
+    * @param request The request
+    * @param t The failure
+    */
+   private void fail(Request request, Throwable t)
+   {
+      waiters.remove(request);
+
+      if (request.timeout != null)
+         request.timeout.cancel(false);
+
+      request.future.completeExceptionally(t);
+   }
+
+   /**
+    * Get the pool
+    * @return The value
+    */
+   private Pool getPool()
+   {
+      return cm.getPool();
+   }
+
+   /**
+    * Get the timer
+    * @return The value
+    */
+   private static ScheduledExecutorService getTimer()
+   {
+      return Holder.TIMER;
+   }
+
+   /**
+    * Get the executor
+    * @return The value
+    */
+   private static ExecutorService getExecutor()
+   {
+      return Holder.EXECUTOR;
+   }
+
+   /**
+    * An allocation request
+    */
+   static class Request
+   {
+      /** The subject */
+      final Subject subject;
+
+      /** The connection request information */
+      final ConnectionRequestInfo cri;
+
+      /** The cached connection manager context of the caller */
+      final Object ccmContext;
+
+      /** The result */
+      final CompletableFuture<Object> future;
+
+      /** The number of retries */
+      final AtomicInteger attempts;
+
+      /** The blocking timeout */
+      volatile ScheduledFuture<?> timeout;
+
+      /**
+       * Constructor
+       * @param subject The subject
+       * @param cri The connection request information
+       * @param ccmContext The cached connection manager context of the caller
+       */
+      Request(Subject subject, ConnectionRequestInfo cri, Object ccmContext)
+      {
+         this.subject = subject;
+         this.cri = cri;
+         this.ccmContext = ccmContext;
+         this.future = new CompletableFuture<Object>();
+         this.attempts = new AtomicInteger(0);
+         this.timeout = null;
+      }
+   }
+
+   /**
+    * Creates daemon threads for the allocations
+    */
+   private static class AllocatorThreadFactory implements ThreadFactory
+   {
+      /** The thread counter */
+      private final AtomicInteger counter = new AtomicInteger();
+
+      /** The name prefix */
+      private final String prefix;
+
+      /**
+       * Constructor
+       * @param prefix The name prefix
+       */
+      AllocatorThreadFactory(String prefix)
+      {
+         this.prefix = prefix;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, prefix + counter.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+}
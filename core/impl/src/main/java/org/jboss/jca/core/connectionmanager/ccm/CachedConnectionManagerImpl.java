@@ -83,6 +83,9 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
    /** Ignore unknown connections */
    private boolean ignoreConnections = false;
 
+   /** Use the reusable frame stack */
+   private boolean reuseFrames = false;
+
    /** Transaction integration */
    private TransactionIntegration transactionIntegration;
 
@@ -96,6 +99,12 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
    private final ThreadLocal<LinkedList<KeyConnectionAssociation>> currentObjects =
       new ThreadLocal<LinkedList<KeyConnectionAssociation>>();
 
+   /**
+    * ThreadLocal that holds the reusable frames of the current calling
+    * meta-programming aware objects, when frames are reused
+    */
+   private final ThreadLocal<ContextStack> currentFrames = new ThreadLocal<ContextStack>();
+
    /**
     * The variable <code>objectToConnectionManagerMap</code> holds the
     * map of meta-aware object to set of connections it holds, used by
@@ -189,6 +198,26 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       ignoreConnections = v;
    }
 
+   /**
+    * Are the frames of the meta aware objects reused
+    * @return The value
+    */
+   public boolean isReuseFrames()
+   {
+      return reuseFrames;
+   }
+
+   /**
+    * Reuse the frames of the meta aware objects. A frame, and the storage for its
+    * connections, is kept per thread and reused between invocations instead of
+    * being allocated for each push. Must be set before the cached connection manager is used
+    * @param v The value
+    */
+   public void setReuseFrames(boolean v)
+   {
+      reuseFrames = v;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -216,6 +245,12 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
     */
    public void userTransactionStarted() throws SystemException
    {
+      if (reuseFrames)
+      {
+         userTransactionStartedFrame();
+         return;
+      }
+
       KeyConnectionAssociation key = peekMetaAwareObject();
 
       log.tracef("user tx started, key: %s", key);
@@ -251,6 +286,54 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       }
    }
 
+   /**
+    * User transaction started, when frames are reused
+    * @exception SystemException Thrown in case of an error
+    */
+   private void userTransactionStartedFrame() throws SystemException
+   {
+      ContextFrame frame = peekFrame();
+
+      log.tracef("user tx started, key: %s", frame);
+
+      if (frame != null && frame.size() > 0)
+      {
+         // Snapshot, since the connection managers may register connections
+         for (Entry<ConnectionCacheListener, Collection<ConnectionRecord>> entry :
+                 frame.getConnectionRecords().entrySet())
+         {
+            ConnectionCacheListener cm = entry.getKey();
+            Collection<ConnectionRecord> conns = entry.getValue();
+
+            if (Tracer.isEnabled())
+            {
+               for (ConnectionRecord cr : conns)
+               {
+                  ConnectionListener cl = (ConnectionListener)cr.getConnectionListener();
+                  Tracer.ccmUserTransaction(cl.getPool().getName(), cl.getManagedConnectionPool(),
+                                            cl, cr.getConnection(), frame.toString());
+               }
+            }
+
+            cm.transactionStarted(conns);
+         }
+      }
+   }
+
+   /**
+    *
+    * @return stack last frame
+    */
+   private ContextFrame peekFrame()
+   {
+      ContextStack stack = currentFrames.get();
+
+      if (stack != null)
+         return stack.peek();
+
+      return null;
+   }
+
    /**
     *
     * @return stack last meta-aware object
@@ -274,8 +357,15 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
    @SuppressWarnings("unchecked")
    public void popMetaAwareObject(Set unsharableResources) throws ResourceException
    {
+      if (reuseFrames)
+      {
+         popFrame();
+         return;
+      }
+
       LinkedList<KeyConnectionAssociation> stack = currentObjects.get();
       KeyConnectionAssociation oldKey = stack.removeLast();
+      oldKey.deactivate();
 
       log.tracef("popped object: %s", oldKey);
 
@@ -291,6 +381,36 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       }
    }
 
+   /**
+    * Pop the current frame
+    * @exception ResourceException Thrown if connections weren't closed
+    */
+   private void popFrame() throws ResourceException
+   {
+      ContextFrame frame = currentFrames.get().pop();
+      frame.end();
+
+      log.tracef("popped object: %s", frame);
+
+      if (Tracer.isEnabled())
+         Tracer.popCCMContext(frame.toString(), new Throwable("CALLSTACK"));
+
+      try
+      {
+         if (debug)
+         {
+            if (closeAll(frame) && error)
+            {
+               throw new ResourceException(bundle.someConnectionsWereNotClosed());
+            }
+         }
+      }
+      finally
+      {
+         frame.clear();
+      }
+   }
+
    /**
     * Register connection.
     * @param cm connection manager
@@ -309,6 +429,28 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
          }
       }
 
+      if (reuseFrames)
+      {
+         ContextFrame frame = peekFrame();
+
+         log.tracef("registering connection from connection manager: %s, connection : %s, key: %s",
+                    cm, connection, frame);
+
+         if (frame != null)
+         {
+            if (Tracer.isEnabled())
+            {
+               ConnectionListener l = (ConnectionListener)cl;
+               Tracer.registerCCMConnection(l.getPool().getName(), l.getManagedConnectionPool(),
+                                            l, connection, frame.toString());
+            }
+
+            frame.add((ConnectionCacheListener)cm, cl, connection);
+         }
+
+         return;
+      }
+
       KeyConnectionAssociation key = peekMetaAwareObject();
 
       log.tracef("registering connection from connection manager: %s, connection : %s, key: %s",
@@ -323,19 +465,104 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
                                          l, connection, key.toString());
          }
 
-         ConnectionRecord cr = new ConnectionRecord(cl, connection);
-         ConcurrentMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>> cmToConnectionsMap =
-            key.getCMToConnectionsMap();
+         addConnection(key, (ConnectionCacheListener)cm, cl, connection);
+      }
+   }
+
+   /**
+    * Capture the context of the current thread, such that a connection which is allocated
+    * on another thread on behalf of the current thread can be registered with it
+    * @return The context; <code>null</code> if there is none
+    */
+   public Object captureContext()
+   {
+      if (reuseFrames)
+      {
+         ContextFrame frame = peekFrame();
+         return frame != null ? new CapturedFrame(frame, frame.getGeneration()) : null;
+      }
+
+      return peekMetaAwareObject();
+   }
 
-         CopyOnWriteArrayList<ConnectionRecord> conns = cmToConnectionsMap.get(cm);
-         if (conns == null)
+   /**
+    * Register a connection with a captured context. The connection isn't registered
+    * if the context has ended since it was captured
+    * @param context The context
+    * @param cm connection manager
+    * @param cl connection listener
+    * @param connection connection handle
+    * @see #captureContext()
+    */
+   public void registerConnection(Object context,
+                                  org.jboss.jca.core.api.connectionmanager.listener.ConnectionCacheListener cm,
+                                  org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener cl,
+                                  Object connection)
+   {
+      if (debug)
+      {
+         synchronized (connectionStackTraces)
          {
-            conns = new CopyOnWriteArrayList<ConnectionRecord>();
-            cmToConnectionsMap.put((ConnectionCacheListener)cm, conns);
+            connectionStackTraces.put(connection, new Throwable("STACKTRACE"));
          }
+      }
+
+      boolean registered = false;
 
-         conns.add(cr);
+      if (context instanceof CapturedFrame)
+      {
+         CapturedFrame captured = (CapturedFrame)context;
+         registered = captured.frame.addPending(captured.generation, (ConnectionCacheListener)cm, cl, connection);
       }
+      else if (context instanceof KeyConnectionAssociation)
+      {
+         KeyConnectionAssociation key = (KeyConnectionAssociation)context;
+         synchronized (key)
+         {
+            if (key.isActive())
+            {
+               addConnection(key, (ConnectionCacheListener)cm, cl, connection);
+               registered = true;
+            }
+         }
+      }
+
+      log.tracef("registering connection from connection manager: %s, connection : %s, context: %s, registered: %s",
+                 cm, connection, context, registered);
+
+      if (registered && Tracer.isEnabled())
+      {
+         ConnectionListener l = (ConnectionListener)cl;
+         Tracer.registerCCMConnection(l.getPool().getName(), l.getManagedConnectionPool(),
+                                      l, connection, context.toString());
+      }
+   }
+
+   /**
+    * Add a connection to a key
+    * @param key The key
+    * @param cm connection manager
+    * @param cl connection listener
+    * @param connection connection handle
+    */
+   private void addConnection(KeyConnectionAssociation key, ConnectionCacheListener cm,
+                              org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener cl,
+                              Object connection)
+   {
+      ConnectionRecord cr = new ConnectionRecord(cl, connection);
+      ConcurrentMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>> cmToConnectionsMap =
+         key.getCMToConnectionsMap();
+
+      CopyOnWriteArrayList<ConnectionRecord> conns = cmToConnectionsMap.get(cm);
+      if (conns == null)
+      {
+         conns = new CopyOnWriteArrayList<ConnectionRecord>();
+         CopyOnWriteArrayList<ConnectionRecord> existing = cmToConnectionsMap.putIfAbsent(cm, conns);
+         if (existing != null)
+            conns = existing;
+      }
+
+      conns.add(cr);
    }
 
    /**
@@ -362,6 +589,12 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
          }
       }
 
+      if (reuseFrames)
+      {
+         unregisterConnectionFrame(cm, cl, connection);
+         return;
+      }
+
       KeyConnectionAssociation key = peekMetaAwareObject();
 
       log.tracef("unregistering connection from connection manager: %s, connection: %s, key: %s",
@@ -408,12 +641,76 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
          throw new IllegalStateException(bundle.tryingToReturnUnknownConnection(connection.toString()));
    }
 
+   /**
+    * Unregister connection, when frames are reused
+    * @param cm connection manager
+    * @param cl connection listener
+    * @param connection connection handle
+    */
+   private void unregisterConnectionFrame(org.jboss.jca.core.api.connectionmanager.listener.ConnectionCacheListener cm,
+                                          org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener cl,
+                                          Object connection)
+   {
+      ContextFrame frame = peekFrame();
+
+      log.tracef("unregistering connection from connection manager: %s, connection: %s, key: %s",
+                 cm, connection, frame);
+
+      // Can happen if connections are "passed" between contexts
+      if (frame == null || frame.size() == 0)
+         return;
+
+      int index = frame.indexOf((ConnectionCacheListener)cm, connection);
+      if (index >= 0)
+      {
+         if (Tracer.isEnabled())
+         {
+            ConnectionListener l = (ConnectionListener)cl;
+            Tracer.unregisterCCMConnection(l.getPool().getName(), l.getManagedConnectionPool(),
+                                           l, connection, frame.toString());
+         }
+
+         frame.remove(index);
+         return;
+      }
+
+      if (Tracer.isEnabled())
+      {
+         ConnectionListener l = (ConnectionListener)cl;
+         Tracer.unknownCCMConnection(l.getPool().getName(), l.getManagedConnectionPool(),
+                                     l, connection, frame.toString());
+      }
+
+      if (!ignoreConnections)
+         throw new IllegalStateException(bundle.tryingToReturnUnknownConnection(connection.toString()));
+   }
+
    /**
     * {@inheritDoc}
     */
    @SuppressWarnings("unchecked")
    public void pushMetaAwareObject(final Object rawKey, Set unsharableResources) throws ResourceException
    {
+      if (reuseFrames)
+      {
+         ContextStack frames = currentFrames.get();
+
+         if (frames == null)
+         {
+            frames = new ContextStack();
+            currentFrames.set(frames);
+         }
+
+         ContextFrame frame = frames.push(rawKey);
+
+         log.tracef("new stack for key: %s", frame);
+
+         if (Tracer.isEnabled())
+            Tracer.pushCCMContext(frame.toString(), new Throwable("CALLSTACK"));
+
+         return;
+      }
+
       LinkedList<KeyConnectionAssociation> stack = currentObjects.get();
       KeyConnectionAssociation key = new KeyConnectionAssociation(rawKey);
 
@@ -552,6 +849,53 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       return unclosed;
    }
 
+   /**
+    * Close all connections of a frame.
+    * @param frame The frame
+    * @return true if close
+    */
+   private boolean closeAll(ContextFrame frame)
+   {
+      boolean unclosed = false;
+      int size = frame.size();
+
+      if (size != 0)
+      {
+         // Copy, since closing a connection may unregister it
+         Object[] conns = new Object[size];
+         ConnectionListener[] cls = new ConnectionListener[size];
+         for (int i = 0; i < size; i++)
+         {
+            conns[i] = frame.getConnection(i);
+            cls[i] = (ConnectionListener)frame.getConnectionListener(i);
+         }
+
+         for (int i = 0; i < size; i++)
+         {
+            Object c = conns[i];
+            CloseConnectionSynchronization cas = getCloseConnectionSynchronization(true);
+            if (cas == null)
+            {
+               unclosed = true;
+
+               if (Tracer.isEnabled())
+               {
+                  Tracer.closeCCMConnection(cls[i].getPool().getName(), cls[i].getManagedConnectionPool(),
+                                            cls[i], c, frame.toString());
+               }
+
+               closeConnection(c);
+            }
+            else
+            {
+               cas.add(c);
+            }
+         }
+      }
+
+      return unclosed;
+   }
+
    /**
     * Gets close sync. instance.
     * @param createIfNotFound create if not found
@@ -717,6 +1061,17 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       return currentObjects;
    }
 
+   /**
+    * Get the currentFrames.
+    * This method is package protected because it is intended only for test case use.
+    *
+    * @return the currentFrames.
+    */
+   final ThreadLocal<ContextStack> getCurrentFrames()
+   {
+      return currentFrames;
+   }
+
    /**
     * String representation
     * @return The string
@@ -731,11 +1086,51 @@ public class CachedConnectionManagerImpl implements CachedConnectionManager
       sb.append(" error=").append(error);
       sb.append(" ignoreConnections=").append(ignoreConnections);
       sb.append(" transactionIntegration=").append(transactionIntegration);
-      sb.append(" currentObjects=").append(currentObjects.get());
+      sb.append(" reuseFrames=").append(reuseFrames);
+      if (reuseFrames)
+      {
+         sb.append(" currentFrames=").append(currentFrames.get());
+      }
+      else
+      {
+         sb.append(" currentObjects=").append(currentObjects.get());
+      }
       sb.append(" objectToConnectionManagerMap=").append(objectToConnectionManagerMap);
       sb.append(" connectionStackTraces=").append(connectionStackTraces);
       sb.append("]");
 
       return sb.toString();
    }
+
+   /**
+    * A frame captured for a registration from another thread
+    */
+   private static final class CapturedFrame
+   {
+      /** The frame */
+      private final ContextFrame frame;
+
+      /** The generation of the frame when captured */
+      private final int generation;
+
+      /**
+       * Constructor
+       * @param frame The frame
+       * @param generation The generation
+       */
+      CapturedFrame(ContextFrame frame, int generation)
+      {
+         this.frame = frame;
+         this.generation = generation;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public String toString()
+      {
+         return frame.toString();
+      }
+   }
 }
@@ -0,0 +1,383 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.ccm;
+
+import org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.ConnectionRecord;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionCacheListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A frame of a {@link ContextStack}, e.g. a meta aware object and the connections
+ * registered while it is the current object.
+ *
+ * The connections are kept in arrays that are created when the first connection is
+ * registered, and kept when the frame is reused. A frame is only accessed by its own thread,
+ * except for connections allocated asynchronously on behalf of the frame, which are handed
+ * over by {@link #addPending} and moved into the arrays by the own thread. The generation
+ * identifies the use of the frame that the pending connections belong to.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+final class ContextFrame
+{
+   /** Initial capacity */
+   private static final int INITIAL_CAPACITY = 4;
+
+   /** The meta aware object */
+   private Object metaAwareObject;
+
+   /** The connection managers */
+   private ConnectionCacheListener[] cms;
+
+   /** The connection listeners */
+   private ConnectionListener[] cls;
+
+   /** The connection handles */
+   private Object[] connections;
+
+   /** The number of connections */
+   private int size;
+
+   /** The generation; incremented when the use of the frame ends */
+   private int generation;
+
+   /** The connections handed over by other threads; guarded by the frame */
+   private List<PendingConnection> pending;
+
+   /** Are there pending connections */
+   private volatile boolean hasPending;
+
+   /**
+    * Constructor
+    */
+   ContextFrame()
+   {
+      this.metaAwareObject = null;
+      this.cms = null;
+      this.cls = null;
+      this.connections = null;
+      this.size = 0;
+      this.generation = 0;
+      this.pending = null;
+      this.hasPending = false;
+   }
+
+   /**
+    * Set the meta aware object
+    * @param v The value
+    */
+   void setMetaAwareObject(Object v)
+   {
+      metaAwareObject = v;
+   }
+
+   /**
+    * Get the meta aware object
+    * @return The value
+    */
+   Object getMetaAwareObject()
+   {
+      return metaAwareObject;
+   }
+
+   /**
+    * Get the number of connections
+    * @return The value
+    */
+   int size()
+   {
+      drainPending();
+      return size;
+   }
+
+   /**
+    * Get a connection handle
+    * @param index The index
+    * @return The value
+    */
+   Object getConnection(int index)
+   {
+      return connections[index];
+   }
+
+   /**
+    * Get a connection listener
+    * @param index The index
+    * @return The value
+    */
+   ConnectionListener getConnectionListener(int index)
+   {
+      return cls[index];
+   }
+
+   /**
+    * Add a connection
+    * @param cm The connection manager
+    * @param cl The connection listener
+    * @param connection The connection handle
+    */
+   void add(ConnectionCacheListener cm, ConnectionListener cl, Object connection)
+   {
+      drainPending();
+      append(cm, cl, connection);
+   }
+
+   /**
+    * Get the generation
+    * @return The value
+    */
+   synchronized int getGeneration()
+   {
+      return generation;
+   }
+
+   /**
+    * Hand over a connection from another thread
+    * @param gen The generation of the frame when it was captured
+    * @param cm The connection manager
+    * @param cl The connection listener
+    * @param connection The connection handle
+    * @return True if added, false if the frame has been popped since it was captured
+    */
+   synchronized boolean addPending(int gen, ConnectionCacheListener cm, ConnectionListener cl, Object connection)
+   {
+      if (gen != generation)
+         return false;
+
+      if (pending == null)
+         pending = new ArrayList<PendingConnection>(1);
+
+      pending.add(new PendingConnection(cm, cl, connection));
+      hasPending = true;
+
+      return true;
+   }
+
+   /**
+    * End the use of the frame; connections can no longer be handed over by other threads,
+    * and the pending ones are moved into the frame
+    */
+   void end()
+   {
+      synchronized (this)
+      {
+         generation++;
+      }
+
+      drainPending();
+   }
+
+   /**
+    * Move the connections handed over by other threads into the frame
+    */
+   private void drainPending()
+   {
+      if (!hasPending)
+         return;
+
+      List<PendingConnection> l;
+      synchronized (this)
+      {
+         l = pending;
+         pending = null;
+         hasPending = false;
+      }
+
+      if (l != null)
+      {
+         for (PendingConnection pc : l)
+         {
+            append(pc.cm, pc.cl, pc.connection);
+         }
+      }
+   }
+
+   /**
+    * Append a connection
+    * @param cm The connection manager
+    * @param cl The connection listener
+    * @param connection The connection handle
+    */
+   private void append(ConnectionCacheListener cm, ConnectionListener cl, Object connection)
+   {
+      if (cms == null)
+      {
+         cms = new ConnectionCacheListener[INITIAL_CAPACITY];
+         cls = new ConnectionListener[INITIAL_CAPACITY];
+         connections = new Object[INITIAL_CAPACITY];
+      }
+      else if (size == cms.length)
+      {
+         int capacity = size << 1;
+         ConnectionCacheListener[] newCms = new ConnectionCacheListener[capacity];
+         ConnectionListener[] newCls = new ConnectionListener[capacity];
+         Object[] newConnections = new Object[capacity];
+
+         System.arraycopy(cms, 0, newCms, 0, size);
+         System.arraycopy(cls, 0, newCls, 0, size);
+         System.arraycopy(connections, 0, newConnections, 0, size);
+
+         cms = newCms;
+         cls = newCls;
+         connections = newConnections;
+      }
+
+      cms[size] = cm;
+      cls[size] = cl;
+      connections[size] = connection;
+      size++;
+   }
+
+   /**
+    * Find a connection
+    * @param cm The connection manager
+    * @param connection The connection handle
+    * @return The index; otherwise -1
+    */
+   int indexOf(ConnectionCacheListener cm, Object connection)
+   {
+      drainPending();
+
+      // Connections are typically closed in reverse order
+      for (int i = size - 1; i >= 0; i--)
+      {
+         if (connections[i] == connection && cm.equals(cms[i]))
+            return i;
+      }
+
+      return -1;
+   }
+
+   /**
+    * Remove a connection
+    * @param index The index
+    */
+   void remove(int index)
+   {
+      int moved = size - index - 1;
+      if (moved > 0)
+      {
+         System.arraycopy(cms, index + 1, cms, index, moved);
+         System.arraycopy(cls, index + 1, cls, index, moved);
+         System.arraycopy(connections, index + 1, connections, index, moved);
+      }
+
+      size--;
+      cms[size] = null;
+      cls[size] = null;
+      connections[size] = null;
+   }
+
+   /**
+    * Get the connection records for each connection manager
+    * @return The value
+    */
+   Map<ConnectionCacheListener, Collection<ConnectionRecord>> getConnectionRecords()
+   {
+      drainPending();
+
+      Map<ConnectionCacheListener, Collection<ConnectionRecord>> result =
+         new HashMap<ConnectionCacheListener, Collection<ConnectionRecord>>();
+
+      for (int i = 0; i < size; i++)
+      {
+         Collection<ConnectionRecord> records = result.get(cms[i]);
+         if (records == null)
+         {
+            records = new ArrayList<ConnectionRecord>(1);
+            result.put(cms[i], records);
+         }
+
+         records.add(new ConnectionRecord(cls[i], connections[i]));
+      }
+
+      return result;
+   }
+
+   /**
+    * Clear the frame, such that it can be reused
+    */
+   void clear()
+   {
+      synchronized (this)
+      {
+         pending = null;
+         hasPending = false;
+      }
+
+      for (int i = 0; i < size; i++)
+      {
+         cms[i] = null;
+         cls[i] = null;
+         connections[i] = null;
+      }
+
+      metaAwareObject = null;
+      size = 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      if (metaAwareObject == null)
+         return "null";
+
+      return metaAwareObject.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(metaAwareObject));
+   }
+
+   /**
+    * A connection handed over by another thread
+    */
+   private static final class PendingConnection
+   {
+      /** The connection manager */
+      private final ConnectionCacheListener cm;
+
+      /** The connection listener */
+      private final ConnectionListener cl;
+
+      /** The connection handle */
+      private final Object connection;
+
+      /**
+       * Constructor
+       * @param cm The connection manager
+       * @param cl The connection listener
+       * @param connection The connection handle
+       */
+      PendingConnection(ConnectionCacheListener cm, ConnectionListener cl, Object connection)
+      {
+         this.cm = cm;
+         this.cl = cl;
+         this.connection = connection;
+      }
+   }
+}
@@ -0,0 +1,134 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.ccm;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An array based stack of {@link ContextFrame}s for a thread. Frames are reused
+ * between invocations, so a push or pop doesn't allocate once the stack has
+ * reached its depth.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+final class ContextStack
+{
+   /** Initial depth */
+   private static final int INITIAL_DEPTH = 8;
+
+   /** The frames */
+   private ContextFrame[] frames;
+
+   /** The depth */
+   private int depth;
+
+   /**
+    * Constructor
+    */
+   ContextStack()
+   {
+      this.frames = new ContextFrame[INITIAL_DEPTH];
+      this.depth = 0;
+   }
+
+   /**
+    * Push a meta aware object
+    * @param metaAwareObject The meta aware object
+    * @return The frame
+    */
+   ContextFrame push(Object metaAwareObject)
+   {
+      if (depth == frames.length)
+      {
+         ContextFrame[] newFrames = new ContextFrame[depth << 1];
+         System.arraycopy(frames, 0, newFrames, 0, depth);
+         frames = newFrames;
+      }
+
+      ContextFrame frame = frames[depth];
+      if (frame == null)
+      {
+         frame = new ContextFrame();
+         frames[depth] = frame;
+      }
+
+      frame.setMetaAwareObject(metaAwareObject);
+      depth++;
+
+      return frame;
+   }
+
+   /**
+    * Pop the current frame. The frame must be cleared by the caller
+    * before the next push
+    * @return The frame
+    */
+   ContextFrame pop()
+   {
+      if (depth == 0)
+         throw new NoSuchElementException();
+
+      depth--;
+      return frames[depth];
+   }
+
+   /**
+    * Get the current frame
+    * @return The frame; <code>null</code> if the stack is empty
+    */
+   ContextFrame peek()
+   {
+      if (depth == 0)
+         return null;
+
+      return frames[depth - 1];
+   }
+
+   /**
+    * Is the stack empty
+    * @return <code>True</code> if empty; otherwise <code>false</code>
+    */
+   boolean isEmpty()
+   {
+      return depth == 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append('[');
+      for (int i = 0; i < depth; i++)
+      {
+         if (i > 0)
+            sb.append(", ");
+         sb.append(frames[i]);
+      }
+      sb.append(']');
+
+      return sb.toString();
+   }
+}
@@ -43,6 +43,9 @@ final class KeyConnectionAssociation
    //map of cm to list of connections for that cm.
    private ConcurrentMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>> cmToConnectionsMap;
 
+   //is the key still on the stack of its thread; guarded by the key
+   private boolean active;
+
    /**
     * Creates a new instance.
     * @param metaAwareObject meta aware object
@@ -50,6 +53,24 @@ final class KeyConnectionAssociation
    KeyConnectionAssociation(final Object metaAwareObject)
    {
       this.metaAwareObject = metaAwareObject;
+      this.active = true;
+   }
+
+   /**
+    * Is the key still on the stack of its thread
+    * @return True if active, otherwise false
+    */
+   synchronized boolean isActive()
+   {
+      return active;
+   }
+
+   /**
+    * The key was popped from the stack of its thread
+    */
+   synchronized void deactivate()
+   {
+      active = false;
    }
 
    /**
@@ -88,7 +109,7 @@ final class KeyConnectionAssociation
     * Set map instance.
     * @param cmToConnectionsMap connection manager to connections
     */
-   public void setCMToConnectionsMap(ConcurrentMap<ConnectionCacheListener, 
+   public synchronized void setCMToConnectionsMap(ConcurrentMap<ConnectionCacheListener, 
                                      CopyOnWriteArrayList<ConnectionRecord>> cmToConnectionsMap)
    {
       this.cmToConnectionsMap = cmToConnectionsMap;
@@ -100,9 +121,14 @@ final class KeyConnectionAssociation
     */
    public ConcurrentMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>> getCMToConnectionsMap()
    {
-      if (cmToConnectionsMap == null)
-         cmToConnectionsMap = new ConcurrentHashMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>>();
-      
-      return cmToConnectionsMap;
+      // Connections allocated asynchronously are registered by other threads
+      synchronized (this)
+      {
+         if (cmToConnectionsMap == null)
+            cmToConnectionsMap =
+               new ConcurrentHashMap<ConnectionCacheListener, CopyOnWriteArrayList<ConnectionRecord>>();
+
+         return cmToConnectionsMap;
+      }
    }
 }
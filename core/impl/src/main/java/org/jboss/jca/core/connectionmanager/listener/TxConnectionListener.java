@@ -29,6 +29,7 @@ import org.jboss.jca.core.connectionmanager.TxConnectionManager;
 import org.jboss.jca.core.connectionmanager.pool.api.Pool;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
 import org.jboss.jca.core.connectionmanager.transaction.LockKey;
+import org.jboss.jca.core.connectionmanager.transaction.TransactionConnectionListeners;
 import org.jboss.jca.core.connectionmanager.transaction.TransactionSynchronizer;
 import org.jboss.jca.core.connectionmanager.tx.TxConnectionManagerImpl;
 import org.jboss.jca.core.spi.transaction.ConnectableResource;
@@ -590,7 +591,7 @@ public class TxConnectionListener extends AbstractConnectionListener
 
                   try
                   {
-                     tsr.putResource(mcp, null);
+                     TransactionConnectionListeners.put(tsr, lock, mcp, null);
                   }
                   finally
                   {
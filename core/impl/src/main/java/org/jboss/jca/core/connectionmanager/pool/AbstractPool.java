@@ -32,13 +32,16 @@ import org.jboss.jca.core.connectionmanager.TxConnectionManager;
 import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
 import org.jboss.jca.core.connectionmanager.pool.api.Capacity;
 import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolAware;
 import org.jboss.jca.core.connectionmanager.pool.api.Semaphore;
 import org.jboss.jca.core.connectionmanager.pool.capacity.DefaultCapacity;
+import org.jboss.jca.core.connectionmanager.pool.capacity.AdaptiveDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPoolFactory;
 import org.jboss.jca.core.connectionmanager.pool.mcp.NotifyingManagedConnection;
 import org.jboss.jca.core.connectionmanager.transaction.LockKey;
+import org.jboss.jca.core.connectionmanager.transaction.TransactionConnectionListeners;
 import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 import org.jboss.jca.core.tracer.Tracer;
 
@@ -213,6 +216,15 @@ public abstract class AbstractPool implements Pool
    public void setCapacity(Capacity c)
    {
       capacity = c;
+
+      if (c != null)
+      {
+         if (c.getIncrementer() instanceof PoolAware)
+            ((PoolAware)c.getIncrementer()).setPool(this);
+
+         if (c.getDecrementer() instanceof PoolAware)
+            ((PoolAware)c.getDecrementer()).setPool(this);
+      }
    }
 
 
@@ -222,7 +234,8 @@ public abstract class AbstractPool implements Pool
    public boolean isFIFO()
    {
       if (capacity == null || capacity.getDecrementer() == null ||
-          TimedOutDecrementer.class.getName().equals(capacity.getDecrementer().getClass().getName()))
+          TimedOutDecrementer.class.getName().equals(capacity.getDecrementer().getClass().getName()) ||
+          AdaptiveDecrementer.class.getName().equals(capacity.getDecrementer().getClass().getName()))
          return false;
       
       return true;
@@ -624,6 +637,37 @@ public abstract class AbstractPool implements Pool
       return cl;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException
+   {
+      ManagedConnectionPool mcp = null;
+      try
+      {
+         if (shutdown.get())
+            throw new ResourceException(bundle.connectionManagerIsShutdown(poolName));
+
+         mcp = getManagedConnectionPool(getKey(subject, cri, noTxSeparatePools && cm.isTransactional()),
+                                        subject, cri);
+      }
+      catch (ResourceException re)
+      {
+         if (permitHeld)
+            permits.release();
+
+         throw re;
+      }
+
+      ConnectionListener cl = mcp.getConnection(subject, cri, permitHeld, create);
+      if (cl != null && cl.getManagedConnection() instanceof NotifyingManagedConnection)
+         ((NotifyingManagedConnection)cl.getManagedConnection()).notifyRequestBegin();
+
+      return cl;
+   }
+
    /**
     * Gets simple connection listener that wraps connection.
     * @param subject Subject instance
@@ -661,25 +705,15 @@ public abstract class AbstractPool implements Pool
       throws ResourceException
    {
       TransactionSynchronizationRegistry tsr = getTransactionSynchronizationRegistry();
-      Lock lock = getTSRLock();
 
-      if (lock == null)
+      if (tsr == null || tsr.getTransactionKey() == null)
          throw new ResourceException(bundle.unableObtainLock());
 
       try
       {
-         lock.lockInterruptibly();
-      }
-      catch (InterruptedException ie)
-      {
-         Thread.interrupted();
-         
-         throw new ResourceException(bundle.unableObtainLock(), ie);
-      }
-      try
-      {
-         // Already got one
-         ConnectionListener cl = (ConnectionListener)tsr.getResource(mcp);
+         // Already got one; the lookup doesn't need the transaction lock as the listener
+         // is only registered once the lock is held in getTransactionNewConnection
+         ConnectionListener cl = TransactionConnectionListeners.get(tsr, mcp);
          if (cl != null)
          {
             log.tracef("Previous connection tracked by transaction=%s tx=%s", cl, trackByTransaction);
@@ -692,10 +726,6 @@ public abstract class AbstractPool implements Pool
       {
          throw new ResourceException(bundle.unableGetConnectionListener(), t);
       }
-      finally
-      {
-         lock.unlock();
-      }
    }
 
    /**
@@ -764,8 +794,7 @@ public abstract class AbstractPool implements Pool
       try
       {
          // Check we weren't racing with another transaction
-         ConnectionListener other =
-            (ConnectionListener)tsr.getResource(mcp);
+         ConnectionListener other = TransactionConnectionListeners.get(tsr, mcp);
 
          if (other != null)
          {
@@ -779,7 +808,7 @@ public abstract class AbstractPool implements Pool
 
          // This is the connection for this transaction
          cl.setTrackByTx(true);
-         tsr.putResource(mcp, cl);
+         TransactionConnectionListeners.put(tsr, lock, mcp, cl);
 
          log.tracef("Using connection from pool tracked by transaction=%s tx=%s", cl, trackByTransaction);
 
@@ -868,22 +897,15 @@ public abstract class AbstractPool implements Pool
    public boolean hasConnection(Subject subject, ConnectionRequestInfo cri)
    {
       TransactionSynchronizationRegistry tsr = getTransactionSynchronizationRegistry();
-      Lock lock = getTSRLock();
 
-      if (lock == null)
+      if (tsr == null)
          return false;
 
       try
       {
-         lock.lockInterruptibly();
-      }
-      catch (InterruptedException ie)
-      {
-         Thread.interrupted();
-         return false;
-      }
-      try
-      {
+         if (tsr.getTransactionKey() == null)
+            return false;
+
          boolean separateNoTx = false;
 
          if (noTxSeparatePools)
@@ -898,7 +920,7 @@ public abstract class AbstractPool implements Pool
          ManagedConnectionPool mcp = getManagedConnectionPool(key, subject, cri);
 
          // Already got one
-         ConnectionListener cl = (ConnectionListener)tsr.getResource(mcp);
+         ConnectionListener cl = TransactionConnectionListeners.get(tsr, mcp);
          if (cl != null)
          {
             return true;
@@ -908,10 +930,6 @@ public abstract class AbstractPool implements Pool
       {
          log.debugf(t, "hasConnection error: %s", t.getMessage());
       }
-      finally
-      {
-         lock.unlock();
-      }
 
       return false;
    }
@@ -1169,6 +1187,14 @@ public abstract class AbstractPool implements Pool
       return poolConfiguration;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getBlockingTimeout()
+   {
+      return poolConfiguration.getBlockingTimeout();
+   }
+
    /**
     * Is prefill
     * @return The value
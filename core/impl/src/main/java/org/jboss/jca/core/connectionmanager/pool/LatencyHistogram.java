@@ -0,0 +1,190 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram using log-linear buckets.
+ *
+ * Values below 32 are recorded exactly; above that each power of two is split
+ * into 16 sub-buckets, giving a relative error of at most 1/16 for the reported
+ * percentiles. Buckets are striped counters that are created on first use, so an
+ * unused histogram costs a single reference array.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+final class LatencyHistogram
+{
+   /** Sub-bucket bits */
+   private static final int SUB_BITS = 4;
+
+   /** Sub-buckets per power of two */
+   private static final int SUB = 1 << SUB_BITS;
+
+   /** Values recorded exactly */
+   private static final int LINEAR = SUB << 1;
+
+   /** Highest recordable exponent */
+   private static final int MAX_EXPONENT = 36;
+
+   /** Highest recordable value */
+   private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+   /** Number of buckets */
+   private static final int BUCKETS = LINEAR + (MAX_EXPONENT - SUB_BITS - 1) * SUB;
+
+   /** The buckets */
+   private final AtomicReferenceArray<LongAdder> buckets;
+
+   /**
+    * Constructor
+    */
+   LatencyHistogram()
+   {
+      this.buckets = new AtomicReferenceArray<LongAdder>(BUCKETS);
+   }
+
+   /**
+    * Record a value
+    * @param value The value; negative values are ignored, large values are clamped
+    */
+   void record(long value)
+   {
+      if (value < 0)
+         return;
+
+      int idx = index(value > MAX_VALUE ? MAX_VALUE : value);
+      LongAdder bucket = buckets.get(idx);
+
+      if (bucket == null)
+      {
+         bucket = new LongAdder();
+         if (!buckets.compareAndSet(idx, null, bucket))
+            bucket = buckets.get(idx);
+      }
+
+      bucket.increment();
+   }
+
+   /**
+    * Get the number of recorded values
+    * @return The value
+    */
+   long getCount()
+   {
+      long total = 0L;
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         LongAdder bucket = buckets.get(i);
+         if (bucket != null)
+            total += bucket.sum();
+      }
+      return total;
+   }
+
+   /**
+    * Get the value at a percentile
+    * @param percentile The percentile, between 0 and 100
+    * @return The highest value of the bucket holding the percentile; 0 if nothing has been recorded
+    */
+   long getValueAtPercentile(double percentile)
+   {
+      long[] counts = new long[BUCKETS];
+      long total = 0L;
+
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         LongAdder bucket = buckets.get(i);
+         if (bucket != null)
+         {
+            counts[i] = bucket.sum();
+            total += counts[i];
+         }
+      }
+
+      if (total == 0L)
+         return 0L;
+
+      long target = (long)Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total);
+      if (target < 1L)
+         target = 1L;
+
+      long seen = 0L;
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         seen += counts[i];
+         if (seen >= target)
+            return highestValue(i);
+      }
+
+      return highestValue(BUCKETS - 1);
+   }
+
+   /**
+    * Clear the histogram
+    */
+   void clear()
+   {
+      for (int i = 0; i < BUCKETS; i++)
+      {
+         LongAdder bucket = buckets.get(i);
+         if (bucket != null)
+            bucket.reset();
+      }
+   }
+
+   /**
+    * Get the bucket index for a value
+    * @param value The value
+    * @return The index
+    */
+   static int index(long value)
+   {
+      if (value < LINEAR)
+         return (int)value;
+
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      int shift = exponent - SUB_BITS;
+
+      return LINEAR + (exponent - SUB_BITS - 1) * SUB + (int)((value >>> shift) - SUB);
+   }
+
+   /**
+    * Get the highest value that maps to a bucket
+    * @param idx The index
+    * @return The value
+    */
+   static long highestValue(int idx)
+   {
+      if (idx < LINEAR)
+         return idx;
+
+      int k = idx - LINEAR;
+      int shift = k / SUB + 1;
+      long low = ((long)(k % SUB) + SUB) << shift;
+
+      return low + (1L << shift) - 1;
+   }
+}
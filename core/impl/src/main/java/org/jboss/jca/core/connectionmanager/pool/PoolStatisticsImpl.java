@@ -38,7 +38,9 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
 
 /**
  * Pool statistics
@@ -54,6 +56,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String AVAILABLE_COUNT = "AvailableCount";
    private static final String AVERAGE_BLOCKING_TIME = "AverageBlockingTime";
    private static final String AVERAGE_CREATION_TIME = "AverageCreationTime";
+   private static final String AVERAGE_FILL_TIME = "AverageFillTime";
    private static final String AVERAGE_GET_TIME = "AverageGetTime";
    private static final String AVERAGE_POOL_TIME = "AveragePoolTime";
    private static final String AVERAGE_USAGE_TIME = "AverageUsageTime";
@@ -63,6 +66,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String IDLE_COUNT = "IdleCount";
    private static final String IN_USE_COUNT = "InUseCount";
    private static final String MAX_CREATION_TIME = "MaxCreationTime";
+   private static final String MAX_FILL_TIME = "MaxFillTime";
    private static final String MAX_GET_TIME = "MaxGetTime";
    private static final String MAX_POOL_TIME = "MaxPoolTime";
    private static final String MAX_USAGE_TIME = "MaxUsageTime";
@@ -72,15 +76,31 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String TIMED_OUT = "TimedOut";
    private static final String TOTAL_BLOCKING_TIME = "TotalBlockingTime";
    private static final String TOTAL_CREATION_TIME = "TotalCreationTime";
+   private static final String TOTAL_FILL_TIME = "TotalFillTime";
    private static final String TOTAL_GET_TIME = "TotalGetTime";
    private static final String TOTAL_POOL_TIME = "TotalPoolTime";
    private static final String TOTAL_USAGE_TIME = "TotalUsageTime";
    private static final String WAIT_COUNT = "WaitCount";
+   private static final String P50_BLOCKING_TIME = "P50BlockingTime";
+   private static final String P99_BLOCKING_TIME = "P99BlockingTime";
+   private static final String P999_BLOCKING_TIME = "P999BlockingTime";
+   private static final String P50_CREATION_TIME = "P50CreationTime";
+   private static final String P99_CREATION_TIME = "P99CreationTime";
+   private static final String P999_CREATION_TIME = "P999CreationTime";
+   private static final String P50_GET_TIME = "P50GetTime";
+   private static final String P99_GET_TIME = "P99GetTime";
+   private static final String P999_GET_TIME = "P999GetTime";
+   private static final String P50_USAGE_TIME = "P50UsageTime";
+   private static final String P99_USAGE_TIME = "P99UsageTime";
+   private static final String P999_USAGE_TIME = "P999UsageTime";
 
    private static final String XA_COMMIT_COUNT = "XACommitCount";
    private static final String XA_COMMIT_AVERAGE_TIME = "XACommitAverageTime";
    private static final String XA_COMMIT_TOTAL_TIME = "XACommitTotalTime";
    private static final String XA_COMMIT_MAX_TIME = "XACommitMaxTime";
+   private static final String XA_COMMIT_P50_TIME = "XACommitP50Time";
+   private static final String XA_COMMIT_P99_TIME = "XACommitP99Time";
+   private static final String XA_COMMIT_P999_TIME = "XACommitP999Time";
    private static final String XA_END_COUNT = "XAEndCount";
    private static final String XA_END_AVERAGE_TIME = "XAEndAverageTime";
    private static final String XA_END_TOTAL_TIME = "XAEndTotalTime";
@@ -93,6 +113,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String XA_PREPARE_AVERAGE_TIME = "XAPrepareAverageTime";
    private static final String XA_PREPARE_TOTAL_TIME = "XAPrepareTotalTime";
    private static final String XA_PREPARE_MAX_TIME = "XAPrepareMaxTime";
+   private static final String XA_PREPARE_P50_TIME = "XAPrepareP50Time";
+   private static final String XA_PREPARE_P99_TIME = "XAPrepareP99Time";
+   private static final String XA_PREPARE_P999_TIME = "XAPrepareP999Time";
    private static final String XA_RECOVER_COUNT = "XARecoverCount";
    private static final String XA_RECOVER_AVERAGE_TIME = "XARecoverAverageTime";
    private static final String XA_RECOVER_TOTAL_TIME = "XARecoverTotalTime";
@@ -106,57 +129,74 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    private static final String XA_START_TOTAL_TIME = "XAStartTotalTime";
    private static final String XA_START_MAX_TIME = "XAStartMaxTime";
 
+   /** Maximum operator for the accumulators */
+   private static final LongBinaryOperator MAX = new LongBinaryOperator()
+   {
+      public long applyAsLong(long left, long right)
+      {
+         return Math.max(left, right);
+      }
+   };
+
    private int maxPoolSize;
    private transient SortedSet<String> names;
    private transient Map<String, Class> types;
    private transient Map<Locale, ResourceBundle> rbs;
 
    private transient AtomicBoolean enabled;
-   private transient AtomicInteger createdCount;
-   private transient AtomicInteger destroyedCount;
-   private transient AtomicInteger maxUsedCount;
-   private transient AtomicLong maxCreationTime;
-   private transient AtomicLong maxGetTime;
-   private transient AtomicLong maxPoolTime;
-   private transient AtomicLong maxUsageTime;
-   private transient AtomicInteger maxWaitCount;
-   private transient AtomicLong maxWaitTime;
-   private transient AtomicInteger timedOut;
-   private transient AtomicLong totalBlockingTime;
-   private transient AtomicLong totalBlockingTimeInvocations;
-   private transient AtomicLong totalCreationTime;
-   private transient AtomicLong totalGetTime;
-   private transient AtomicLong totalGetTimeInvocations;
-   private transient AtomicLong totalPoolTime;
-   private transient AtomicLong totalPoolTimeInvocations;
-   private transient AtomicLong totalUsageTime;
-   private transient AtomicLong totalUsageTimeInvocations;
+   private transient LongAdder createdCount;
+   private transient LongAdder destroyedCount;
+   private transient LongAccumulator maxUsedCount;
+   private transient LongAccumulator maxCreationTime;
+   private transient LongAccumulator maxFillTime;
+   private transient LongAccumulator maxGetTime;
+   private transient LongAccumulator maxPoolTime;
+   private transient LongAccumulator maxUsageTime;
+   private transient LongAccumulator maxWaitCount;
+   private transient LongAccumulator maxWaitTime;
+   private transient LongAdder timedOut;
+   private transient LongAdder totalBlockingTime;
+   private transient LongAdder totalBlockingTimeInvocations;
+   private transient LongAdder totalCreationTime;
+   private transient LongAdder totalFillTime;
+   private transient LongAdder totalFillTimeInvocations;
+   private transient LongAdder totalGetTime;
+   private transient LongAdder totalGetTimeInvocations;
+   private transient LongAdder totalPoolTime;
+   private transient LongAdder totalPoolTimeInvocations;
+   private transient LongAdder totalUsageTime;
+   private transient LongAdder totalUsageTimeInvocations;
    private transient AtomicInteger inUseCount;
-   private transient AtomicInteger blockingFailureCount;
-   private transient AtomicInteger waitCount;
-
-
-   private transient AtomicLong commitCount;
-   private transient AtomicLong commitTotalTime;
-   private transient AtomicLong commitMaxTime;
-   private transient AtomicLong endCount;
-   private transient AtomicLong endTotalTime;
-   private transient AtomicLong endMaxTime;
-   private transient AtomicLong forgetCount;
-   private transient AtomicLong forgetTotalTime;
-   private transient AtomicLong forgetMaxTime;
-   private transient AtomicLong prepareCount;
-   private transient AtomicLong prepareTotalTime;
-   private transient AtomicLong prepareMaxTime;
-   private transient AtomicLong recoverCount;
-   private transient AtomicLong recoverTotalTime;
-   private transient AtomicLong recoverMaxTime;
-   private transient AtomicLong rollbackCount;
-   private transient AtomicLong rollbackTotalTime;
-   private transient AtomicLong rollbackMaxTime;
-   private transient AtomicLong startCount;
-   private transient AtomicLong startTotalTime;
-   private transient AtomicLong startMaxTime;
+   private transient LongAdder blockingFailureCount;
+   private transient LongAdder waitCount;
+   private transient LatencyHistogram blockingTimeHistogram;
+   private transient LatencyHistogram creationTimeHistogram;
+   private transient LatencyHistogram getTimeHistogram;
+   private transient LatencyHistogram usageTimeHistogram;
+
+   private transient LongAdder commitCount;
+   private transient LongAdder commitTotalTime;
+   private transient LongAccumulator commitMaxTime;
+   private transient LatencyHistogram commitTimeHistogram;
+   private transient LongAdder endCount;
+   private transient LongAdder endTotalTime;
+   private transient LongAccumulator endMaxTime;
+   private transient LongAdder forgetCount;
+   private transient LongAdder forgetTotalTime;
+   private transient LongAccumulator forgetMaxTime;
+   private transient LongAdder prepareCount;
+   private transient LongAdder prepareTotalTime;
+   private transient LongAccumulator prepareMaxTime;
+   private transient LatencyHistogram prepareTimeHistogram;
+   private transient LongAdder recoverCount;
+   private transient LongAdder recoverTotalTime;
+   private transient LongAccumulator recoverMaxTime;
+   private transient LongAdder rollbackCount;
+   private transient LongAdder rollbackTotalTime;
+   private transient LongAccumulator rollbackMaxTime;
+   private transient LongAdder startCount;
+   private transient LongAdder startTotalTime;
+   private transient LongAccumulator startMaxTime;
 
    /**
     * Constructor
@@ -175,50 +215,59 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       this.maxPoolSize = maxPoolSize;
 
-      this.createdCount = new AtomicInteger(0);
-      this.destroyedCount = new AtomicInteger(0);
-      this.maxCreationTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxGetTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxPoolTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxUsageTime = new AtomicLong(Long.MIN_VALUE);
-      this.maxUsedCount = new AtomicInteger(Integer.MIN_VALUE);
-      this.maxWaitCount = new AtomicInteger(0);
-      this.maxWaitTime = new AtomicLong(Long.MIN_VALUE);
-      this.timedOut = new AtomicInteger(0);
-      this.totalBlockingTime = new AtomicLong(0);
-      this.totalBlockingTimeInvocations = new AtomicLong(0);
-      this.totalCreationTime = new AtomicLong(0);
-      this.totalGetTime = new AtomicLong(0);
-      this.totalGetTimeInvocations = new AtomicLong(0);
-      this.totalPoolTime = new AtomicLong(0);
-      this.totalPoolTimeInvocations = new AtomicLong(0);
-      this.totalUsageTime = new AtomicLong(0);
-      this.totalUsageTimeInvocations = new AtomicLong(0);
+      this.createdCount = new LongAdder();
+      this.destroyedCount = new LongAdder();
+      this.maxCreationTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxFillTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxGetTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxPoolTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxUsageTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.maxUsedCount = new LongAccumulator(MAX, Integer.MIN_VALUE);
+      this.maxWaitCount = new LongAccumulator(MAX, 0);
+      this.maxWaitTime = new LongAccumulator(MAX, Long.MIN_VALUE);
+      this.timedOut = new LongAdder();
+      this.totalBlockingTime = new LongAdder();
+      this.totalBlockingTimeInvocations = new LongAdder();
+      this.totalCreationTime = new LongAdder();
+      this.totalFillTime = new LongAdder();
+      this.totalFillTimeInvocations = new LongAdder();
+      this.totalGetTime = new LongAdder();
+      this.totalGetTimeInvocations = new LongAdder();
+      this.totalPoolTime = new LongAdder();
+      this.totalPoolTimeInvocations = new LongAdder();
+      this.totalUsageTime = new LongAdder();
+      this.totalUsageTimeInvocations = new LongAdder();
       this.inUseCount = new AtomicInteger(0);
-      this.blockingFailureCount = new AtomicInteger(0);
-      this.waitCount = new AtomicInteger(0);
-
-      this.commitCount = new AtomicLong(0L);
-      this.commitTotalTime = new AtomicLong(0L);
-      this.commitMaxTime = new AtomicLong(0L);
-      this.endCount = new AtomicLong(0L);
-      this.endTotalTime = new AtomicLong(0L);
-      this.endMaxTime = new AtomicLong(0L);
-      this.forgetCount = new AtomicLong(0L);
-      this.forgetTotalTime = new AtomicLong(0L);
-      this.forgetMaxTime = new AtomicLong(0L);
-      this.prepareCount = new AtomicLong(0L);
-      this.prepareTotalTime = new AtomicLong(0L);
-      this.prepareMaxTime = new AtomicLong(0L);
-      this.recoverCount = new AtomicLong(0L);
-      this.recoverTotalTime = new AtomicLong(0L);
-      this.recoverMaxTime = new AtomicLong(0L);
-      this.rollbackCount = new AtomicLong(0L);
-      this.rollbackTotalTime = new AtomicLong(0L);
-      this.rollbackMaxTime = new AtomicLong(0L);
-      this.startCount = new AtomicLong(0L);
-      this.startTotalTime = new AtomicLong(0L);
-      this.startMaxTime = new AtomicLong(0L);
+      this.blockingFailureCount = new LongAdder();
+      this.waitCount = new LongAdder();
+      this.blockingTimeHistogram = new LatencyHistogram();
+      this.creationTimeHistogram = new LatencyHistogram();
+      this.getTimeHistogram = new LatencyHistogram();
+      this.usageTimeHistogram = new LatencyHistogram();
+
+      this.commitCount = new LongAdder();
+      this.commitTotalTime = new LongAdder();
+      this.commitMaxTime = new LongAccumulator(MAX, 0L);
+      this.commitTimeHistogram = new LatencyHistogram();
+      this.endCount = new LongAdder();
+      this.endTotalTime = new LongAdder();
+      this.endMaxTime = new LongAccumulator(MAX, 0L);
+      this.forgetCount = new LongAdder();
+      this.forgetTotalTime = new LongAdder();
+      this.forgetMaxTime = new LongAccumulator(MAX, 0L);
+      this.prepareCount = new LongAdder();
+      this.prepareTotalTime = new LongAdder();
+      this.prepareMaxTime = new LongAccumulator(MAX, 0L);
+      this.prepareTimeHistogram = new LatencyHistogram();
+      this.recoverCount = new LongAdder();
+      this.recoverTotalTime = new LongAdder();
+      this.recoverMaxTime = new LongAccumulator(MAX, 0L);
+      this.rollbackCount = new LongAdder();
+      this.rollbackTotalTime = new LongAdder();
+      this.rollbackMaxTime = new LongAccumulator(MAX, 0L);
+      this.startCount = new LongAdder();
+      this.startTotalTime = new LongAdder();
+      this.startMaxTime = new LongAccumulator(MAX, 0L);
 
       SortedSet<String> n = new TreeSet<String>();
       Map<String, Class> t = new HashMap<String, Class>();
@@ -235,6 +284,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(AVERAGE_CREATION_TIME);
       t.put(AVERAGE_CREATION_TIME, long.class);
 
+      n.add(AVERAGE_FILL_TIME);
+      t.put(AVERAGE_FILL_TIME, long.class);
+
       n.add(AVERAGE_GET_TIME);
       t.put(AVERAGE_GET_TIME, long.class);
 
@@ -262,6 +314,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(MAX_CREATION_TIME);
       t.put(MAX_CREATION_TIME, long.class);
 
+      n.add(MAX_FILL_TIME);
+      t.put(MAX_FILL_TIME, long.class);
+
       n.add(MAX_GET_TIME);
       t.put(MAX_GET_TIME, long.class);
 
@@ -289,6 +344,9 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(TOTAL_CREATION_TIME);
       t.put(TOTAL_CREATION_TIME, long.class);
 
+      n.add(TOTAL_FILL_TIME);
+      t.put(TOTAL_FILL_TIME, long.class);
+
       n.add(TOTAL_GET_TIME);
       t.put(TOTAL_GET_TIME, long.class);
 
@@ -301,6 +359,42 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       n.add(WAIT_COUNT);
       t.put(WAIT_COUNT, int.class);
 
+      n.add(P50_BLOCKING_TIME);
+      t.put(P50_BLOCKING_TIME, long.class);
+
+      n.add(P99_BLOCKING_TIME);
+      t.put(P99_BLOCKING_TIME, long.class);
+
+      n.add(P999_BLOCKING_TIME);
+      t.put(P999_BLOCKING_TIME, long.class);
+
+      n.add(P50_CREATION_TIME);
+      t.put(P50_CREATION_TIME, long.class);
+
+      n.add(P99_CREATION_TIME);
+      t.put(P99_CREATION_TIME, long.class);
+
+      n.add(P999_CREATION_TIME);
+      t.put(P999_CREATION_TIME, long.class);
+
+      n.add(P50_GET_TIME);
+      t.put(P50_GET_TIME, long.class);
+
+      n.add(P99_GET_TIME);
+      t.put(P99_GET_TIME, long.class);
+
+      n.add(P999_GET_TIME);
+      t.put(P999_GET_TIME, long.class);
+
+      n.add(P50_USAGE_TIME);
+      t.put(P50_USAGE_TIME, long.class);
+
+      n.add(P99_USAGE_TIME);
+      t.put(P99_USAGE_TIME, long.class);
+
+      n.add(P999_USAGE_TIME);
+      t.put(P999_USAGE_TIME, long.class);
+
       n.add(XA_COMMIT_COUNT);
       t.put(XA_COMMIT_COUNT, long.class);
       n.add(XA_COMMIT_AVERAGE_TIME);
@@ -309,6 +403,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_COMMIT_TOTAL_TIME, long.class);
       n.add(XA_COMMIT_MAX_TIME);
       t.put(XA_COMMIT_MAX_TIME, long.class);
+      n.add(XA_COMMIT_P50_TIME);
+      t.put(XA_COMMIT_P50_TIME, long.class);
+      n.add(XA_COMMIT_P99_TIME);
+      t.put(XA_COMMIT_P99_TIME, long.class);
+      n.add(XA_COMMIT_P999_TIME);
+      t.put(XA_COMMIT_P999_TIME, long.class);
 
       n.add(XA_END_COUNT);
       t.put(XA_END_COUNT, long.class);
@@ -336,6 +436,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       t.put(XA_PREPARE_TOTAL_TIME, long.class);
       n.add(XA_PREPARE_MAX_TIME);
       t.put(XA_PREPARE_MAX_TIME, long.class);
+      n.add(XA_PREPARE_P50_TIME);
+      t.put(XA_PREPARE_P50_TIME, long.class);
+      n.add(XA_PREPARE_P99_TIME);
+      t.put(XA_PREPARE_P99_TIME, long.class);
+      n.add(XA_PREPARE_P999_TIME);
+      t.put(XA_PREPARE_P999_TIME, long.class);
 
       n.add(XA_RECOVER_COUNT);
       t.put(XA_RECOVER_COUNT, long.class);
@@ -450,6 +556,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getAverageCreationTime();
       }
+      else if (AVERAGE_FILL_TIME.equals(name))
+      {
+         return getAverageFillTime();
+      }
       else if (AVERAGE_GET_TIME.equals(name))
       {
          return getAverageGetTime();
@@ -486,6 +596,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getMaxCreationTime();
       }
+      else if (MAX_FILL_TIME.equals(name))
+      {
+         return getMaxFillTime();
+      }
       else if (MAX_GET_TIME.equals(name))
       {
          return getMaxGetTime();
@@ -522,6 +636,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getTotalCreationTime();
       }
+      else if (TOTAL_FILL_TIME.equals(name))
+      {
+         return getTotalFillTime();
+      }
       else if (TOTAL_GET_TIME.equals(name))
       {
          return getTotalGetTime();
@@ -538,6 +656,54 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getWaitCount();
       }
+      else if (P50_BLOCKING_TIME.equals(name))
+      {
+         return getPercentile(blockingTimeHistogram, 50.0);
+      }
+      else if (P99_BLOCKING_TIME.equals(name))
+      {
+         return getPercentile(blockingTimeHistogram, 99.0);
+      }
+      else if (P999_BLOCKING_TIME.equals(name))
+      {
+         return getPercentile(blockingTimeHistogram, 99.9);
+      }
+      else if (P50_CREATION_TIME.equals(name))
+      {
+         return getPercentile(creationTimeHistogram, 50.0);
+      }
+      else if (P99_CREATION_TIME.equals(name))
+      {
+         return getPercentile(creationTimeHistogram, 99.0);
+      }
+      else if (P999_CREATION_TIME.equals(name))
+      {
+         return getPercentile(creationTimeHistogram, 99.9);
+      }
+      else if (P50_GET_TIME.equals(name))
+      {
+         return getPercentile(getTimeHistogram, 50.0);
+      }
+      else if (P99_GET_TIME.equals(name))
+      {
+         return getPercentile(getTimeHistogram, 99.0);
+      }
+      else if (P999_GET_TIME.equals(name))
+      {
+         return getPercentile(getTimeHistogram, 99.9);
+      }
+      else if (P50_USAGE_TIME.equals(name))
+      {
+         return getPercentile(usageTimeHistogram, 50.0);
+      }
+      else if (P99_USAGE_TIME.equals(name))
+      {
+         return getPercentile(usageTimeHistogram, 99.0);
+      }
+      else if (P999_USAGE_TIME.equals(name))
+      {
+         return getPercentile(usageTimeHistogram, 99.9);
+      }
       else if (XA_COMMIT_COUNT.equals(name))
       {
          return getCommitCount();
@@ -554,6 +720,18 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getCommitMaxTime();
       }
+      else if (XA_COMMIT_P50_TIME.equals(name))
+      {
+         return getPercentile(commitTimeHistogram, 50.0);
+      }
+      else if (XA_COMMIT_P99_TIME.equals(name))
+      {
+         return getPercentile(commitTimeHistogram, 99.0);
+      }
+      else if (XA_COMMIT_P999_TIME.equals(name))
+      {
+         return getPercentile(commitTimeHistogram, 99.9);
+      }
       else if (XA_END_COUNT.equals(name))
       {
          return getEndCount();
@@ -602,6 +780,18 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       {
          return getPrepareMaxTime();
       }
+      else if (XA_PREPARE_P50_TIME.equals(name))
+      {
+         return getPercentile(prepareTimeHistogram, 50.0);
+      }
+      else if (XA_PREPARE_P99_TIME.equals(name))
+      {
+         return getPercentile(prepareTimeHistogram, 99.0);
+      }
+      else if (XA_PREPARE_P999_TIME.equals(name))
+      {
+         return getPercentile(prepareTimeHistogram, 99.9);
+      }
       else if (XA_RECOVER_COUNT.equals(name))
       {
          return getRecoverCount();
@@ -682,10 +872,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      if (createdCount.get() < destroyedCount.get())
+      if (createdCount.intValue() < destroyedCount.intValue())
          clear();
 
-      return createdCount.get() - destroyedCount.get();
+      return createdCount.intValue() - destroyedCount.intValue();
    }
 
    /**
@@ -707,7 +897,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalBlockingTimeInvocations.get() != 0 ? totalBlockingTime.get() / totalBlockingTimeInvocations.get() : 0;
+      return totalBlockingTimeInvocations.sum() != 0 ? totalBlockingTime.sum() / totalBlockingTimeInvocations.sum() : 0;
    }
 
    /**
@@ -718,7 +908,18 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return createdCount.get() != 0 ? totalCreationTime.get() / createdCount.get() : 0;
+      return createdCount.intValue() != 0 ? totalCreationTime.sum() / createdCount.intValue() : 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getAverageFillTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return totalFillTimeInvocations.sum() != 0 ? totalFillTime.sum() / totalFillTimeInvocations.sum() : 0;
    }
 
    /**
@@ -729,7 +930,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalGetTimeInvocations.get() != 0 ? totalGetTime.get() / totalGetTimeInvocations.get() : 0;
+      return totalGetTimeInvocations.sum() != 0 ? totalGetTime.sum() / totalGetTimeInvocations.sum() : 0;
    }
 
    /**
@@ -740,7 +941,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalUsageTimeInvocations.get() != 0 ? totalUsageTime.get() / totalUsageTimeInvocations.get() : 0;
+      return totalUsageTimeInvocations.sum() != 0 ? totalUsageTime.sum() / totalUsageTimeInvocations.sum() : 0;
    }
 
    /**
@@ -751,7 +952,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalPoolTimeInvocations.get() != 0 ? totalPoolTime.get() / totalPoolTimeInvocations.get() : 0;
+      return totalPoolTimeInvocations.sum() != 0 ? totalPoolTime.sum() / totalPoolTimeInvocations.sum() : 0;
    }
 
    /**
@@ -762,7 +963,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return blockingFailureCount.get();
+      return blockingFailureCount.intValue();
    }
 
    /**
@@ -771,7 +972,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaBlockingFailureCount()
    {
       if (enabled.get())
-         blockingFailureCount.incrementAndGet();
+         blockingFailureCount.increment();
    }
 
    /**
@@ -782,7 +983,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return createdCount.get();
+      return createdCount.intValue();
    }
 
    /**
@@ -791,7 +992,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaCreatedCount()
    {
       if (enabled.get())
-         createdCount.incrementAndGet();
+         createdCount.increment();
    }
 
    /**
@@ -802,7 +1003,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return destroyedCount.get();
+      return destroyedCount.intValue();
    }
 
    /**
@@ -811,7 +1012,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaDestroyedCount()
    {
       if (enabled.get())
-         destroyedCount.incrementAndGet();
+         destroyedCount.increment();
    }
 
    /**
@@ -855,7 +1056,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return maxUsedCount.get() != Integer.MIN_VALUE ? maxUsedCount.get() : 0;
+      int v = maxUsedCount.intValue();
+      return v != Integer.MIN_VALUE ? v : 0;
    }
 
    /**
@@ -864,8 +1066,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    private void setMaxUsedCount(int v)
    {
-      if (v > maxUsedCount.get())
-         maxUsedCount.set(v);
+      maxUsedCount.accumulate(v);
    }
 
    /**
@@ -879,6 +1080,17 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       return maxCreationTime.get() != Long.MIN_VALUE ? maxCreationTime.get() : 0;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   public long getMaxFillTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return maxFillTime.get() != Long.MIN_VALUE ? maxFillTime.get() : 0;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -921,7 +1133,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0;
 
-      return maxWaitCount.get() != Integer.MIN_VALUE ? maxWaitCount.get() : 0;
+      return maxWaitCount.intValue() != Integer.MIN_VALUE ? maxWaitCount.intValue() : 0;
    }
 
    /**
@@ -930,8 +1142,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void setMaxWaitCount(int v)
    {
-      if (v > maxWaitCount.get())
-         maxWaitCount.set(v);
+      maxWaitCount.accumulate(v);
    }
 
    /**
@@ -953,7 +1164,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return timedOut.get();
+      return timedOut.intValue();
    }
 
    /**
@@ -962,7 +1173,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaTimedOut()
    {
       if (enabled.get())
-         timedOut.incrementAndGet();
+         timedOut.increment();
    }
 
    /**
@@ -973,7 +1184,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalBlockingTime.get();
+      return totalBlockingTime.sum();
    }
 
    /**
@@ -984,11 +1195,11 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       if (enabled.get() && delta > 0)
       {
-         totalBlockingTime.addAndGet(delta);
-         totalBlockingTimeInvocations.incrementAndGet();
+         totalBlockingTime.add(delta);
+         blockingTimeHistogram.record(delta);
+         totalBlockingTimeInvocations.increment();
 
-         if (delta > maxWaitTime.get())
-            maxWaitTime.set(delta);
+         maxWaitTime.accumulate(delta);
       }
    }
 
@@ -1000,7 +1211,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalCreationTime.get();
+      return totalCreationTime.sum();
    }
 
    /**
@@ -1011,10 +1222,36 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       if (enabled.get() && delta > 0)
       {
-         totalCreationTime.addAndGet(delta);
+         totalCreationTime.add(delta);
+         creationTimeHistogram.record(delta);
 
-         if (delta > maxCreationTime.get())
-            maxCreationTime.set(delta);
+         maxCreationTime.accumulate(delta);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getTotalFillTime()
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return totalFillTime.sum();
+   }
+
+   /**
+    * Add delta to total fill time
+    * @param delta The value
+    */
+   public void deltaTotalFillTime(long delta)
+   {
+      if (enabled.get() && delta >= 0)
+      {
+         totalFillTime.add(delta);
+         totalFillTimeInvocations.increment();
+
+         maxFillTime.accumulate(delta);
       }
    }
 
@@ -1026,7 +1263,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalGetTime.get();
+      return totalGetTime.sum();
    }
 
    /**
@@ -1037,11 +1274,11 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       if (enabled.get() && delta > 0)
       {
-         totalGetTime.addAndGet(delta);
-         totalGetTimeInvocations.incrementAndGet();
+         totalGetTime.add(delta);
+         getTimeHistogram.record(delta);
+         totalGetTimeInvocations.increment();
 
-         if (delta > maxGetTime.get())
-            maxGetTime.set(delta);
+         maxGetTime.accumulate(delta);
       }
    }
 
@@ -1053,7 +1290,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalPoolTime.get();
+      return totalPoolTime.sum();
    }
 
    /**
@@ -1064,11 +1301,10 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       if (enabled.get() && delta > 0)
       {
-         totalPoolTime.addAndGet(delta);
-         totalPoolTimeInvocations.incrementAndGet();
+         totalPoolTime.add(delta);
+         totalPoolTimeInvocations.increment();
 
-         if (delta > maxPoolTime.get())
-            maxPoolTime.set(delta);
+         maxPoolTime.accumulate(delta);
       }
    }
 
@@ -1080,7 +1316,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0L;
 
-      return totalUsageTime.get();
+      return totalUsageTime.sum();
    }
 
    /**
@@ -1091,11 +1327,11 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    {
       if (enabled.get() && delta > 0)
       {
-         totalUsageTime.addAndGet(delta);
-         totalUsageTimeInvocations.incrementAndGet();
+         totalUsageTime.add(delta);
+         usageTimeHistogram.record(delta);
+         totalUsageTimeInvocations.increment();
 
-         if (delta > maxUsageTime.get())
-            maxUsageTime.set(delta);
+         maxUsageTime.accumulate(delta);
       }
    }
 
@@ -1107,7 +1343,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!enabled.get())
          return 0;
 
-      return waitCount.get();
+      return waitCount.intValue();
    }
 
    /**
@@ -1116,7 +1352,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
    public void deltaWaitCount()
    {
       if (enabled.get())
-         waitCount.incrementAndGet();
+         waitCount.increment();
    }
 
    /**
@@ -1127,7 +1363,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return commitCount.get();
+      return commitCount.sum();
    }
 
    /**
@@ -1138,7 +1374,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return commitTotalTime.get();
+      return commitTotalTime.sum();
    }
 
    /**
@@ -1149,8 +1385,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (commitCount.get() > 0)
-         return commitTotalTime.get() / commitCount.get();
+      if (commitCount.sum() > 0)
+         return commitTotalTime.sum() / commitCount.sum();
 
       return 0L;
    }
@@ -1171,14 +1407,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaCommit(long time)
    {
-      commitCount.incrementAndGet();
+      commitCount.increment();
 
       if (time > 0)
       {
-         commitTotalTime.addAndGet(time);
+         commitTotalTime.add(time);
+         commitTimeHistogram.record(time);
 
-         if (time > commitMaxTime.get())
-            commitMaxTime.set(time);
+         commitMaxTime.accumulate(time);
       }
    }
 
@@ -1190,7 +1426,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return endCount.get();
+      return endCount.sum();
    }
 
    /**
@@ -1201,7 +1437,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return endTotalTime.get();
+      return endTotalTime.sum();
    }
 
    /**
@@ -1212,8 +1448,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (endCount.get() > 0)
-         return endTotalTime.get() / endCount.get();
+      if (endCount.sum() > 0)
+         return endTotalTime.sum() / endCount.sum();
 
       return 0L;
    }
@@ -1234,14 +1470,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaEnd(long time)
    {
-      endCount.incrementAndGet();
+      endCount.increment();
 
       if (time > 0)
       {
-         endTotalTime.addAndGet(time);
+         endTotalTime.add(time);
 
-         if (time > endMaxTime.get())
-            endMaxTime.set(time);
+         endMaxTime.accumulate(time);
       }
    }
 
@@ -1253,7 +1488,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return forgetCount.get();
+      return forgetCount.sum();
    }
 
    /**
@@ -1264,7 +1499,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return forgetTotalTime.get();
+      return forgetTotalTime.sum();
    }
 
    /**
@@ -1275,8 +1510,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (forgetCount.get() > 0)
-         return forgetTotalTime.get() / forgetCount.get();
+      if (forgetCount.sum() > 0)
+         return forgetTotalTime.sum() / forgetCount.sum();
 
       return 0L;
    }
@@ -1297,14 +1532,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaForget(long time)
    {
-      forgetCount.incrementAndGet();
+      forgetCount.increment();
 
       if (time > 0)
       {
-         forgetTotalTime.addAndGet(time);
+         forgetTotalTime.add(time);
 
-         if (time > forgetMaxTime.get())
-            forgetMaxTime.set(time);
+         forgetMaxTime.accumulate(time);
       }
    }
 
@@ -1316,7 +1550,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return prepareCount.get();
+      return prepareCount.sum();
    }
 
    /**
@@ -1327,7 +1561,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return prepareTotalTime.get();
+      return prepareTotalTime.sum();
    }
 
    /**
@@ -1338,8 +1572,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (prepareCount.get() > 0)
-         return prepareTotalTime.get() / prepareCount.get();
+      if (prepareCount.sum() > 0)
+         return prepareTotalTime.sum() / prepareCount.sum();
 
       return 0L;
    }
@@ -1360,14 +1594,14 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaPrepare(long time)
    {
-      prepareCount.incrementAndGet();
+      prepareCount.increment();
 
       if (time > 0)
       {
-         prepareTotalTime.addAndGet(time);
+         prepareTotalTime.add(time);
+         prepareTimeHistogram.record(time);
 
-         if (time > prepareMaxTime.get())
-            prepareMaxTime.set(time);
+         prepareMaxTime.accumulate(time);
       }
    }
 
@@ -1379,7 +1613,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return recoverCount.get();
+      return recoverCount.sum();
    }
 
    /**
@@ -1390,7 +1624,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return recoverTotalTime.get();
+      return recoverTotalTime.sum();
    }
 
    /**
@@ -1401,8 +1635,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (recoverCount.get() > 0)
-         return recoverTotalTime.get() / recoverCount.get();
+      if (recoverCount.sum() > 0)
+         return recoverTotalTime.sum() / recoverCount.sum();
 
       return 0L;
    }
@@ -1423,14 +1657,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaRecover(long time)
    {
-      recoverCount.incrementAndGet();
+      recoverCount.increment();
 
       if (time > 0)
       {
-         recoverTotalTime.addAndGet(time);
+         recoverTotalTime.add(time);
 
-         if (time > recoverMaxTime.get())
-            recoverMaxTime.set(time);
+         recoverMaxTime.accumulate(time);
       }
    }
 
@@ -1442,7 +1675,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return rollbackCount.get();
+      return rollbackCount.sum();
    }
 
    /**
@@ -1453,7 +1686,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return rollbackTotalTime.get();
+      return rollbackTotalTime.sum();
    }
 
    /**
@@ -1464,8 +1697,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (rollbackCount.get() > 0)
-         return rollbackTotalTime.get() / rollbackCount.get();
+      if (rollbackCount.sum() > 0)
+         return rollbackTotalTime.sum() / rollbackCount.sum();
 
       return 0L;
    }
@@ -1486,14 +1719,13 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaRollback(long time)
    {
-      rollbackCount.incrementAndGet();
+      rollbackCount.increment();
 
       if (time > 0)
       {
-         rollbackTotalTime.addAndGet(time);
+         rollbackTotalTime.add(time);
 
-         if (time > rollbackMaxTime.get())
-            rollbackMaxTime.set(time);
+         rollbackMaxTime.accumulate(time);
       }
    }
 
@@ -1505,7 +1737,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return startCount.get();
+      return startCount.sum();
    }
 
    /**
@@ -1516,7 +1748,7 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      return startTotalTime.get();
+      return startTotalTime.sum();
    }
 
    /**
@@ -1527,8 +1759,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       if (!isEnabled())
          return 0L;
 
-      if (startCount.get() > 0)
-         return startTotalTime.get() / startCount.get();
+      if (startCount.sum() > 0)
+         return startTotalTime.sum() / startCount.sum();
 
       return 0L;
    }
@@ -1549,62 +1781,84 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
     */
    public void deltaStart(long time)
    {
-      startCount.incrementAndGet();
+      startCount.increment();
 
       if (time > 0)
       {
-         startTotalTime.addAndGet(time);
+         startTotalTime.add(time);
 
-         if (time > startMaxTime.get())
-            startMaxTime.set(time);
+         startMaxTime.accumulate(time);
       }
    }
 
+   /**
+    * Get a percentile from a histogram
+    * @param histogram The histogram
+    * @param percentile The percentile
+    * @return The value
+    */
+   private long getPercentile(LatencyHistogram histogram, double percentile)
+   {
+      if (!enabled.get())
+         return 0L;
+
+      return histogram.getValueAtPercentile(percentile);
+   }
+
    /**
     * {@inheritDoc}
     */
    public void clear()
    {
-      this.maxCreationTime.set(Long.MIN_VALUE);
-      this.maxGetTime.set(Long.MIN_VALUE);
-      this.maxPoolTime.set(Long.MIN_VALUE);
-      this.maxUsageTime.set(Long.MIN_VALUE);
-      this.maxUsedCount.set(Integer.MIN_VALUE);
-      this.maxWaitTime.set(Long.MIN_VALUE);
-      this.timedOut.set(0);
-      this.totalBlockingTime.set(0L);
-      this.totalBlockingTimeInvocations.set(0L);
-      this.totalCreationTime.set(0L);
-      this.totalGetTime.set(0L);
-      this.totalGetTimeInvocations.set(0L);
-      this.totalPoolTime.set(0L);
-      this.totalPoolTimeInvocations.set(0L);
-      this.totalUsageTime.set(0L);
-      this.totalUsageTimeInvocations.set(0L);
-      this.blockingFailureCount.set(0);
-      this.waitCount.set(0);
-
-      this.commitCount = new AtomicLong(0L);
-      this.commitTotalTime = new AtomicLong(0L);
-      this.commitMaxTime = new AtomicLong(0L);
-      this.endCount = new AtomicLong(0L);
-      this.endTotalTime = new AtomicLong(0L);
-      this.endMaxTime = new AtomicLong(0L);
-      this.forgetCount = new AtomicLong(0L);
-      this.forgetTotalTime = new AtomicLong(0L);
-      this.forgetMaxTime = new AtomicLong(0L);
-      this.prepareCount = new AtomicLong(0L);
-      this.prepareTotalTime = new AtomicLong(0L);
-      this.prepareMaxTime = new AtomicLong(0L);
-      this.recoverCount = new AtomicLong(0L);
-      this.recoverTotalTime = new AtomicLong(0L);
-      this.recoverMaxTime = new AtomicLong(0L);
-      this.rollbackCount = new AtomicLong(0L);
-      this.rollbackTotalTime = new AtomicLong(0L);
-      this.rollbackMaxTime = new AtomicLong(0L);
-      this.startCount = new AtomicLong(0L);
-      this.startTotalTime = new AtomicLong(0L);
-      this.startMaxTime = new AtomicLong(0L);
+      this.maxCreationTime.reset();
+      this.maxFillTime.reset();
+      this.maxGetTime.reset();
+      this.maxPoolTime.reset();
+      this.maxUsageTime.reset();
+      this.maxUsedCount.reset();
+      this.maxWaitTime.reset();
+      this.timedOut.reset();
+      this.totalBlockingTime.reset();
+      this.totalBlockingTimeInvocations.reset();
+      this.totalCreationTime.reset();
+      this.totalFillTime.reset();
+      this.totalFillTimeInvocations.reset();
+      this.totalGetTime.reset();
+      this.totalGetTimeInvocations.reset();
+      this.totalPoolTime.reset();
+      this.totalPoolTimeInvocations.reset();
+      this.totalUsageTime.reset();
+      this.totalUsageTimeInvocations.reset();
+      this.blockingFailureCount.reset();
+      this.waitCount.reset();
+      this.blockingTimeHistogram.clear();
+      this.creationTimeHistogram.clear();
+      this.getTimeHistogram.clear();
+      this.usageTimeHistogram.clear();
+
+      this.commitCount.reset();
+      this.commitTotalTime.reset();
+      this.commitMaxTime.reset();
+      this.commitTimeHistogram.clear();
+      this.endCount.reset();
+      this.endTotalTime.reset();
+      this.endMaxTime.reset();
+      this.forgetCount.reset();
+      this.forgetTotalTime.reset();
+      this.forgetMaxTime.reset();
+      this.prepareCount.reset();
+      this.prepareTotalTime.reset();
+      this.prepareMaxTime.reset();
+      this.prepareTimeHistogram.clear();
+      this.recoverCount.reset();
+      this.recoverTotalTime.reset();
+      this.recoverMaxTime.reset();
+      this.rollbackCount.reset();
+      this.rollbackTotalTime.reset();
+      this.rollbackMaxTime.reset();
+      this.startCount.reset();
+      this.startTotalTime.reset();
+      this.startMaxTime.reset();
    }
 
    private void writeObject(ObjectOutputStream out) throws IOException
@@ -1641,6 +1895,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(AVERAGE_CREATION_TIME).append("=").append(getAverageCreationTime());
       sb.append(",");
+      sb.append(AVERAGE_FILL_TIME).append("=").append(getAverageFillTime());
+      sb.append(",");
       sb.append(AVERAGE_GET_TIME).append("=").append(getAverageGetTime());
       sb.append(",");
       sb.append(AVERAGE_POOL_TIME).append("=").append(getAveragePoolTime());
@@ -1659,6 +1915,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(MAX_CREATION_TIME).append("=").append(getMaxCreationTime());
       sb.append(",");
+      sb.append(MAX_FILL_TIME).append("=").append(getMaxFillTime());
+      sb.append(",");
       sb.append(MAX_GET_TIME).append("=").append(getMaxGetTime());
       sb.append(",");
       sb.append(MAX_POOL_TIME).append("=").append(getMaxPoolTime());
@@ -1677,6 +1935,8 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(TOTAL_CREATION_TIME).append("=").append(getTotalCreationTime());
       sb.append(",");
+      sb.append(TOTAL_FILL_TIME).append("=").append(getTotalFillTime());
+      sb.append(",");
       sb.append(TOTAL_GET_TIME).append("=").append(getTotalGetTime());
       sb.append(",");
       sb.append(TOTAL_POOL_TIME).append("=").append(getTotalPoolTime());
@@ -1684,6 +1944,30 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(TOTAL_USAGE_TIME).append("=").append(getTotalUsageTime());
       sb.append(",");
       sb.append(WAIT_COUNT).append("=").append(getWaitCount());
+      sb.append(",");
+      sb.append(P50_BLOCKING_TIME).append("=").append(getValue(P50_BLOCKING_TIME));
+      sb.append(",");
+      sb.append(P99_BLOCKING_TIME).append("=").append(getValue(P99_BLOCKING_TIME));
+      sb.append(",");
+      sb.append(P999_BLOCKING_TIME).append("=").append(getValue(P999_BLOCKING_TIME));
+      sb.append(",");
+      sb.append(P50_CREATION_TIME).append("=").append(getValue(P50_CREATION_TIME));
+      sb.append(",");
+      sb.append(P99_CREATION_TIME).append("=").append(getValue(P99_CREATION_TIME));
+      sb.append(",");
+      sb.append(P999_CREATION_TIME).append("=").append(getValue(P999_CREATION_TIME));
+      sb.append(",");
+      sb.append(P50_GET_TIME).append("=").append(getValue(P50_GET_TIME));
+      sb.append(",");
+      sb.append(P99_GET_TIME).append("=").append(getValue(P99_GET_TIME));
+      sb.append(",");
+      sb.append(P999_GET_TIME).append("=").append(getValue(P999_GET_TIME));
+      sb.append(",");
+      sb.append(P50_USAGE_TIME).append("=").append(getValue(P50_USAGE_TIME));
+      sb.append(",");
+      sb.append(P99_USAGE_TIME).append("=").append(getValue(P99_USAGE_TIME));
+      sb.append(",");
+      sb.append(P999_USAGE_TIME).append("=").append(getValue(P999_USAGE_TIME));
 
       sb.append(",");
       sb.append(XA_COMMIT_COUNT).append("=").append(getCommitCount());
@@ -1694,6 +1978,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(XA_COMMIT_MAX_TIME).append("=").append(getCommitMaxTime());
       sb.append(",");
+      sb.append(XA_COMMIT_P50_TIME).append("=").append(getValue(XA_COMMIT_P50_TIME));
+      sb.append(",");
+      sb.append(XA_COMMIT_P99_TIME).append("=").append(getValue(XA_COMMIT_P99_TIME));
+      sb.append(",");
+      sb.append(XA_COMMIT_P999_TIME).append("=").append(getValue(XA_COMMIT_P999_TIME));
+      sb.append(",");
       sb.append(XA_END_COUNT).append("=").append(getEndCount());
       sb.append(",");
       sb.append(XA_END_AVERAGE_TIME).append("=").append(getEndAverageTime());
@@ -1718,6 +2008,12 @@ public class PoolStatisticsImpl implements PoolStatistics, XAResourceStatistics
       sb.append(",");
       sb.append(XA_PREPARE_MAX_TIME).append("=").append(getPrepareMaxTime());
       sb.append(",");
+      sb.append(XA_PREPARE_P50_TIME).append("=").append(getValue(XA_PREPARE_P50_TIME));
+      sb.append(",");
+      sb.append(XA_PREPARE_P99_TIME).append("=").append(getValue(XA_PREPARE_P99_TIME));
+      sb.append(",");
+      sb.append(XA_PREPARE_P999_TIME).append("=").append(getValue(XA_PREPARE_P999_TIME));
+      sb.append(",");
       sb.append(XA_RECOVER_COUNT).append("=").append(getRecoverCount());
       sb.append(",");
       sb.append(XA_RECOVER_AVERAGE_TIME).append("=").append(getRecoverAverageTime());
@@ -135,6 +135,21 @@ public interface Pool extends org.jboss.jca.core.api.connectionmanager.pool.Pool
    public ConnectionListener getConnection(Transaction trackByTransaction, Subject subject, ConnectionRequestInfo cri)
       throws ResourceException;
 
+   /**
+    * Get a connection which isn't tracked by a transaction
+    * 
+    * @param subject the subject for connection
+    * @param cri the connection request information
+    * @param permitHeld does the caller already hold a permit of {@link #getLock()}
+    * @param create can a new managed connection be created
+    * @return a connection event listener wrapping the connection; <code>null</code> if <code>create</code>
+    *         is false and there is no idle connection, in which case a held permit is still held
+    * @throws ResourceException for any error; a held permit has been released
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException;
+
    /**
     * Find a connection listener
     * @param mc The managed connection
@@ -197,6 +212,12 @@ public interface Pool extends org.jboss.jca.core.api.connectionmanager.pool.Pool
     */
    public void emptyManagedConnectionPool(ManagedConnectionPool pool);
 
+   /**
+    * Get the blocking timeout
+    * @return The value in milliseconds
+    */
+   public long getBlockingTimeout();
+
    /**
     * Get the logger
     * @return The value
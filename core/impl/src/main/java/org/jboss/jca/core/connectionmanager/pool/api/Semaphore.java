@@ -59,6 +59,15 @@ public class Semaphore extends java.util.concurrent.Semaphore
       this.statistics = statistics;
    }
 
+   /**
+    * Get the maximum size
+    * @return The value
+    */
+   public int getMaxSize()
+   {
+      return maxSize;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -83,6 +92,22 @@ public class Semaphore extends java.util.concurrent.Semaphore
       return result;
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean tryAcquire()
+   {
+      boolean result = super.tryAcquire();
+
+      if (result && statistics.isEnabled())
+      {
+         statistics.setInUsedCount(maxSize - availablePermits());
+      }
+
+      return result;
+   }
+
    /**
     * {@inheritDoc}
     */
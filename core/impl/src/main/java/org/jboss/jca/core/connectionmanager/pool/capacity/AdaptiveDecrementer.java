@@ -0,0 +1,145 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.capacity;
+
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.CapacityDecrementer;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolAware;
+
+/**
+ * Decrement timed out connection listeners until the estimated demand plus a headroom is reached.
+ *
+ * The demand is a slow moving average of the connections in use and the threads
+ * waiting for a connection, see {@link DemandEstimator}. Only a percentage of the
+ * excess connections are destroyed during each idle check, so the pool shrinks gradually.
+ *
+ * Default headroom is 20 percent, default shrink is 25 percent, and the default
+ * sample interval is 1000 milliseconds. The pool never goes below min-pool-size.
+ * Without a pool the decrementer behaves like {@link TimedOutDecrementer}.
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AdaptiveDecrementer implements CapacityDecrementer, PoolAware
+{
+   /** Default shrink */
+   static final int DEFAULT_SHRINK = 25;
+
+   /** Headroom in percent */
+   private int headroom;
+
+   /** Shrink in percent */
+   private int shrink;
+
+   /** The demand estimator */
+   private final DemandEstimator estimator;
+
+   /**
+    * Constructor
+    */
+   public AdaptiveDecrementer()
+   {
+      this.headroom = AdaptiveIncrementer.DEFAULT_HEADROOM;
+      this.shrink = DEFAULT_SHRINK;
+      this.estimator = new DemandEstimator(AdaptiveIncrementer.DEFAULT_INTERVAL);
+   }
+
+   /**
+    * Set the headroom
+    * @param v The value in percent
+    */
+   public void setHeadroom(int v)
+   {
+      if (v >= 0)
+         headroom = v;
+   }
+
+   /**
+    * Set the shrink
+    * @param v The value in percent
+    */
+   public void setShrink(int v)
+   {
+      if (v > 0 && v <= 100)
+         shrink = v;
+   }
+
+   /**
+    * Set the sample interval
+    * @param v The value in milliseconds
+    */
+   public void setInterval(long v)
+   {
+      if (v >= 0)
+         estimator.setInterval(v);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setPool(Pool pool)
+   {
+      estimator.setPool(pool);
+   }
+
+   /**
+    * Get the demand estimator
+    * @return The value
+    */
+   DemandEstimator getEstimator()
+   {
+      return estimator;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean shouldDestroy(ConnectionListener cl, long timeout, int currentSize, int minPoolSize, int destroyed)
+   {
+      if (!cl.isTimedOut(timeout))
+         return false;
+
+      if (!estimator.hasPool())
+         return true;
+
+      estimator.update(System.currentTimeMillis());
+
+      int floor = Math.max(minPoolSize, DemandEstimator.withHeadroom(estimator.getSlow(), headroom));
+
+      if (currentSize <= floor)
+         return false;
+
+      // The size at the start of this idle check
+      int excess = currentSize + destroyed - floor;
+      int allowed = Math.max(1, (int)Math.ceil(excess * shrink / 100.0));
+
+      return destroyed < allowed;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      return getClass().getName() + "(" + headroom + ", " + shrink + ", " + estimator.getInterval() + ")";
+   }
+}
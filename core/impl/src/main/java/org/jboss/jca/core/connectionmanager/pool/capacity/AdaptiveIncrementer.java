@@ -0,0 +1,121 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.capacity;
+
+import org.jboss.jca.core.connectionmanager.pool.api.CapacityIncrementer;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolAware;
+
+/**
+ * Increment until the estimated demand plus a headroom is reached.
+ *
+ * The demand is a fast moving average of the connections in use and the threads
+ * waiting for a connection, see {@link DemandEstimator}.
+ *
+ * Default headroom is 20 percent, and the default sample interval is 1000 milliseconds.
+ * Without a pool the incrementer behaves like {@link MaxPoolSizeIncrementer}.
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AdaptiveIncrementer implements CapacityIncrementer, PoolAware
+{
+   /** Default headroom */
+   static final int DEFAULT_HEADROOM = 20;
+
+   /** Default interval */
+   static final long DEFAULT_INTERVAL = 1000L;
+
+   /** Headroom in percent */
+   private int headroom;
+
+   /** The demand estimator */
+   private final DemandEstimator estimator;
+
+   /**
+    * Constructor
+    */
+   public AdaptiveIncrementer()
+   {
+      this.headroom = DEFAULT_HEADROOM;
+      this.estimator = new DemandEstimator(DEFAULT_INTERVAL);
+   }
+
+   /**
+    * Set the headroom
+    * @param v The value in percent
+    */
+   public void setHeadroom(int v)
+   {
+      if (v >= 0)
+         headroom = v;
+   }
+
+   /**
+    * Set the sample interval
+    * @param v The value in milliseconds
+    */
+   public void setInterval(long v)
+   {
+      if (v >= 0)
+         estimator.setInterval(v);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setPool(Pool pool)
+   {
+      estimator.setPool(pool);
+   }
+
+   /**
+    * Get the demand estimator
+    * @return The value
+    */
+   DemandEstimator getEstimator()
+   {
+      return estimator;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean shouldCreate(int currentSize, int maxSize, int created)
+   {
+      if (!estimator.hasPool())
+         return currentSize < maxSize;
+
+      estimator.update(System.currentTimeMillis());
+
+      int target = DemandEstimator.withHeadroom(Math.max(estimator.getFast(), estimator.getSlow()), headroom);
+
+      return currentSize < Math.min(maxSize, target);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      return getClass().getName() + "(" + headroom + ", " + estimator.getInterval() + ")";
+   }
+}
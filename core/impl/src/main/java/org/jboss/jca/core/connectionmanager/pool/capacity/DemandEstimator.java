@@ -0,0 +1,198 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.capacity;
+
+import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.Semaphore;
+
+/**
+ * Estimates the number of connections a pool needs.
+ *
+ * The demand is the number of connections in use plus the number of threads
+ * waiting for a connection. When statistics are enabled the number of connections
+ * in use is also derived from Little's law, e.g. arrival rate times average usage time,
+ * which is the accumulated usage time divided by the elapsed time. This catches
+ * short bursts that a point-in-time sample misses.
+ *
+ * A fast and a slow exponentially weighted moving average of the demand are kept,
+ * so growth follows a burst quickly while shrinking follows the long term trend.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class DemandEstimator
+{
+   /** Weight of the fast moving average */
+   static final double FAST_WEIGHT = 0.5;
+
+   /** Weight of the slow moving average */
+   static final double SLOW_WEIGHT = 0.1;
+
+   /** The pool */
+   private volatile Pool pool;
+
+   /** The sample interval in milliseconds */
+   private volatile long interval;
+
+   /** The time of the last sample */
+   private long lastSample;
+
+   /** The total usage time at the last sample */
+   private long lastUsageTime;
+
+   /** Fast moving average */
+   private volatile double fast;
+
+   /** Slow moving average */
+   private volatile double slow;
+
+   /**
+    * Constructor
+    * @param interval The sample interval in milliseconds
+    */
+   DemandEstimator(long interval)
+   {
+      this.pool = null;
+      this.interval = interval;
+      this.lastSample = 0L;
+      this.lastUsageTime = 0L;
+      this.fast = 0.0;
+      this.slow = 0.0;
+   }
+
+   /**
+    * Set the pool
+    * @param p The value
+    */
+   void setPool(Pool p)
+   {
+      pool = p;
+   }
+
+   /**
+    * Has a pool
+    * @return <code>True</code> if a pool is set; otherwise <code>false</code>
+    */
+   boolean hasPool()
+   {
+      return pool != null;
+   }
+
+   /**
+    * Set the sample interval
+    * @param v The value in milliseconds
+    */
+   void setInterval(long v)
+   {
+      interval = v;
+   }
+
+   /**
+    * Get the sample interval
+    * @return The value in milliseconds
+    */
+   long getInterval()
+   {
+      return interval;
+   }
+
+   /**
+    * Get the fast moving average of the demand
+    * @return The value
+    */
+   double getFast()
+   {
+      return fast;
+   }
+
+   /**
+    * Get the slow moving average of the demand
+    * @return The value
+    */
+   double getSlow()
+   {
+      return slow;
+   }
+
+   /**
+    * Sample the pool if the interval has elapsed
+    * @param now The current time in milliseconds
+    */
+   synchronized void update(long now)
+   {
+      Pool p = pool;
+      if (p == null)
+         return;
+
+      if (lastSample != 0L && now - lastSample < interval)
+         return;
+
+      Semaphore lock = p.getLock();
+      double demand = Math.max(0, lock.getMaxSize() - lock.availablePermits());
+
+      PoolStatisticsImpl statistics = p.getInternalStatistics();
+      if (statistics != null && statistics.isEnabled())
+      {
+         long usageTime = statistics.getTotalUsageTime();
+
+         if (lastSample != 0L && now > lastSample && usageTime >= lastUsageTime)
+            demand = Math.max(demand, (double)(usageTime - lastUsageTime) / (double)(now - lastSample));
+
+         lastUsageTime = usageTime;
+      }
+
+      demand += lock.getQueueLength();
+
+      if (lastSample == 0L)
+      {
+         fast = demand;
+         slow = demand;
+      }
+      else
+      {
+         fast += FAST_WEIGHT * (demand - fast);
+         slow += SLOW_WEIGHT * (demand - slow);
+      }
+
+      lastSample = now;
+   }
+
+   /**
+    * Apply a headroom to a demand
+    * @param demand The demand
+    * @param headroom The headroom in percent
+    * @return The number of connections
+    */
+   static int withHeadroom(double demand, int headroom)
+   {
+      return (int)Math.ceil(demand * (100 + headroom) / 100.0);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      return "fast=" + fast + ", slow=" + slow;
+   }
+}
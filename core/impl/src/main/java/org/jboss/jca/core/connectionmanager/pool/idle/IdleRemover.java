@@ -23,21 +23,21 @@
 package org.jboss.jca.core.connectionmanager.pool.idle;
 
 import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.connectionmanager.pool.scheduler.ScheduledTask;
+import org.jboss.jca.core.connectionmanager.pool.scheduler.Scheduler;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.jboss.logging.Logger;
 
 /**
  * Idle remover
+ *
+ * Each registered pool is scanned for idle connections at half of its idle timeout
+ * by the shared {@link Scheduler}.
  * 
  * @author <a href="mailto:gurkanerdogdu@yahoo.com">Gurkan Erdogdu</a>
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
@@ -47,49 +47,26 @@ public class IdleRemover
    /** Logger instance */
    private static CoreLogger logger = Logger.getMessageLogger(CoreLogger.class, IdleRemover.class.getName());
    
-   /** Thread name */
-   private static final String THREAD_NAME = "IdleRemover";
-   
    /** Singleton instance */
    private static IdleRemover instance = new IdleRemover();
    
    /** Registered pool instances */
-   private CopyOnWriteArrayList<IdleConnectionRemovalSupport> registeredPools = 
-      new CopyOnWriteArrayList<IdleConnectionRemovalSupport>();
+   private Map<IdleConnectionRemovalSupport, ScheduledTask> registeredPools = 
+      new ConcurrentHashMap<IdleConnectionRemovalSupport, ScheduledTask>();
    
    /** Executor service */
    private ExecutorService executorService;
    
-   /** Is the executor external */
-   private boolean isExternal;
-
-   /** The interval */
-   private long interval;
-
-   /** The next scan */
-   private long next;
-   
    /** Shutdown */
    private AtomicBoolean shutdown;
 
-   /** Lock */
-   private Lock lock;
-   
-   /** Condition */
-   private Condition condition;
-   
    /**
     * Private constructor.
     */
    private IdleRemover()
    {
       this.executorService = null;
-      this.isExternal = false;
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
       this.shutdown = new AtomicBoolean(false);
-      this.lock = new ReentrantLock(true);
-      this.condition = lock.newCondition();
    }
 
    /**
@@ -102,21 +79,13 @@ public class IdleRemover
    }
    
    /**
-    * Set the executor service
+    * Set the executor service used to execute the scans. If not set the
+    * executor of the scheduler is used
     * @param v The value
     */
    public void setExecutorService(ExecutorService v)
    {
-      if (v != null)
-      {
-         this.executorService = v;
-         this.isExternal = true;
-      }
-      else
-      {
-         this.executorService = null;
-         this.isExternal = false;
-      }
+      this.executorService = v;
    }
 
    /**
@@ -125,16 +94,7 @@ public class IdleRemover
     */
    public void start() throws Throwable
    {
-      if (!isExternal)
-      {
-         this.executorService = Executors.newSingleThreadExecutor(new IdleRemoverThreadFactory());
-      }
-
       this.shutdown.set(false);
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
-
-      this.executorService.execute(new IdleRemoverRunner());
    }
 
    /**
@@ -145,10 +105,9 @@ public class IdleRemover
    {
       instance.shutdown.set(true);
 
-      if (!isExternal)
+      for (ScheduledTask st : instance.registeredPools.values())
       {
-         instance.executorService.shutdownNow();
-         instance.executorService = null;
+         st.cancel();
       }
 
       instance.registeredPools.clear();
@@ -177,128 +136,66 @@ public class IdleRemover
       instance.internalUnregisterPool(mcp);
    }
 
-   private void internalRegisterPool(IdleConnectionRemovalSupport mcp, long interval)
+   private synchronized void internalRegisterPool(IdleConnectionRemovalSupport mcp, long interval)
    {
-      try
+      if (!registeredPools.containsKey(mcp))
       {
-         this.lock.lock();
-         
-         this.registeredPools.addIfAbsent(mcp);
-         
-         if (interval > 1 && interval / 2 < this.interval) 
-         {
-            this.interval = interval / 2;
-            long maybeNext = System.currentTimeMillis() + this.interval;
-            if (next > maybeNext && maybeNext > 0) 
-            {
-               next = maybeNext;
-               if (logger.isDebugEnabled())
-               {
-                  logger.debug("About to notify thread: old next: " + next + ", new next: " + maybeNext);
-               }               
-               
-               this.condition.signal();
-            }
-         }         
-      } 
-      finally
-      {
-         this.lock.unlock();
+         ScheduledTask st = Scheduler.getInstance().schedule(new IdleRemoverTask(mcp),
+                                                             Math.max(interval / 2, 1L),
+                                                             executorService);
+         registeredPools.put(mcp, st);
       }
    }
    
-   private void internalUnregisterPool(IdleConnectionRemovalSupport mcp)
+   private synchronized void internalUnregisterPool(IdleConnectionRemovalSupport mcp)
    {
-      this.registeredPools.remove(mcp);
-      
-      if (this.registeredPools.size() == 0) 
-      {
-         if (logger.isDebugEnabled())
-         {
-            logger.debug("Setting interval to Long.MAX_VALUE");  
-         }
-         
-         interval = Long.MAX_VALUE;
-      }
+      ScheduledTask st = registeredPools.remove(mcp);
+
+      if (st != null)
+         st.cancel();
    }
-         
+   
    /**
-    * Thread factory.
+    * IdleRemoverTask
     */
-   private static class IdleRemoverThreadFactory implements ThreadFactory
+   private class IdleRemoverTask implements Runnable
    {
+      /** The pool */
+      private IdleConnectionRemovalSupport mcp;
+
       /**
-       * {@inheritDoc}
+       * Constructor
+       * @param mcp The pool
        */
-      public Thread newThread(Runnable r)
+      IdleRemoverTask(IdleConnectionRemovalSupport mcp)
       {
-         Thread thread = new Thread(r, IdleRemover.THREAD_NAME);
-         thread.setDaemon(true);
-         
-         return thread;
-      }      
-   }
-   
-   /**
-    * IdleRemoverRunner
-    */
-   private class IdleRemoverRunner implements Runnable
-   {
+         this.mcp = mcp;
+      }
+
       /**
        * {@inheritDoc}
        */
       public void run()
       {
+         if (shutdown.get())
+            return;
+
          final ClassLoader oldTccl = SecurityActions.getThreadContextClassLoader();
          SecurityActions.setThreadContextClassLoader(IdleRemover.class.getClassLoader());
          
          try
          {
-            lock.lock();
-            
-            while (!shutdown.get())
-            {
-               boolean result = instance.condition.await(instance.interval, TimeUnit.MILLISECONDS);
+            if (logger.isTraceEnabled())
+               logger.trace("Notifying pool: " + mcp);
 
-               if (logger.isTraceEnabled())
-               {
-                  logger.trace("Result of await: " + result);
-               }
-
-               if (logger.isDebugEnabled())
-               {
-                  logger.debug("Notifying pools, interval: " + interval);  
-               }
-     
-               for (IdleConnectionRemovalSupport mcp : registeredPools)
-               {
-                  mcp.removeIdleConnections();
-               }
-
-               next = System.currentTimeMillis() + interval;
-               
-               if (next < 0)
-               {
-                  next = Long.MAX_VALUE;  
-               }
-            }            
-         }
-         catch (InterruptedException e)
-         {
-            if (!shutdown.get())
-               logger.returningConnectionValidatorInterrupted();
+            mcp.removeIdleConnections();
          }
          catch (RuntimeException e)
          {
             logger.connectionValidatorIgnoredUnexpectedRuntimeException(e);
          }
-         catch (Exception e)
-         {
-            logger.connectionValidatorIgnoredUnexpectedError(e);
-         }         
          finally
          {
-            lock.unlock();  
             SecurityActions.setThreadContextClassLoader(oldTccl);
          }
       }
@@ -22,6 +22,8 @@
 
 package org.jboss.jca.core.connectionmanager.pool.mcp;
 
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+
 /**
  * Represents a fill request for a managed connection pool
  *
@@ -32,17 +34,22 @@ class FillRequest
    /** Managed connection pool */
    private ManagedConnectionPool mcp;
 
+   /** Pool */
+   private Pool pool;
+
    /** Fill size */
    private int fillSize;
 
    /**
     * Constructor
     * @param mcp The managed connection pool
+    * @param pool The pool
     * @param fillSize The fill size
     */
-   FillRequest(ManagedConnectionPool mcp, int fillSize)
+   FillRequest(ManagedConnectionPool mcp, Pool pool, int fillSize)
    {
       this.mcp = mcp;
+      this.pool = pool;
       this.fillSize = fillSize;
    }
 
@@ -55,6 +62,27 @@ class FillRequest
       return mcp;
    }
 
+   /**
+    * Get the pool
+    * @return The value
+    */
+   Pool getPool()
+   {
+      return pool;
+   }
+
+   /**
+    * Get the number of threads waiting for a connection from the pool
+    * @return The value
+    */
+   int getWaitingThreads()
+   {
+      if (pool == null)
+         return 0;
+
+      return pool.getLock().getQueueLength();
+   }
+
    /**
     * Get the fill size
     * @return The value
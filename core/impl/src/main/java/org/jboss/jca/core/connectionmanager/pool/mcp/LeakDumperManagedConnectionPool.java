@@ -89,12 +89,17 @@ public class LeakDumperManagedConnectionPool extends SemaphoreArrayListManagedCo
     * {@inheritDoc}
     */
    @Override
-   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException
    {
-      ConnectionListener cl = super.getConnection(subject, cri);
+      ConnectionListener cl = super.getConnection(subject, cri, permitHeld, create);
 
-      tracker.put(cl, new Throwable("ALLOCATION LEAK"));
-      times.put(cl, Long.valueOf(System.currentTimeMillis()));
+      if (cl != null)
+      {
+         tracker.put(cl, new Throwable("ALLOCATION LEAK"));
+         times.put(cl, Long.valueOf(System.currentTimeMillis()));
+      }
 
       return cl;
    }
@@ -71,6 +71,20 @@ public interface ManagedConnectionPool extends IdleConnectionRemovalSupport
     * @throws ResourceException exception
     */
    public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException;
+
+   /**
+    * Returns a connection listener that wraps managed connection.
+    * @param subject subject
+    * @param cri connection request info
+    * @param permitHeld Does the caller already hold a permit of the pool
+    * @param create Can a new managed connection be created
+    * @return connection listener wrapped managed connection; <code>null</code> if <code>create</code>
+    *         is false and there is no idle connection, in which case a held permit is still held
+    * @throws ResourceException exception; a held permit has been released
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException;
    
    /**
     * Find a connection listener
@@ -52,6 +52,10 @@ public class ManagedConnectionPoolFactory
    public static final String EXPERIMENTAL_IMPLEMENTATION = 
       "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool";
 
+   /** Thread affinity implementation */
+   public static final String AFFINITY_IMPLEMENTATION = 
+      "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool";
+
    /** Deprecated implementations */
    private static final String[] DEPRECATED_IMPLEMENTATIONS = new String[] {
       "org.jboss.jca.core.connectionmanager.pool.mcp.ArrayBlockingQueueManagedConnectionPool",
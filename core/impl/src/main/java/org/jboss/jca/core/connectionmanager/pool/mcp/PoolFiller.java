@@ -19,13 +19,24 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
+
 package org.jboss.jca.core.connectionmanager.pool.mcp;
 
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * PoolFiller
+ *
+ * The filler runs a number of threads (<code>ironjacamar.poolfiller.threads</code>) which
+ * serve the pending fill requests. Requests for pools that have threads waiting on their
+ * semaphore are served first, and each pool is filled by at most
+ * <code>ironjacamar.poolfiller.concurrency</code> threads at the same time.
  * 
  * @author <a href="mailto:d_jencks@users.sourceforge.net">David Jencks</a>
  * @author <a href="mailto:sstark@redhat.com">Scott Stark</a>
@@ -42,8 +53,14 @@ class PoolFiller implements Runnable
    /** Pools list */
    private final LinkedList<FillRequest> pools = new LinkedList<FillRequest>();
 
-   /** Filler thread */
-   private final Thread fillerThread;
+   /** Active fills per managed connection pool */
+   private final Map<ManagedConnectionPool, Integer> active = new IdentityHashMap<ManagedConnectionPool, Integer>();
+
+   /** Filler threads */
+   private final Thread[] fillerThreads;
+
+   /** Maximum number of concurrent fills per managed connection pool */
+   private final int concurrency;
 
    /** Thread name */
    private static final String THREAD_FILLER_NAME = "JCA PoolFiller";
@@ -65,8 +82,17 @@ class PoolFiller implements Runnable
     */
    PoolFiller()
    {
-      fillerThread = new Thread(this, THREAD_FILLER_NAME);
-      fillerThread.setDaemon(true);
+      int threads = getProperty("ironjacamar.poolfiller.threads",
+                                Math.min(Runtime.getRuntime().availableProcessors(), 4));
+
+      concurrency = getProperty("ironjacamar.poolfiller.concurrency", 1);
+      fillerThreads = new Thread[threads];
+
+      for (int i = 0; i < threads; i++)
+      {
+         fillerThreads[i] = new Thread(this, threads == 1 ? THREAD_FILLER_NAME : THREAD_FILLER_NAME + "-" + (i + 1));
+         fillerThreads[i].setDaemon(true);
+      }
    }
 
    /**
@@ -79,38 +105,111 @@ class PoolFiller implements Runnable
 
       while (true)
       {
-         boolean empty = false;
+         FillRequest fr = null;
 
-         while (!empty)
+         try 
          {
-            FillRequest fr = null;
-
             synchronized (pools)
             {
-               empty = pools.isEmpty();
-               if (!empty)
-                  fr = pools.removeFirst();
-            }
-
-            if (!empty)
-            {
-               fr.getManagedConnectionPool().fillTo(fr.getFillSize());
+               while ((fr = nextRequest()) == null)
+               {
+                  pools.wait();                        
+               }
             }
          }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+            return;
+         }
 
-         try 
+         try
+         {
+            long start = System.currentTimeMillis();
+
+            fr.getManagedConnectionPool().fillTo(fr.getFillSize());
+
+            Pool pool = fr.getPool();
+            if (pool != null && pool.getInternalStatistics().isEnabled())
+               pool.getInternalStatistics().deltaTotalFillTime(System.currentTimeMillis() - start);
+         }
+         finally
          {
             synchronized (pools)
             {
-               while (pools.isEmpty())
+               remove(fr);
+
+               ManagedConnectionPool mcp = fr.getManagedConnectionPool();
+               int count = active.get(mcp).intValue() - 1;
+               if (count == 0)
                {
-                  pools.wait();                        
+                  active.remove(mcp);
                }
+               else
+               {
+                  active.put(mcp, Integer.valueOf(count));
+               }
+
+               pools.notifyAll();
             }
          }
-         catch (InterruptedException ie)
+      }
+   }
+
+   /**
+    * Select the next fill request. The request for the pool with the most waiting
+    * threads is selected, and requests with the same number of waiting threads are
+    * selected in order. Must be called while holding the lock on the pools list.
+    * @return The fill request, or <code>null</code> if none can be served
+    */
+   private FillRequest nextRequest()
+   {
+      FillRequest result = null;
+      int waiting = -1;
+
+      for (FillRequest fr : pools)
+      {
+         Integer count = active.get(fr.getManagedConnectionPool());
+
+         if (count == null || count.intValue() < concurrency)
          {
-            Thread.currentThread().interrupt();
+            int w = fr.getWaitingThreads();
+            if (w > waiting)
+            {
+               result = fr;
+               waiting = w;
+            }
+         }
+      }
+
+      if (result != null)
+      {
+         Integer count = active.get(result.getManagedConnectionPool());
+         int c = count != null ? count.intValue() + 1 : 1;
+
+         active.put(result.getManagedConnectionPool(), Integer.valueOf(c));
+
+         // Keep the request available for other filler threads until the
+         // pool reaches its concurrency limit
+         if (c >= concurrency)
+            remove(result);
+      }
+
+      return result;
+   }
+
+   /**
+    * Remove the fill request instance from the pools list
+    * @param fr The fill request
+    */
+   private void remove(FillRequest fr)
+   {
+      Iterator<FillRequest> it = pools.iterator();
+      while (it.hasNext())
+      {
+         if (it.next() == fr)
+         {
+            it.remove();
             return;
          }
       }
@@ -124,7 +223,10 @@ class PoolFiller implements Runnable
    {
       if (this.threadStarted.compareAndSet(false, true))         
       {
-         this.fillerThread.start();
+         for (Thread t : fillerThreads)
+         {
+            t.start();
+         }
       }
       
       synchronized (pools)
@@ -136,4 +238,31 @@ class PoolFiller implements Runnable
          }
       }
    }
+
+   /**
+    * Get a positive integer system property
+    * @param name The name of the property
+    * @param defaultValue The default value
+    * @return The value
+    */
+   private static int getProperty(String name, int defaultValue)
+   {
+      String value = SecurityActions.getSystemProperty(name);
+
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            int v = Integer.parseInt(value.trim());
+            if (v > 0)
+               return v;
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use default
+         }
+      }
+
+      return defaultValue;
+   }
 }
@@ -32,6 +32,7 @@ import org.jboss.jca.core.connectionmanager.listener.ConnectionState;
 import org.jboss.jca.core.connectionmanager.pool.api.CapacityDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.api.Pool;
 import org.jboss.jca.core.connectionmanager.pool.api.PrefillPool;
+import org.jboss.jca.core.connectionmanager.pool.capacity.AdaptiveDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.DefaultCapacity;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutFIFODecrementer;
@@ -42,7 +43,11 @@ import org.jboss.jca.core.tracer.Tracer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -172,7 +177,7 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       // Schedule managed connection pool for prefill
       if ((pc.isPrefill() || pc.isStrictMin()) && p instanceof PrefillPool && pc.getInitialSize() > 0)
       {
-         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize()));
+         PoolFiller.fillPool(new FillRequest(this, pool, pc.getInitialSize()));
       }
 
       if (poolConfiguration.getIdleTimeoutMinutes() > 0)
@@ -263,13 +268,23 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
           (poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) &&
           pool instanceof PrefillPool &&
           poolConfiguration.getMinSize() > 0)
-         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize()));
+         PoolFiller.fillPool(new FillRequest(this, pool, poolConfiguration.getMinSize()));
    }
 
    /**
     * {@inheritDoc}
     */
    public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException
+   {
+      return getConnection(subject, cri, false, true);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException
    {
 
       if (log.isTraceEnabled())
@@ -293,7 +308,7 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       subject = (subject == null) ? defaultSubject : subject;
       cri = (cri == null) ? defaultCri : cri;
 
-      if (pool.isFull())
+      if (!permitHeld && pool.isFull())
       {
          if (pool.getInternalStatistics().isEnabled())
             pool.getInternalStatistics().deltaWaitCount();
@@ -321,7 +336,8 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
       try
       {
-         if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+         if (permitHeld ||
+             pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
          {
             if (pool.getInternalStatistics().isEnabled())
                pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
@@ -489,6 +505,15 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
             }
             while (cls.size() > 0);
 
+            // Only an idle connection was asked for
+            if (!create)
+            {
+               if (!permitHeld)
+                  pool.getLock().release();
+
+               return null;
+            }
+
             // OK, we couldnt find a working connection from the pool.  Make a new one.
             try
             {
@@ -885,7 +910,8 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
          decrementer = DefaultCapacity.DEFAULT_DECREMENTER;
 
       if (TimedOutDecrementer.class.getName().equals(decrementer.getClass().getName()) ||
-          TimedOutFIFODecrementer.class.getName().equals(decrementer.getClass().getName()))
+          TimedOutFIFODecrementer.class.getName().equals(decrementer.getClass().getName()) ||
+          AdaptiveDecrementer.class.getName().equals(decrementer.getClass().getName()))
       {
          // Allow through each minute
          if (now < (lastIdleCheck + 60000L))
@@ -1337,6 +1363,12 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
                                                         pool.getInternalStatistics().getInUseCount(), maxSize));
       }
 
+      if (poolConfiguration.isBackgroundValidationBatch())
+      {
+         validateConnectionsBatch();
+         return;
+      }
+
       if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
       {
          boolean anyDestroyed = false;
@@ -1442,6 +1474,109 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       }
    }
 
+   /**
+    * Validate all connection listeners that are due for validation with one call to
+    * the managed connection factory, and return the valid ones to the pool in one pass
+    * @exception Exception Thrown in case of an error
+    */
+   private void validateConnectionsBatch() throws Exception
+   {
+      if (!(mcf instanceof ValidatingManagedConnectionFactory))
+      {
+         log.backgroundValidationNonCompliantManagedConnectionFactory();
+         return;
+      }
+
+      if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS))
+      {
+         boolean anyDestroyed = false;
+         List<ConnectionListener> candidates = new ArrayList<ConnectionListener>();
+
+         try
+         {
+            synchronized (cls)
+            {
+               removeAllForFrequencyCheck(candidates);
+            }
+
+            if (candidates.isEmpty())
+               return;
+
+            Map<ManagedConnection, ConnectionListener> mcs =
+               new IdentityHashMap<ManagedConnection, ConnectionListener>(candidates.size());
+            for (ConnectionListener cl : candidates)
+            {
+               mcs.put(cl.getManagedConnection(), cl);
+            }
+
+            Set invalidSet = null;
+            boolean failed = false;
+            try
+            {
+               ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+               invalidSet = vcf.getInvalidConnections(new HashSet<ManagedConnection>(mcs.keySet()));
+            }
+            catch (ResourceException re)
+            {
+               // The failing connection isn't known, so destroy the batch like a single validation
+               failed = true;
+               log.connectionValidatorIgnoredUnexpectedError(re);
+            }
+
+            List<ConnectionListener> valid = new ArrayList<ConnectionListener>(candidates.size());
+            boolean running = isRunning();
+
+            for (ConnectionListener cl : candidates)
+            {
+               boolean invalid = failed || !running ||
+                  (invalidSet != null && invalidSet.contains(cl.getManagedConnection()));
+
+               if (invalid && cl.getState() != ConnectionState.DESTROY)
+               {
+                  if (pool.getInternalStatistics().isEnabled())
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                                                                     cl.getLastReturnedTime());
+
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, cl, false, false, !failed,
+                                                      false, failed, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+
+                  cl.destroy();
+                  anyDestroyed = true;
+               }
+               else if (!invalid)
+               {
+                  valid.add(cl);
+               }
+            }
+
+            candidates = valid;
+         }
+         finally
+         {
+            if (!candidates.isEmpty())
+            {
+               long now = System.currentTimeMillis();
+               synchronized (cls)
+               {
+                  for (ConnectionListener cl : candidates)
+                  {
+                     cl.setLastValidatedTime(now);
+                     cls.add(cl);
+                  }
+               }
+            }
+
+            pool.getLock().release();
+
+            if (anyDestroyed)
+               prefill();
+         }
+      }
+   }
+
    /**
     * Get the pool name
     * @return The value
@@ -1484,6 +1619,29 @@ public class SemaphoreArrayListManagedConnectionPool implements ManagedConnectio
       return cl;
    }
 
+   /**
+    * Remove all connection listeners that should be checked due to background validation
+    * @param candidates The listeners that should be checked
+    */
+   private void removeAllForFrequencyCheck(List<ConnectionListener> candidates)
+   {
+      long now = System.currentTimeMillis();
+
+      for (Iterator<ConnectionListener> iter = cls.iterator(); iter.hasNext();)
+      {
+         ConnectionListener cl = iter.next();
+
+         if ((now - cl.getLastValidatedTime()) >= poolConfiguration.getBackgroundValidationMillis())
+         {
+            iter.remove();
+            candidates.add(cl);
+         }
+      }
+
+      if (debug)
+         log.debugf("Checking for connections within frequency: %s", candidates);
+   }
+
    /**
     * Return a connection listener to the pool and update its validation timestamp
     * @param cl The listener
@@ -0,0 +1,341 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.FlushMode;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnectionFactory;
+import javax.security.auth.Subject;
+
+/**
+ * ManagedConnectionPool implementation based on a semaphore and ConcurrentLinkedDeque,
+ * with a thread affinity slot in front of the deque.
+ *
+ * A connection returned by a thread is parked in the affinity slot of that thread,
+ * and handed back to the same thread on its next request without going through the
+ * semaphore wait queue or the deque.
+ * Parked connections are stolen by other threads when the deque is empty, and
+ * are drained into the deque before flush, idle removal and background validation.
+ *
+ * The affinity is best effort: there is a fixed number of slots, and threads whose
+ * ids map to the same slot share it, so a thread can get a connection returned by
+ * another thread, or find its own connection taken. A fair pool with waiting threads
+ * doesn't use the slots for new requests, so the waiting order is kept.
+ * 
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool
+   extends SemaphoreConcurrentLinkedDequeManagedConnectionPool
+{
+   /** The thread affinity slots */
+   private AtomicReferenceArray<ConnectionListenerWrapper> slots;
+
+   /** The slot mask */
+   private int slotMask;
+
+   /**
+    * Constructor
+    */
+   public SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool() 
+   {
+      super();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void initialize(ManagedConnectionFactory mcf, ConnectionManager cm, Subject subject,
+                          ConnectionRequestInfo cri, PoolConfiguration pc, Pool p)
+   {
+      super.initialize(mcf, cm, subject, cri, pc, p);
+
+      this.slotMask = slotCount(pc.getMaxSize()) - 1;
+      this.slots = new AtomicReferenceArray<ConnectionListenerWrapper>(slotMask + 1);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void flush(FlushMode mode, Collection<ConnectionListener> toDestroy)
+   {
+      drainAffinity();
+      super.flush(mode, toDestroy);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void removeIdleConnections() 
+   {
+      drainAffinity();
+      super.removeIdleConnections();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public ConnectionListener removeConnectionListener() 
+   {
+      drainAffinity();
+      return super.removeConnectionListener();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void validateConnections() throws Exception 
+   {
+      drainAffinity();
+      super.validateConnections();
+   }
+
+   /**
+    * Get the connection listener parked in the affinity slot of the current thread.
+    * The permit is barged for, unless the pool is fair and has waiting threads
+    *
+    * @param subject The subject
+    * @param cri The connection request information
+    * @return The listener; otherwise null if the slow path should be taken
+    */
+   @Override
+   protected ConnectionListener getPreferredConnection(Subject subject, ConnectionRequestInfo cri)
+   {
+      int slot = slot();
+
+      if (slots.get(slot) == null || !isRunning())
+         return null;
+
+      Pool pool = getPool();
+
+      if (pool.getLock().isFair() && pool.getLock().hasQueuedThreads())
+         return null;
+
+      long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
+
+      if (!pool.getLock().tryAcquire())
+         return null;
+
+      ConnectionListenerWrapper clw = slots.getAndSet(slot, null);
+      if (clw != null)
+      {
+         ConnectionListener cl = checkOut(clw, subject, cri, startWait);
+         if (cl != null)
+            return cl;
+      }
+
+      pool.getLock().release();
+      return null;
+   }
+
+   /**
+    * Poll an available connection listener; the deque first, then the affinity slots
+    *
+    * @return The wrapper; otherwise null if none is available
+    */
+   @Override
+   protected ConnectionListenerWrapper pollAvailable()
+   {
+      ConnectionListenerWrapper clw = super.pollAvailable();
+
+      if (clw != null)
+         return clw;
+
+      int start = slot();
+      for (int i = 0; i <= slotMask; i++)
+      {
+         int slot = (start + i) & slotMask;
+
+         if (slots.get(slot) != null)
+         {
+            clw = slots.getAndSet(slot, null);
+
+            if (clw != null)
+               return clw;
+         }
+      }
+
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected boolean hasAvailable()
+   {
+      if (super.hasAvailable())
+         return true;
+
+      for (int i = 0; i <= slotMask; i++)
+      {
+         if (slots.get(i) != null)
+            return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * Park a checked out connection listener in the affinity slot of the current thread;
+    * the listener previously parked in the slot is moved to the deque
+    *
+    * @param clw The wrapper
+    * @param wasCheckedOut Was the listener checked out when it was returned
+    * @return True if made available, otherwise false if it already was available
+    */
+   @Override
+   protected boolean makeAvailable(ConnectionListenerWrapper clw, boolean wasCheckedOut)
+   {
+      if (wasCheckedOut)
+      {
+         ConnectionListenerWrapper displaced = slots.getAndSet(slot(), clw);
+         if (displaced != null)
+            addAvailable(displaced);
+
+         return true;
+      }
+
+      if (isParked(clw))
+         return false;
+
+      return super.makeAvailable(clw, wasCheckedOut);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected boolean removeAvailable(ConnectionListenerWrapper clw)
+   {
+      return super.removeAvailable(clw) || unpark(clw);
+   }
+
+   /**
+    * Is the connection listener parked in an affinity slot
+    *
+    * @param clw The wrapper
+    * @return True if parked, otherwise false
+    */
+   private boolean isParked(ConnectionListenerWrapper clw)
+   {
+      for (int i = 0; i <= slotMask; i++)
+      {
+         if (slots.get(i) == clw)
+            return true;
+      }
+
+      return false;
+   }
+
+   /**
+    * Remove the connection listener from its affinity slot
+    *
+    * @param clw The wrapper
+    * @return True if it was parked, otherwise false
+    */
+   private boolean unpark(ConnectionListenerWrapper clw)
+   {
+      for (int i = 0; i <= slotMask; i++)
+      {
+         if (slots.get(i) == clw)
+            return slots.compareAndSet(i, clw, null);
+      }
+
+      return false;
+   }
+
+   /**
+    * Move all parked connection listeners into the deque
+    */
+   private void drainAffinity()
+   {
+      for (int i = 0; i <= slotMask; i++)
+      {
+         if (slots.get(i) != null)
+         {
+            ConnectionListenerWrapper clw = slots.getAndSet(i, null);
+
+            if (clw != null)
+               addAvailable(clw);
+         }
+      }
+   }
+
+   /**
+    * Get the affinity slot of the current thread; shared with the threads whose
+    * ids have the same low bits
+    *
+    * @return The slot
+    */
+   private int slot()
+   {
+      return (int)Thread.currentThread().getId() & slotMask;
+   }
+
+   /**
+    * Get the number of affinity slots for a pool size
+    *
+    * @param size The maximum pool size
+    * @return The number of slots; a power of two
+    */
+   private static int slotCount(int size)
+   {
+      int count = 1;
+
+      while (count < size && count < 1024)
+         count <<= 1;
+
+      return count;
+   }
+
+   /**
+    * String representation
+    *
+    * @return The string
+    */
+   @Override
+   public String toString() 
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool@");
+      sb.append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[pool=").append(getPool().getName());
+      sb.append("]");
+
+      return sb.toString();
+   }
+}
@@ -32,6 +32,7 @@ import org.jboss.jca.core.connectionmanager.listener.ConnectionState;
 import org.jboss.jca.core.connectionmanager.pool.api.CapacityDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.api.Pool;
 import org.jboss.jca.core.connectionmanager.pool.api.PrefillPool;
+import org.jboss.jca.core.connectionmanager.pool.capacity.AdaptiveDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.DefaultCapacity;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.TimedOutFIFODecrementer;
@@ -42,7 +43,10 @@ import org.jboss.jca.core.tracer.Tracer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -52,6 +56,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import javax.resource.ResourceException;
 import javax.resource.spi.ConnectionRequestInfo;
@@ -179,7 +184,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       // Schedule managed connection pool for prefill
       if ((pc.isPrefill() || pc.isStrictMin()) && p instanceof PrefillPool && pc.getInitialSize() > 0) 
       {
-         PoolFiller.fillPool(new FillRequest(this, pc.getInitialSize()));
+         PoolFiller.fillPool(new FillRequest(this, pool, pc.getInitialSize()));
       }
 
       if (poolConfiguration.getIdleTimeoutMinutes() > 0) 
@@ -261,13 +266,23 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
           (poolConfiguration.isPrefill() || poolConfiguration.isStrictMin()) && 
           pool instanceof PrefillPool && 
           poolConfiguration.getMinSize() > 0)
-         PoolFiller.fillPool(new FillRequest(this, poolConfiguration.getMinSize()));
+         PoolFiller.fillPool(new FillRequest(this, pool, poolConfiguration.getMinSize()));
    }
 
    /**
     * {@inheritDoc}
     */
    public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException 
+   {
+      return getConnection(subject, cri, false, true);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ConnectionListener getConnection(Subject subject, ConnectionRequestInfo cri,
+                                           boolean permitHeld, boolean create)
+      throws ResourceException 
    {
       if (log.isTraceEnabled()) 
       {
@@ -298,7 +313,14 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       subject = (subject == null) ? defaultSubject : subject;
       cri = (cri == null) ? defaultCri : cri;
 
-      if (pool.isFull()) 
+      if (!permitHeld)
+      {
+         ConnectionListener preferred = getPreferredConnection(subject, cri);
+         if (preferred != null)
+            return preferred;
+      }
+
+      if (!permitHeld && pool.isFull()) 
       {
          if (pool.getInternalStatistics().isEnabled())
             pool.getInternalStatistics().deltaWaitCount();
@@ -327,7 +349,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       long startWait = pool.getInternalStatistics().isEnabled() ? System.currentTimeMillis() : 0L;
       try 
       {
-         if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
+         if (permitHeld ||
+             pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
          {
             if (pool.getInternalStatistics().isEnabled())
                pool.getInternalStatistics().deltaTotalBlockingTime(System.currentTimeMillis() - startWait);
@@ -345,141 +368,15 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                                                    Integer.toHexString(System.identityHashCode(this))));
                }
 
-               if (fifo)
-               {
-                  clw = clq.pollFirst();
-               }
-               else
-               {
-                  clw = clq.pollLast();
-               }
+               clw = pollAvailable();
 
                if (clw != null) 
                {
-                  clw.setCheckedOut(true);
-                  checkedOutSize.incrementAndGet();
-
-                  // Yes, we retrieved a ManagedConnection from the pool.
-                  // Does it match?
-                  try 
-                  {
-                     Object matchedMC = mcf.matchManagedConnections(Collections.singleton(
-                        clw.getConnectionListener().getManagedConnection()), subject, cri);
-
-                     boolean valid = true;
-
-                     if (matchedMC != null)
-                     {
-                        if (poolConfiguration.isValidateOnMatch())
-                        {
-                           if (mcf instanceof ValidatingManagedConnectionFactory)
-                           {
-                              try
-                              {
-                                 ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
-                                 Set candidateSet =
-                                    Collections.singleton(clw.getConnectionListener().getManagedConnection());
-                                 candidateSet = vcf.getInvalidConnections(candidateSet);
-
-                                 if (candidateSet != null && candidateSet.size() > 0)
-                                 {
-                                    valid = false;
-                                 }
-                              }
-                              catch (Throwable t)
-                              {
-                                 valid = false;
-                                 if (log.isTraceEnabled())
-                                    log.trace("Exception while ValidateOnMatch: " + t.getMessage(), t);
-                              }
-                           }
-                           else
-                           {
-                              log.validateOnMatchNonCompliantManagedConnectionFactory(mcf.getClass().getName());
-                           }
-                        }
-
-                        if (valid)
-                        {
-                           log.tracef("supplying ManagedConnection from pool: %s", clw.getConnectionListener());
-
-                           lastUsed = System.currentTimeMillis();
-                           clw.getConnectionListener().setLastCheckedOutTime(lastUsed);
-
-                           if (pool.getInternalStatistics().isEnabled())
-                           {
-                              pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
-                              pool.getInternalStatistics().deltaTotalPoolTime(lastUsed -
-                                 clw.getConnectionListener().getLastReturnedTime());
-                           }
-
-                           if (Tracer.isEnabled())
-                              Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                           true, pool.isInterleaving(),
-                                                           Tracer.isRecordCallstacks() ?
-                                                           new Throwable("CALLSTACK") : null);
-
-                           clw.setHasPermit(true);
-
-                           return clw.getConnectionListener();
-                        }
-                     }
-
-                     // Match did not succeed but no exception was
-                     // thrown.
-                     // Either we have the matching strategy wrong or the
-                     // connection died while being checked. We need to
-                     // distinguish these cases, but for now we always
-                     // destroy the connection.
-                     if (valid)
-                     {
-                        log.destroyingConnectionNotSuccessfullyMatched(clw.getConnectionListener());
-                     }
-                     else
-                     {
-                        if (poolValidationLoggingEnabled)
-                        {
-                           log.destroyingConnectionNotValidated(clw.getConnectionListener());
-                        }
-                     }
-
-                     if (pool.getInternalStatistics().isEnabled())
-                     {
-                        pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                           clw.getConnectionListener().getLastReturnedTime());
-                     }
-
-                     if (Tracer.isEnabled())
-                        Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                         false, false, true, false, false, false, false,
-                                                         Tracer.isRecordCallstacks() ?
-                                                         new Throwable("CALLSTACK") : null);
-                     
-                     removeConnectionListenerFromPool(clw);
-                     clw.getConnectionListener().destroy();
-                     clw = null;
-                  } 
-                  catch (Throwable t) 
-                  {
-                     log.throwableWhileTryingMatchManagedConnectionThenDestroyingConnection(
-                        clw.getConnectionListener(), t);
-
-                     if (pool.getInternalStatistics().isEnabled())
-                     {
-                        pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
-                           clw.getConnectionListener().getLastReturnedTime());
-                     }
+                  ConnectionListener cl = checkOut(clw, subject, cri, startWait);
+                  if (cl != null)
+                     return cl;
 
-                     if (Tracer.isEnabled())
-                        Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
-                                                         false, false, false, false, true, false, false,
-                                                         Tracer.isRecordCallstacks() ?
-                                                         new Throwable("CALLSTACK") : null);
-                     
-                     removeConnectionListenerFromPool(clw);
-                     clw.getConnectionListener().destroy();
-                     clw = null;
-                  }
+                  clw = null;
 
                   // We made it here, something went wrong and we should
                   // validate
@@ -495,7 +392,16 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
 
                } 
             } 
-            while (clq.size() > 0);
+            while (hasAvailable());
+
+            // Only an idle connection was asked for
+            if (!create)
+            {
+               if (!permitHeld)
+                  pool.getLock().release();
+
+               return null;
+            }
 
             // OK, we couldnt find a working connection from the pool. Make
             // a new one.
@@ -591,6 +497,156 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       } 
    }
 
+   /**
+    * Check out an available connection listener. It is matched against the request, and
+    * validated if configured; a listener which doesn't match, or isn't valid, is destroyed
+    *
+    * @param clw The wrapper
+    * @param subject The subject
+    * @param cri The connection request information
+    * @param startWait The time the request started waiting
+    * @return The connection listener; otherwise null if it can't be used
+    */
+   protected ConnectionListener checkOut(ConnectionListenerWrapper clw, Subject subject, ConnectionRequestInfo cri,
+                                         long startWait)
+   {
+      // Checked out, or removed, by another thread since it was taken
+      if (!clw.compareAndSetCheckedOut(false, true))
+         return null;
+
+      checkedOutSize.incrementAndGet();
+
+      if (cls.get(clw.getConnectionListener()) != clw)
+      {
+         if (clw.compareAndSetCheckedOut(true, false))
+            checkedOutSize.decrementAndGet();
+
+         return null;
+      }
+
+      // Yes, we retrieved a ManagedConnection from the pool.
+      // Does it match?
+      try 
+      {
+         Object matchedMC = mcf.matchManagedConnections(Collections.singleton(
+            clw.getConnectionListener().getManagedConnection()), subject, cri);
+
+         boolean valid = true;
+
+         if (matchedMC != null)
+         {
+            if (poolConfiguration.isValidateOnMatch())
+            {
+               if (mcf instanceof ValidatingManagedConnectionFactory)
+               {
+                  try
+                  {
+                     ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+                     Set candidateSet =
+                        Collections.singleton(clw.getConnectionListener().getManagedConnection());
+                     candidateSet = vcf.getInvalidConnections(candidateSet);
+
+                     if (candidateSet != null && candidateSet.size() > 0)
+                     {
+                        valid = false;
+                     }
+                  }
+                  catch (Throwable t)
+                  {
+                     valid = false;
+                     if (log.isTraceEnabled())
+                        log.trace("Exception while ValidateOnMatch: " + t.getMessage(), t);
+                  }
+               }
+               else
+               {
+                  log.validateOnMatchNonCompliantManagedConnectionFactory(mcf.getClass().getName());
+               }
+            }
+
+            if (valid)
+            {
+               log.tracef("supplying ManagedConnection from pool: %s", clw.getConnectionListener());
+
+               lastUsed = System.currentTimeMillis();
+               clw.getConnectionListener().setLastCheckedOutTime(lastUsed);
+
+               if (pool.getInternalStatistics().isEnabled())
+               {
+                  pool.getInternalStatistics().deltaTotalGetTime(lastUsed - startWait);
+                  pool.getInternalStatistics().deltaTotalPoolTime(lastUsed -
+                     clw.getConnectionListener().getLastReturnedTime());
+               }
+
+               if (Tracer.isEnabled())
+                  Tracer.getConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                               true, pool.isInterleaving(),
+                                               Tracer.isRecordCallstacks() ?
+                                               new Throwable("CALLSTACK") : null);
+
+               clw.setHasPermit(true);
+
+               return clw.getConnectionListener();
+            }
+         }
+
+         // Match did not succeed but no exception was
+         // thrown.
+         // Either we have the matching strategy wrong or the
+         // connection died while being checked. We need to
+         // distinguish these cases, but for now we always
+         // destroy the connection.
+         if (valid)
+         {
+            log.destroyingConnectionNotSuccessfullyMatched(clw.getConnectionListener());
+         }
+         else
+         {
+            if (poolValidationLoggingEnabled)
+            {
+               log.destroyingConnectionNotValidated(clw.getConnectionListener());
+            }
+         }
+
+         if (pool.getInternalStatistics().isEnabled())
+         {
+            pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+               clw.getConnectionListener().getLastReturnedTime());
+         }
+
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                             false, false, true, false, false, false, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+
+         removeConnectionListenerFromPool(clw);
+         clw.getConnectionListener().destroy();
+      } 
+      catch (Throwable t) 
+      {
+         log.throwableWhileTryingMatchManagedConnectionThenDestroyingConnection(
+            clw.getConnectionListener(), t);
+
+         if (pool.getInternalStatistics().isEnabled())
+         {
+            pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+               clw.getConnectionListener().getLastReturnedTime());
+         }
+
+         if (Tracer.isEnabled())
+            Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                             false, false, false, false, true, false, false,
+                                             Tracer.isRecordCallstacks() ?
+                                             new Throwable("CALLSTACK") : null);
+
+         removeConnectionListenerFromPool(clw);
+         clw.getConnectionListener().destroy();
+      }
+
+      return null;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -693,6 +749,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       }
 
       boolean releasePermit = false;
+      boolean wasCheckedOut = false;
       if (clw != null)
       {
          if (clw.hasPermit())
@@ -700,10 +757,10 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
             clw.setHasPermit(false);
             releasePermit = true;
          }
-         if (clw.isCheckedOut())
+         if (clw.compareAndSetCheckedOut(true, false))
          {
-            clw.setCheckedOut(false);
             checkedOutSize.decrementAndGet();
+            wasCheckedOut = true;
          }
       }
 
@@ -722,11 +779,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       else 
       {
          cl.toPool();
-         if (!clq.contains(clw)) 
-         {
-            clq.addLast(clw);
-         } 
-         else 
+         if (!makeAvailable(clw, wasCheckedOut)) 
          {
             log.attemptReturnConnectionTwice(cl, new Throwable("STACKTRACE"));
          }
@@ -781,8 +834,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
                {
                   log.tracef("Flush marking checked out connection for destruction %s", entry.getKey());
 
-                  entry.getValue().setCheckedOut(false);
-                  checkedOutSize.decrementAndGet();
+                  if (entry.getValue().compareAndSetCheckedOut(true, false))
+                     checkedOutSize.decrementAndGet();
 
                   if (pool.getInternalStatistics().isEnabled())
                      pool.getInternalStatistics().deltaTotalUsageTime(System.currentTimeMillis() -
@@ -801,7 +854,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
 
                   destroy.add(entry.getValue());
 
-                  clq.remove(entry.getValue());
+                  removeAvailable(entry.getValue());
                   doRemoveConnectionListenerFromPool(entry.getKey());
                }
             }
@@ -908,7 +961,8 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
          decrementer = DefaultCapacity.DEFAULT_DECREMENTER;
 
       if (TimedOutDecrementer.class.getName().equals(decrementer.getClass().getName()) ||
-          TimedOutFIFODecrementer.class.getName().equals(decrementer.getClass().getName()))
+          TimedOutFIFODecrementer.class.getName().equals(decrementer.getClass().getName()) ||
+          AdaptiveDecrementer.class.getName().equals(decrementer.getClass().getName()))
       {
          // Allow through each minute
          if (now < (lastIdleCheck + 60000L))
@@ -1366,13 +1420,12 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
    {
       if (clw != null)
       {
-         clq.remove(clw);
+         removeAvailable(clw);
          doRemoveConnectionListenerFromPool(clw.getConnectionListener());
 
          //update counter and statistics
-         if (clw.isCheckedOut()) 
+         if (clw.compareAndSetCheckedOut(true, false)) 
          {
-            clw.setCheckedOut(false);
             checkedOutSize.decrementAndGet();
          }
       }
@@ -1414,6 +1467,12 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
 
       log.tracef("Attempting to validate connections for pool %s", this);
 
+      if (poolConfiguration.isBackgroundValidationBatch())
+      {
+         validateConnectionsBatch();
+         return;
+      }
+
       if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
       {
          boolean anyDestroyed = false;
@@ -1525,6 +1584,114 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       }
    }
 
+   /**
+    * Validate all connection listeners that are due for validation with one call to
+    * the managed connection factory, and return the valid ones to the pool in one pass
+    * @exception Exception Thrown in case of an error
+    */
+   private void validateConnectionsBatch() throws Exception
+   {
+      if (!(mcf instanceof ValidatingManagedConnectionFactory))
+      {
+         log.backgroundValidationNonCompliantManagedConnectionFactory();
+         return;
+      }
+
+      if (pool.getLock().tryAcquire(poolConfiguration.getBlockingTimeout(), TimeUnit.MILLISECONDS)) 
+      {
+         boolean anyDestroyed = false;
+         List<ConnectionListener> candidates = new ArrayList<ConnectionListener>();
+
+         try 
+         {
+            synchronized (cls)
+            {
+               removeAllForFrequencyCheck(candidates);
+            }
+
+            if (candidates.isEmpty())
+               return;
+
+            Map<ManagedConnection, ConnectionListener> mcs =
+               new IdentityHashMap<ManagedConnection, ConnectionListener>(candidates.size());
+            for (ConnectionListener cl : candidates)
+            {
+               mcs.put(cl.getManagedConnection(), cl);
+            }
+
+            Set invalidSet = null;
+            boolean failed = false;
+            try
+            {
+               ValidatingManagedConnectionFactory vcf = (ValidatingManagedConnectionFactory) mcf;
+               invalidSet = vcf.getInvalidConnections(new HashSet<ManagedConnection>(mcs.keySet()));
+            }
+            catch (ResourceException re)
+            {
+               // The failing connection isn't known, so destroy the batch like a single validation
+               failed = true;
+               log.connectionValidatorIgnoredUnexpectedError(re);
+            }
+
+            List<ConnectionListener> valid = new ArrayList<ConnectionListener>(candidates.size());
+            boolean running = isRunning();
+
+            for (ConnectionListener cl : candidates)
+            {
+               boolean invalid = failed || !running ||
+                  (invalidSet != null && invalidSet.contains(cl.getManagedConnection()));
+
+               if (invalid && cl.getState() != ConnectionState.DESTROY)
+               {
+                  ConnectionListenerWrapper clw = doRemoveConnectionListenerFromPool(cl);
+
+                  if (pool.getInternalStatistics().isEnabled())
+                     pool.getInternalStatistics().deltaTotalPoolTime(System.currentTimeMillis() -
+                        clw.getConnectionListener().getLastReturnedTime());
+
+                  if (Tracer.isEnabled())
+                     Tracer.destroyConnectionListener(pool.getName(), this, clw.getConnectionListener(),
+                                                      false, false, !failed, false, failed, false, false,
+                                                      Tracer.isRecordCallstacks() ?
+                                                      new Throwable("CALLSTACK") : null);
+
+                  removeConnectionListenerFromPool(clw);
+                  clw.getConnectionListener().destroy();
+                  anyDestroyed = true;
+               }
+               else if (!invalid)
+               {
+                  valid.add(cl);
+               }
+            }
+
+            candidates = valid;
+         } 
+         finally 
+         {
+            if (!candidates.isEmpty())
+            {
+               long now = System.currentTimeMillis();
+               synchronized (cls)
+               {
+                  for (ConnectionListener cl : candidates)
+                  {
+                     cl.setLastValidatedTime(now);
+                     ConnectionListenerWrapper clw = cls.get(cl);
+                     if (clw != null)
+                        clq.addLast(clw);
+                  }
+               }
+            }
+
+            pool.getLock().release();
+
+            if (anyDestroyed)
+                prefill();
+         }
+      }
+   }
+
    /**
     * Get the pool name
     * @return The value
@@ -1571,6 +1738,28 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
          return null;
    }
 
+   /**
+    * Remove all connection listeners that should be checked due to background
+    * validation
+    * 
+    * @param candidates The listeners that should be checked
+    */
+   private void removeAllForFrequencyCheck(List<ConnectionListener> candidates) 
+   {
+      log.debug("Checking for connections within frequency");
+
+      long now = System.currentTimeMillis();
+
+      for (Iterator<ConnectionListenerWrapper> iter = clq.iterator(); iter.hasNext();) 
+      {
+         ConnectionListenerWrapper clw = iter.next();
+         long lastCheck = clw.getConnectionListener().getLastValidatedTime();
+
+         if ((now - lastCheck) >= poolConfiguration.getBackgroundValidationMillis() && clq.remove(clw)) 
+            candidates.add(clw.getConnectionListener());
+      }
+   }
+
    /**
     * Return a connection listener to the pool and update its validation
     * timestamp
@@ -1678,6 +1867,99 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       return false;
    }
 
+   /**
+    * Get the pool
+    * 
+    * @return The value
+    */
+   protected Pool getPool()
+   {
+      return pool;
+   }
+
+   /**
+    * Get a connection listener before the permit of the pool is waited for; the listener
+    * must hold a permit. The default implementation doesn't have a preferred listener
+    * 
+    * @param subject The subject
+    * @param cri The connection request information
+    * @return The connection listener; otherwise null if the permit should be waited for
+    */
+   protected ConnectionListener getPreferredConnection(Subject subject, ConnectionRequestInfo cri)
+   {
+      return null;
+   }
+
+   /**
+    * Poll an available connection listener
+    * 
+    * @return The wrapper; otherwise null if none is available
+    */
+   protected ConnectionListenerWrapper pollAvailable()
+   {
+      return fifo ? clq.pollFirst() : clq.pollLast();
+   }
+
+   /**
+    * Are there any available connection listeners
+    * 
+    * @return True if there is, otherwise false
+    */
+   protected boolean hasAvailable()
+   {
+      return !clq.isEmpty();
+   }
+
+   /**
+    * Make a returned connection listener available
+    * 
+    * @param clw The wrapper
+    * @param wasCheckedOut Was the listener checked out when it was returned
+    * @return True if made available, otherwise false if it already was available
+    */
+   protected boolean makeAvailable(ConnectionListenerWrapper clw, boolean wasCheckedOut)
+   {
+      if (clq.contains(clw))
+         return false;
+
+      clq.addLast(clw);
+      return true;
+   }
+
+   /**
+    * Add an available connection listener, which may have been returned a while ago,
+    * such that the order of the deque by last returned time is kept for the
+    * capacity decrementers
+    * 
+    * @param clw The wrapper
+    */
+   protected void addAvailable(ConnectionListenerWrapper clw)
+   {
+      ConnectionListenerWrapper head = clq.peekFirst();
+
+      if (head == null ||
+          clw.getConnectionListener().getLastReturnedTime() <=
+          head.getConnectionListener().getLastReturnedTime())
+      {
+         clq.addFirst(clw);
+      }
+      else
+      {
+         clq.addLast(clw);
+      }
+   }
+
+   /**
+    * Remove an available connection listener
+    * 
+    * @param clw The wrapper
+    * @return True if it was available, otherwise false
+    */
+   protected boolean removeAvailable(ConnectionListenerWrapper clw)
+   {
+      return clq.remove(clw);
+   }
+
    /**
     * String representation
     * 
@@ -1704,8 +1986,12 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
     */
    static class ConnectionListenerWrapper 
    {
+      /** Checked out updater */
+      private static final AtomicIntegerFieldUpdater<ConnectionListenerWrapper> CHECKED_OUT =
+         AtomicIntegerFieldUpdater.newUpdater(ConnectionListenerWrapper.class, "checkedOut");
+
       private volatile ConnectionListener cl;
-      private volatile boolean checkedOut;
+      private volatile int checkedOut;
       private volatile boolean hasPermit;
 
       /**
@@ -1739,7 +2025,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
       public ConnectionListenerWrapper(ConnectionListener connectionListener, boolean checkedOut, boolean hasPermit) 
       {
          this.cl = connectionListener;
-         this.checkedOut = checkedOut;
+         this.checkedOut = checkedOut ? 1 : 0;
          this.hasPermit = hasPermit;
       }
 
@@ -1760,7 +2046,7 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
        */
       public boolean isCheckedOut() 
       {
-         return checkedOut;
+         return checkedOut == 1;
       }
 
       /**
@@ -1770,7 +2056,20 @@ public class SemaphoreConcurrentLinkedDequeManagedConnectionPool implements Mana
        */
       public void setCheckedOut(boolean checkedOut)
       {
-         this.checkedOut = checkedOut;
+         this.checkedOut = checkedOut ? 1 : 0;
+      }
+
+      /**
+       * Atomically set whether Connection Listener is checked out, if the
+       * current state is the expected one
+       * 
+       * @param expect the expected state
+       * @param update the new state
+       * @return True if the state was updated, otherwise false
+       */
+      public boolean compareAndSetCheckedOut(boolean expect, boolean update)
+      {
+         return CHECKED_OUT.compareAndSet(this, expect ? 1 : 0, update ? 1 : 0);
       }
 
       /**
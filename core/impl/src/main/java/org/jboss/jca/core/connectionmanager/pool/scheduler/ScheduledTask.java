@@ -0,0 +1,150 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.scheduler;
+
+import java.util.concurrent.Executor;
+
+/**
+ * A periodic task registered with the scheduler. The task is rescheduled once
+ * its execution has completed, so an execution never overlaps the previous one.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public final class ScheduledTask implements Runnable
+{
+   /** The scheduler */
+   private final Scheduler scheduler;
+
+   /** The task */
+   private final Runnable task;
+
+   /** The interval in milliseconds */
+   private final long interval;
+
+   /** The executor, or <code>null</code> for the scheduler's executor */
+   private final Executor executor;
+
+   /** Cancelled */
+   private volatile boolean cancelled;
+
+   /** The deadline in nanoseconds; owned by the scheduler thread */
+   long deadline;
+
+   /** The remaining rounds of the wheel; owned by the scheduler thread */
+   long rounds;
+
+   /**
+    * Constructor
+    * @param scheduler The scheduler
+    * @param task The task
+    * @param interval The interval in milliseconds
+    * @param executor The executor
+    */
+   ScheduledTask(Scheduler scheduler, Runnable task, long interval, Executor executor)
+   {
+      this.scheduler = scheduler;
+      this.task = task;
+      this.interval = interval;
+      this.executor = executor;
+      this.cancelled = false;
+   }
+
+   /**
+    * Get the task
+    * @return The value
+    */
+   public Runnable getTask()
+   {
+      return task;
+   }
+
+   /**
+    * Get the interval
+    * @return The value in milliseconds
+    */
+   public long getInterval()
+   {
+      return interval;
+   }
+
+   /**
+    * Get the executor
+    * @return The value
+    */
+   Executor getExecutor()
+   {
+      return executor;
+   }
+
+   /**
+    * Cancel the task
+    */
+   public void cancel()
+   {
+      cancelled = true;
+   }
+
+   /**
+    * Is the task cancelled
+    * @return The value
+    */
+   public boolean isCancelled()
+   {
+      return cancelled;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void run()
+   {
+      if (cancelled)
+         return;
+
+      try
+      {
+         task.run();
+      }
+      finally
+      {
+         if (!cancelled)
+            scheduler.reschedule(this);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("ScheduledTask@").append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[task=").append(task);
+      sb.append(" interval=").append(interval);
+      sb.append(" cancelled=").append(cancelled);
+      sb.append("]");
+
+      return sb.toString();
+   }
+}
@@ -0,0 +1,364 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.scheduler;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timer wheel scheduler for the periodic background tasks of the pools,
+ * like idle connection removal and background validation.
+ *
+ * Each task has its own deadline, and is placed in the bucket of the wheel that
+ * corresponds to it. The scheduler thread advances the wheel one bucket per tick,
+ * and hands the due tasks to a bounded executor, so a slow task only delays itself.
+ * A random jitter is added to each interval, such that pools with the same interval
+ * don't run their tasks at the same instant.
+ *
+ * The shared instance is configured by the system properties
+ * <code>ironjacamar.scheduler.tick</code> (milliseconds),
+ * <code>ironjacamar.scheduler.threads</code> and
+ * <code>ironjacamar.scheduler.jitter</code> (percent of the interval).
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class Scheduler
+{
+   /** Thread name */
+   private static final String THREAD_NAME = "JCA Scheduler";
+
+   /** Default tick in milliseconds */
+   private static final long DEFAULT_TICK = 100L;
+
+   /** Default wheel size */
+   private static final int DEFAULT_WHEEL_SIZE = 512;
+
+   /** Default jitter in percent */
+   private static final int DEFAULT_JITTER = 10;
+
+   /** Singleton instance */
+   private static final Scheduler INSTANCE =
+      new Scheduler(getProperty("ironjacamar.scheduler.tick", DEFAULT_TICK),
+                    DEFAULT_WHEEL_SIZE,
+                    (int)getProperty("ironjacamar.scheduler.threads",
+                                     Math.min(Runtime.getRuntime().availableProcessors(), 4)),
+                    (int)getProperty("ironjacamar.scheduler.jitter", DEFAULT_JITTER));
+
+   /** The tick in nanoseconds */
+   private final long tick;
+
+   /** The jitter in percent */
+   private final int jitter;
+
+   /** The wheel */
+   private final LinkedList<ScheduledTask>[] wheel;
+
+   /** The wheel mask */
+   private final int mask;
+
+   /** Tasks waiting to be placed on the wheel */
+   private final Queue<ScheduledTask> pending;
+
+   /** The executor */
+   private final ThreadPoolExecutor executor;
+
+   /** The scheduler thread */
+   private final Thread thread;
+
+   /** Started */
+   private final AtomicBoolean started;
+
+   /** Shutdown */
+   private volatile boolean shutdown;
+
+   /**
+    * Constructor
+    * @param tick The tick in milliseconds
+    * @param wheelSize The number of buckets in the wheel
+    * @param threads The maximum number of threads executing tasks
+    * @param jitter The jitter in percent of the interval
+    */
+   public Scheduler(long tick, int wheelSize, int threads, int jitter)
+   {
+      if (tick <= 0)
+         throw new IllegalArgumentException("tick");
+
+      if (wheelSize <= 0)
+         throw new IllegalArgumentException("wheelSize");
+
+      if (threads <= 0)
+         throw new IllegalArgumentException("threads");
+
+      int size = 1;
+      while (size < wheelSize)
+         size <<= 1;
+
+      this.tick = TimeUnit.MILLISECONDS.toNanos(tick);
+      this.jitter = jitter > 0 ? jitter : 0;
+      this.wheel = newWheel(size);
+      this.mask = size - 1;
+      this.pending = new ConcurrentLinkedQueue<ScheduledTask>();
+      this.started = new AtomicBoolean(false);
+      this.shutdown = false;
+
+      for (int i = 0; i < size; i++)
+      {
+         wheel[i] = new LinkedList<ScheduledTask>();
+      }
+
+      this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                                             new LinkedBlockingQueue<Runnable>(),
+                                             new SchedulerThreadFactory());
+      this.executor.allowCoreThreadTimeOut(true);
+
+      this.thread = new Thread(new Ticker(), THREAD_NAME);
+      this.thread.setDaemon(true);
+   }
+
+   /**
+    * Get the shared instance
+    * @return The value
+    */
+   public static Scheduler getInstance()
+   {
+      return INSTANCE;
+   }
+
+   /**
+    * Schedule a periodic task, which is executed on the scheduler's executor
+    * @param task The task
+    * @param interval The interval in milliseconds
+    * @return The scheduled task
+    */
+   public ScheduledTask schedule(Runnable task, long interval)
+   {
+      return schedule(task, interval, null);
+   }
+
+   /**
+    * Schedule a periodic task
+    * @param task The task
+    * @param interval The interval in milliseconds
+    * @param executor The executor used to execute the task, or <code>null</code>
+    *                 for the scheduler's executor
+    * @return The scheduled task
+    */
+   public ScheduledTask schedule(Runnable task, long interval, Executor executor)
+   {
+      if (task == null)
+         throw new IllegalArgumentException("task");
+
+      if (interval <= 0)
+         throw new IllegalArgumentException("interval");
+
+      if (started.compareAndSet(false, true))
+         thread.start();
+
+      ScheduledTask st = new ScheduledTask(this, task, interval, executor);
+      reschedule(st);
+
+      return st;
+   }
+
+   /**
+    * Shutdown the scheduler
+    */
+   public void shutdown()
+   {
+      shutdown = true;
+      LockSupport.unpark(thread);
+      executor.shutdownNow();
+   }
+
+   /**
+    * Place the task for its next execution
+    * @param st The scheduled task
+    */
+   void reschedule(ScheduledTask st)
+   {
+      if (shutdown)
+         return;
+
+      long delay = TimeUnit.MILLISECONDS.toNanos(st.getInterval());
+
+      if (jitter > 0)
+         delay += ThreadLocalRandom.current().nextLong(delay / 100L * jitter + 1L);
+
+      st.deadline = System.nanoTime() + delay;
+      pending.add(st);
+   }
+
+   /**
+    * Execute a due task
+    * @param st The scheduled task
+    */
+   private void execute(ScheduledTask st)
+   {
+      Executor e = st.getExecutor() != null ? st.getExecutor() : executor;
+
+      try
+      {
+         e.execute(st);
+      }
+      catch (RejectedExecutionException ree)
+      {
+         if (!st.isCancelled())
+            reschedule(st);
+      }
+   }
+
+   /**
+    * Create the buckets of the wheel
+    * @param size The number of buckets
+    * @return The buckets
+    */
+   @SuppressWarnings("unchecked")
+   private static LinkedList<ScheduledTask>[] newWheel(int size)
+   {
+      return (LinkedList<ScheduledTask>[])new LinkedList<?>[size];
+   }
+
+   /**
+    * Get a positive numeric system property
+    * @param name The name of the property
+    * @param defaultValue The default value
+    * @return The value
+    */
+   private static long getProperty(String name, long defaultValue)
+   {
+      String value = SecurityActions.getSystemProperty(name);
+
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            long v = Long.parseLong(value.trim());
+            if (v > 0)
+               return v;
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use default
+         }
+      }
+
+      return defaultValue;
+   }
+
+   /**
+    * Thread factory
+    */
+   private static class SchedulerThreadFactory implements ThreadFactory
+   {
+      /** Thread number */
+      private final AtomicInteger number = new AtomicInteger(1);
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread thread = new Thread(r, THREAD_NAME + "-" + number.getAndIncrement());
+         thread.setDaemon(true);
+
+         return thread;
+      }
+   }
+
+   /**
+    * Advances the wheel
+    */
+   private class Ticker implements Runnable
+   {
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         final long start = System.nanoTime();
+         long ticks = 0;
+
+         while (!shutdown)
+         {
+            long next = start + (ticks + 1) * tick;
+            long sleep = next - System.nanoTime();
+
+            while (sleep > 0 && !shutdown)
+            {
+               LockSupport.parkNanos(this, sleep);
+               sleep = next - System.nanoTime();
+            }
+
+            if (shutdown)
+               return;
+
+            ScheduledTask st = pending.poll();
+            while (st != null)
+            {
+               if (!st.isCancelled())
+               {
+                  long calculated = (st.deadline - start) / tick;
+                  st.rounds = (calculated - ticks) / wheel.length;
+                  wheel[(int)(Math.max(calculated, ticks) & mask)].add(st);
+               }
+
+               st = pending.poll();
+            }
+
+            Iterator<ScheduledTask> it = wheel[(int)(ticks & mask)].iterator();
+            while (it.hasNext())
+            {
+               st = it.next();
+
+               if (st.isCancelled())
+               {
+                  it.remove();
+               }
+               else if (st.rounds <= 0)
+               {
+                  it.remove();
+                  execute(st);
+               }
+               else
+               {
+                  st.rounds--;
+               }
+            }
+
+            ticks++;
+         }
+      }
+   }
+}
@@ -1,6 +1,6 @@
 /*
  * IronJacamar, a Java EE Connector Architecture implementation
- * Copyright 2012, Red Hat Inc, and individual contributors
+ * Copyright 2026, Red Hat Inc, and individual contributors
  * as indicated by the @author tags. See the copyright.txt file in the
  * distribution for a full listing of individual contributors.
  *
@@ -20,40 +20,38 @@
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
 
-package org.jboss.jca.core.workmanager.transport.remote.socket;
-
-import org.jboss.jca.core.workmanager.ClassBundle;
-import org.jboss.jca.core.workmanager.WorkClassLoader;
+package org.jboss.jca.core.connectionmanager.pool.scheduler;
 
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
 /**
  * Privileged Blocks
+ * 
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 class SecurityActions
-{ 
+{
    /**
-    * Constructor
+    * Get a system property
+    * @param name The property name
+    * @return The property value
     */
-   private SecurityActions()
+   static String getSystemProperty(final String name)
    {
-   }
-
-   /**
-    * Create a WorkClassLoader
-    * @param cb The class bundle
-    * @return The class loader
-    */
-   static WorkClassLoader createWorkClassLoader(final ClassBundle cb)
-   {
-      return AccessController.doPrivileged(new PrivilegedAction<WorkClassLoader>() 
+      if (System.getSecurityManager() == null)
+      {
+         return System.getProperty(name);
+      }
+      else
       {
-         public WorkClassLoader run()
+         return AccessController.doPrivileged(new PrivilegedAction<String>() 
          {
-            return new WorkClassLoader(cb);
-         }
-      });
+            public String run()
+            {
+               return System.getProperty(name);
+            }
+         });
+      }
    }
 }
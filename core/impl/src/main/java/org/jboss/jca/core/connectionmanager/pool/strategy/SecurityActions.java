@@ -41,45 +41,41 @@ class SecurityActions
    }
 
    /**
-    * Get the hash code for a Subject
+    * Create the fingerprint of a Subject
     * @param subject The Subject
-    * @return The hash code
+    * @return The fingerprint
     */
-   static int hashCode(final Subject subject)
+   static SubjectFingerprint createFingerprint(final Subject subject)
    {
       if (System.getSecurityManager() == null)
-         return subject.hashCode();
+         return new SubjectFingerprint(subject);
 
-      Integer hashCode = AccessController.doPrivileged(new PrivilegedAction<Integer>() 
+      return AccessController.doPrivileged(new PrivilegedAction<SubjectFingerprint>() 
       {
-         public Integer run()
+         public SubjectFingerprint run()
          {
-            return subject.hashCode();
+            return new SubjectFingerprint(subject);
          }
       });
-
-      return hashCode.intValue();
    }
 
    /**
-    * Verify if two Subject's are equal
-    * @param s1 The first Subject
-    * @param s2 The second Subject
-    * @return True if equal; otherwise false
+    * Does a fingerprint still represent a Subject
+    * @param fingerprint The fingerprint
+    * @param subject The Subject
+    * @return True if the fingerprint is current, otherwise false
     */
-   static boolean equals(final Subject s1, final Subject s2)
+   static boolean isCurrent(final SubjectFingerprint fingerprint, final Subject subject)
    {
       if (System.getSecurityManager() == null)
-         return s1 != null ? s1.equals(s2) : s2 == null;
+         return fingerprint.isCurrent(subject);
 
-      Boolean equals = AccessController.doPrivileged(new PrivilegedAction<Boolean>() 
+      return AccessController.doPrivileged(new PrivilegedAction<Boolean>() 
       {
          public Boolean run()
          {
-            return s1 != null ? s1.equals(s2) : s2 == null;
+            return Boolean.valueOf(fingerprint.isCurrent(subject));
          }
-      });
-
-      return equals.booleanValue();
+      }).booleanValue();
    }
 }
@@ -37,14 +37,11 @@ import javax.security.auth.Subject;
  */
 class SubjectCriKey
 {
-   /** Identifies no subject */
-   private static final Subject NOSUBJECT = new Subject();
-   
    /** Identifies no connection request information */
    private static final Object NOCRI = new Object();
 
-   /** The subject */
-   private final Subject subject;
+   /** The subject fingerprint */
+   private final SubjectFingerprint subject;
    
    /** The connection request information */
    private final Object cri;
@@ -63,7 +60,7 @@ class SubjectCriKey
     */
    SubjectCriKey(Subject subject, ConnectionRequestInfo cri, boolean separateNoTx)
    {
-      this.subject = (subject == null) ? NOSUBJECT : subject;
+      this.subject = SubjectFingerprint.of(subject);
       this.cri = (cri == null) ? NOCRI : cri;
       this.separateNoTx = separateNoTx;
    }
@@ -76,7 +73,7 @@ class SubjectCriKey
    {
       if (hashCode == Integer.MAX_VALUE)
       {
-         hashCode = SecurityActions.hashCode(subject) ^ cri.hashCode();  
+         hashCode = subject.hashCode() ^ cri.hashCode();  
       }
       
       return hashCode;
@@ -100,7 +97,7 @@ class SubjectCriKey
       
       SubjectCriKey other = (SubjectCriKey) obj;
       
-      return SecurityActions.equals(subject, other.subject) 
+      return subject.equals(other.subject) 
          && cri.equals(other.cri)
          && separateNoTx == other.separateNoTx;
    }
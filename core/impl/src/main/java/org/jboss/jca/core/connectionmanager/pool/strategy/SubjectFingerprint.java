@@ -0,0 +1,272 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.strategy;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.security.auth.Subject;
+
+/**
+ * An immutable snapshot of the principals and credentials of a {@link Subject}, which
+ * has the same equality as the Subject itself, but with a precomputed hash code and
+ * without the need for privileged actions when compared.
+ *
+ * The fingerprint is cached per Subject instance for as long as the Subject is reachable.
+ * A cached fingerprint is returned as is for a read-only Subject. For other Subjects it is
+ * returned if the principal and credential sets still contain the same instances in the
+ * same order, which doesn't hash or copy anything, so an added, removed or replaced principal
+ * or credential results in a new fingerprint. A principal or credential which is modified
+ * in place isn't detected; such a Subject must be made read-only or have the element replaced.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+final class SubjectFingerprint
+{
+   /** The fingerprint of no subject */
+   static final SubjectFingerprint NONE = new SubjectFingerprint(new Subject());
+
+   /** The fingerprints per Subject instance */
+   private static final ConcurrentMap<Object, SubjectFingerprint> CACHE =
+      new ConcurrentHashMap<Object, SubjectFingerprint>();
+
+   /** Subjects which have been garbage collected */
+   private static final ReferenceQueue<Subject> QUEUE = new ReferenceQueue<Subject>();
+
+   /** The principal instances, in the order of the Subject */
+   private final Object[] principalElements;
+
+   /** The public credential instances, in the order of the Subject */
+   private final Object[] publicCredentialElements;
+
+   /** The private credential instances, in the order of the Subject */
+   private final Object[] privateCredentialElements;
+
+   /** The principals */
+   private final Set<Object> principals;
+
+   /** The public credentials */
+   private final Set<Object> publicCredentials;
+
+   /** The private credentials */
+   private final Set<Object> privateCredentials;
+
+   /** The hash code */
+   private final int hashCode;
+
+   /**
+    * Constructor; must be called with the permission to read the private credentials
+    * @param subject The subject
+    */
+   SubjectFingerprint(Subject subject)
+   {
+      this.principalElements = elements(subject.getPrincipals());
+      this.publicCredentialElements = elements(subject.getPublicCredentials());
+      this.privateCredentialElements = elements(subject.getPrivateCredentials());
+      this.principals = snapshot(principalElements);
+      this.publicCredentials = snapshot(publicCredentialElements);
+      this.privateCredentials = snapshot(privateCredentialElements);
+      this.hashCode = 31 * (31 * principals.hashCode() + publicCredentials.hashCode()) +
+         privateCredentials.hashCode();
+   }
+
+   /**
+    * Get the fingerprint of a Subject
+    * @param subject The subject; may be <code>null</code>
+    * @return The fingerprint
+    */
+   static SubjectFingerprint of(Subject subject)
+   {
+      if (subject == null)
+         return NONE;
+
+      expunge();
+
+      SubjectFingerprint cached = CACHE.get(new SubjectReference(subject, null));
+
+      if (cached != null && (subject.isReadOnly() || SecurityActions.isCurrent(cached, subject)))
+         return cached;
+
+      SubjectFingerprint fingerprint = SecurityActions.createFingerprint(subject);
+      CACHE.put(new SubjectReference(subject, QUEUE), fingerprint);
+
+      return fingerprint;
+   }
+
+   /**
+    * Does the fingerprint still represent the Subject; must be called with the permission
+    * to read the private credentials
+    * @param subject The subject
+    * @return True if the sets of the subject contain the same instances, otherwise false
+    */
+   boolean isCurrent(Subject subject)
+   {
+      return same(principalElements, subject.getPrincipals()) &&
+         same(publicCredentialElements, subject.getPublicCredentials()) &&
+         same(privateCredentialElements, subject.getPrivateCredentials());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public int hashCode()
+   {
+      return hashCode;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public boolean equals(Object obj)
+   {
+      if (this == obj)
+         return true;
+
+      if (obj == null || !(obj instanceof SubjectFingerprint))
+         return false;
+
+      SubjectFingerprint other = (SubjectFingerprint)obj;
+
+      return hashCode == other.hashCode &&
+         principals.equals(other.principals) &&
+         publicCredentials.equals(other.publicCredentials) &&
+         privateCredentials.equals(other.privateCredentials);
+   }
+
+   /**
+    * Get the elements of a set
+    * @param s The set
+    * @return The elements
+    */
+   private static Object[] elements(Set<?> s)
+   {
+      synchronized (s)
+      {
+         return s.toArray();
+      }
+   }
+
+   /**
+    * Does a set contain the same instances in the same order
+    * @param elements The elements
+    * @param s The set
+    * @return True if the instances are the same, otherwise false
+    */
+   private static boolean same(Object[] elements, Set<?> s)
+   {
+      synchronized (s)
+      {
+         if (s.size() != elements.length)
+            return false;
+
+         int i = 0;
+         for (Object o : s)
+         {
+            if (i == elements.length || o != elements[i++])
+               return false;
+         }
+
+         return true;
+      }
+   }
+
+   /**
+    * Take a snapshot of the elements of a set
+    * @param elements The elements
+    * @return The snapshot
+    */
+   private static Set<Object> snapshot(Object[] elements)
+   {
+      if (elements.length == 0)
+         return Collections.emptySet();
+
+      return Collections.unmodifiableSet(new HashSet<Object>(Arrays.asList(elements)));
+   }
+
+   /**
+    * Remove the fingerprints of the Subjects which have been garbage collected
+    */
+   private static void expunge()
+   {
+      Reference<? extends Subject> ref = QUEUE.poll();
+      while (ref != null)
+      {
+         CACHE.remove(ref);
+         ref = QUEUE.poll();
+      }
+   }
+
+   /**
+    * A weak reference to a Subject using identity equality
+    */
+   private static final class SubjectReference extends WeakReference<Subject>
+   {
+      /** The identity hash code of the Subject */
+      private final int hash;
+
+      /**
+       * Constructor
+       * @param subject The subject
+       * @param queue The reference queue; <code>null</code> for a lookup
+       */
+      SubjectReference(Subject subject, ReferenceQueue<Subject> queue)
+      {
+         super(subject, queue);
+         this.hash = System.identityHashCode(subject);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object obj)
+      {
+         if (this == obj)
+            return true;
+
+         if (obj == null || !(obj instanceof SubjectReference))
+            return false;
+
+         Subject subject = get();
+         return subject != null && subject == ((SubjectReference)obj).get();
+      }
+   }
+}
@@ -32,18 +32,12 @@ import javax.security.auth.Subject;
  */
 class SubjectKey
 {
-   /** Identifies no subject */
-   private static final Subject NOSUBJECT = new Subject();
-
-   /** The subject */
-   private final Subject subject;
+   /** The subject fingerprint */
+   private final SubjectFingerprint subject;
 
    /** Separate no tx */
    private boolean separateNoTx;
    
-   /** The cached hashCode */
-   private int hashCode = Integer.MAX_VALUE;
-
    /**
     * Creates a new instance.
     * @param subject subject 
@@ -51,7 +45,7 @@ class SubjectKey
     */
    SubjectKey(Subject subject, boolean separateNoTx)
    {
-      this.subject = (subject == null) ? NOSUBJECT : subject;
+      this.subject = SubjectFingerprint.of(subject);
       this.separateNoTx = separateNoTx;
    }
 
@@ -61,10 +55,7 @@ class SubjectKey
    @Override
    public int hashCode()
    {
-      if (hashCode == Integer.MAX_VALUE)
-         hashCode = SecurityActions.hashCode(subject);
-
-      return hashCode;
+      return subject.hashCode();
    }
 
    /**
@@ -83,7 +74,7 @@ class SubjectKey
       }
       SubjectKey other = (SubjectKey) obj;
       
-      return SecurityActions.equals(subject, other.subject)
+      return subject.equals(other.subject)
          && separateNoTx == other.separateNoTx;
    }
    
@@ -24,21 +24,21 @@ package org.jboss.jca.core.connectionmanager.pool.validator;
 
 import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.scheduler.ScheduledTask;
+import org.jboss.jca.core.connectionmanager.pool.scheduler.Scheduler;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import org.jboss.logging.Logger;
 
 /**
  * Connection validator
+ *
+ * Each registered pool is validated at half of its background validation interval
+ * by the shared {@link Scheduler}.
  * 
  * @author <a href="mailto:gurkanerdogdu@yahoo.com">Gurkan Erdogdu</a>
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
@@ -49,49 +49,26 @@ public class ConnectionValidator
    /** Logger instance */
    private static CoreLogger logger = Logger.getMessageLogger(CoreLogger.class, ConnectionValidator.class.getName());
    
-   /** Thread name */
-   private static final String THREAD_NAME = "ConnectionValidator";
-   
    /** Singleton instance */
    private static ConnectionValidator instance = new ConnectionValidator();
    
    /** Registered pool instances */
-   private CopyOnWriteArrayList<ManagedConnectionPool> registeredPools = 
-      new CopyOnWriteArrayList<ManagedConnectionPool>();
+   private Map<ManagedConnectionPool, ScheduledTask> registeredPools = 
+      new ConcurrentHashMap<ManagedConnectionPool, ScheduledTask>();
    
    /** Executor service */
    private ExecutorService executorService;
 
-   /** Is the executor external */
-   private boolean isExternal;
-   
-   /** The interval */
-   private long interval;
-
-   /** The next scan */
-   private long next;
-   
    /** Shutdown */
    private AtomicBoolean shutdown;
 
-   /** Lock */
-   private Lock lock;
-   
-   /** Condition */
-   private Condition condition;
-   
    /**
     * Private constructor.
     */
    private ConnectionValidator()
    {
       this.executorService = null;
-      this.isExternal = false;
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
       this.shutdown = new AtomicBoolean(false);
-      this.lock = new ReentrantLock(true);
-      this.condition = lock.newCondition();
    }
 
    /**
@@ -104,21 +81,13 @@ public class ConnectionValidator
    }
    
    /**
-    * Set the executor service
+    * Set the executor service used to execute the validations. If not set the
+    * executor of the scheduler is used
     * @param v The value
     */
    public void setExecutorService(ExecutorService v)
    {
-      if (v != null)
-      {
-         this.executorService = v;
-         this.isExternal = true;
-      }
-      else
-      {
-         this.executorService = null;
-         this.isExternal = false;
-      }
+      this.executorService = v;
    }
 
    /**
@@ -127,16 +96,7 @@ public class ConnectionValidator
     */
    public void start() throws Throwable
    {
-      if (!isExternal)
-      {
-         this.executorService = Executors.newSingleThreadExecutor(new ValidatorThreadFactory());
-      }
-
       this.shutdown.set(false);
-      this.interval = Long.MAX_VALUE;
-      this.next = Long.MAX_VALUE;
-
-      this.executorService.execute(new ConnectionValidatorRunner());
    }
 
    /**
@@ -147,10 +107,9 @@ public class ConnectionValidator
    {
       instance.shutdown.set(true);
 
-      if (!isExternal)
+      for (ScheduledTask st : instance.registeredPools.values())
       {
-         instance.executorService.shutdownNow();
-         instance.executorService = null;
+         st.cancel();
       }
 
       instance.registeredPools.clear();
@@ -179,130 +138,60 @@ public class ConnectionValidator
       instance.internalUnregisterPool(mcp);
    }
    
-   private void internalRegisterPool(ManagedConnectionPool mcp, long interval)
+   private synchronized void internalRegisterPool(ManagedConnectionPool mcp, long interval)
    {
-      try
-      {
-         this.lock.lock();
-         
-         this.registeredPools.addIfAbsent(mcp);
-         
-         if (interval > 1 && interval / 2 < this.interval) 
-         {
-            this.interval = interval / 2;
-            long maybeNext = System.currentTimeMillis() + this.interval;
-            if (next > maybeNext && maybeNext > 0) 
-            {
-               next = maybeNext;
-               if (logger.isDebugEnabled())
-               {
-                  logger.debug("About to notify thread: old next: " + next + ", new next: " + maybeNext);
-               }               
-               
-               this.condition.signal();
-            }
-         }
-      } 
-      finally
+      if (!registeredPools.containsKey(mcp))
       {
-         this.lock.unlock();
+         ScheduledTask st = Scheduler.getInstance().schedule(new ConnectionValidatorTask(mcp),
+                                                             Math.max(interval / 2, 1L),
+                                                             executorService);
+         registeredPools.put(mcp, st);
       }
    }
    
-   private void internalUnregisterPool(ManagedConnectionPool mcp)
+   private synchronized void internalUnregisterPool(ManagedConnectionPool mcp)
    {
-      this.registeredPools.remove(mcp);
-      
-      if (this.registeredPools.size() == 0) 
-      {
-         if (logger.isDebugEnabled())
-         {
-            logger.debug("Setting interval to Long.MAX_VALUE");  
-         }
-         
-         interval = Long.MAX_VALUE;
-      }
+      ScheduledTask st = registeredPools.remove(mcp);
+
+      if (st != null)
+         st.cancel();
    }
 
    /**
-    * Thread factory.
+    * ConnectionValidatorTask.
+    *
     */
-   private static class ValidatorThreadFactory implements ThreadFactory
+   private class ConnectionValidatorTask implements Runnable
    {
+      /** The pool */
+      private ManagedConnectionPool mcp;
+
       /**
-       * {@inheritDoc}
+       * Constructor
+       * @param mcp The pool
        */
-      public Thread newThread(Runnable r)
+      ConnectionValidatorTask(ManagedConnectionPool mcp)
       {
-         Thread thread = new Thread(r, ConnectionValidator.THREAD_NAME);
-         thread.setDaemon(true);
-         
-         return thread;
-      }      
-   }
-   
-   /**
-    * ConnectionValidatorRunner.
-    *
-    */
-   private class ConnectionValidatorRunner implements Runnable
-   {
+         this.mcp = mcp;
+      }
+
       /**
        * {@inheritDoc}
        */
       public void run()
       {
+         if (shutdown.get())
+            return;
+
          final ClassLoader oldTccl = SecurityActions.getThreadContextClassLoader();
          SecurityActions.setThreadContextClassLoader(ConnectionValidator.class.getClassLoader());
          
          try
          {
+            if (logger.isTraceEnabled())
+               logger.trace("Notifying pool: " + mcp);
 
-
-            while (!shutdown.get())
-            {
-               try
-               {
-                  lock.lock();
-
-                  boolean result = instance.condition.await(instance.interval, TimeUnit.MILLISECONDS);
-
-                  if (logger.isTraceEnabled())
-                  {
-                     logger.trace("Result of await: " + result);
-                  }
-
-                  if (logger.isDebugEnabled())
-                  {
-                     logger.debug("Notifying pools, interval: " + interval);
-                  }
-               } finally {
-                  lock.unlock();
-               }
-
-               for (ManagedConnectionPool mcp : registeredPools)
-               {
-                  mcp.validateConnections();
-               }
-
-               try {
-                  lock.lock();
-                  next = System.currentTimeMillis() + interval;
-
-                  if (next < 0)
-                  {
-                     next = Long.MAX_VALUE;
-                  }
-               } finally {
-                  lock.unlock();
-               }
-
-            }            
-         }
-         catch (InterruptedException e)
-         {
-            if (!shutdown.get())
-               logger.returningConnectionValidatorInterrupted();
+            mcp.validateConnections();
          }
          catch (RuntimeException e)
          {
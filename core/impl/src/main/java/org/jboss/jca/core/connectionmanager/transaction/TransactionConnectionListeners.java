@@ -0,0 +1,140 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.transaction;
+
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * The connection listeners tracked by a transaction, indexed by their managed connection pool.
+ *
+ * The index is stored as a resource of the transaction, so it has the same scope as the
+ * transaction itself. The registry is only written while holding the transaction lock; the
+ * index is created once, by the first registration, and is never replaced afterwards.
+ * A lookup reads the index without the lock, which requires that the registry supports
+ * reads concurrent with a write, as a transaction may be used by several threads.
+ * Callers check for an existing connection listener without the lock, and check again
+ * while holding the lock before registering a new one.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TransactionConnectionListeners
+{
+   /** The key of the index in the transaction synchronization registry */
+   private static final Object KEY = new Key();
+
+   /** The connection listeners */
+   private final ConcurrentMap<ManagedConnectionPool, ConnectionListener> listeners;
+
+   /**
+    * Constructor
+    */
+   private TransactionConnectionListeners()
+   {
+      this.listeners = new ConcurrentHashMap<ManagedConnectionPool, ConnectionListener>();
+   }
+
+   /**
+    * Get the connection listener tracked by the active transaction
+    * @param tsr The transaction synchronization registry
+    * @param mcp The managed connection pool
+    * @return The connection listener; <code>null</code> if none
+    */
+   public static ConnectionListener get(TransactionSynchronizationRegistry tsr, ManagedConnectionPool mcp)
+   {
+      TransactionConnectionListeners index = (TransactionConnectionListeners)tsr.getResource(KEY);
+
+      if (index == null)
+         return null;
+
+      return index.listeners.get(mcp);
+   }
+
+   /**
+    * Set the connection listener tracked by the active transaction. The transaction lock is
+    * held while the registry is updated; the caller normally holds it already, such that the
+    * check for an existing connection listener and the registration are atomic
+    * @param tsr The transaction synchronization registry
+    * @param lock The transaction lock
+    * @param mcp The managed connection pool
+    * @param cl The connection listener; <code>null</code> to remove it
+    */
+   public static void put(TransactionSynchronizationRegistry tsr, Lock lock,
+                          ManagedConnectionPool mcp, ConnectionListener cl)
+   {
+      lock.lock();
+      try
+      {
+         TransactionConnectionListeners index = (TransactionConnectionListeners)tsr.getResource(KEY);
+
+         if (cl != null)
+         {
+            if (index == null)
+            {
+               index = new TransactionConnectionListeners();
+               tsr.putResource(KEY, index);
+            }
+
+            index.listeners.put(mcp, cl);
+         }
+         else if (index != null)
+         {
+            index.listeners.remove(mcp);
+         }
+
+         // Keep the resource for integrations that look up the connection listener directly
+         tsr.putResource(mcp, cl);
+      }
+      finally
+      {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * The key of the index
+    */
+   private static final class Key
+   {
+      /**
+       * Constructor
+       */
+      private Key()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public String toString()
+      {
+         return "TransactionConnectionListeners";
+      }
+   }
+}
@@ -30,6 +30,7 @@ import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
 import org.jboss.jca.core.connectionmanager.listener.TxConnectionListener;
 import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
 import org.jboss.jca.core.connectionmanager.transaction.LockKey;
+import org.jboss.jca.core.connectionmanager.transaction.TransactionConnectionListeners;
 import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 import org.jboss.jca.core.spi.transaction.TransactionTimeoutConfiguration;
 import org.jboss.jca.core.spi.transaction.TxUtils;
@@ -487,7 +488,7 @@ public class TxConnectionManagerImpl extends AbstractConnectionManager implement
 
                try
                {
-                  transactionSynchronizationRegistry.putResource(mcp, cl);
+                  TransactionConnectionListeners.put(transactionSynchronizationRegistry, lock, mcp, cl);
                }
                catch (Throwable t)
                {
@@ -835,7 +836,8 @@ public class TxConnectionManagerImpl extends AbstractConnectionManager implement
                try
                {
                   ConnectionListener existing =
-                     (ConnectionListener)transactionSynchronizationRegistry.getResource(cl.getManagedConnectionPool());
+                     TransactionConnectionListeners.get(transactionSynchronizationRegistry,
+                                                        cl.getManagedConnectionPool());
 
                   if (existing == null)
                   {
@@ -846,7 +848,8 @@ public class TxConnectionManagerImpl extends AbstractConnectionManager implement
                      cl.setTrackByTx(true);
                      cl.enlist();
 
-                     transactionSynchronizationRegistry.putResource(cl.getManagedConnectionPool(), cl);
+                     TransactionConnectionListeners.put(transactionSynchronizationRegistry, lock,
+                                                        cl.getManagedConnectionPool(), cl);
                   }
                   else
                   {
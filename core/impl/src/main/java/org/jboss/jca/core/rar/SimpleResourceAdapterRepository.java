@@ -48,6 +48,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.logging.Logger;
@@ -79,6 +81,12 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
    /** Recovery */
    private Map<String, Boolean> recovery;
 
+   /** Message listeners */
+   private Map<String, List<org.jboss.jca.core.spi.rar.MessageListener>> messageListeners;
+
+   /** Introspected activation spec classes */
+   private Map<Class<?>, Map<String, Class<?>>> activationSpecs;
+
    /** The metadata repository */
    private MetadataRepository mdr;
 
@@ -113,9 +121,11 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
     */
    public SimpleResourceAdapterRepository()
    {
-      this.rars = new HashMap<String, WeakReference<javax.resource.spi.ResourceAdapter>>();
+      this.rars = new ConcurrentHashMap<String, WeakReference<javax.resource.spi.ResourceAdapter>>();
       this.ids = new HashMap<String, AtomicInteger>();
       this.recovery = new HashMap<String, Boolean>();
+      this.messageListeners = new ConcurrentHashMap<String, List<org.jboss.jca.core.spi.rar.MessageListener>>();
+      this.activationSpecs = new WeakHashMap<Class<?>, Map<String, Class<?>>>();
       this.mdr = null;
       this.transactionIntegration = null;
    }
@@ -175,6 +185,7 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
 
       rars.remove(key);
       recovery.remove(key);
+      messageListeners.remove(key);
    }
 
    /**
@@ -329,7 +340,7 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
    /**
     * {@inheritDoc}
     */
-   public synchronized List<org.jboss.jca.core.spi.rar.MessageListener> getMessageListeners(String uniqueId)
+   public List<org.jboss.jca.core.spi.rar.MessageListener> getMessageListeners(String uniqueId)
       throws NotFoundException, InstantiationException, IllegalAccessException
    {
       if (uniqueId == null)
@@ -338,6 +349,30 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
       if (uniqueId.trim().equals(""))
          throw new IllegalArgumentException("UniqueId is empty");
 
+      List<org.jboss.jca.core.spi.rar.MessageListener> result = messageListeners.get(uniqueId);
+      if (result != null)
+      {
+         WeakReference<javax.resource.spi.ResourceAdapter> ra = rars.get(uniqueId);
+
+         if (ra != null && ra.get() != null)
+            return result;
+      }
+
+      return loadMessageListeners(uniqueId);
+   }
+
+   /**
+    * Load the message listeners of a resource adapter, and cache them until the
+    * resource adapter is unregistered
+    * @param uniqueId The identifier for the resource adapter
+    * @return The message listeners
+    * @exception NotFoundException Thrown if the resource adapter couldn't be found
+    * @exception InstantiationException Thrown if an object couldn't created
+    * @exception IllegalAccessException Thrown if object access is inaccessible
+    */
+   private synchronized List<org.jboss.jca.core.spi.rar.MessageListener> loadMessageListeners(String uniqueId)
+      throws NotFoundException, InstantiationException, IllegalAccessException
+   {
       if (!rars.containsKey(uniqueId))
          throw new NotFoundException(bundle.keyNotRegistered(uniqueId));
 
@@ -399,11 +434,17 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
                result.add(createMessageListener(rar, ml));
             }
 
+            result = Collections.unmodifiableList(result);
+            messageListeners.put(uniqueId, result);
+
             return result;
          }
       }
 
-      return Collections.emptyList();
+      List<org.jboss.jca.core.spi.rar.MessageListener> result = Collections.emptyList();
+      messageListeners.put(uniqueId, result);
+
+      return result;
    }
 
 
@@ -498,9 +539,14 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
     * @param clz The class
     * @return The introspected map
     */
-   private Map<String, Class<?>> introspectActivationSpec(Class<?> clz)
+   private synchronized Map<String, Class<?>> introspectActivationSpec(Class<?> clz)
    {
-      Map<String, Class<?>> result = new HashMap<String, Class<?>>();
+      Map<String, Class<?>> result = activationSpecs.get(clz);
+
+      if (result != null)
+         return result;
+
+      result = new HashMap<String, Class<?>>();
 
       if (clz != null)
       {
@@ -528,6 +574,9 @@ public class SimpleResourceAdapterRepository implements ResourceAdapterRepositor
                }
             }
          }
+
+         result = Collections.unmodifiableMap(result);
+         activationSpecs.put(clz, result);
       }
 
       return result;
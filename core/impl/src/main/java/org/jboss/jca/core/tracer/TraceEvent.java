@@ -231,8 +231,8 @@ public class TraceEvent
     * @param payload1 The first payload
     * @param payload2 The second payload
     */
-   private TraceEvent(String pool, String mcp, long threadId, int type, long timestamp, String cl,
-                      String payload1, String payload2)
+   TraceEvent(String pool, String mcp, long threadId, int type, long timestamp, String cl,
+              String payload1, String payload2)
    {
       this.pool = pool != null ? pool.replace('-', '_') : "Empty"; 
       this.mcp = mcp;
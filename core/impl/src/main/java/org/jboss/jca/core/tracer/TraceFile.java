@@ -0,0 +1,307 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The binary trace file format written by the tracer when events are recorded
+ * to a file, see <code>ironjacamar.tracer.file</code>.
+ *
+ * A file starts with a magic number and the format version, followed by the records.
+ * Each record is prefixed by its length, and a length of zero marks the end of the
+ * data. The identity hash codes are stored as integers, and the pool names are
+ * stored once per file.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public final class TraceFile
+{
+   /** Magic number */
+   static final int MAGIC = 0x494A5452;
+
+   /** Format version */
+   static final int FORMAT_VERSION = 1;
+
+   /** Header size */
+   static final int HEADER_SIZE = 8;
+
+   /** Empty string */
+   static final byte STRING_EMPTY = 0;
+
+   /** Identity hash code */
+   static final byte STRING_IDENTITY = 1;
+
+   /** Reference to a defined string */
+   static final byte STRING_REFERENCE = 2;
+
+   /** Definition of a string */
+   static final byte STRING_DEFINITION = 3;
+
+   /** Literal string */
+   static final byte STRING_LITERAL = 4;
+
+   /** UTF-8 */
+   static final Charset UTF_8 = Charset.forName("UTF-8");
+
+   /**
+    * Constructor
+    */
+   private TraceFile()
+   {
+   }
+
+   /**
+    * Is the file a binary trace file
+    * @param file The file
+    * @return True if the file starts with the trace file header, otherwise false
+    */
+   public static boolean isTraceFile(File file)
+   {
+      if (file == null || !file.isFile() || file.length() < HEADER_SIZE)
+         return false;
+
+      DataInputStream dis = null;
+      try
+      {
+         dis = new DataInputStream(new FileInputStream(file));
+         return dis.readInt() == MAGIC;
+      }
+      catch (IOException ioe)
+      {
+         return false;
+      }
+      finally
+      {
+         if (dis != null)
+         {
+            try
+            {
+               dis.close();
+            }
+            catch (IOException ignore)
+            {
+               // Ignore
+            }
+         }
+      }
+   }
+
+   /**
+    * Read the events from trace files. The events are ordered by their timestamp
+    * @param files The files
+    * @return The events
+    * @exception IOException Thrown if a file can't be read
+    */
+   public static List<TraceEvent> read(File... files) throws IOException
+   {
+      List<TraceEvent> result = new ArrayList<TraceEvent>();
+
+      for (File file : files)
+      {
+         InputStream is = null;
+         try
+         {
+            is = new BufferedInputStream(new FileInputStream(file));
+            read(is, result);
+         }
+         finally
+         {
+            if (is != null)
+            {
+               try
+               {
+                  is.close();
+               }
+               catch (IOException ignore)
+               {
+                  // Ignore
+               }
+            }
+         }
+      }
+
+      Collections.sort(result, new Comparator<TraceEvent>()
+      {
+         public int compare(TraceEvent te1, TraceEvent te2)
+         {
+            return te1.getTimestamp() < te2.getTimestamp() ? -1 : (te1.getTimestamp() == te2.getTimestamp() ? 0 : 1);
+         }
+      });
+
+      return result;
+   }
+
+   /**
+    * Read the events from a stream
+    * @param is The stream
+    * @param result The events
+    * @exception IOException Thrown if the stream isn't a valid trace file
+    */
+   private static void read(InputStream is, List<TraceEvent> result) throws IOException
+   {
+      DataInputStream dis = new DataInputStream(is);
+
+      if (dis.readInt() != MAGIC)
+         throw new IOException("Not a trace file");
+
+      int version = dis.readInt();
+      if (version != FORMAT_VERSION)
+         throw new IOException("Unsupported trace file version: " + version);
+
+      List<String> strings = new ArrayList<String>();
+      byte[] data = new byte[1024];
+
+      while (true)
+      {
+         int length;
+         try
+         {
+            length = dis.readInt();
+         }
+         catch (EOFException eof)
+         {
+            return;
+         }
+
+         if (length <= 0)
+            return;
+
+         if (length > data.length)
+            data = new byte[length];
+
+         dis.readFully(data, 0, length);
+
+         ByteBuffer bb = ByteBuffer.wrap(data, 0, length);
+         int type = bb.get();
+         long threadId = readVarLong(bb);
+         long timestamp = bb.getLong();
+         String pool = readString(bb, strings);
+         String mcp = readString(bb, strings);
+         String cl = readString(bb, strings);
+         String payload1 = readString(bb, strings);
+         String payload2 = readString(bb, strings);
+
+         result.add(new TraceEvent(pool, mcp, threadId, type, timestamp, cl, payload1, payload2));
+      }
+   }
+
+   /**
+    * Is the string an identity hash code in hex form
+    * @param s The string
+    * @return The value
+    */
+   static boolean isIdentity(String s)
+   {
+      int length = s.length();
+      if (length == 0 || length > 8 || (length > 1 && s.charAt(0) == '0'))
+         return false;
+
+      for (int i = 0; i < length; i++)
+      {
+         char c = s.charAt(i);
+         if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')))
+            return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Read a string
+    * @param bb The buffer
+    * @param strings The defined strings
+    * @return The value
+    * @exception IOException Thrown if the encoding is invalid
+    */
+   private static String readString(ByteBuffer bb, List<String> strings) throws IOException
+   {
+      byte tag = bb.get();
+      switch (tag)
+      {
+         case STRING_EMPTY:
+            return "";
+         case STRING_IDENTITY:
+            return Integer.toHexString(bb.getInt());
+         case STRING_REFERENCE:
+            return strings.get((int)readVarLong(bb));
+         case STRING_DEFINITION:
+         {
+            String s = readUTF(bb);
+            strings.add(s);
+            return s;
+         }
+         case STRING_LITERAL:
+            return readUTF(bb);
+         default:
+            throw new IOException("Invalid string tag: " + tag);
+      }
+   }
+
+   /**
+    * Read an UTF-8 string
+    * @param bb The buffer
+    * @return The value
+    */
+   private static String readUTF(ByteBuffer bb)
+   {
+      int length = (int)readVarLong(bb);
+      String s = new String(bb.array(), bb.arrayOffset() + bb.position(), length, UTF_8);
+      bb.position(bb.position() + length);
+      return s;
+   }
+
+   /**
+    * Read a variable length long
+    * @param bb The buffer
+    * @return The value
+    */
+   private static long readVarLong(ByteBuffer bb)
+   {
+      long value = 0;
+      int shift = 0;
+      byte b;
+
+      do
+      {
+         b = bb.get();
+         value |= (long)(b & 0x7F) << shift;
+         shift += 7;
+      }
+      while ((b & 0x80) != 0);
+
+      return value;
+   }
+}
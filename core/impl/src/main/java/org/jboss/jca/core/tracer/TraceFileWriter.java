@@ -0,0 +1,329 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import org.jboss.jca.Version;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes trace events to memory mapped trace files. Once a file is full the
+ * writer rolls over to the next file, and only the most recent files are kept.
+ * The files are named <code>&lt;name&gt;.&lt;index&gt;</code>.
+ *
+ * The writer isn't thread safe.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class TraceFileWriter
+{
+   /** The base name */
+   private final String name;
+
+   /** The size of a file */
+   private final int size;
+
+   /** The number of files kept */
+   private final int count;
+
+   /** The index of the current file */
+   private long index;
+
+   /** The mapped file */
+   private MappedByteBuffer buffer;
+
+   /** The strings defined in the current file */
+   private final Map<String, Integer> strings;
+
+   /** The record buffer */
+   private final Record record;
+
+   /**
+    * Constructor
+    * @param name The base name of the files
+    * @param size The size of a file in bytes
+    * @param count The number of files kept
+    * @exception IOException Thrown if the first file can't be created
+    */
+   TraceFileWriter(String name, int size, int count) throws IOException
+   {
+      this.name = name;
+      this.size = size;
+      this.count = count;
+      this.index = -1;
+      this.buffer = null;
+      this.strings = new HashMap<String, Integer>();
+      this.record = new Record();
+
+      File parent = new File(name).getAbsoluteFile().getParentFile();
+      if (parent != null && !parent.exists())
+         parent.mkdirs();
+
+      roll();
+   }
+
+   /**
+    * Get the file for an index
+    * @param i The index
+    * @return The file
+    */
+   File getFile(long i)
+   {
+      return new File(name + "." + i);
+   }
+
+   /**
+    * Get the index of the current file
+    * @return The value
+    */
+   long getIndex()
+   {
+      return index;
+   }
+
+   /**
+    * Write an event
+    * @param te The event
+    * @exception IOException Thrown if the next file can't be created
+    */
+   void write(TraceEvent te) throws IOException
+   {
+      if (!encode(te))
+      {
+         roll();
+
+         // Events larger than a file are dropped
+         if (!encode(te))
+            return;
+      }
+
+      buffer.putInt(record.size());
+      buffer.put(record.getData(), 0, record.size());
+   }
+
+   /**
+    * Flush the written events to the file
+    */
+   void force()
+   {
+      if (buffer != null)
+         buffer.force();
+   }
+
+   /**
+    * Close
+    */
+   void close()
+   {
+      force();
+      buffer = null;
+   }
+
+   /**
+    * Encode an event into the record buffer
+    * @param te The event
+    * @return True if the record fits in the current file, otherwise false
+    */
+   private boolean encode(TraceEvent te)
+   {
+      record.reset();
+      record.write(te.getType());
+      record.writeVarLong(te.getThreadId());
+      record.writeLong(te.getTimestamp());
+      boolean defined = record.writeDefinedString(te.getPool());
+      record.writeString(te.getManagedConnectionPool());
+      record.writeString(te.getConnectionListener());
+      record.writeString(te.getPayload1());
+      record.writeString(te.getPayload2());
+
+      // The record and the end marker must fit
+      if (record.size() + 8 > buffer.remaining())
+         return false;
+
+      if (defined)
+         strings.put(te.getPool(), Integer.valueOf(strings.size()));
+
+      return true;
+   }
+
+   /**
+    * Roll over to the next file
+    * @exception IOException Thrown if the file can't be created
+    */
+   private void roll() throws IOException
+   {
+      if (buffer != null)
+         buffer.force();
+
+      index++;
+      strings.clear();
+
+      File file = getFile(index);
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try
+      {
+         raf.setLength(0);
+         raf.setLength(size);
+         buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      }
+      finally
+      {
+         raf.close();
+      }
+
+      buffer.putInt(TraceFile.MAGIC);
+      buffer.putInt(TraceFile.FORMAT_VERSION);
+
+      if (index >= count)
+      {
+         File old = getFile(index - count);
+         if (old.exists())
+            old.delete();
+      }
+
+      write(new TraceEvent(Version.VERSION, "NONE", TraceEvent.VERSION, "NONE"));
+   }
+
+   /**
+    * The record buffer
+    */
+   private class Record extends ByteArrayOutputStream
+   {
+      /**
+       * Constructor
+       */
+      Record()
+      {
+         super(256);
+      }
+
+      /**
+       * Get the data
+       * @return The value
+       */
+      byte[] getData()
+      {
+         return buf;
+      }
+
+      /**
+       * Write a long
+       * @param v The value
+       */
+      void writeLong(long v)
+      {
+         for (int shift = 56; shift >= 0; shift -= 8)
+            write((int)(v >>> shift));
+      }
+
+      /**
+       * Write an integer
+       * @param v The value
+       */
+      void writeInt(int v)
+      {
+         for (int shift = 24; shift >= 0; shift -= 8)
+            write(v >>> shift);
+      }
+
+      /**
+       * Write a variable length long
+       * @param v The value
+       */
+      void writeVarLong(long v)
+      {
+         while ((v & ~0x7FL) != 0)
+         {
+            write((int)((v & 0x7F) | 0x80));
+            v >>>= 7;
+         }
+         write((int)v);
+      }
+
+      /**
+       * Write a string, which is defined once per file
+       * @param s The string
+       * @return True if the string was defined by this record, otherwise false
+       */
+      boolean writeDefinedString(String s)
+      {
+         if (s == null || s.length() == 0)
+         {
+            write(TraceFile.STRING_EMPTY);
+            return false;
+         }
+
+         Integer i = strings.get(s);
+         if (i != null)
+         {
+            write(TraceFile.STRING_REFERENCE);
+            writeVarLong(i.intValue());
+            return false;
+         }
+
+         write(TraceFile.STRING_DEFINITION);
+         writeUTF(s);
+         return true;
+      }
+
+      /**
+       * Write a string
+       * @param s The string
+       */
+      void writeString(String s)
+      {
+         if (s == null || s.length() == 0)
+         {
+            write(TraceFile.STRING_EMPTY);
+         }
+         else if (TraceFile.isIdentity(s))
+         {
+            write(TraceFile.STRING_IDENTITY);
+            writeInt((int)Long.parseLong(s, 16));
+         }
+         else
+         {
+            write(TraceFile.STRING_LITERAL);
+            writeUTF(s);
+         }
+      }
+
+      /**
+       * Write an UTF-8 string
+       * @param s The string
+       */
+      private void writeUTF(String s)
+      {
+         byte[] data = s.getBytes(TraceFile.UTF_8);
+         writeVarLong(data.length);
+         write(data, 0, data.length);
+      }
+   }
+}
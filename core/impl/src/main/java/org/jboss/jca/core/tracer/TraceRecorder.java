@@ -0,0 +1,331 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Records trace events into per-thread ring buffers, which are drained by
+ * a background thread into the trace files. Recording an event never blocks,
+ * and the event is dropped if the ring buffer of the thread is full.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class TraceRecorder implements Runnable
+{
+   /** The logger */
+   private static Logger log = Logger.getLogger(TraceRecorder.class);
+
+   /** Thread name */
+   private static final String THREAD_NAME = "JCA Tracer";
+
+   /** The writer */
+   private final TraceFileWriter writer;
+
+   /** The capacity of a ring buffer */
+   private final int capacity;
+
+   /** The drain interval in nanoseconds */
+   private final long interval;
+
+   /** The ring buffers */
+   private final List<RingBuffer> buffers;
+
+   /** The ring buffer of the current thread */
+   private final ThreadLocal<RingBuffer> local;
+
+   /** The number of dropped events */
+   private final AtomicLong dropped;
+
+   /** The number of dropped events already reported. Guarded by the lock */
+   private long reported;
+
+   /** The drain thread */
+   private final Thread thread;
+
+   /** Shutdown */
+   private volatile boolean shutdown;
+
+   /**
+    * Constructor
+    * @param writer The writer
+    * @param capacity The capacity of a ring buffer
+    * @param interval The drain interval in milliseconds
+    */
+   TraceRecorder(TraceFileWriter writer, int capacity, long interval)
+   {
+      int c = 1;
+      while (c < capacity)
+         c <<= 1;
+
+      this.writer = writer;
+      this.capacity = c;
+      this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+      this.buffers = new CopyOnWriteArrayList<RingBuffer>();
+      this.local = new ThreadLocal<RingBuffer>();
+      this.dropped = new AtomicLong(0);
+      this.reported = 0L;
+      this.shutdown = false;
+
+      this.thread = new Thread(this, THREAD_NAME);
+      this.thread.setDaemon(true);
+   }
+
+   /**
+    * Start
+    */
+   void start()
+   {
+      thread.start();
+
+      Runtime.getRuntime().addShutdownHook(new Thread(new Runnable()
+      {
+         public void run()
+         {
+            stop();
+         }
+      }, THREAD_NAME + " shutdown"));
+   }
+
+   /**
+    * Stop; drains the remaining events
+    */
+   void stop()
+   {
+      synchronized (this)
+      {
+         if (shutdown)
+            return;
+
+         shutdown = true;
+
+         drain();
+         writer.close();
+
+         long total = dropped.get();
+         if (total > 0)
+            log.warnf("%d trace events were dropped, increase ironjacamar.tracer.buffer", total);
+      }
+
+      LockSupport.unpark(thread);
+   }
+
+   /**
+    * Flush the recorded events to the trace file
+    */
+   synchronized void flush()
+   {
+      if (!shutdown)
+      {
+         drain();
+         writer.force();
+      }
+   }
+
+   /**
+    * Record an event
+    * @param te The event
+    */
+   void record(TraceEvent te)
+   {
+      RingBuffer rb = local.get();
+      if (rb == null)
+      {
+         rb = new RingBuffer(capacity);
+         local.set(rb);
+         buffers.add(rb);
+      }
+
+      if (!rb.offer(te))
+         dropped.incrementAndGet();
+   }
+
+   /**
+    * Get the number of dropped events
+    * @return The value
+    */
+   long getDropped()
+   {
+      return dropped.get();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void run()
+   {
+      while (!shutdown)
+      {
+         LockSupport.parkNanos(this, interval);
+
+         synchronized (this)
+         {
+            if (!shutdown)
+               drain();
+         }
+      }
+   }
+
+   /**
+    * Drain the ring buffers into the trace file. Must be called while holding the lock
+    */
+   private void drain()
+   {
+      long d = dropped.get();
+      if (d > reported)
+      {
+         log.debugf("%d trace events dropped", d - reported);
+         reported = d;
+      }
+
+      List<TraceEvent> events = new ArrayList<TraceEvent>();
+
+      Iterator<RingBuffer> it = buffers.iterator();
+      while (it.hasNext())
+      {
+         RingBuffer rb = it.next();
+
+         boolean alive = rb.isAlive();
+         rb.drainTo(events);
+
+         if (!alive)
+            buffers.remove(rb);
+      }
+
+      if (events.isEmpty())
+         return;
+
+      Collections.sort(events, new Comparator<TraceEvent>()
+      {
+         public int compare(TraceEvent te1, TraceEvent te2)
+         {
+            return te1.getTimestamp() < te2.getTimestamp() ? -1 : (te1.getTimestamp() == te2.getTimestamp() ? 0 : 1);
+         }
+      });
+
+      try
+      {
+         for (TraceEvent te : events)
+         {
+            writer.write(te);
+         }
+      }
+      catch (IOException ioe)
+      {
+         log.debugf(ioe, "Unable to write trace events");
+      }
+   }
+
+   /**
+    * A single producer, single consumer ring buffer
+    */
+   static final class RingBuffer
+   {
+      /** The events */
+      private final TraceEvent[] events;
+
+      /** The mask */
+      private final int mask;
+
+      /** The owner */
+      private final WeakReference<Thread> owner;
+
+      /** The consumer position */
+      private final AtomicLong head;
+
+      /** The producer position */
+      private final AtomicLong tail;
+
+      /**
+       * Constructor
+       * @param capacity The capacity; must be a power of two
+       */
+      RingBuffer(int capacity)
+      {
+         this.events = new TraceEvent[capacity];
+         this.mask = capacity - 1;
+         this.owner = new WeakReference<Thread>(Thread.currentThread());
+         this.head = new AtomicLong(0);
+         this.tail = new AtomicLong(0);
+      }
+
+      /**
+       * Is the owner thread alive
+       * @return The value
+       */
+      boolean isAlive()
+      {
+         Thread t = owner.get();
+         return t != null && t.isAlive();
+      }
+
+      /**
+       * Offer an event; only called by the owner thread
+       * @param te The event
+       * @return True if the event was added, false if the buffer is full
+       */
+      boolean offer(TraceEvent te)
+      {
+         long t = tail.get();
+         if (t - head.get() >= events.length)
+            return false;
+
+         events[(int)t & mask] = te;
+         tail.lazySet(t + 1);
+
+         return true;
+      }
+
+      /**
+       * Drain the events; only called by the consumer
+       * @param result The events
+       */
+      void drainTo(List<TraceEvent> result)
+      {
+         long h = head.get();
+         long t = tail.get();
+
+         while (h < t)
+         {
+            int i = (int)h & mask;
+            result.add(events[i]);
+            events[i] = null;
+            h++;
+         }
+
+         head.lazySet(h);
+      }
+   }
+}
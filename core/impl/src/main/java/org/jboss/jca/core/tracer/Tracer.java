@@ -24,6 +24,7 @@ package org.jboss.jca.core.tracer;
 import org.jboss.jca.Version;
 
 import java.io.CharArrayWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 
 import org.jboss.logging.Logger;
@@ -31,6 +32,9 @@ import org.jboss.logging.Logger;
 /**
  * The tracer class
  *
+ * The events are written to the <code>TRACE</code> log, or recorded into binary
+ * trace files if the <code>ironjacamar.tracer.file</code> system property is set.
+ *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 public class Tracer
@@ -47,9 +51,34 @@ public class Tracer
    /** Is the tracer confidential */
    private static boolean confidential = false;
 
+   /** The recorder, if the events are recorded into trace files */
+   private static TraceRecorder recorder = null;
+
    static
    {
-      log.tracef("%s", new TraceEvent(Version.VERSION, "NONE", TraceEvent.VERSION, "NONE"));
+      String file = SecurityActions.getSystemProperty("ironjacamar.tracer.file");
+      if (file != null && !file.trim().equals(""))
+      {
+         try
+         {
+            TraceFileWriter writer =
+               new TraceFileWriter(file.trim(),
+                                   Math.min(getInteger("ironjacamar.tracer.file.size", 64), 1024) * 1024 * 1024,
+                                   getInteger("ironjacamar.tracer.file.count", 10));
+
+            recorder = new TraceRecorder(writer, getInteger("ironjacamar.tracer.buffer", 4096), 100L);
+            recorder.start();
+
+            enabled = true;
+         }
+         catch (IOException ioe)
+         {
+            log.warnf(ioe, "Unable to create trace file: %s", file);
+         }
+      }
+
+      if (recorder == null)
+         log.tracef("%s", new TraceEvent(Version.VERSION, "NONE", TraceEvent.VERSION, "NONE"));
 
       String value = SecurityActions.getSystemProperty("ironjacamar.tracer.callstacks");
       if (value != null && !value.trim().equals(""))
@@ -125,45 +154,45 @@ public class Tracer
     * @param interleaving Interleaving flag
     * @param callstack The call stack
     */
-   public static synchronized void getConnectionListener(String poolName, Object mcp, Object cl,
-                                                         boolean pooled, boolean interleaving,
-                                                         Throwable callstack)
+   public static void getConnectionListener(String poolName, Object mcp, Object cl,
+                                            boolean pooled, boolean interleaving,
+                                            Throwable callstack)
    {
       if (!interleaving)
       {
          if (pooled)
          {
-            log.tracef("%s", new TraceEvent(poolName, Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName, Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.GET_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_CONNECTION_LISTENER_NEW,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.GET_CONNECTION_LISTENER_NEW,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
       }
       else
       {
          if (pooled)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER_NEW,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.GET_INTERLEAVING_CONNECTION_LISTENER_NEW,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
       }
    }
@@ -177,46 +206,46 @@ public class Tracer
     * @param interleaving Interleaving flag
     * @param callstack The call stack
     */
-   public static synchronized void returnConnectionListener(String poolName, Object mcp,
-                                                            Object cl, boolean kill, boolean interleaving,
-                                                            Throwable callstack)
+   public static void returnConnectionListener(String poolName, Object mcp,
+                                               Object cl, boolean kill, boolean interleaving,
+                                               Throwable callstack)
    {
       if (!interleaving)
       {
          if (!kill)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.RETURN_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_CONNECTION_LISTENER_WITH_KILL,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.RETURN_CONNECTION_LISTENER_WITH_KILL,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
       }
       else
       {
          if (!kill)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER_WITH_KILL,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            !confidential && callstack != null ? toString(callstack) : ""));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.RETURN_INTERLEAVING_CONNECTION_LISTENER_WITH_KILL,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 !confidential && callstack != null ? toString(callstack) : ""));
          }
       }
    }
@@ -227,12 +256,12 @@ public class Tracer
     * @param mcp The managed connection pool
     * @param cl The connection listener
     */
-   public static synchronized void clearConnectionListener(String poolName, Object mcp, Object cl)
+   public static void clearConnectionListener(String poolName, Object mcp, Object cl)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLEAR_CONNECTION_LISTENER,
-                                      Integer.toHexString(System.identityHashCode(cl))));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.CLEAR_CONNECTION_LISTENER,
+                           Integer.toHexString(System.identityHashCode(cl))));
    }
 
    /**
@@ -244,46 +273,46 @@ public class Tracer
     * @param success Outcome
     * @param interleaving Interleaving flag
     */
-   public static synchronized void enlistConnectionListener(String poolName, Object mcp, Object cl,
-                                                            String tx,
-                                                            boolean success, boolean interleaving)
+   public static void enlistConnectionListener(String poolName, Object mcp, Object cl,
+                                               String tx,
+                                               boolean success, boolean interleaving)
    {
       if (!interleaving)
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.ENLIST_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.ENLIST_CONNECTION_LISTENER_FAILED,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
       }
       else
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.ENLIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
       }
    }
@@ -298,8 +327,8 @@ public class Tracer
     * @param rollbacked Is the transaction rollbacked
     * @param interleaving Interleaving flag
     */
-   public static synchronized void delistConnectionListener(String poolName, Object mcp, Object cl, String tx,
-                                                            boolean success, boolean rollbacked, boolean interleaving)
+   public static void delistConnectionListener(String poolName, Object mcp, Object cl, String tx,
+                                               boolean success, boolean rollbacked, boolean interleaving)
    {
       if (!rollbacked)
       {
@@ -307,38 +336,38 @@ public class Tracer
          {
             if (success)
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_CONNECTION_LISTENER,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(new TraceEvent(poolName,
+                                    Integer.toHexString(System.identityHashCode(mcp)),
+                                    TraceEvent.DELIST_CONNECTION_LISTENER,
+                                    Integer.toHexString(System.identityHashCode(cl)),
+                                    tx.replace('-', '_')));
             }
             else
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_CONNECTION_LISTENER_FAILED,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(new TraceEvent(poolName,
+                                    Integer.toHexString(System.identityHashCode(mcp)),
+                                    TraceEvent.DELIST_CONNECTION_LISTENER_FAILED,
+                                    Integer.toHexString(System.identityHashCode(cl)),
+                                    tx.replace('-', '_')));
             }
          }
          else
          {
             if (success)
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(new TraceEvent(poolName,
+                                    Integer.toHexString(System.identityHashCode(mcp)),
+                                    TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER,
+                                    Integer.toHexString(System.identityHashCode(cl)),
+                                    tx.replace('-', '_')));
             }
             else
             {
-               log.tracef("%s", new TraceEvent(poolName,
-                                               Integer.toHexString(System.identityHashCode(mcp)),
-                                               TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
-                                               Integer.toHexString(System.identityHashCode(cl)),
-                                               tx.replace('-', '_')));
+               trace(new TraceEvent(poolName,
+                                    Integer.toHexString(System.identityHashCode(mcp)),
+                                    TraceEvent.DELIST_INTERLEAVING_CONNECTION_LISTENER_FAILED,
+                                    Integer.toHexString(System.identityHashCode(cl)),
+                                    tx.replace('-', '_')));
             }
          }
       }
@@ -346,19 +375,19 @@ public class Tracer
       {
          if (success)
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
          else
          {
-            log.tracef("%s", new TraceEvent(poolName,
-                                            Integer.toHexString(System.identityHashCode(mcp)),
-                                            TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER_FAILED,
-                                            Integer.toHexString(System.identityHashCode(cl)),
-                                            tx.replace('-', '_')));
+            trace(new TraceEvent(poolName,
+                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                 TraceEvent.DELIST_ROLLEDBACK_CONNECTION_LISTENER_FAILED,
+                                 Integer.toHexString(System.identityHashCode(cl)),
+                                 tx.replace('-', '_')));
          }
       }
    }
@@ -370,13 +399,13 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void getConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void getConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.GET_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.GET_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection))));
    }
 
    /**
@@ -386,13 +415,13 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void returnConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void returnConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.RETURN_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.RETURN_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection))));
    }
 
    /**
@@ -402,13 +431,13 @@ public class Tracer
     * @param cl The connection listener
     * @param connection The connection
     */
-   public static synchronized void clearConnection(String poolName, Object mcp, Object cl, Object connection)
+   public static void clearConnection(String poolName, Object mcp, Object cl, Object connection)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLEAR_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection))));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.CLEAR_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection))));
    }
 
    /**
@@ -418,14 +447,14 @@ public class Tracer
     * @param cl The connection listener
     * @param exception The exception
     */
-   public static synchronized void exception(String poolName, Object mcp, Object cl, Throwable exception)
+   public static void exception(String poolName, Object mcp, Object cl, Throwable exception)
    {
       if (!confidential)
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.EXCEPTION,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         toString(exception)));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.EXCEPTION,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              toString(exception)));
    }
 
    /**
@@ -439,36 +468,36 @@ public class Tracer
     * @param incrementer An INCREMENTER operation
     * @param callstack The call stack
     */
-   public static synchronized void createConnectionListener(String poolName, Object mcp, Object cl, Object mc,
-                                                            boolean get, boolean prefill, boolean incrementer,
-                                                            Throwable callstack)
+   public static void createConnectionListener(String poolName, Object mcp, Object cl, Object mc,
+                                               boolean get, boolean prefill, boolean incrementer,
+                                               Throwable callstack)
    {
       if (get)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_GET,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.CREATE_CONNECTION_LISTENER_GET,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              Integer.toHexString(System.identityHashCode(mc)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (prefill)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.CREATE_CONNECTION_LISTENER_PREFILL,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              Integer.toHexString(System.identityHashCode(mc)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (incrementer)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         Integer.toHexString(System.identityHashCode(mc)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.CREATE_CONNECTION_LISTENER_INCREMENTER,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              Integer.toHexString(System.identityHashCode(mc)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
    }
 
@@ -486,67 +515,67 @@ public class Tracer
     * @param incrementer An INCREMENTER operation
     * @param callstack The call stack
     */
-   public static synchronized void destroyConnectionListener(String poolName, Object mcp, Object cl,
-                                                             boolean ret, boolean idle, boolean invalid,
-                                                             boolean flush, boolean error,
-                                                             boolean prefill, boolean incrementer,
-                                                             Throwable callstack)
+   public static void destroyConnectionListener(String poolName, Object mcp, Object cl,
+                                                boolean ret, boolean idle, boolean invalid,
+                                                boolean flush, boolean error,
+                                                boolean prefill, boolean incrementer,
+                                                Throwable callstack)
    {
       if (ret)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_RETURN,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (idle)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_IDLE,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (invalid)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_INVALID,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (flush)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_FLUSH,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (error)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_ERROR,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (prefill)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_PREFILL,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
       else if (incrementer)
       {
-         log.tracef("%s", new TraceEvent(poolName,
-                                         Integer.toHexString(System.identityHashCode(mcp)),
-                                         TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER,
-                                         Integer.toHexString(System.identityHashCode(cl)),
-                                         !confidential && callstack != null ? toString(callstack) : ""));
+         trace(new TraceEvent(poolName,
+                              Integer.toHexString(System.identityHashCode(mcp)),
+                              TraceEvent.DESTROY_CONNECTION_LISTENER_INCREMENTER,
+                              Integer.toHexString(System.identityHashCode(cl)),
+                              !confidential && callstack != null ? toString(callstack) : ""));
       }
    }
 
@@ -555,12 +584,12 @@ public class Tracer
     * @param poolName The name of the pool
     * @param mcp The managed connection pool
     */
-   public static synchronized void createManagedConnectionPool(String poolName, Object mcp)
+   public static void createManagedConnectionPool(String poolName, Object mcp)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.MANAGED_CONNECTION_POOL_CREATE,
-                                      "NONE"));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.MANAGED_CONNECTION_POOL_CREATE,
+                           "NONE"));
    }
 
    /**
@@ -568,12 +597,12 @@ public class Tracer
     * @param poolName The name of the pool
     * @param mcp The managed connection pool
     */
-   public static synchronized void destroyManagedConnectionPool(String poolName, Object mcp)
+   public static void destroyManagedConnectionPool(String poolName, Object mcp)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.MANAGED_CONNECTION_POOL_DESTROY,
-                                      "NONE"));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.MANAGED_CONNECTION_POOL_DESTROY,
+                           "NONE"));
    }
 
    /**
@@ -581,10 +610,10 @@ public class Tracer
     * @param key The frame key
     * @param callstack The call stack
     */
-   public static synchronized void pushCCMContext(String key, Throwable callstack)
+   public static void pushCCMContext(String key, Throwable callstack)
    {
-      log.tracef("%s", new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.PUSH_CCM_CONTEXT,
-                                      "NONE", key, callstack != null ? toString(callstack) : ""));
+      trace(new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.PUSH_CCM_CONTEXT,
+                           "NONE", key, callstack != null ? toString(callstack) : ""));
    }
 
    /**
@@ -592,10 +621,10 @@ public class Tracer
     * @param key The frame key
     * @param callstack The call stack
     */
-   public static synchronized void popCCMContext(String key, Throwable callstack)
+   public static void popCCMContext(String key, Throwable callstack)
    {
-      log.tracef("%s", new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.POP_CCM_CONTEXT,
-                                      "NONE", key, callstack != null ? toString(callstack) : ""));
+      trace(new TraceEvent("CachedConnectionManager", "NONE", TraceEvent.POP_CCM_CONTEXT,
+                           "NONE", key, callstack != null ? toString(callstack) : ""));
    }
 
    /**
@@ -606,15 +635,15 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void registerCCMConnection(String poolName, Object mcp, Object cl,
-                                                         Object connection, String key)
+   public static void registerCCMConnection(String poolName, Object mcp, Object cl,
+                                            Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.REGISTER_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.REGISTER_CCM_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection)),
+                           key));
    }
 
    /**
@@ -625,15 +654,15 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void unregisterCCMConnection(String poolName, Object mcp, Object cl,
-                                                           Object connection, String key)
+   public static void unregisterCCMConnection(String poolName, Object mcp, Object cl,
+                                              Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.UNREGISTER_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.UNREGISTER_CCM_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection)),
+                           key));
    }
 
    /**
@@ -644,15 +673,15 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void unknownCCMConnection(String poolName, Object mcp, Object cl,
-                                                        Object connection, String key)
+   public static void unknownCCMConnection(String poolName, Object mcp, Object cl,
+                                           Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.UNKNOWN_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.UNKNOWN_CCM_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection)),
+                           key));
    }
 
    /**
@@ -663,15 +692,15 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void closeCCMConnection(String poolName, Object mcp, Object cl,
-                                                      Object connection, String key)
+   public static void closeCCMConnection(String poolName, Object mcp, Object cl,
+                                         Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CLOSE_CCM_CONNECTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.CLOSE_CCM_CONNECTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection)),
+                           key));
    }
 
    /**
@@ -682,15 +711,57 @@ public class Tracer
     * @param connection The connection
     * @param key The frame key
     */
-   public static synchronized void ccmUserTransaction(String poolName, Object mcp, Object cl,
-                                                      Object connection, String key)
+   public static void ccmUserTransaction(String poolName, Object mcp, Object cl,
+                                         Object connection, String key)
    {
-      log.tracef("%s", new TraceEvent(poolName,
-                                      Integer.toHexString(System.identityHashCode(mcp)),
-                                      TraceEvent.CCM_USER_TRANSACTION,
-                                      Integer.toHexString(System.identityHashCode(cl)),
-                                      Integer.toHexString(System.identityHashCode(connection)),
-                                      key));
+      trace(new TraceEvent(poolName,
+                           Integer.toHexString(System.identityHashCode(mcp)),
+                           TraceEvent.CCM_USER_TRANSACTION,
+                           Integer.toHexString(System.identityHashCode(cl)),
+                           Integer.toHexString(System.identityHashCode(connection)),
+                           key));
+   }
+
+   /**
+    * Trace an event
+    * @param te The event
+    */
+   private static void trace(TraceEvent te)
+   {
+      if (recorder != null)
+      {
+         recorder.record(te);
+      }
+      else
+      {
+         log.tracef("%s", te);
+      }
+   }
+
+   /**
+    * Get an integer system property
+    * @param name The name of the property
+    * @param defaultValue The default value
+    * @return The value
+    */
+   private static int getInteger(String name, int defaultValue)
+   {
+      String value = SecurityActions.getSystemProperty(name);
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            int v = Integer.parseInt(value.trim());
+            if (v > 0)
+               return v;
+         }
+         catch (NumberFormatException nfe)
+         {
+            // Use default
+         }
+      }
+
+      return defaultValue;
    }
 
    /**
@@ -698,7 +769,7 @@ public class Tracer
     * @param exception The exception
     * @return The string representation
     */
-   private static synchronized String toString(Throwable exception)
+   private static String toString(Throwable exception)
    {
       CharArrayWriter caw = new CharArrayWriter();
       PrintWriter pw = new PrintWriter(caw, true);
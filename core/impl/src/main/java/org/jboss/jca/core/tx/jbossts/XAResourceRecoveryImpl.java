@@ -32,6 +32,17 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.resource.ResourceException;
 import javax.resource.spi.ManagedConnection;
@@ -46,6 +57,15 @@ import org.jboss.logging.Logger;
 /**
  * An XAResourceRecovery implementation.
  *
+ * The managed connection used for recovery is kept between scans, and replaced when it is
+ * no longer valid, or older than the <code>ironjacamar.recovery.maxage</code> system property
+ * (milliseconds).
+ *
+ * When the <code>ironjacamar.recovery.parallel</code> system property is <code>true</code> the first
+ * instance asked for its resources during a scan prepares the resources of all the active instances
+ * in parallel. An instance that doesn't get its resources within <code>ironjacamar.recovery.timeout</code>
+ * milliseconds is skipped for the scan, and picks up the result in a later scan.
+ *
  * @author <a href="stefano.maestri@ironjacamar.org">Stefano Maestri</a>
  * @author <a href="jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
@@ -79,8 +99,49 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
 
    private ManagedConnection recoverMC;
 
+   private long recoverMCCreated;
+
    private String jndiName;
 
+   private final boolean parallel;
+
+   private final long timeout;
+
+   private final long maxAge;
+
+   /** The scan in progress */
+   private Future<XAResource[]> scan;
+
+   /** The lock for the scan */
+   private final Object scanLock = new Object();
+
+   /** The active instances */
+   private static final Set<XAResourceRecoveryImpl> ACTIVE = new CopyOnWriteArraySet<XAResourceRecoveryImpl>();
+
+   /**
+    * Holder for the executor, so it is only created when used
+    */
+   private static class Holder
+   {
+      /** The executor */
+      static final ExecutorService EXECUTOR;
+
+      static
+      {
+         int threads = 4;
+
+         String t = SecurityActions.getSystemProperty("ironjacamar.recovery.threads");
+         if (t != null && !t.trim().equals(""))
+            threads = Math.max(1, Integer.parseInt(t.trim()));
+
+         ThreadPoolExecutor tpe = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<Runnable>(),
+                                                         new RecoveryThreadFactory());
+         tpe.allowCoreThreadTimeOut(true);
+         EXECUTOR = tpe;
+      }
+   }
+
    /**
     * Create a new XAResourceRecoveryImpl.
     *
@@ -136,7 +197,12 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
       this.xastat = xastat;
 
       this.recoverMC = null;
+      this.recoverMCCreated = 0L;
       this.jndiName = null;
+
+      this.parallel = Boolean.valueOf(SecurityActions.getSystemProperty("ironjacamar.recovery.parallel"));
+      this.timeout = getLong("ironjacamar.recovery.timeout", 30000L);
+      this.maxAge = getLong("ironjacamar.recovery.maxage", 0L);
    }
 
    /**
@@ -145,6 +211,8 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
    @Override
    public void initialize() throws Exception
    {
+      if (parallel)
+         ACTIVE.add(this);
    }
 
    /**
@@ -153,8 +221,22 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
    @Override
    public void shutdown() throws Exception
    {
-      if (recoverMC != null)
-         close(recoverMC);
+      ACTIVE.remove(this);
+
+      synchronized (scanLock)
+      {
+         if (scan != null)
+         {
+            scan.cancel(true);
+            scan = null;
+         }
+      }
+
+      synchronized (this)
+      {
+         if (recoverMC != null)
+            close(recoverMC);
+      }
    }
 
    /**
@@ -182,6 +264,81 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
     */
    @Override
    public XAResource[] getXAResources()
+   {
+      if (!parallel)
+         return recover();
+
+      Future<XAResource[]> f = takeScan();
+      if (f == null)
+      {
+         scanAll();
+         f = takeScan();
+      }
+
+      if (f == null)
+         f = Holder.EXECUTOR.submit(new Scan(this));
+
+      try
+      {
+         return f.get(timeout, TimeUnit.MILLISECONDS);
+      }
+      catch (TimeoutException te)
+      {
+         log.crashRecoveryTimeout(jndiName, timeout);
+
+         // Keep waiting for the same attempt in the next scan
+         synchronized (scanLock)
+         {
+            if (scan == null && ACTIVE.contains(this))
+               scan = f;
+         }
+      }
+      catch (InterruptedException ie)
+      {
+         Thread.currentThread().interrupt();
+      }
+      catch (ExecutionException ee)
+      {
+         log.exceptionDuringCrashRecovery(jndiName, ee.getCause().getMessage(), ee.getCause());
+      }
+
+      return new XAResource[0];
+   }
+
+   /**
+    * Start a scan for all the active instances which doesn't have one
+    */
+   private static void scanAll()
+   {
+      for (XAResourceRecoveryImpl r : ACTIVE)
+      {
+         synchronized (r.scanLock)
+         {
+            if (r.scan == null)
+               r.scan = Holder.EXECUTOR.submit(new Scan(r));
+         }
+      }
+   }
+
+   /**
+    * Take the scan in progress
+    * @return The scan; <code>null</code> if none
+    */
+   private Future<XAResource[]> takeScan()
+   {
+      synchronized (scanLock)
+      {
+         Future<XAResource[]> f = scan;
+         scan = null;
+         return f;
+      }
+   }
+
+   /**
+    * Get the XAResource(s) for recovery
+    * @return The resources
+    */
+   private synchronized XAResource[] recover()
    {
       try
       {
@@ -351,8 +508,15 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
    {
       log.debugf("Open managed connection (%s)", s);
 
+      if (recoverMC != null && maxAge > 0 && System.currentTimeMillis() - recoverMCCreated > maxAge)
+      {
+         log.debugf("Expired managed connection: %s", recoverMC);
+
+         close(recoverMC);
+      }
+
       if (recoverMC == null)
-         recoverMC = mcf.createManagedConnection(s, null);
+         recoverMC = create(s);
 
       if (plugin == null)
       {
@@ -370,7 +534,7 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
                log.debugf("Invalid managed connection: %s", recoverMC);
 
                close(recoverMC);
-               recoverMC = mcf.createManagedConnection(s, null);
+               recoverMC = create(s);
             }
          }
          catch (ResourceException re)
@@ -378,13 +542,26 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
             log.debugf("Exception during invalid check", re);
 
             close(recoverMC);
-            recoverMC = mcf.createManagedConnection(s, null);
+            recoverMC = create(s);
          }
       }
 
       return recoverMC;
    }
 
+   /**
+    * Create a managed connection
+    * @param s The subject
+    * @return The managed connection
+    * @exception ResourceException Thrown in case of an error
+    */
+   private ManagedConnection create(Subject s) throws ResourceException
+   {
+      ManagedConnection mc = mcf.createManagedConnection(s, null);
+      recoverMCCreated = System.currentTimeMillis();
+      return mc;
+   }
+
    /**
     * Close a managed connection
     * @param mc The managed connection
@@ -479,4 +656,74 @@ public class XAResourceRecoveryImpl implements org.jboss.jca.core.spi.transactio
 
       return forceClose;
    }
+
+   /**
+    * Get a long system property
+    * @param name The name
+    * @param defaultValue The default value
+    * @return The value
+    */
+   private static long getLong(String name, long defaultValue)
+   {
+      String value = SecurityActions.getSystemProperty(name);
+
+      if (value != null && !value.trim().equals(""))
+      {
+         try
+         {
+            return Long.parseLong(value.trim());
+         }
+         catch (NumberFormatException nfe)
+         {
+            log.debugf("Invalid value for %s: %s", name, value);
+         }
+      }
+
+      return defaultValue;
+   }
+
+   /**
+    * Gets the XAResource(s) of an instance
+    */
+   private static class Scan implements Callable<XAResource[]>
+   {
+      /** The instance */
+      private final XAResourceRecoveryImpl recovery;
+
+      /**
+       * Constructor
+       * @param recovery The instance
+       */
+      Scan(XAResourceRecoveryImpl recovery)
+      {
+         this.recovery = recovery;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public XAResource[] call() throws Exception
+      {
+         return recovery.recover();
+      }
+   }
+
+   /**
+    * Creates daemon threads for the recovery scans
+    */
+   private static class RecoveryThreadFactory implements ThreadFactory
+   {
+      /** The thread counter */
+      private final AtomicInteger counter = new AtomicInteger();
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, "JCA Recovery-" + counter.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
+   }
 }
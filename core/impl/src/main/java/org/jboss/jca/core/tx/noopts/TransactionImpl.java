@@ -22,6 +22,7 @@
 package org.jboss.jca.core.tx.noopts;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -57,7 +58,7 @@ public class TransactionImpl implements Transaction, Serializable
       this.key = key;
       this.status = Status.STATUS_ACTIVE;
       this.syncs = new HashSet<Synchronization>();
-      this.resources = new HashMap<Object, Object>();
+      this.resources = Collections.synchronizedMap(new HashMap<Object, Object>());
    }
 
    /**
@@ -0,0 +1,269 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager;
+
+import org.jboss.jca.core.CoreBundle;
+import org.jboss.jca.core.CoreLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.resource.spi.work.WorkException;
+
+import org.jboss.logging.Logger;
+import org.jboss.logging.Messages;
+
+/**
+ * A cache of class definitions keyed by their content hash.
+ *
+ * The sending side tracks the hashes each peer has received, and replaces those definitions
+ * with references in the class bundles sent to that peer. The receiving side keeps the
+ * definitions it has received, resolves the references against them, and reuses the work
+ * class loader of a bundle that has been seen before.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ClassBundleCache
+{
+   /** Error code of the work exception thrown when a reference can't be resolved */
+   public static final String UNKNOWN_CLASS_DEFINITION = "UnknownClassDefinition";
+
+   /** The default number of definitions and class loaders kept */
+   public static final int DEFAULT_SIZE = 1024;
+
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, ClassBundleCache.class.getName());
+
+   /** The bundle */
+   private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
+
+   /** The received definitions */
+   private final Map<String, ClassDefinition> definitions;
+
+   /** The class loaders per bundle */
+   private final Map<List<String>, WorkClassLoader> classLoaders;
+
+   /** The hashes delivered to each peer */
+   private final ConcurrentMap<Object, Set<String>> peers;
+
+   /**
+    * Constructor
+    */
+   public ClassBundleCache()
+   {
+      this(DEFAULT_SIZE);
+   }
+
+   /**
+    * Constructor
+    * @param size The number of definitions and class loaders kept
+    */
+   public ClassBundleCache(int size)
+   {
+      this.definitions = Collections.synchronizedMap(new LRUMap<String, ClassDefinition>(size));
+      this.classLoaders = new LRUMap<List<String>, WorkClassLoader>(size);
+      this.peers = new ConcurrentHashMap<Object, Set<String>>();
+   }
+
+   /**
+    * Get the class bundle to send to a peer; definitions the peer has are replaced by references
+    * @param peer The peer
+    * @param cb The class bundle
+    * @return The class bundle to send
+    */
+   public ClassBundle compress(Object peer, ClassBundle cb)
+   {
+      if (peer == null || cb == null)
+         return cb;
+
+      Set<String> delivered = peers.get(peer);
+      if (delivered == null || delivered.isEmpty())
+         return cb;
+
+      List<ClassDefinition> result = new ArrayList<ClassDefinition>(cb.getDefinitions().size());
+      for (ClassDefinition cd : cb.getDefinitions())
+      {
+         if (cd != null && delivered.contains(cd.getHash()))
+         {
+            result.add(cd.toReference());
+         }
+         else
+         {
+            result.add(cd);
+         }
+      }
+
+      return new ClassBundle(result);
+   }
+
+   /**
+    * A class bundle has been delivered to a peer
+    * @param peer The peer
+    * @param cb The class bundle
+    */
+   public void delivered(Object peer, ClassBundle cb)
+   {
+      if (peer == null || cb == null)
+         return;
+
+      Set<String> delivered = peers.get(peer);
+      if (delivered == null)
+      {
+         delivered = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+         Set<String> existing = peers.putIfAbsent(peer, delivered);
+         if (existing != null)
+            delivered = existing;
+      }
+
+      for (ClassDefinition cd : cb.getDefinitions())
+      {
+         if (cd != null)
+            delivered.add(cd.getHash());
+      }
+   }
+
+   /**
+    * Forget the definitions delivered to a peer
+    * @param peer The peer
+    */
+   public void forget(Object peer)
+   {
+      if (peer != null)
+         peers.remove(peer);
+   }
+
+   /**
+    * Get the work class loader for a received class bundle
+    * @param cb The class bundle
+    * @return The class loader
+    * @exception WorkException Thrown with the {@link #UNKNOWN_CLASS_DEFINITION} error code
+    *                          if a reference can't be resolved
+    */
+   public WorkClassLoader getWorkClassLoader(ClassBundle cb) throws WorkException
+   {
+      List<ClassDefinition> resolved = new ArrayList<ClassDefinition>(cb.getDefinitions().size());
+      List<String> key = new ArrayList<String>(cb.getDefinitions().size());
+
+      for (ClassDefinition cd : cb.getDefinitions())
+      {
+         if (cd == null)
+            continue;
+
+         if (cd.isReference())
+         {
+            ClassDefinition known = definitions.get(cd.getHash());
+            if (known == null)
+            {
+               WorkException we = new WorkException(bundle.unknownClassDefinition(cd.getName(), cd.getHash()));
+               we.setErrorCode(UNKNOWN_CLASS_DEFINITION);
+               throw we;
+            }
+            resolved.add(known);
+         }
+         else
+         {
+            definitions.put(cd.getHash(), cd);
+            resolved.add(cd);
+         }
+
+         key.add(cd.getHash());
+      }
+
+      synchronized (classLoaders)
+      {
+         WorkClassLoader wcl = classLoaders.get(key);
+         if (wcl == null)
+         {
+            wcl = SecurityActions.createWorkClassLoader(new ClassBundle(resolved));
+            classLoaders.put(key, wcl);
+         }
+         else
+         {
+            log.tracef("Reusing %s for %s", wcl, key);
+         }
+         return wcl;
+      }
+   }
+
+   /**
+    * Is the work exception caused by an unknown class definition
+    * @param we The exception
+    * @return True if so, otherwise false
+    */
+   public static boolean isUnknownClassDefinition(WorkException we)
+   {
+      return UNKNOWN_CLASS_DEFINITION.equals(we.getErrorCode());
+   }
+
+   /**
+    * Clear the cache
+    */
+   public void clear()
+   {
+      definitions.clear();
+      synchronized (classLoaders)
+      {
+         classLoaders.clear();
+      }
+      peers.clear();
+   }
+
+   /**
+    * A map that evicts the least recently used entry
+    * @param <K> The key type
+    * @param <V> The value type
+    */
+   private static class LRUMap<K, V> extends LinkedHashMap<K, V>
+   {
+      /** SerialVersionUID */
+      private static final long serialVersionUID = 1L;
+
+      /** The maximum size */
+      private final int maxSize;
+
+      /**
+       * Constructor
+       * @param size The maximum size
+       */
+      LRUMap(int size)
+      {
+         super(16, 0.75f, true);
+         this.maxSize = size;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+      {
+         return size() > maxSize;
+      }
+   }
+}
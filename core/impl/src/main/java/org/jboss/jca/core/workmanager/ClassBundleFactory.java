@@ -27,7 +27,10 @@ import org.jboss.jca.core.CoreLogger;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.jboss.logging.Logger;
 
@@ -41,6 +44,10 @@ public class ClassBundleFactory
    private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class,
                                                            ClassBundleFactory.class.getName());
 
+   /** The class bundles per class; a bundle only holds the data of the classes, so the keys stay weak */
+   private static Map<Class<?>, ClassBundle> bundles =
+      Collections.synchronizedMap(new WeakHashMap<Class<?>, ClassBundle>());
+
    /**
     * Constructor
     */
@@ -49,7 +56,7 @@ public class ClassBundleFactory
    }
 
    /**
-    * Create a class bundle
+    * Create a class bundle. The bundle is created once per class, and shared afterwards
     * @param s The serializable
     * @return The bundle
     */
@@ -58,6 +65,27 @@ public class ClassBundleFactory
       if (s == null)
          return null;
 
+      ClassBundle cb = bundles.get(s.getClass());
+      if (cb == null)
+      {
+         cb = buildClassBundle(s);
+         bundles.put(s.getClass(), cb);
+      }
+      else
+      {
+         log.tracef("Cached class bundle for: %s", s);
+      }
+
+      return cb;
+   }
+
+   /**
+    * Build a class bundle
+    * @param s The serializable
+    * @return The bundle
+    */
+   private static ClassBundle buildClassBundle(Serializable s)
+   {
       log.tracef("Creating class bundle for: %s", s);
 
       ClassBundle cb = new ClassBundle();
@@ -155,7 +183,7 @@ public class ClassBundleFactory
 
       log.tracef("Class bundle: %s", cb);
 
-      return cb;
+      return new ClassBundle(Collections.unmodifiableList(cb.getDefinitions()));
    }
 
    /**
@@ -23,6 +23,9 @@
 package org.jboss.jca.core.workmanager;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -42,13 +45,16 @@ public class ClassDefinition implements Serializable
    /** The serialVersionUID */
    private long svu;
 
-   /** The data */
+   /** The data; <code>null</code> for a reference */
    private byte[] data;
 
+   /** The content hash */
+   private String hash;
 
    private static final String NAME = "NAME";
    private static final String SVU = "SVU";
    private static final String DATA = "DATA";
+   private static final String HASH = "HASH";
 
 
    /**
@@ -58,6 +64,9 @@ public class ClassDefinition implements Serializable
     */
    public static ClassDefinition fromMap(Map<String, Object> map)
    {
+      if (map.get(DATA) == null)
+         return new ClassDefinition((String) map.get(NAME), (Long) map.get(SVU), (String) map.get(HASH));
+
       return new ClassDefinition((String) map.get(NAME), (Long) map.get(SVU), (byte[]) map.get(DATA));
 
    }
@@ -68,10 +77,11 @@ public class ClassDefinition implements Serializable
     */
    public Map<String, Object> toMap()
    {
-      Map<String, Object> returnMap = new LinkedHashMap<String, Object>(3);
+      Map<String, Object> returnMap = new LinkedHashMap<String, Object>(4);
       returnMap.put(NAME, this.getName());
       returnMap.put(SVU, this.getSerialVersionUID());
       returnMap.put(DATA, this.getData());
+      returnMap.put(HASH, this.getHash());
       return returnMap;
    }
 
@@ -88,6 +98,43 @@ public class ClassDefinition implements Serializable
       this.data = new byte[data.length];
       
       System.arraycopy(data, 0, this.data, 0, data.length);
+
+      this.hash = hash(name, serialVersionUID, this.data);
+   }
+
+   /**
+    * Constructor
+    * @param name The name of the class
+    * @param serialVersionUID The serial version unique identifier
+    * @param hash The content hash
+    */
+   private ClassDefinition(String name, long serialVersionUID, String hash)
+   {
+      this.name = name;
+      this.svu = serialVersionUID;
+      this.data = null;
+      this.hash = hash;
+   }
+
+   /**
+    * Get a reference to this definition; the reference has the hash of the class, but not the data
+    * @return The value
+    */
+   public ClassDefinition toReference()
+   {
+      if (data == null)
+         return this;
+
+      return new ClassDefinition(name, svu, hash);
+   }
+
+   /**
+    * Is this definition a reference
+    * @return True if the data isn't included, otherwise false
+    */
+   public boolean isReference()
+   {
+      return data == null;
    }
 
    /**
@@ -114,11 +161,23 @@ public class ClassDefinition implements Serializable
     */
    public byte[] getData()
    {
+      if (data == null)
+         return null;
+
       byte[] copy = new byte[data.length];
       System.arraycopy(data, 0, copy, 0, data.length);
       return copy;
    }
 
+   /**
+    * Get the content hash
+    * @return The value
+    */
+   public String getHash()
+   {
+      return hash;
+   }
+
    /** 
     * {@inheritDoc}
     */
@@ -157,6 +216,9 @@ public class ClassDefinition implements Serializable
       if (svu != cd.svu)
          return false;
 
+      if (hash == null ? cd.hash != null : !hash.equals(cd.hash))
+         return false;
+
       return Arrays.equals(data, cd.data);
    }
 
@@ -171,9 +233,45 @@ public class ClassDefinition implements Serializable
       sb.append("ClassDefinition@").append(Integer.toHexString(System.identityHashCode(this)));
       sb.append("[name=").append(name);
       sb.append(" serialVersionUID=").append(svu);
+      sb.append(" hash=").append(hash);
       sb.append(" data=").append(Arrays.toString(data));
       sb.append("]");
 
       return sb.toString();
    }
+
+   /**
+    * Calculate the content hash of a class
+    * @param name The name of the class
+    * @param serialVersionUID The serial version unique identifier
+    * @param data The class
+    * @return The hash
+    */
+   static String hash(String name, long serialVersionUID, byte[] data)
+   {
+      try
+      {
+         MessageDigest md = MessageDigest.getInstance("SHA-256");
+         md.update(name.getBytes(StandardCharsets.UTF_8));
+         for (int i = 0; i < 8; i++)
+         {
+            md.update((byte)(serialVersionUID >>> (i * 8)));
+         }
+         md.update(data);
+
+         byte[] digest = md.digest();
+         StringBuilder sb = new StringBuilder(digest.length * 2);
+         for (byte b : digest)
+         {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+         }
+         return sb.toString();
+      }
+      catch (NoSuchAlgorithmException nsae)
+      {
+         // Every Java platform supports SHA-256
+         throw new IllegalStateException(nsae);
+      }
+   }
 }
@@ -218,4 +218,23 @@ class SecurityActions
 
       throw new NoSuchMethodException();
    }
+
+   /**
+    * Create a WorkClassLoader
+    * @param cb The class bundle
+    * @return The class loader
+    */
+   static WorkClassLoader createWorkClassLoader(final ClassBundle cb)
+   {
+      if (System.getSecurityManager() == null)
+         return new WorkClassLoader(cb);
+
+      return AccessController.doPrivileged(new PrivilegedAction<WorkClassLoader>()
+      {
+         public WorkClassLoader run()
+         {
+            return new WorkClassLoader(cb);
+         }
+      });
+   }
 }
@@ -0,0 +1,334 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.workmanager.StatisticsExecutor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+import org.jboss.threads.ExecutionTimedOutException;
+
+/**
+ * An executor which runs each work instance on its own virtual thread.
+ *
+ * The number of concurrent work instances is limited by a semaphore instead of the
+ * number of threads, so work doing blocking I/O doesn't need a large thread pool.
+ * A caller waits for a permit according to the start timeout of the work.
+ *
+ * Virtual threads are used when the Java runtime supports them; otherwise a cached pool
+ * of platform threads is used.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class VirtualThreadExecutor implements StatisticsExecutor
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class,
+                                                           VirtualThreadExecutor.class.getName());
+
+   /** The maximum number of concurrent work instances */
+   private final int maxConcurrency;
+
+   /** The permits */
+   private final Semaphore permits;
+
+   /** The thread factory for virtual threads; <code>null</code> if not supported */
+   private final ThreadFactory virtualThreadFactory;
+
+   /** The platform threads; <code>null</code> if virtual threads are used */
+   private final ExecutorService platformThreads;
+
+   /** Shutdown */
+   private volatile boolean shutdown;
+
+   /**
+    * Constructor
+    * @param maxConcurrency The maximum number of concurrent work instances
+    */
+   public VirtualThreadExecutor(int maxConcurrency)
+   {
+      this(maxConcurrency, "JCA WorkManager");
+   }
+
+   /**
+    * Constructor
+    * @param maxConcurrency The maximum number of concurrent work instances
+    * @param name The prefix of the thread names
+    */
+   public VirtualThreadExecutor(int maxConcurrency, String name)
+   {
+      if (maxConcurrency <= 0)
+         throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency);
+
+      this.maxConcurrency = maxConcurrency;
+      this.permits = new Semaphore(maxConcurrency, true);
+      this.virtualThreadFactory = createVirtualThreadFactory(name);
+      this.shutdown = false;
+
+      if (virtualThreadFactory == null)
+      {
+         log.debugf("Virtual threads not supported, using platform threads for %s", name);
+         this.platformThreads = Executors.newCachedThreadPool(new PlatformThreadFactory(name));
+      }
+      else
+      {
+         this.platformThreads = null;
+      }
+   }
+
+   /**
+    * Get the maximum number of concurrent work instances
+    * @return The value
+    */
+   public int getMaxConcurrency()
+   {
+      return maxConcurrency;
+   }
+
+   /**
+    * Get the number of running work instances
+    * @return The value
+    */
+   public int getActiveCount()
+   {
+      return maxConcurrency - permits.availablePermits();
+   }
+
+   /**
+    * Are virtual threads used
+    * @return The value
+    */
+   public boolean isVirtual()
+   {
+      return virtualThreadFactory != null;
+   }
+
+   /**
+    * Is the executor shutdown
+    * @return The value
+    */
+   public boolean isShutdown()
+   {
+      return shutdown;
+   }
+
+   /**
+    * Shutdown the executor. Running work instances are allowed to complete
+    */
+   public void shutdown()
+   {
+      shutdown = true;
+
+      if (platformThreads != null)
+         platformThreads.shutdown();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void execute(Runnable runnable)
+   {
+      try
+      {
+         executeBlocking(runnable);
+      }
+      catch (InterruptedException ie)
+      {
+         Thread.currentThread().interrupt();
+         throw new RejectedExecutionException(ie);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void executeBlocking(Runnable runnable) throws RejectedExecutionException, InterruptedException
+   {
+      checkShutdown();
+      permits.acquire();
+      dispatch(runnable);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void executeBlocking(Runnable runnable, long timeout, TimeUnit unit)
+      throws RejectedExecutionException, InterruptedException
+   {
+      checkShutdown();
+
+      if (!permits.tryAcquire(timeout, unit))
+         throw new ExecutionTimedOutException();
+
+      dispatch(runnable);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void executeNonBlocking(Runnable runnable) throws RejectedExecutionException
+   {
+      checkShutdown();
+
+      if (!permits.tryAcquire())
+         throw new RejectedExecutionException();
+
+      dispatch(runnable);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public long getNumberOfFreeThreads()
+   {
+      return permits.availablePermits();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      return "VirtualThreadExecutor@" + Integer.toHexString(System.identityHashCode(this)) +
+         "[maxConcurrency=" + maxConcurrency + " active=" + getActiveCount() +
+         " virtual=" + isVirtual() + " shutdown=" + shutdown + "]";
+   }
+
+   /**
+    * Reject if shutdown
+    */
+   private void checkShutdown()
+   {
+      if (shutdown)
+         throw new RejectedExecutionException();
+   }
+
+   /**
+    * Run a work instance on a new thread; the permit must be held
+    * @param runnable The work instance
+    */
+   private void dispatch(final Runnable runnable)
+   {
+      Runnable r = new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               runnable.run();
+            }
+            finally
+            {
+               permits.release();
+            }
+         }
+      };
+
+      try
+      {
+         if (virtualThreadFactory != null)
+         {
+            virtualThreadFactory.newThread(r).start();
+         }
+         else
+         {
+            platformThreads.execute(r);
+         }
+      }
+      catch (RejectedExecutionException ree)
+      {
+         permits.release();
+         throw ree;
+      }
+      catch (Throwable t)
+      {
+         permits.release();
+         throw new RejectedExecutionException(t);
+      }
+   }
+
+   /**
+    * Create a factory for virtual threads
+    * @param name The prefix of the thread names
+    * @return The value; <code>null</code> if virtual threads aren't supported
+    */
+   private static ThreadFactory createVirtualThreadFactory(String name)
+   {
+      try
+      {
+         Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+         Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+         Method nameMethod = ofVirtual.getMethod("name", String.class, long.class);
+         builder = nameMethod.invoke(builder, name + "-", Long.valueOf(1L));
+
+         Class<?> threadBuilder = Class.forName("java.lang.Thread$Builder");
+         return (ThreadFactory)threadBuilder.getMethod("factory").invoke(builder);
+      }
+      catch (Throwable t)
+      {
+         return null;
+      }
+   }
+
+   /**
+    * Thread factory for the platform threads
+    */
+   static class PlatformThreadFactory implements ThreadFactory
+   {
+      /** The prefix of the thread names */
+      private final String name;
+
+      /** The thread number */
+      private final AtomicLong number;
+
+      /**
+       * Constructor
+       * @param name The prefix of the thread names
+       */
+      PlatformThreadFactory(String name)
+      {
+         this.name = name;
+         this.number = new AtomicLong(1L);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, name + "-" + number.getAndIncrement());
+         t.setDaemon(true);
+         return t;
+      }
+   }
+}
@@ -23,10 +23,15 @@
 package org.jboss.jca.core.workmanager.selector;
 
 import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.api.workmanager.DistributedWorkManager;
 import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.spi.workmanager.selector.Selector;
+import org.jboss.jca.core.spi.workmanager.transport.Transport;
+import org.jboss.jca.core.workmanager.WorkManagerCoordinator;
 import org.jboss.jca.core.workmanager.WorkManagerUtil;
 import org.jboss.jca.core.workmanager.notification.AbstractNotificationListener;
+import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
+import org.jboss.jca.core.workmanager.transport.remote.NodeStatistics;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -77,6 +82,37 @@ public abstract class AbstractSelector extends AbstractNotificationListener impl
       return sorted;
    }
 
+   /**
+    * Get the transport of the distributed work manager
+    * @param own The address of the local work manager
+    * @return The value; <code>null</code> if there is no transport
+    */
+   protected Transport getTransport(Address own)
+   {
+      DistributedWorkManager dwm = WorkManagerCoordinator.getInstance().resolveDistributedWorkManager(own);
+
+      if (dwm == null)
+         return null;
+
+      return dwm.getTransport();
+   }
+
+   /**
+    * Get the statistics of a node as measured by the transport
+    * @param own The address of the local work manager
+    * @param id The address of the node
+    * @return The value; <code>null</code> if nothing is known about the node
+    */
+   protected NodeStatistics getNodeStatistics(Address own, Address id)
+   {
+      Transport transport = getTransport(own);
+
+      if (transport instanceof AbstractRemoteTransport)
+         return ((AbstractRemoteTransport<?>)transport).getNodeStatistics(id);
+
+      return null;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -0,0 +1,133 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.selector;
+
+import org.jboss.jca.core.CoreLogger;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.NodeStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.work.DistributableWork;
+
+import org.jboss.logging.Logger;
+
+/**
+ * The latency aware selector.
+ *
+ * Selects the node with the lowest expected cost, where the cost is the smoothed
+ * round trip time of the node, increased when the node has few free threads or
+ * rejects work. Nodes without a known round trip time are costed as the slowest known node.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class LatencyAware extends AbstractSelector
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, LatencyAware.class.getName());
+
+   /** The highest rejection rate used in the cost */
+   private static final double MAX_REJECTION_RATE = 0.99;
+
+   /**
+    * Constructor
+    */
+   public LatencyAware()
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Address selectDistributedWorkManager(Address own, DistributableWork work)
+   {
+      Map<Address, Long> selectionMap = getSelectionMap(own.getWorkManagerId(), work);
+      Address result = null;
+      double cost = Double.MAX_VALUE;
+
+      if (selectionMap != null)
+      {
+         Map<Address, NodeStatistics> statistics = new HashMap<Address, NodeStatistics>();
+         long slowest = -1L;
+
+         for (Map.Entry<Address, Long> entry : selectionMap.entrySet())
+         {
+            Address id = entry.getKey();
+            Long free = entry.getValue();
+            if (!own.equals(id) && free != null && free.longValue() > 0)
+            {
+               NodeStatistics ns = getNodeStatistics(own, id);
+               if (ns == null || ns.isReachable())
+               {
+                  statistics.put(id, ns);
+
+                  if (ns != null && ns.getRoundTripTime() > slowest)
+                     slowest = ns.getRoundTripTime();
+               }
+            }
+         }
+
+         if (slowest < 0L)
+            slowest = TimeUnit.MILLISECONDS.toNanos(1L);
+
+         for (Map.Entry<Address, NodeStatistics> entry : statistics.entrySet())
+         {
+            double c = getCost(entry.getValue(), selectionMap.get(entry.getKey()).longValue(), slowest);
+            if (c < cost)
+            {
+               result = entry.getKey();
+               cost = c;
+            }
+         }
+      }
+
+      log.tracef("WorkManager: %s (%s)", result, cost);
+
+      return result;
+   }
+
+   /**
+    * Get the cost of a node
+    * @param ns The statistics of the node; may be <code>null</code>
+    * @param free The number of free threads
+    * @param slowest The round trip time used if unknown
+    * @return The value
+    */
+   static double getCost(NodeStatistics ns, long free, long slowest)
+   {
+      long rtt = slowest;
+      double rejectionRate = 0.0;
+
+      if (ns != null)
+      {
+         if (ns.getRoundTripTime() >= 0L)
+            rtt = ns.getRoundTripTime();
+
+         rejectionRate = Math.min(ns.getRejectionRate(), MAX_REJECTION_RATE);
+      }
+
+      return rtt * (1.0 + 1.0 / free) / (1.0 - rejectionRate);
+   }
+}
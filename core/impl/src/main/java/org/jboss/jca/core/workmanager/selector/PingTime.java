@@ -25,8 +25,11 @@ package org.jboss.jca.core.workmanager.selector;
 import org.jboss.jca.core.CoreBundle;
 import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.spi.workmanager.transport.Transport;
+import org.jboss.jca.core.workmanager.transport.remote.NodeStatistics;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.DistributableWork;
 
@@ -84,7 +87,7 @@ public class PingTime extends AbstractSelector
                Long free = entry.getValue();
                if (free != null && free.longValue() > 0)
                {
-                  long l = Long.MAX_VALUE; // TODO dwm.getTransport().ping(id);
+                  long l = getPingTime(own, id);
                   if (l < pingTime)
                   {
                      result = id;
@@ -99,4 +102,37 @@ public class PingTime extends AbstractSelector
 
       return result;
    }
+
+   /**
+    * Get the ping time of a node. The smoothed round trip time measured by the transport
+    * is used when known, otherwise the node is pinged
+    * @param own The address of the local work manager
+    * @param id The address of the node
+    * @return The value in nanoseconds; <code>Long.MAX_VALUE</code> if the node can't be reached
+    */
+   protected long getPingTime(Address own, Address id)
+   {
+      NodeStatistics ns = getNodeStatistics(own, id);
+
+      if (ns != null)
+      {
+         if (!ns.isReachable())
+            return Long.MAX_VALUE;
+
+         if (ns.getRoundTripTime() >= 0L)
+            return ns.getRoundTripTime();
+      }
+
+      Transport transport = getTransport(own);
+
+      if (transport == null)
+         return Long.MAX_VALUE;
+
+      long l = transport.ping(id);
+
+      if (l == Long.MAX_VALUE)
+         return l;
+
+      return TimeUnit.MILLISECONDS.toNanos(l);
+   }
 }
@@ -30,6 +30,7 @@ import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
 import org.jboss.jca.core.spi.workmanager.transport.Transport;
 import org.jboss.jca.core.workmanager.ClassBundle;
+import org.jboss.jca.core.workmanager.ClassBundleCache;
 import org.jboss.jca.core.workmanager.ClassBundleFactory;
 import org.jboss.jca.core.workmanager.WorkManagerCoordinator;
 import org.jboss.jca.core.workmanager.WorkManagerEvent;
@@ -45,10 +46,17 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
+import javax.resource.spi.work.WorkRejectedException;
 
 import org.jboss.logging.Logger;
 
@@ -73,6 +81,30 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    /** The nodes */
    protected Map<Address, T> nodes;
 
+   /** The statistics batch interval in milliseconds; 0 sends each update right away */
+   private long statisticsBatchInterval;
+
+   /** The number of updates that triggers a flush of a statistics batch */
+   private int statisticsBatchSize;
+
+   /** The pending statistics batches per node */
+   private ConcurrentMap<T, StatisticsBatch> statisticsBatches;
+
+   /** The statistics batch flusher */
+   private ScheduledExecutorService statisticsFlusher;
+
+   /** The class bundle cache */
+   private ClassBundleCache classBundleCache;
+
+   /** The ping interval in milliseconds */
+   private long pingInterval;
+
+   /** The statistics of the nodes */
+   private ConcurrentMap<Address, NodeStatistics> nodeStatistics;
+
+   /** The prober */
+   private ScheduledExecutorService prober;
+
    /**
     * Constructor
     */
@@ -80,6 +112,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       this.executorService = null;
       this.nodes = Collections.synchronizedMap(new HashMap<Address, T>());
+      this.statisticsBatchInterval = 0L;
+      this.statisticsBatchSize = 1000;
+      this.statisticsBatches = new ConcurrentHashMap<T, StatisticsBatch>();
+      this.statisticsFlusher = null;
+      this.classBundleCache = new ClassBundleCache();
+      this.pingInterval = 5000L;
+      this.nodeStatistics = new ConcurrentHashMap<Address, NodeStatistics>();
+      this.prober = null;
    }
 
    /**
@@ -110,10 +150,29 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       if (address.getTransportId() == null || getId().equals(address.getTransportId()))
          return localPing();
 
-      long start = System.currentTimeMillis();
+      long nanos = ping(nodes.get(address));
+
+      if (nanos < 0L)
+      {
+         getOrCreateNodeStatistics(address).pingFailed();
+         return Long.MAX_VALUE;
+      }
+
+      getOrCreateNodeStatistics(address).pingSucceeded(nanos);
+
+      return TimeUnit.NANOSECONDS.toMillis(nanos);
+   }
+
+   /**
+    * Ping a node
+    * @param addr The physical address
+    * @return The round trip time in nanoseconds; -1 if the ping failed
+    */
+   private long ping(T addr)
+   {
+      long start = System.nanoTime();
       try
       {
-         T addr = nodes.get(address);
          sendMessage(addr, Request.PING);
       }
       catch (WorkException e1)
@@ -122,10 +181,10 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          {
             log.debug("Error", e1);
          }
-         return Long.MAX_VALUE;
+         return -1L;
       }
 
-      return System.currentTimeMillis() - start;
+      return System.nanoTime() - start;
    }
 
    @Override
@@ -190,7 +249,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
             {
                try
                {
-                  sendMessage(entry.getValue(), Request.UPDATE_SHORTRUNNING_FREE, address, freeCount);
+                  if (isStatisticsBatching())
+                  {
+                     batchStatistics(entry.getValue(), address, StatisticsBatch.SHORTRUNNING_FREE, freeCount);
+                  }
+                  else
+                  {
+                     sendMessage(entry.getValue(), Request.UPDATE_SHORTRUNNING_FREE, address, freeCount);
+                  }
                }
                catch (WorkException e1)
                {
@@ -220,7 +286,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
             {
                try
                {
-                  sendMessage(entry.getValue(), Request.UPDATE_LONGRUNNING_FREE, address, freeCount);
+                  if (isStatisticsBatching())
+                  {
+                     batchStatistics(entry.getValue(), address, StatisticsBatch.LONGRUNNING_FREE, freeCount);
+                  }
+                  else
+                  {
+                     sendMessage(entry.getValue(), Request.UPDATE_LONGRUNNING_FREE, address, freeCount);
+                  }
                }
                catch (WorkException e1)
                {
@@ -307,7 +380,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_DOWORK_ACCEPTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.DOWORK_ACCEPTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_DOWORK_ACCEPTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -332,7 +412,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_DOWORK_REJECTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.DOWORK_REJECTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_DOWORK_REJECTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -357,7 +444,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_STARTWORK_ACCEPTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.STARTWORK_ACCEPTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_STARTWORK_ACCEPTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -382,7 +476,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_STARTWORK_REJECTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.STARTWORK_REJECTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_STARTWORK_REJECTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -407,7 +508,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_SCHEDULEWORK_ACCEPTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.SCHEDULEWORK_ACCEPTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_SCHEDULEWORK_ACCEPTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -432,7 +540,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_SCHEDULEWORK_REJECTED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.SCHEDULEWORK_REJECTED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_SCHEDULEWORK_REJECTED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -457,7 +572,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_WORK_SUCCESSFUL, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.WORK_SUCCESSFUL, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_WORK_SUCCESSFUL, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -482,7 +604,14 @@ public abstract class AbstractRemoteTransport<T> implements Transport
          try
          {
             T addr = nodes.get(address);
-            sendMessage(addr, Request.DELTA_WORK_FAILED, address);
+            if (isStatisticsBatching())
+            {
+               batchStatistics(addr, address, StatisticsBatch.WORK_FAILED, 0L);
+            }
+            else
+            {
+               sendMessage(addr, Request.DELTA_WORK_FAILED, address);
+            }
          }
          catch (WorkException e1)
          {
@@ -502,10 +631,7 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("DO_WORK(%s, %s)", address, work);
 
-      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
-
-      T addr = nodes.get(address);
-      sendMessage(addr, Request.DO_WORK, address, cb, work);
+      sendWork(address, Request.DO_WORK, work);
    }
 
    /**
@@ -516,10 +642,7 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("SCHEDULE_WORK(%s, %s)", address, work);
 
-      ClassBundle cb = ClassBundleFactory.createClassBundle(work);
-
-      T addr = nodes.get(address);
-      sendMessage(addr, Request.SCHEDULE_WORK, address, cb, work);
+      sendWork(address, Request.SCHEDULE_WORK, work);
    }
 
    /**
@@ -530,10 +653,207 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("START_WORK(%s, %s)", address, work);
 
+      return (long)sendWork(address, Request.START_WORK, work);
+   }
+
+   /**
+    * Send work to a node. The classes the node already has are sent as references,
+    * and the full class bundle is sent again if the node doesn't know them anymore
+    * @param address The logical address
+    * @param request The request
+    * @param work The work
+    * @return The result
+    * @exception WorkException Thrown in case of an error
+    */
+   private Serializable sendWork(Address address, Request request, DistributableWork work) throws WorkException
+   {
       ClassBundle cb = ClassBundleFactory.createClassBundle(work);
 
       T addr = nodes.get(address);
-      return (long)sendMessage(addr, Request.START_WORK, address, cb, work);
+      ClassBundle sent = classBundleCache.compress(addr, cb);
+      try
+      {
+         Serializable result = null;
+         try
+         {
+            result = sendMessage(addr, request, address, sent, work);
+         }
+         catch (WorkException we)
+         {
+            if (sent == cb || !ClassBundleCache.isUnknownClassDefinition(we))
+               throw we;
+
+            log.tracef("%s: resending class bundle to %s", request, address);
+
+            classBundleCache.forget(addr);
+            sent = cb;
+            result = sendMessage(addr, request, address, cb, work);
+         }
+
+         classBundleCache.delivered(addr, cb);
+         getOrCreateNodeStatistics(address).workAccepted();
+         return result;
+      }
+      catch (WorkRejectedException wre)
+      {
+         getOrCreateNodeStatistics(address).workRejected();
+         throw wre;
+      }
+   }
+
+   /**
+    * Get the statistics of a node
+    * @param address The logical address
+    * @return The value; <code>null</code> if nothing is known about the node
+    */
+   public NodeStatistics getNodeStatistics(Address address)
+   {
+      return nodeStatistics.get(address);
+   }
+
+   /**
+    * Get the ping interval
+    * @return The value in milliseconds
+    */
+   public long getPingInterval()
+   {
+      return pingInterval;
+   }
+
+   /**
+    * Set the interval between the pings of the other nodes. The round trip times are
+    * used by the selectors to find the closest node
+    * @param v The value in milliseconds; 0 disables the background pings
+    */
+   public void setPingInterval(long v)
+   {
+      pingInterval = v;
+   }
+
+   /**
+    * Ping all the other nodes, and update their round trip time
+    */
+   public void probe()
+   {
+      Map<T, Set<Address>> physical = new HashMap<T, Set<Address>>();
+
+      synchronized (nodes)
+      {
+         for (Entry<Address, T> entry : nodes.entrySet())
+         {
+            if (entry.getValue() != null)
+            {
+               Set<Address> addresses = physical.get(entry.getValue());
+               if (addresses == null)
+               {
+                  addresses = new HashSet<Address>();
+                  physical.put(entry.getValue(), addresses);
+               }
+               addresses.add(entry.getKey());
+            }
+         }
+      }
+
+      nodeStatistics.keySet().retainAll(nodes.keySet());
+
+      for (Entry<T, Set<Address>> entry : physical.entrySet())
+      {
+         long nanos = ping(entry.getKey());
+
+         log.tracef("PROBE(%s, %d)", entry.getKey(), nanos);
+
+         for (Address address : entry.getValue())
+         {
+            if (nanos < 0L)
+            {
+               getOrCreateNodeStatistics(address).pingFailed();
+            }
+            else
+            {
+               getOrCreateNodeStatistics(address).pingSucceeded(nanos);
+            }
+         }
+      }
+   }
+
+   /**
+    * Start the background pings of the other nodes
+    */
+   protected synchronized void startProber()
+   {
+      if (prober == null && pingInterval > 0L)
+      {
+         prober = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+         {
+            public Thread newThread(Runnable r)
+            {
+               Thread t = new Thread(r, "JCA Prober");
+               t.setDaemon(true);
+               return t;
+            }
+         });
+
+         prober.scheduleWithFixedDelay(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  probe();
+               }
+               catch (Throwable t)
+               {
+                  log.debug("Probe", t);
+               }
+            }
+         }, pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /**
+    * Stop the background pings of the other nodes
+    */
+   protected void stopProber()
+   {
+      ScheduledExecutorService p = null;
+
+      synchronized (this)
+      {
+         p = prober;
+         prober = null;
+      }
+
+      if (p != null)
+         p.shutdownNow();
+   }
+
+   /**
+    * Get the statistics of a node, and create them if needed
+    * @param address The logical address
+    * @return The value
+    */
+   private NodeStatistics getOrCreateNodeStatistics(Address address)
+   {
+      NodeStatistics ns = nodeStatistics.get(address);
+
+      if (ns == null)
+      {
+         ns = new NodeStatistics();
+         NodeStatistics existing = nodeStatistics.putIfAbsent(address, ns);
+         if (existing != null)
+            ns = existing;
+      }
+
+      return ns;
+   }
+
+   /**
+    * Get the class bundle cache
+    * @return The value
+    */
+   public ClassBundleCache getClassBundleCache()
+   {
+      return classBundleCache;
    }
 
    /**
@@ -675,6 +995,8 @@ public abstract class AbstractRemoteTransport<T> implements Transport
    {
       log.tracef("LEAVE(%s)", physicalAddress);
 
+      classBundleCache.forget(physicalAddress);
+
       Set<Address> remove = new HashSet<Address>();
 
       for (Map.Entry<Address, T> entry : nodes.entrySet())
@@ -1153,6 +1475,233 @@ public abstract class AbstractRemoteTransport<T> implements Transport
       }
    }
 
+   /**
+    * Local statistics batch
+    * @param batch The batch
+    */
+   public void localStatisticsBatch(StatisticsBatch batch)
+   {
+      log.tracef("LOCAL_STATISTICS_BATCH(%s)", batch);
+
+      for (Address address : batch.getAddresses())
+      {
+         for (long i = batch.getDelta(address, StatisticsBatch.DOWORK_ACCEPTED); i > 0; i--)
+            localDeltaDoWorkAccepted(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.DOWORK_REJECTED); i > 0; i--)
+            localDeltaDoWorkRejected(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.STARTWORK_ACCEPTED); i > 0; i--)
+            localDeltaStartWorkAccepted(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.STARTWORK_REJECTED); i > 0; i--)
+            localDeltaStartWorkRejected(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.SCHEDULEWORK_ACCEPTED); i > 0; i--)
+            localDeltaScheduleWorkAccepted(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.SCHEDULEWORK_REJECTED); i > 0; i--)
+            localDeltaScheduleWorkRejected(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.WORK_SUCCESSFUL); i > 0; i--)
+            localDeltaWorkSuccessful(address);
+
+         for (long i = batch.getDelta(address, StatisticsBatch.WORK_FAILED); i > 0; i--)
+            localDeltaWorkFailed(address);
+
+         Long shortRunningFree = batch.getGauge(address, StatisticsBatch.SHORTRUNNING_FREE);
+         if (shortRunningFree != null)
+            localUpdateShortRunningFree(address, shortRunningFree);
+
+         Long longRunningFree = batch.getGauge(address, StatisticsBatch.LONGRUNNING_FREE);
+         if (longRunningFree != null)
+            localUpdateLongRunningFree(address, longRunningFree);
+      }
+   }
+
+   /**
+    * Get the statistics batch interval
+    * @return The value in milliseconds; 0 if statistics updates are sent right away
+    */
+   public long getStatisticsBatchInterval()
+   {
+      return statisticsBatchInterval;
+   }
+
+   /**
+    * Set the statistics batch interval. Statistics deltas and free thread counts destined for
+    * the same node are coalesced and sent as a single message at this interval
+    * @param v The value in milliseconds; 0 sends each update right away
+    */
+   public void setStatisticsBatchInterval(long v)
+   {
+      statisticsBatchInterval = v;
+   }
+
+   /**
+    * Get the statistics batch size
+    * @return The value
+    */
+   public int getStatisticsBatchSize()
+   {
+      return statisticsBatchSize;
+   }
+
+   /**
+    * Set the number of updates which triggers a flush of a statistics batch before the interval expires
+    * @param v The value
+    */
+   public void setStatisticsBatchSize(int v)
+   {
+      statisticsBatchSize = v;
+   }
+
+   /**
+    * Send all pending statistics batches
+    */
+   public void flushStatistics()
+   {
+      for (T node : new ArrayList<T>(statisticsBatches.keySet()))
+      {
+         flushStatistics(node);
+      }
+   }
+
+   /**
+    * Is statistics batching enabled
+    * @return The value
+    */
+   protected boolean isStatisticsBatching()
+   {
+      return statisticsBatchInterval > 0L;
+   }
+
+   /**
+    * Flush the pending statistics, and stop the flusher
+    */
+   protected void stopStatisticsBatching()
+   {
+      ScheduledExecutorService flusher = null;
+
+      synchronized (this)
+      {
+         flusher = statisticsFlusher;
+         statisticsFlusher = null;
+      }
+
+      if (flusher != null)
+         flusher.shutdownNow();
+
+      flushStatistics();
+   }
+
+   /**
+    * Add an update to the statistics batch of a node
+    * @param node The physical address of the node
+    * @param address The logical address
+    * @param type The type of the update
+    * @param value The value of a gauge
+    */
+   private void batchStatistics(final T node, Address address, int type, long value)
+   {
+      if (node == null)
+         return;
+
+      while (true)
+      {
+         StatisticsBatch batch = statisticsBatches.get(node);
+         if (batch == null)
+         {
+            batch = new StatisticsBatch();
+            StatisticsBatch existing = statisticsBatches.putIfAbsent(node, batch);
+            if (existing != null)
+               batch = existing;
+         }
+
+         int updates = StatisticsBatch.isDelta(type) ? batch.delta(address, type) : batch.gauge(address, type, value);
+
+         if (updates > 0)
+         {
+            ScheduledExecutorService flusher = getStatisticsFlusher();
+
+            if (updates == statisticsBatchSize && flusher != null)
+            {
+               flusher.execute(new Runnable()
+               {
+                  public void run()
+                  {
+                     flushStatistics(node);
+                  }
+               });
+            }
+
+            return;
+         }
+
+         // Sealed by a concurrent flush
+         statisticsBatches.remove(node, batch);
+      }
+   }
+
+   /**
+    * Send the pending statistics batch of a node
+    * @param node The physical address of the node
+    */
+   private void flushStatistics(T node)
+   {
+      StatisticsBatch batch = statisticsBatches.remove(node);
+
+      if (batch == null)
+         return;
+
+      batch.seal();
+
+      if (batch.isEmpty())
+         return;
+
+      try
+      {
+         sendMessage(node, Request.STATISTICS_BATCH, batch);
+      }
+      catch (WorkException e1)
+      {
+         if (log.isDebugEnabled())
+         {
+            log.debug("Error", e1);
+         }
+      }
+   }
+
+   /**
+    * Get the statistics flusher, and start it if needed
+    * @return The value
+    */
+   private synchronized ScheduledExecutorService getStatisticsFlusher()
+   {
+      if (statisticsFlusher == null && isStatisticsBatching())
+      {
+         statisticsFlusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+         {
+            public Thread newThread(Runnable r)
+            {
+               Thread t = new Thread(r, "JCA StatisticsBatch");
+               t.setDaemon(true);
+               return t;
+            }
+         });
+
+         statisticsFlusher.scheduleWithFixedDelay(new Runnable()
+         {
+            public void run()
+            {
+               flushStatistics();
+            }
+         }, statisticsBatchInterval, statisticsBatchInterval, TimeUnit.MILLISECONDS);
+      }
+
+      return statisticsFlusher;
+   }
+
    /**
     * Get the own address
     * @return The value
@@ -0,0 +1,137 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote;
+
+/**
+ * The observed round trip time and rejection rate of a distributed work manager.
+ *
+ * Both values are exponentially weighted moving averages, so recent observations
+ * count the most.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public final class NodeStatistics
+{
+   /** Weight of a round trip time sample */
+   static final double RTT_WEIGHT = 0.2;
+
+   /** Weight of an accepted or rejected work instance */
+   static final double REJECTION_WEIGHT = 0.1;
+
+   /** Round trip time in nanoseconds, -1 if unknown */
+   private volatile long roundTripTime;
+
+   /** Is the node reachable */
+   private volatile boolean reachable;
+
+   /** Rejection rate */
+   private volatile double rejectionRate;
+
+   /**
+    * Constructor
+    */
+   public NodeStatistics()
+   {
+      this.roundTripTime = -1L;
+      this.reachable = true;
+      this.rejectionRate = 0.0;
+   }
+
+   /**
+    * Get the round trip time
+    * @return The value in nanoseconds; -1 if unknown
+    */
+   public long getRoundTripTime()
+   {
+      return roundTripTime;
+   }
+
+   /**
+    * Is the node reachable, e.g. did the last ping succeed
+    * @return The value
+    */
+   public boolean isReachable()
+   {
+      return reachable;
+   }
+
+   /**
+    * Get the rejection rate
+    * @return The value between 0 and 1
+    */
+   public double getRejectionRate()
+   {
+      return rejectionRate;
+   }
+
+   /**
+    * Add a round trip time sample
+    * @param nanos The value in nanoseconds
+    */
+   public synchronized void pingSucceeded(long nanos)
+   {
+      if (roundTripTime < 0L)
+      {
+         roundTripTime = nanos;
+      }
+      else
+      {
+         roundTripTime = (long)(roundTripTime + RTT_WEIGHT * (nanos - roundTripTime));
+      }
+
+      reachable = true;
+   }
+
+   /**
+    * A ping failed
+    */
+   public void pingFailed()
+   {
+      reachable = false;
+   }
+
+   /**
+    * A work instance was accepted
+    */
+   public synchronized void workAccepted()
+   {
+      rejectionRate -= REJECTION_WEIGHT * rejectionRate;
+   }
+
+   /**
+    * A work instance was rejected
+    */
+   public synchronized void workRejected()
+   {
+      rejectionRate += REJECTION_WEIGHT * (1.0 - rejectionRate);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public String toString()
+   {
+      return "NodeStatistics@" + Integer.toHexString(System.identityHashCode(this)) +
+         "[roundTripTime=" + roundTripTime + " reachable=" + reachable + " rejectionRate=" + rejectionRate + "]";
+   }
+}
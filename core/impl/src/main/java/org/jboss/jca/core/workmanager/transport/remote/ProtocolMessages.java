@@ -92,7 +92,10 @@ public class ProtocolMessages
       /** schedule work */
       SCHEDULE_WORK(3, Address.class, ClassBundle.class, DistributableWork.class),
       /** start work */
-      START_WORK(3, Address.class, ClassBundle.class, DistributableWork.class);
+      START_WORK(3, Address.class, ClassBundle.class, DistributableWork.class),
+
+      /** STATISTICS_BATCH */
+      STATISTICS_BATCH(1, StatisticsBatch.class);
 
       private final int numberOfParameter;
 
@@ -0,0 +1,306 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of distributed statistics updates for one node.
+ *
+ * Delta counters are summed per logical address, while the free thread counts
+ * are gauges where the last value reported wins.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class StatisticsBatch implements Serializable
+{
+   /** Serial version uid */
+   private static final long serialVersionUID = 1L;
+
+   /** doWork accepted */
+   public static final int DOWORK_ACCEPTED = 0;
+
+   /** doWork rejected */
+   public static final int DOWORK_REJECTED = 1;
+
+   /** startWork accepted */
+   public static final int STARTWORK_ACCEPTED = 2;
+
+   /** startWork rejected */
+   public static final int STARTWORK_REJECTED = 3;
+
+   /** scheduleWork accepted */
+   public static final int SCHEDULEWORK_ACCEPTED = 4;
+
+   /** scheduleWork rejected */
+   public static final int SCHEDULEWORK_REJECTED = 5;
+
+   /** Work successful */
+   public static final int WORK_SUCCESSFUL = 6;
+
+   /** Work failed */
+   public static final int WORK_FAILED = 7;
+
+   /** Short running free */
+   public static final int SHORTRUNNING_FREE = 8;
+
+   /** Long running free */
+   public static final int LONGRUNNING_FREE = 9;
+
+   /** Number of deltas */
+   private static final int DELTAS = 8;
+
+   /** Number of slots */
+   public static final int SLOTS = 10;
+
+   /** Gauge not reported */
+   private static final long NO_VALUE = -1L;
+
+   /** The values */
+   private final HashMap<Address, long[]> values;
+
+   /** Sealed */
+   private transient boolean sealed;
+
+   /** Number of updates */
+   private transient int updates;
+
+   /**
+    * Constructor
+    */
+   public StatisticsBatch()
+   {
+      this.values = new HashMap<Address, long[]>();
+      this.sealed = false;
+      this.updates = 0;
+   }
+
+   /**
+    * Add a delta
+    * @param address The logical address
+    * @param type The type of the delta
+    * @return The number of updates in the batch, or -1 if the batch has been sealed and the delta wasn't added
+    */
+   public synchronized int delta(Address address, int type)
+   {
+      if (sealed)
+         return -1;
+
+      getValues(address)[type]++;
+      return ++updates;
+   }
+
+   /**
+    * Report a gauge
+    * @param address The logical address
+    * @param type The type of the gauge
+    * @param value The value
+    * @return The number of updates in the batch, or -1 if the batch has been sealed and the value wasn't added
+    */
+   public synchronized int gauge(Address address, int type, long value)
+   {
+      if (sealed)
+         return -1;
+
+      getValues(address)[type] = value;
+      return ++updates;
+   }
+
+   /**
+    * Add a value; deltas are summed and gauges replaced
+    * @param address The logical address
+    * @param type The type
+    * @param value The value; a negative gauge is ignored
+    */
+   public synchronized void add(Address address, int type, long value)
+   {
+      if (isDelta(type))
+      {
+         getValues(address)[type] += value;
+      }
+      else if (value >= 0L)
+      {
+         getValues(address)[type] = value;
+      }
+      else
+      {
+         getValues(address);
+      }
+   }
+
+   /**
+    * Seal the batch, so no further updates are accepted
+    */
+   public synchronized void seal()
+   {
+      sealed = true;
+   }
+
+   /**
+    * Get the number of updates coalesced into this batch
+    * @return The value
+    */
+   public synchronized int getUpdates()
+   {
+      return updates;
+   }
+
+   /**
+    * Is the batch empty
+    * @return The value
+    */
+   public synchronized boolean isEmpty()
+   {
+      return values.isEmpty();
+   }
+
+   /**
+    * Get the logical addresses
+    * @return The value
+    */
+   public synchronized Set<Address> getAddresses()
+   {
+      return Collections.unmodifiableSet(new HashSet<Address>(values.keySet()));
+   }
+
+   /**
+    * Get the value of a delta
+    * @param address The logical address
+    * @param type The type
+    * @return The value
+    */
+   public synchronized long getDelta(Address address, int type)
+   {
+      long[] v = values.get(address);
+      return v != null ? v[type] : 0L;
+   }
+
+   /**
+    * Get the value of a gauge
+    * @param address The logical address
+    * @param type The type
+    * @return The value, or <code>null</code> if not reported
+    */
+   public synchronized Long getGauge(Address address, int type)
+   {
+      long[] v = values.get(address);
+      if (v == null || v[type] == NO_VALUE)
+         return null;
+
+      return Long.valueOf(v[type]);
+   }
+
+   /**
+    * Get the batch as a map using only JDK types, for transports which can't see this class
+    * @return The value
+    */
+   public synchronized HashMap<HashMap<String, String>, long[]> toMap()
+   {
+      HashMap<HashMap<String, String>, long[]> result = new HashMap<HashMap<String, String>, long[]>(values.size());
+
+      for (Map.Entry<Address, long[]> entry : values.entrySet())
+      {
+         result.put(new HashMap<String, String>(entry.getKey().toMap()),
+                    Arrays.copyOf(entry.getValue(), SLOTS));
+      }
+
+      return result;
+   }
+
+   /**
+    * Create a batch from a map
+    * @param map The map
+    * @return The batch
+    */
+   public static StatisticsBatch fromMap(Map<? extends Map<String, String>, long[]> map)
+   {
+      StatisticsBatch batch = new StatisticsBatch();
+
+      for (Map.Entry<? extends Map<String, String>, long[]> entry : map.entrySet())
+      {
+         batch.values.put(Address.fromMap(entry.getKey()), Arrays.copyOf(entry.getValue(), SLOTS));
+      }
+
+      return batch;
+   }
+
+   /**
+    * Is the type a delta
+    * @param type The type
+    * @return The value
+    */
+   public static boolean isDelta(int type)
+   {
+      return type >= 0 && type < DELTAS;
+   }
+
+   /**
+    * Get the values for an address
+    * @param address The address
+    * @return The values
+    */
+   private long[] getValues(Address address)
+   {
+      long[] v = values.get(address);
+      if (v == null)
+      {
+         v = new long[SLOTS];
+         v[SHORTRUNNING_FREE] = NO_VALUE;
+         v[LONGRUNNING_FREE] = NO_VALUE;
+         values.put(address, v);
+      }
+      return v;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public synchronized String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+
+      sb.append("StatisticsBatch@").append(Integer.toHexString(System.identityHashCode(this)));
+      sb.append("[updates=").append(updates);
+      sb.append(" values={");
+      boolean first = true;
+      for (Map.Entry<Address, long[]> entry : values.entrySet())
+      {
+         if (!first)
+            sb.append(", ");
+         sb.append(entry.getKey()).append("=").append(Arrays.toString(entry.getValue()));
+         first = false;
+      }
+      sb.append("}]");
+
+      return sb.toString();
+   }
+}
@@ -36,6 +36,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
@@ -50,6 +54,7 @@ import org.jboss.jca.core.workmanager.WorkObjectInputStream;
 import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.ResponseValues;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
 
 import org.jboss.logging.Logger;
 import org.jboss.logging.Messages;
@@ -63,6 +68,8 @@ import org.jgroups.blocks.MethodLookup;
 import org.jgroups.blocks.RequestOptions;
 import org.jgroups.blocks.ResponseMode;
 import org.jgroups.blocks.RpcDispatcher;
+import org.jgroups.util.FutureListener;
+import org.jgroups.util.NotifyingFuture;
 import org.jgroups.util.Rsp;
 import org.jgroups.util.RspList;
 
@@ -93,6 +100,15 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
 
    private boolean initialized;
 
+   /** Send the statistics updates without waiting for the other nodes */
+   private boolean asyncRpc;
+
+   /** The maximum number of asynchronous requests in flight */
+   private int maxInFlight;
+
+   /** The asynchronous requests in flight */
+   private Semaphore inFlight;
+
    private static final short JOIN_METHOD = 1;
 
    private static final short LEAVE_METHOD = 2;
@@ -139,6 +155,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
 
    private static final short DELTA_WORK_FAILED_METHOD = 23;
 
+   private static final short STATISTICS_BATCH_METHOD = 24;
+
    private static Map<Short, Method> methods = new HashMap<Short, Method>();
 
    static
@@ -244,6 +262,10 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
          methods.put(DELTA_WORK_FAILED_METHOD,
                      SecurityActions.getMethod(JGroupsTransport.class, "deltaWorkFailed",
                                                Map.class));
+
+         methods.put(STATISTICS_BATCH_METHOD,
+                     SecurityActions.getMethod(JGroupsTransport.class, "statisticsBatch",
+                                               Map.class));
       }
       catch (NoSuchMethodException e)
       {
@@ -262,6 +284,9 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       this.disp = null;
       this.initialized = false;
       this.timeout = 10000L;
+      this.asyncRpc = false;
+      this.maxInFlight = 64;
+      this.inFlight = null;
    }
 
    /**
@@ -469,23 +494,34 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
    }
    
 
+   /**
+    * Delegator
+    *
+    * @param batchMap The statistics batch
+    */
+   public void statisticsBatch(Map<Map<String, String>, long[]> batchMap)
+   {
+      super.localStatisticsBatch(StatisticsBatch.fromMap(batchMap));
+   }
+
    /**
     * Execute doWork
     * @param logicalAddressMap The logical address
     * @param classBundle The class bundle
     * @param b The bytes
     * @throws RemoteException in case of error
+    * @throws WorkException if a class of the bundle isn't known
     */
    public void executeDoWork(Map<String, String> logicalAddressMap,
                              List<Map<String, Object>> classBundle, byte[] b)
-      throws RemoteException
+      throws RemoteException, WorkException
    {
+      WorkClassLoader wcl = getClassBundleCache().getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+
       ByteArrayInputStream bias = new ByteArrayInputStream(b);
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
-         
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
@@ -519,17 +555,18 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
     * @param b The bytes
     * @return the start value
     * @throws RemoteException in case of error
+    * @throws WorkException if a class of the bundle isn't known
     */
    public long executeStartWork(Map<String, String> logicalAddressMap,
                                 List<Map<String, Object>> classBundle, byte[] b)
-      throws RemoteException
+      throws RemoteException, WorkException
    {
+      WorkClassLoader wcl = getClassBundleCache().getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+
       ByteArrayInputStream bias = new ByteArrayInputStream(b);
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
-         
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
@@ -562,16 +599,17 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
     * @param classBundle The class bundle
     * @param b The bytes
     * @throws RemoteException in case of error
+    * @throws WorkException if a class of the bundle isn't known
     */
    public void executeScheduleWork(Map<String, String> logicalAddress, List<Map<String, Object>> classBundle, byte[] b)
-      throws RemoteException
+      throws RemoteException, WorkException
    {
+      WorkClassLoader wcl = getClassBundleCache().getWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
+
       ByteArrayInputStream bias = new ByteArrayInputStream(b);
       WorkObjectInputStream wois = null;
       try
       {
-         WorkClassLoader wcl = SecurityActions.createWorkClassLoader(ClassBundle.fromListOfMaps(classBundle));
-         
          wois = new WorkObjectInputStream(bias, wcl);
 
          DistributableWork dw = (DistributableWork)wois.readObject();
@@ -604,11 +642,14 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
    public void startup() throws Throwable
    {
       disp = createRpcDispatcher();
+      inFlight = new Semaphore(maxInFlight);
 
       if (clusterName == null)
          clusterName = "jca";
 
       channel.connect(clusterName);
+
+      startProber();
    }
 
    /**
@@ -651,6 +692,9 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
     */
    public void shutdown() throws Throwable
    {
+      stopStatisticsBatching();
+      stopProber();
+
       if (disp != null)
       {
          try
@@ -865,7 +909,7 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
                Long freeCount = (Long) parameters[1];
 
-               disp.callRemoteMethod(destAddress,
+               callOneWay(destAddress, request,
                   new MethodCall(UPDATE_SHORTRUNNING_FREE_METHOD, address, freeCount), opts);
 
                break;
@@ -875,7 +919,7 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                      ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
                Long freeCount = (Long) parameters[1];
 
-               disp.callRemoteMethod(destAddress,
+               callOneWay(destAddress, request,
                   new MethodCall(UPDATE_LONGRUNNING_FREE_METHOD, address, freeCount), opts);
 
                break;
@@ -905,8 +949,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_DOWORK_ACCEPTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_DOWORK_ACCEPTED_METHOD, address),
+                          opts);
 
                break;
             }
@@ -914,8 +958,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_DOWORK_REJECTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_DOWORK_REJECTED_METHOD, address),
+                          opts);
 
                break;
             }
@@ -923,8 +967,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_STARTWORK_ACCEPTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_STARTWORK_ACCEPTED_METHOD, address),
+                          opts);
                
                break;
             }
@@ -932,8 +976,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_STARTWORK_REJECTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_STARTWORK_REJECTED_METHOD, address),
+                          opts);
 
                break;
             }
@@ -941,8 +985,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                      ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_SCHEDULEWORK_ACCEPTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_SCHEDULEWORK_ACCEPTED_METHOD, address),
+                          opts);
                
                break;
             }
@@ -950,8 +994,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                      ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_SCHEDULEWORK_REJECTED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_SCHEDULEWORK_REJECTED_METHOD, address),
+                          opts);
                
                break;
             }
@@ -959,8 +1003,8 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                      ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_WORK_SUCCESSFUL_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_WORK_SUCCESSFUL_METHOD, address),
+                          opts);
 
                break;
             }
@@ -968,8 +1012,16 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
                Map<String, String>  address =
                   ((org.jboss.jca.core.spi.workmanager.Address) parameters[0]).toMap();
 
-               disp.callRemoteMethod(destAddress, new MethodCall(DELTA_WORK_FAILED_METHOD, address),
-                                     opts);
+               callOneWay(destAddress, request, new MethodCall(DELTA_WORK_FAILED_METHOD, address),
+                          opts);
+
+               break;
+            }
+            case STATISTICS_BATCH : {
+               StatisticsBatch batch = (StatisticsBatch) parameters[0];
+
+               callOneWay(destAddress, request, new MethodCall(STATISTICS_BATCH_METHOD, batch.toMap()),
+                          opts);
 
                break;
             }
@@ -995,6 +1047,85 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       return returnValue;
    }
 
+   /**
+    * Send a statistics update. In asynchronous mode the free thread counts are sent without asking
+    * for a response, as the latest value wins. The other updates are sent without waiting for the
+    * response, as long as there is room in the window of requests in flight
+    * @param destAddress The destination
+    * @param request The request
+    * @param methodCall The method call
+    * @param opts The options for a synchronous call
+    * @exception Exception Thrown in case of an error
+    */
+   private void callOneWay(org.jgroups.Address destAddress, final Request request, MethodCall methodCall,
+                           RequestOptions opts)
+      throws Exception
+   {
+      if (!asyncRpc)
+      {
+         disp.callRemoteMethod(destAddress, methodCall, opts);
+         return;
+      }
+
+      if (request == Request.UPDATE_SHORTRUNNING_FREE || request == Request.UPDATE_LONGRUNNING_FREE)
+      {
+         // Regular messages, so the values arrive in order
+         disp.callRemoteMethod(destAddress, methodCall, new RequestOptions(ResponseMode.GET_NONE, timeout));
+         return;
+      }
+
+      final Semaphore window = inFlight;
+      if (!window.tryAcquire(timeout, TimeUnit.MILLISECONDS))
+      {
+         if (log.isTraceEnabled())
+            log.tracef("%s: window full for %s", channel.getAddress(), request);
+
+         disp.callRemoteMethod(destAddress, methodCall, opts);
+         return;
+      }
+
+      try
+      {
+         NotifyingFuture<Object> future = disp.callRemoteMethodWithFuture(destAddress, methodCall, opts);
+         future.setListener(new FutureListener<Object>()
+         {
+            private AtomicBoolean done = new AtomicBoolean(false);
+
+            public void futureDone(Future<Object> f)
+            {
+               if (done.compareAndSet(false, true))
+               {
+                  window.release();
+
+                  try
+                  {
+                     f.get();
+                  }
+                  catch (Throwable t)
+                  {
+                     if (log.isTraceEnabled())
+                        log.tracef("%s failed: %s", request, t.getMessage());
+                  }
+               }
+            }
+         });
+      }
+      catch (Exception e)
+      {
+         window.release();
+         throw e;
+      }
+   }
+
+   /**
+    * Get the number of asynchronous requests in flight
+    * @return The value
+    */
+   public int getInFlight()
+   {
+      return inFlight != null ? maxInFlight - inFlight.availablePermits() : 0;
+   }
+
    private void throwWorkExceptionIfHasExption(RspList<ResponseValues> rspList) throws WorkException
    {
       if (rspList != null && rspList.getFirst() != null)
@@ -1086,6 +1217,43 @@ public class JGroupsTransport extends AbstractRemoteTransport<org.jgroups.Addres
       timeout = v;
    }
 
+   /**
+    * Are the statistics updates sent asynchronously
+    * @return The value
+    */
+   public boolean isAsyncRpc()
+   {
+      return asyncRpc;
+   }
+
+   /**
+    * Set if the statistics updates are sent asynchronously
+    * @param v The value
+    */
+   public void setAsyncRpc(boolean v)
+   {
+      asyncRpc = v;
+   }
+
+   /**
+    * Get the maximum number of asynchronous requests in flight
+    * @return The value
+    */
+   public int getMaxInFlight()
+   {
+      return maxInFlight;
+   }
+
+   /**
+    * Set the maximum number of asynchronous requests in flight
+    * @param v The value
+    */
+   public void setMaxInFlight(int v)
+   {
+      if (v > 0)
+         maxInFlight = v;
+   }
+
    @Override
    public void viewAccepted(View view)
    {
@@ -27,14 +27,13 @@ import org.jboss.jca.core.CoreLogger;
 import org.jboss.jca.core.spi.workmanager.Address;
 import org.jboss.jca.core.workmanager.ClassBundle;
 import org.jboss.jca.core.workmanager.WorkClassLoader;
-import org.jboss.jca.core.workmanager.WorkObjectInputStream;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
 
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.net.Socket;
+import java.net.SocketAddress;
 import java.util.Arrays;
 import java.util.Set;
 
@@ -56,22 +55,36 @@ public class Communication implements Runnable
    /** The bundle */
    private static CoreBundle bundle = Messages.getBundle(CoreBundle.class);
 
-   /** The socket */
-   private final Socket socket;
-
    /** The trasport **/
    private final SocketTransport transport;
 
+   /** The connection */
+   private final ServerConnection connection;
+
+   /** The request identifier */
+   private final long id;
+
+   /** The request */
+   private final byte[] data;
+
+   /** The source of the request */
+   private final SocketAddress source;
+
    /**
     * Create a new Communication.
     *
-    * @param socket The socket
     * @param transport The Transport
+    * @param connection The connection the request arrived on
+    * @param id The request identifier
+    * @param data The request
     */
-   public Communication(SocketTransport transport, Socket socket)
+   Communication(SocketTransport transport, ServerConnection connection, long id, byte[] data)
    {
-      this.socket = socket;
       this.transport = transport;
+      this.connection = connection;
+      this.id = id;
+      this.data = data;
+      this.source = connection.getRemoteAddress();
    }
 
    /**
@@ -79,15 +92,14 @@ public class Communication implements Runnable
     */
    public void run()
    {
-      WorkObjectInputStream wois = null;
-      ObjectOutputStream oos = null;
+      ProtocolReader reader = null;
       Serializable returnValue = null;
       Response response = null;
       try
       {
-         wois = new WorkObjectInputStream(socket.getInputStream());
-         int commandOrdinalPosition = wois.readInt();
-         int numberOfParameters = wois.readInt();
+         reader = new ProtocolReader(data);
+         int commandOrdinalPosition = reader.getOrdinal();
+         int numberOfParameters = reader.getNumberOfParameters();
 
          Request command = Request.values()[commandOrdinalPosition];
 
@@ -97,10 +109,10 @@ public class Communication implements Runnable
                if (numberOfParameters != 1)
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters, "JOIN"));
 
-               String address = (String)wois.readObject();
+               String address = (String)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: JOIN(%s)", socket.getInetAddress(), address);
+                  log.tracef("%s: JOIN(%s)", source, address);
 
                Set<Address> workManagers = 
                   (Set<Address>)transport.sendMessage(address, Request.GET_WORKMANAGERS);
@@ -127,10 +139,10 @@ public class Communication implements Runnable
                if (numberOfParameters != 1)
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters, "LEAVE"));
 
-               String address = (String)wois.readObject();
+               String address = (String)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: LEAVE(%s)", socket.getInetAddress(), address);
+                  log.tracef("%s: LEAVE(%s)", source, address);
 
                transport.leave(address);
                response = Response.OK_VOID;
@@ -142,7 +154,7 @@ public class Communication implements Runnable
                                                                                       "GET_WORKMANAGERS"));
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: GET_WORKMANAGERS()", socket.getInetAddress());
+                  log.tracef("%s: GET_WORKMANAGERS()", source);
 
                returnValue = (Serializable)transport.getAddresses(transport.getOwnAddress());
                response = Response.OK_SERIALIZABLE;
@@ -154,11 +166,11 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "WORKMANAGER_ADD"));
 
-               Address id = (Address)wois.readObject();
-               String address = (String)wois.readObject();
+               Address id = (Address)reader.readObject();
+               String address = (String)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: WORKMANAGER_ADD(%s, %s)", socket.getInetAddress(), id, address);
+                  log.tracef("%s: WORKMANAGER_ADD(%s, %s)", source, id, address);
 
                transport.localWorkManagerAdd(id, address);
                response = Response.OK_VOID;
@@ -170,10 +182,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "WORKMANAGER_REMOVE"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: WORKMANAGER_REMOVE(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: WORKMANAGER_REMOVE(%s)", source, id);
 
                transport.localWorkManagerRemove(id);
                response = Response.OK_VOID;
@@ -186,7 +198,7 @@ public class Communication implements Runnable
                                                                                       "PING"));
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: PING()", socket.getInetAddress());
+                  log.tracef("%s: PING()", source);
 
                transport.localPing();
                response = Response.OK_VOID;
@@ -198,19 +210,19 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DO_WORK"));
 
-               Address id = (Address)wois.readObject();
-               ClassBundle cb = (ClassBundle)wois.readObject();
+               Address id = (Address)reader.readObject();
+               ClassBundle cb = (ClassBundle)reader.readObject();
 
                if (log.isTraceEnabled())
                   log.tracef("DO_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
-               wois.setWorkClassLoader(wcl);
+               WorkClassLoader wcl = transport.getClassBundleCache().getWorkClassLoader(cb);
+               reader.setWorkClassLoader(wcl);
 
-               DistributableWork work = (DistributableWork)wois.readObject();
+               DistributableWork work = (DistributableWork)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DO_WORK(%s, %s)", socket.getInetAddress(), id, work);
+                  log.tracef("%s: DO_WORK(%s, %s)", source, id, work);
 
                transport.localDoWork(id, work);
                response = Response.OK_VOID;
@@ -222,18 +234,18 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "START_WORK"));
 
-               Address id = (Address)wois.readObject();
-               ClassBundle cb = (ClassBundle)wois.readObject();
+               Address id = (Address)reader.readObject();
+               ClassBundle cb = (ClassBundle)reader.readObject();
 
                log.tracef("START_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
-               wois.setWorkClassLoader(wcl);
+               WorkClassLoader wcl = transport.getClassBundleCache().getWorkClassLoader(cb);
+               reader.setWorkClassLoader(wcl);
 
-               DistributableWork work = (DistributableWork)wois.readObject();
+               DistributableWork work = (DistributableWork)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: START_WORK(%s, %s)", socket.getInetAddress(), id, work);
+                  log.tracef("%s: START_WORK(%s, %s)", source, id, work);
 
                returnValue = transport.localStartWork(id, work);
                response = Response.OK_SERIALIZABLE;
@@ -245,18 +257,18 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "SCHEDULE_WORK"));
 
-               Address id = (Address)wois.readObject();
-               ClassBundle cb = (ClassBundle)wois.readObject();
+               Address id = (Address)reader.readObject();
+               ClassBundle cb = (ClassBundle)reader.readObject();
 
                log.tracef("SCHEDULE_WORK/ClassBundle: %s", cb);
 
-               WorkClassLoader wcl = SecurityActions.createWorkClassLoader(cb);
-               wois.setWorkClassLoader(wcl);
+               WorkClassLoader wcl = transport.getClassBundleCache().getWorkClassLoader(cb);
+               reader.setWorkClassLoader(wcl);
 
-               DistributableWork work = (DistributableWork)wois.readObject();
+               DistributableWork work = (DistributableWork)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: SCHEDULE_WORK(%s, %s)", socket.getInetAddress(), id, work);
+                  log.tracef("%s: SCHEDULE_WORK(%s, %s)", source, id, work);
 
                transport.localScheduleWork(id, work);
                response = Response.OK_VOID;
@@ -268,10 +280,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "GET_SHORTRUNNING_FREE"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: GET_SHORTRUNNING_FREE(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: GET_SHORTRUNNING_FREE(%s)", source, id);
 
                returnValue = transport.localGetShortRunningFree(id);
                response = Response.OK_SERIALIZABLE;
@@ -283,10 +295,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "GET_LONGRUNNING_FREE"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: GET_LONGRUNNING_FREE(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: GET_LONGRUNNING_FREE(%s)", source, id);
 
                returnValue = transport.localGetLongRunningFree(id);
                response = Response.OK_SERIALIZABLE;
@@ -298,11 +310,11 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "UPDATE_SHORTRUNNING_FREE"));
 
-               Address id = (Address)wois.readObject();
-               Long freeCount = (Long)wois.readObject();
+               Address id = (Address)reader.readObject();
+               Long freeCount = (Long)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: UPDATE_SHORTRUNNING_FREE(%s, %d)", socket.getInetAddress(), id, freeCount);
+                  log.tracef("%s: UPDATE_SHORTRUNNING_FREE(%s, %d)", source, id, freeCount);
 
                transport.localUpdateShortRunningFree(id, freeCount);
                response = Response.OK_VOID;
@@ -314,11 +326,11 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "UPDATE_LONGRUNNING_FREE"));
 
-               Address id = (Address)wois.readObject();
-               Long freeCount = (Long)wois.readObject();
+               Address id = (Address)reader.readObject();
+               Long freeCount = (Long)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: UPDATE_LONGRUNNING_FREE(%s, %d)", socket.getInetAddress(), id, freeCount);
+                  log.tracef("%s: UPDATE_LONGRUNNING_FREE(%s, %d)", source, id, freeCount);
 
                transport.localUpdateLongRunningFree(id, freeCount);
                response = Response.OK_VOID;
@@ -330,10 +342,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "GET_DISTRIBUTED_STATISTICS"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: GET_DISTRIBUTED_STATISTICS(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: GET_DISTRIBUTED_STATISTICS(%s)", source, id);
 
                returnValue = transport.localGetDistributedStatistics(id);
                response = Response.OK_SERIALIZABLE;
@@ -345,10 +357,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "CLEAR_DISTRIBUTED_STATISTICS"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: CLEAR_DISTRIBUTED_STATISTICS(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: CLEAR_DISTRIBUTED_STATISTICS(%s)", source, id);
 
                transport.localClearDistributedStatistics(id);
                response = Response.OK_VOID;
@@ -360,10 +372,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_DOWORK_ACCEPTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_DOWORK_ACCEPTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_DOWORK_ACCEPTED(%s)", source, id);
 
                transport.localDeltaDoWorkAccepted(id);
                response = Response.OK_VOID;
@@ -375,10 +387,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_DOWORK_REJECTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_DOWORK_REJECTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_DOWORK_REJECTED(%s)", source, id);
 
                transport.localDeltaDoWorkRejected(id);
                response = Response.OK_VOID;
@@ -390,10 +402,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_STARTWORK_ACCEPTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_STARTWORK_ACCEPTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_STARTWORK_ACCEPTED(%s)", source, id);
 
                transport.localDeltaStartWorkAccepted(id);
                response = Response.OK_VOID;
@@ -405,10 +417,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_STARTWORK_REJECTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_STARTWORK_REJECTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_STARTWORK_REJECTED(%s)", source, id);
 
                transport.localDeltaStartWorkRejected(id);
                response = Response.OK_VOID;
@@ -420,10 +432,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_SCHEDULEWORK_ACCEPTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_SCHEDULEWORK_ACCEPTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_SCHEDULEWORK_ACCEPTED(%s)", source, id);
 
                transport.localDeltaScheduleWorkAccepted(id);
                response = Response.OK_VOID;
@@ -435,10 +447,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_SCHEDULEWORK_REJECTED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_SCHEDULEWORK_REJECTED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_SCHEDULEWORK_REJECTED(%s)", source, id);
 
                transport.localDeltaScheduleWorkRejected(id);
                response = Response.OK_VOID;
@@ -450,10 +462,10 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_WORK_SUCCESSFUL"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_WORK_SUCCESSFUL(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_WORK_SUCCESSFUL(%s)", source, id);
 
                transport.localDeltaWorkSuccessful(id);
                response = Response.OK_VOID;
@@ -465,16 +477,31 @@ public class Communication implements Runnable
                   throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
                                                                                       "DELTA_WORK_FAILED"));
 
-               Address id = (Address)wois.readObject();
+               Address id = (Address)reader.readObject();
 
                if (log.isTraceEnabled())
-                  log.tracef("%s: DELTA_WORK_FAILED(%s)", socket.getInetAddress(), id);
+                  log.tracef("%s: DELTA_WORK_FAILED(%s)", source, id);
 
                transport.localDeltaWorkFailed(id);
                response = Response.OK_VOID;
 
                break;
             }
+            case STATISTICS_BATCH : {
+               if (numberOfParameters != 1)
+                  throw new IllegalArgumentException(bundle.invalidNumberOfParameters(numberOfParameters,
+                                                                                      "STATISTICS_BATCH"));
+
+               StatisticsBatch batch = (StatisticsBatch)reader.readObject();
+
+               if (log.isTraceEnabled())
+                  log.tracef("%s: STATISTICS_BATCH(%s)", source, batch);
+
+               transport.localStatisticsBatch(batch);
+               response = Response.OK_VOID;
+
+               break;
+            }
             default :
                if (log.isDebugEnabled())
                {
@@ -495,31 +522,17 @@ public class Communication implements Runnable
       catch (WorkException we)
       {
          if (log.isTraceEnabled())
-            log.tracef("%s: WORK_EXCEPTION(%s)", socket.getInetAddress(), we.getMessage());
+            log.tracef("%s: WORK_EXCEPTION(%s)", source, we.getMessage());
 
          sendResponse(Response.WORK_EXCEPTION, we);
       }
       catch (Throwable t)
       {
          if (log.isTraceEnabled())
-            log.tracef("%s: THROWABLE(%s)", socket.getInetAddress(), t.getMessage());
+            log.tracef("%s: THROWABLE(%s)", source, t.getMessage());
 
          sendResponse(Response.GENERIC_EXCEPTION, t);
       }
-      finally
-      {
-         if (wois != null)
-         {
-            try
-            {
-               wois.close();
-            }
-            catch (IOException e)
-            {
-               //ignore it
-            }
-         }
-      }
    }
 
    private void sendResponse(Response response, Serializable... parameters)
@@ -528,22 +541,10 @@ public class Communication implements Runnable
          log.tracef("Sending response: %s with %s", response,
                     parameters != null ? Arrays.toString(parameters) : "null");
 
-      ObjectOutputStream oos = null;
+      byte[] result = null;
       try
       {
-         oos = new ObjectOutputStream(socket.getOutputStream());
-         oos.writeInt(response.ordinal());
-         oos.writeInt(response.getNumberOfParameter());
-         if (response.getNumberOfParameter() > 0 && parameters != null)
-         {
-            for (Serializable o : parameters)
-            {
-               oos.writeObject(o);
-            }
-         }
-
-         oos.flush();
-
+         result = toBytes(response, parameters);
       }
       catch (Throwable t)
       {
@@ -551,20 +552,37 @@ public class Communication implements Runnable
          {
             log.debugf("Error sending response: %s", t.getMessage());
          }
-      }
-      finally
-      {
-         if (oos != null)
+
+         // The caller is waiting for an answer on the shared connection, so always send one
+         try
          {
-            try
-            {
-               oos.close();
-            }
-            catch (IOException e)
+            result = toBytes(Response.WORK_EXCEPTION, new WorkException(t.getMessage()));
+         }
+         catch (Throwable it)
+         {
+            if (log.isDebugEnabled())
             {
-               //ignore it
+               log.debugf("Error sending response: %s", it.getMessage());
             }
+            connection.close();
+            return;
          }
       }
+
+      connection.send(id, result);
+   }
+
+   private byte[] toBytes(Response response, Serializable... parameters) throws IOException
+   {
+      ProtocolWriter writer = new ProtocolWriter(response.ordinal(), response.getNumberOfParameter());
+      if (response.getNumberOfParameter() > 0 && parameters != null)
+      {
+         for (Serializable o : parameters)
+         {
+            writer.writeObject(o);
+         }
+      }
+
+      return writer.toByteArray();
    }
 }
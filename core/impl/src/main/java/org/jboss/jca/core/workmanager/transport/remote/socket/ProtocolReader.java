@@ -0,0 +1,309 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.WorkObjectInputStream;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Decodes a request or response written by {@link ProtocolWriter}
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ProtocolReader
+{
+   /** The data */
+   private final byte[] data;
+
+   /** The position */
+   private int position;
+
+   /** The ordinal */
+   private final int ordinal;
+
+   /** The number of parameters */
+   private final int numberOfParameters;
+
+   /** The strings read */
+   private List<String> strings;
+
+   /** The work class loader */
+   private WorkClassLoader workClassLoader;
+
+   /**
+    * Constructor
+    * @param data The message
+    * @exception IOException Thrown if the message isn't supported
+    */
+   public ProtocolReader(byte[] data) throws IOException
+   {
+      this.data = data;
+      this.position = 0;
+      this.strings = null;
+      this.workClassLoader = null;
+
+      int version = readByte();
+      if (version != ProtocolWriter.VERSION)
+         throw new StreamCorruptedException("Unsupported protocol version: " + version);
+
+      this.ordinal = readVarInt();
+      this.numberOfParameters = readVarInt();
+   }
+
+   /**
+    * Get the ordinal of the request or response
+    * @return The value
+    */
+   public int getOrdinal()
+   {
+      return ordinal;
+   }
+
+   /**
+    * Get the number of parameters
+    * @return The value
+    */
+   public int getNumberOfParameters()
+   {
+      return numberOfParameters;
+   }
+
+   /**
+    * Set the class loader used for the Java serialized parameters that follow
+    * @param v The value
+    */
+   public void setWorkClassLoader(WorkClassLoader v)
+   {
+      this.workClassLoader = v;
+   }
+
+   /**
+    * Read a parameter
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    * @exception ClassNotFoundException Thrown if a serialized class can't be found
+    */
+   public Serializable readObject() throws IOException, ClassNotFoundException
+   {
+      int type = readByte();
+
+      switch (type)
+      {
+         case ProtocolWriter.TYPE_NULL : {
+            return null;
+         }
+         case ProtocolWriter.TYPE_LONG : {
+            return Long.valueOf(unZigZag(readVarLong()));
+         }
+         case ProtocolWriter.TYPE_INTEGER : {
+            return Integer.valueOf((int)unZigZag(readVarLong()));
+         }
+         case ProtocolWriter.TYPE_STRING : {
+            return readString();
+         }
+         case ProtocolWriter.TYPE_ADDRESS : {
+            return readAddress();
+         }
+         case ProtocolWriter.TYPE_ADDRESS_SET : {
+            int size = readVarInt();
+            HashSet<Address> set = new HashSet<Address>(size);
+            for (int i = 0; i < size; i++)
+            {
+               set.add(readAddress());
+            }
+            return set;
+         }
+         case ProtocolWriter.TYPE_STATISTICS_BATCH : {
+            int size = readVarInt();
+            StatisticsBatch batch = new StatisticsBatch();
+            for (int i = 0; i < size; i++)
+            {
+               Address a = readAddress();
+               for (int t = 0; t < StatisticsBatch.SLOTS; t++)
+               {
+                  batch.add(a, t, unZigZag(readVarLong()));
+               }
+            }
+            return batch;
+         }
+         case ProtocolWriter.TYPE_DISTRIBUTED_STATISTICS : {
+            int[] v = new int[8];
+            for (int i = 0; i < v.length; i++)
+            {
+               v[i] = (int)unZigZag(readVarLong());
+            }
+            return new DistributedWorkManagerStatisticsValues(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]);
+         }
+         case ProtocolWriter.TYPE_SERIALIZED : {
+            int length = readVarInt();
+            check(length);
+
+            WorkObjectInputStream wois =
+               new WorkObjectInputStream(new ByteArrayInputStream(data, position, length), workClassLoader);
+            try
+            {
+               return (Serializable)wois.readObject();
+            }
+            finally
+            {
+               position += length;
+               wois.close();
+            }
+         }
+         default :
+            throw new StreamCorruptedException("Unknown type: " + type);
+      }
+   }
+
+   /**
+    * Read an address
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    */
+   private Address readAddress() throws IOException
+   {
+      String workManagerId = readString();
+      String workManagerName = readString();
+      String transportId = readString();
+
+      return new Address(workManagerId, workManagerName, transportId);
+   }
+
+   /**
+    * Read a string
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    */
+   private String readString() throws IOException
+   {
+      int header = readVarInt();
+
+      if (header == ProtocolWriter.STRING_NULL)
+         return null;
+
+      if (strings == null)
+         strings = new ArrayList<String>();
+
+      if (header == ProtocolWriter.STRING_LITERAL)
+      {
+         int length = readVarInt();
+         check(length);
+
+         String s = new String(data, position, length, StandardCharsets.UTF_8);
+         position += length;
+
+         strings.add(s);
+         return s;
+      }
+
+      int index = header - ProtocolWriter.STRING_REFERENCE;
+      if (index < 0 || index >= strings.size())
+         throw new StreamCorruptedException("Invalid string reference: " + index);
+
+      return strings.get(index);
+   }
+
+   /**
+    * Read an unsigned variable length int
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    */
+   private int readVarInt() throws IOException
+   {
+      long v = readVarLong();
+
+      if (v < 0L || v > Integer.MAX_VALUE)
+         throw new StreamCorruptedException("Invalid value: " + v);
+
+      return (int)v;
+   }
+
+   /**
+    * Read an unsigned variable length long
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    */
+   private long readVarLong() throws IOException
+   {
+      long v = 0L;
+
+      for (int shift = 0; shift < 64; shift += 7)
+      {
+         int b = readByte();
+         v |= (long)(b & 0x7F) << shift;
+
+         if ((b & 0x80) == 0)
+            return v;
+      }
+
+      throw new StreamCorruptedException("Malformed variable length value");
+   }
+
+   /**
+    * Read a byte
+    * @return The value
+    * @exception IOException Thrown in case of an error
+    */
+   private int readByte() throws IOException
+   {
+      if (position >= data.length)
+         throw new EOFException();
+
+      return data[position++] & 0xFF;
+   }
+
+   /**
+    * Check that the data holds a number of bytes
+    * @param length The number of bytes
+    * @exception IOException Thrown if it doesn't
+    */
+   private void check(int length) throws IOException
+   {
+      if (length > data.length - position)
+         throw new EOFException();
+   }
+
+   /**
+    * ZigZag decode a value
+    * @param v The encoded value
+    * @return The value
+    */
+   private static long unZigZag(long v)
+   {
+      return (v >>> 1) ^ -(v & 1);
+   }
+}
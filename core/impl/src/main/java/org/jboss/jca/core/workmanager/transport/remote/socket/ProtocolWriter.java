@@ -0,0 +1,350 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes a request or response of the socket transport.
+ *
+ * The message starts with the protocol version, the ordinal of the request or response
+ * and the number of parameters. Longs, strings, addresses and the statistics types have
+ * a compact binary form where numbers are variable length encoded and each string is
+ * written once per message; any other parameter, such as a work instance, is written
+ * using Java serialization.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ProtocolWriter
+{
+   /** The protocol version */
+   public static final int VERSION = 1;
+
+   /** Null */
+   static final int TYPE_NULL = 0;
+
+   /** Long */
+   static final int TYPE_LONG = 1;
+
+   /** Integer */
+   static final int TYPE_INTEGER = 2;
+
+   /** String */
+   static final int TYPE_STRING = 3;
+
+   /** Address */
+   static final int TYPE_ADDRESS = 4;
+
+   /** Set of addresses */
+   static final int TYPE_ADDRESS_SET = 5;
+
+   /** Statistics batch */
+   static final int TYPE_STATISTICS_BATCH = 6;
+
+   /** Distributed statistics values */
+   static final int TYPE_DISTRIBUTED_STATISTICS = 7;
+
+   /** Java serialization */
+   static final int TYPE_SERIALIZED = 8;
+
+   /** String: null */
+   static final int STRING_NULL = 0;
+
+   /** String: literal */
+   static final int STRING_LITERAL = 1;
+
+   /** String: reference to an earlier string; the index is added to this value */
+   static final int STRING_REFERENCE = 2;
+
+   /** The buffer */
+   private byte[] buffer;
+
+   /** The position */
+   private int position;
+
+   /** The strings written */
+   private Map<String, Integer> strings;
+
+   /**
+    * Constructor
+    * @param ordinal The ordinal of the request or response
+    * @param numberOfParameters The number of parameters
+    */
+   public ProtocolWriter(int ordinal, int numberOfParameters)
+   {
+      this.buffer = new byte[64];
+      this.position = 0;
+      this.strings = null;
+
+      writeByte(VERSION);
+      writeVarInt(ordinal);
+      writeVarInt(numberOfParameters);
+   }
+
+   /**
+    * Write a parameter
+    * @param o The value
+    * @exception IOException Thrown if the value can't be serialized
+    */
+   public void writeObject(Serializable o) throws IOException
+   {
+      if (o == null)
+      {
+         writeByte(TYPE_NULL);
+      }
+      else if (o instanceof Long)
+      {
+         writeByte(TYPE_LONG);
+         writeVarLong(zigZag(((Long)o).longValue()));
+      }
+      else if (o instanceof Integer)
+      {
+         writeByte(TYPE_INTEGER);
+         writeVarLong(zigZag(((Integer)o).longValue()));
+      }
+      else if (o instanceof String)
+      {
+         writeByte(TYPE_STRING);
+         writeString((String)o);
+      }
+      else if (o instanceof Address)
+      {
+         writeByte(TYPE_ADDRESS);
+         writeAddress((Address)o);
+      }
+      else if (o instanceof StatisticsBatch)
+      {
+         writeByte(TYPE_STATISTICS_BATCH);
+         writeStatisticsBatch((StatisticsBatch)o);
+      }
+      else if (o instanceof DistributedWorkManagerStatisticsValues)
+      {
+         DistributedWorkManagerStatisticsValues v = (DistributedWorkManagerStatisticsValues)o;
+
+         writeByte(TYPE_DISTRIBUTED_STATISTICS);
+         writeVarLong(zigZag(v.getWorkSuccessful()));
+         writeVarLong(zigZag(v.getWorkFailed()));
+         writeVarLong(zigZag(v.getDoWorkAccepted()));
+         writeVarLong(zigZag(v.getDoWorkRejected()));
+         writeVarLong(zigZag(v.getScheduleWorkAccepted()));
+         writeVarLong(zigZag(v.getScheduleWorkRejected()));
+         writeVarLong(zigZag(v.getStartWorkAccepted()));
+         writeVarLong(zigZag(v.getStartWorkRejected()));
+      }
+      else if (o instanceof Set && isAddressSet((Set<?>)o))
+      {
+         Set<?> set = (Set<?>)o;
+
+         writeByte(TYPE_ADDRESS_SET);
+         writeVarInt(set.size());
+         for (Object a : set)
+         {
+            writeAddress((Address)a);
+         }
+      }
+      else
+      {
+         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+         ObjectOutputStream oos = new ObjectOutputStream(baos);
+         oos.writeObject(o);
+         oos.close();
+
+         byte[] data = baos.toByteArray();
+
+         writeByte(TYPE_SERIALIZED);
+         writeVarInt(data.length);
+         writeBytes(data);
+      }
+   }
+
+   /**
+    * Get the encoded message
+    * @return The value
+    */
+   public byte[] toByteArray()
+   {
+      return Arrays.copyOf(buffer, position);
+   }
+
+   /**
+    * Write an address
+    * @param a The address
+    */
+   private void writeAddress(Address a)
+   {
+      writeString(a.getWorkManagerId());
+      writeString(a.getWorkManagerName());
+      writeString(a.getTransportId());
+   }
+
+   /**
+    * Write a statistics batch
+    * @param batch The batch
+    */
+   private void writeStatisticsBatch(StatisticsBatch batch)
+   {
+      Set<Address> addresses = batch.getAddresses();
+
+      writeVarInt(addresses.size());
+      for (Address a : addresses)
+      {
+         writeAddress(a);
+
+         for (int type = 0; type < StatisticsBatch.SLOTS; type++)
+         {
+            if (StatisticsBatch.isDelta(type))
+            {
+               writeVarLong(zigZag(batch.getDelta(a, type)));
+            }
+            else
+            {
+               Long gauge = batch.getGauge(a, type);
+               writeVarLong(zigZag(gauge != null ? gauge.longValue() : -1L));
+            }
+         }
+      }
+   }
+
+   /**
+    * Write a string; a string already written in this message is written as a reference
+    * @param s The string
+    */
+   private void writeString(String s)
+   {
+      if (s == null)
+      {
+         writeVarInt(STRING_NULL);
+         return;
+      }
+
+      if (strings == null)
+         strings = new HashMap<String, Integer>();
+
+      Integer index = strings.get(s);
+      if (index != null)
+      {
+         writeVarInt(STRING_REFERENCE + index.intValue());
+         return;
+      }
+
+      strings.put(s, Integer.valueOf(strings.size()));
+
+      byte[] data = s.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(STRING_LITERAL);
+      writeVarInt(data.length);
+      writeBytes(data);
+   }
+
+   /**
+    * Write an unsigned variable length int
+    * @param v The value
+    */
+   private void writeVarInt(int v)
+   {
+      writeVarLong(v & 0xFFFFFFFFL);
+   }
+
+   /**
+    * Write an unsigned variable length long
+    * @param v The value
+    */
+   private void writeVarLong(long v)
+   {
+      ensure(10);
+
+      while ((v & ~0x7FL) != 0L)
+      {
+         buffer[position++] = (byte)((v & 0x7F) | 0x80);
+         v >>>= 7;
+      }
+      buffer[position++] = (byte)v;
+   }
+
+   /**
+    * Write a byte
+    * @param b The value
+    */
+   private void writeByte(int b)
+   {
+      ensure(1);
+      buffer[position++] = (byte)b;
+   }
+
+   /**
+    * Write bytes
+    * @param data The data
+    */
+   private void writeBytes(byte[] data)
+   {
+      ensure(data.length);
+      System.arraycopy(data, 0, buffer, position, data.length);
+      position += data.length;
+   }
+
+   /**
+    * Ensure capacity
+    * @param n The number of bytes needed
+    */
+   private void ensure(int n)
+   {
+      if (position + n > buffer.length)
+         buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + n));
+   }
+
+   /**
+    * Is the set a set of addresses
+    * @param set The set
+    * @return The value
+    */
+   private static boolean isAddressSet(Set<?> set)
+   {
+      for (Object o : set)
+      {
+         if (!(o instanceof Address))
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * ZigZag encode a value
+    * @param v The value
+    * @return The encoded value
+    */
+   private static long zigZag(long v)
+   {
+      return (v << 1) ^ (v >> 63);
+   }
+}
@@ -0,0 +1,195 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The server side of a connection from a peer.
+ *
+ * The state is only read by the selector thread; responses are queued by the
+ * worker threads and written by the selector thread once the channel is writable.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class ServerConnection
+{
+   /** The transport */
+   private final SocketTransport transport;
+
+   /** The channel */
+   private final SocketChannel channel;
+
+   /** The remote address */
+   private final SocketAddress remoteAddress;
+
+   /** The frame header */
+   private final ByteBuffer header;
+
+   /** The frame body */
+   private ByteBuffer body;
+
+   /** The request identifier of the current frame */
+   private long id;
+
+   /** Pending responses */
+   private final Queue<ByteBuffer> outbound;
+
+   /**
+    * Constructor
+    * @param transport The transport
+    * @param channel The channel
+    * @exception IOException Thrown if the remote address can't be resolved
+    */
+   ServerConnection(SocketTransport transport, SocketChannel channel) throws IOException
+   {
+      this.transport = transport;
+      this.channel = channel;
+      this.remoteAddress = channel.getRemoteAddress();
+      this.header = ByteBuffer.allocate(SocketConnection.HEADER_SIZE);
+      this.body = null;
+      this.id = 0L;
+      this.outbound = new ConcurrentLinkedQueue<ByteBuffer>();
+   }
+
+   /**
+    * Get the channel
+    * @return The value
+    */
+   SocketChannel getChannel()
+   {
+      return channel;
+   }
+
+   /**
+    * Get the remote address
+    * @return The value
+    */
+   SocketAddress getRemoteAddress()
+   {
+      return remoteAddress;
+   }
+
+   /**
+    * Read the available data, and dispatch every complete request
+    * @exception IOException Thrown in case of an error, or if the peer closed the connection
+    */
+   void read() throws IOException
+   {
+      while (true)
+      {
+         if (body == null)
+         {
+            if (channel.read(header) < 0)
+               throw new EOFException();
+
+            if (header.hasRemaining())
+               return;
+
+            header.flip();
+            int length = header.getInt();
+            id = header.getLong();
+            header.clear();
+
+            if (length < 0)
+               throw new IOException("Invalid frame length: " + length);
+
+            if (length > transport.getMaxFrameSize())
+               throw new IOException("Frame too large: " + length);
+
+            body = ByteBuffer.allocate(length);
+         }
+
+         if (body.hasRemaining() && channel.read(body) < 0)
+            throw new EOFException();
+
+         if (body.hasRemaining())
+            return;
+
+         transport.dispatch(new Communication(transport, this, id, body.array()));
+         body = null;
+      }
+   }
+
+   /**
+    * Queue a response
+    * @param requestId The request identifier
+    * @param data The response
+    */
+   void send(long requestId, byte[] data)
+   {
+      ByteBuffer frame = ByteBuffer.allocate(SocketConnection.HEADER_SIZE + data.length);
+      frame.putInt(data.length);
+      frame.putLong(requestId);
+      frame.put(data);
+      frame.flip();
+
+      outbound.add(frame);
+      transport.writeRequested(this);
+   }
+
+   /**
+    * Write the queued responses
+    * @return True if everything has been written, false if the channel is full
+    * @exception IOException Thrown in case of an error
+    */
+   boolean write() throws IOException
+   {
+      ByteBuffer frame = outbound.peek();
+      while (frame != null)
+      {
+         channel.write(frame);
+
+         if (frame.hasRemaining())
+            return false;
+
+         outbound.poll();
+         frame = outbound.peek();
+      }
+
+      return true;
+   }
+
+   /**
+    * Close the connection
+    */
+   void close()
+   {
+      outbound.clear();
+
+      try
+      {
+         channel.close();
+      }
+      catch (IOException ioe)
+      {
+         // Ignore
+      }
+   }
+}
@@ -0,0 +1,270 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.transport.remote.socket;
+
+import org.jboss.jca.core.CoreLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A persistent connection to a peer.
+ *
+ * Requests are written as frames carrying a request identifier, so any number of
+ * threads can have requests outstanding on the same connection. A reader thread
+ * matches the responses, which may arrive in any order, to the waiting callers.
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+class SocketConnection implements Runnable
+{
+   /** The logger */
+   private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, SocketConnection.class.getName());
+
+   /** Frame header size: length and request identifier */
+   static final int HEADER_SIZE = 4 + 8;
+
+   /** The transport */
+   private final SocketTransport transport;
+
+   /** The address */
+   private final String address;
+
+   /** The socket */
+   private final Socket socket;
+
+   /** The output */
+   private final DataOutputStream out;
+
+   /** The input */
+   private final DataInputStream in;
+
+   /** Request identifiers */
+   private final AtomicLong ids;
+
+   /** Outstanding requests */
+   private final ConcurrentMap<Long, CompletableFuture<byte[]>> pending;
+
+   /** Closed */
+   private final AtomicBoolean closed;
+
+   /**
+    * Constructor
+    * @param transport The transport
+    * @param address The address of the peer as host:port
+    * @exception IOException Thrown if the peer can't be reached
+    */
+   SocketConnection(SocketTransport transport, String address) throws IOException
+   {
+      String[] addressPart = address.split(":");
+
+      this.transport = transport;
+      this.address = address;
+      this.socket = new Socket(addressPart[0], Integer.valueOf(addressPart[1]));
+      this.socket.setTcpNoDelay(true);
+      this.socket.setKeepAlive(true);
+      this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      this.ids = new AtomicLong(0L);
+      this.pending = new ConcurrentHashMap<Long, CompletableFuture<byte[]>>();
+      this.closed = new AtomicBoolean(false);
+
+      Thread reader = new Thread(this, "JCA SocketTransport " + address);
+      reader.setDaemon(true);
+      reader.start();
+   }
+
+   /**
+    * Get the address of the peer
+    * @return The value
+    */
+   String getAddress()
+   {
+      return address;
+   }
+
+   /**
+    * Is the connection closed
+    * @return The value
+    */
+   boolean isClosed()
+   {
+      return closed.get();
+   }
+
+   /**
+    * Send a request and wait for its response
+    * @param data The request
+    * @return The response
+    * @exception IOException Thrown if the request can't be delivered or the connection fails
+    */
+   byte[] send(byte[] data) throws IOException
+   {
+      Long id = Long.valueOf(ids.incrementAndGet());
+      CompletableFuture<byte[]> future = new CompletableFuture<byte[]>();
+
+      pending.put(id, future);
+
+      if (closed.get())
+      {
+         pending.remove(id);
+         throw new IOException("Connection closed: " + address);
+      }
+
+      try
+      {
+         synchronized (out)
+         {
+            out.writeInt(data.length);
+            out.writeLong(id.longValue());
+            out.write(data);
+            out.flush();
+         }
+      }
+      catch (IOException ioe)
+      {
+         pending.remove(id);
+         close(ioe);
+         throw ioe;
+      }
+
+      try
+      {
+         return future.get();
+      }
+      catch (InterruptedException ie)
+      {
+         pending.remove(id);
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted waiting for " + address);
+      }
+      catch (ExecutionException ee)
+      {
+         Throwable cause = ee.getCause();
+
+         if (cause instanceof IOException)
+            throw new IOException(cause.getMessage(), cause);
+
+         throw new IOException(ee.getMessage(), cause);
+      }
+   }
+
+   /**
+    * Read the responses
+    */
+   public void run()
+   {
+      try
+      {
+         while (!closed.get())
+         {
+            int length = in.readInt();
+            long id = in.readLong();
+
+            if (length < 0)
+               throw new IOException("Invalid frame length: " + length);
+
+            if (length > transport.getMaxFrameSize())
+               throw new IOException("Frame too large: " + length);
+
+            byte[] data = new byte[length];
+            in.readFully(data);
+
+            CompletableFuture<byte[]> future = pending.remove(Long.valueOf(id));
+            if (future != null)
+            {
+               future.complete(data);
+            }
+            else
+            {
+               if (log.isDebugEnabled())
+                  log.debugf("Response for unknown request %d from %s", id, address);
+            }
+         }
+      }
+      catch (EOFException eof)
+      {
+         close(eof);
+      }
+      catch (IOException ioe)
+      {
+         if (!closed.get() && log.isDebugEnabled())
+            log.debug("Error reading from " + address + ": " + ioe.getMessage(), ioe);
+
+         close(ioe);
+      }
+   }
+
+   /**
+    * Close the connection
+    */
+   void close()
+   {
+      close(new IOException("Connection closed: " + address));
+   }
+
+   /**
+    * Close the connection, and fail all outstanding requests
+    * @param cause The cause
+    */
+   private void close(IOException cause)
+   {
+      if (closed.compareAndSet(false, true))
+      {
+         transport.connectionClosed(this);
+
+         try
+         {
+            socket.close();
+         }
+         catch (IOException ioe)
+         {
+            // Ignore
+         }
+      }
+
+      Iterator<Map.Entry<Long, CompletableFuture<byte[]>>> it = pending.entrySet().iterator();
+      while (it.hasNext())
+      {
+         Map.Entry<Long, CompletableFuture<byte[]>> entry = it.next();
+         it.remove();
+         entry.getValue().completeExceptionally(cause);
+      }
+   }
+}
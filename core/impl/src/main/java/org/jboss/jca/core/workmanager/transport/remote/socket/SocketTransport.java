@@ -30,13 +30,20 @@ import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.resource.spi.work.WorkException;
@@ -45,12 +52,19 @@ import org.jboss.logging.Logger;
 import org.jboss.logging.Messages;
 
 /**
- * The socket transport
+ * The socket transport.
+ *
+ * Each peer is reached through a single persistent connection on which requests
+ * are multiplexed by request identifier, and the server side is driven by a
+ * selector that hands complete requests to the executor service.
  *
  * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
  */
 public class SocketTransport extends AbstractRemoteTransport<String> implements Runnable
 {
+   /** The default maximum size of a received frame: 16 MB */
+   static final int DEFAULT_MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
    /** The logger */
    private static CoreLogger log = Logger.getMessageLogger(CoreLogger.class, SocketTransport.class.getName());
 
@@ -69,12 +83,24 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
    /** Is the server running ? */
    private AtomicBoolean running;
 
-   /** The server socket */
-   private ServerSocket ss;
+   /** The server socket channel */
+   private ServerSocketChannel ssc;
+
+   /** The selector */
+   private Selector selector;
+
+   /** Server connections with pending responses */
+   private Queue<ServerConnection> writers;
+
+   /** The connections to the peers */
+   private ConcurrentMap<String, SocketConnection> connections;
 
    /** Is the transport initialized */
    private boolean initialized;
 
+   /** The maximum size of a received frame */
+   private int maxFrameSize;
+
    /**
     * Constructor
     */
@@ -85,8 +111,12 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
       this.port = 0;
       this.peers = null;
       this.running = new AtomicBoolean(false);
-      this.ss = null;
+      this.ssc = null;
+      this.selector = null;
+      this.writers = new ConcurrentLinkedQueue<ServerConnection>();
+      this.connections = new ConcurrentHashMap<String, SocketConnection>();
       this.initialized = false;
+      this.maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
    }
 
    /**
@@ -98,12 +128,18 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
       {
          InetSocketAddress address = new InetSocketAddress(host, port);
 
-         ss = new ServerSocket();
-         ss.bind(address);
+         selector = Selector.open();
+
+         ssc = ServerSocketChannel.open();
+         ssc.bind(address);
+         ssc.configureBlocking(false);
+         ssc.register(selector, SelectionKey.OP_ACCEPT);
 
          running.set(true);
 
          getExecutorService().submit(this);
+
+         startProber();
       }
    }
 
@@ -167,42 +203,43 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
     */
    public void shutdown() throws Throwable
    {
+      stopStatisticsBatching();
+      stopProber();
+
       running.set(false);
 
-      if (ss != null)
-         ss.close();
+      List<SocketConnection> copy = new ArrayList<SocketConnection>(connections.values());
+      for (SocketConnection connection : copy)
+      {
+         connection.close();
+      }
+
+      if (selector != null)
+         selector.wakeup();
+
+      if (ssc != null)
+         ssc.close();
    }
 
    @Override
    protected Serializable sendMessage(String address, Request request, Serializable... parameters)
       throws WorkException
    {
-      String[] addressPart = address.split(":");
-      Socket socket = null;
-      ObjectOutputStream oos = null;
-
       if (log.isTraceEnabled())
-         log.tracef("%s:%d: sending message=%s to %s:%s", ss.getInetAddress().getHostName(),
-                    ss.getLocalPort(), request, addressPart[0], addressPart[1]);
+         log.tracef("%s: sending message=%s to %s", getOwnAddress(), request, address);
 
       try
       {
-         socket = new Socket(addressPart[0], Integer.valueOf(addressPart[1]));
-
-         oos = new ObjectOutputStream(socket.getOutputStream());
-         oos.writeInt(request.ordinal());
-         oos.writeInt(request.getNumberOfParameter());
+         ProtocolWriter writer = new ProtocolWriter(request.ordinal(), request.getNumberOfParameter());
          if (parameters != null)
          {
             for (Serializable o : parameters)
             {
-               oos.writeObject(o);
+               writer.writeObject(o);
             }
          }
 
-         oos.flush();
-
-         return parseResponse(socket);
+         return parseResponse(getConnection(address).send(writer.toByteArray()));
       }
       catch (Throwable t)
       {
@@ -221,90 +258,111 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
             throw we;
          }
       }
-      finally
+   }
+
+   /**
+    * Get the connection to a peer, and establish it if needed
+    * @param address The address of the peer
+    * @return The connection
+    * @exception IOException Thrown if the peer can't be reached
+    */
+   private SocketConnection getConnection(String address) throws IOException
+   {
+      SocketConnection connection = connections.get(address);
+
+      if (connection == null || connection.isClosed())
       {
-         if (oos != null)
+         SocketConnection newConnection = new SocketConnection(this, address);
+
+         if (connection != null)
+            connections.remove(address, connection);
+
+         connection = connections.putIfAbsent(address, newConnection);
+         if (connection == null || connection.isClosed())
          {
-            try
-            {
-               oos.close();
-            }
-            catch (IOException e)
-            {
-               //ignore it
-            }
+            if (connection != null)
+               connections.put(address, newConnection);
+
+            connection = newConnection;
          }
-         if (socket != null)
+         else
          {
-            try
-            {
-               socket.close();
-            }
-            catch (IOException e)
-            {
-               //ignore it
-            }
+            newConnection.close();
          }
       }
+
+      return connection;
    }
 
-   private Serializable parseResponse(Socket socket) throws Throwable
+   /**
+    * A connection to a peer has been closed
+    * @param connection The connection
+    */
+   void connectionClosed(SocketConnection connection)
    {
-      ObjectInputStream ois = null;
+      connections.remove(connection.getAddress(), connection);
+   }
 
-      try
-      {
-         ois = new ObjectInputStream(socket.getInputStream());
+   /**
+    * Dispatch a request received by the server
+    * @param communication The request
+    */
+   void dispatch(Communication communication)
+   {
+      getExecutorService().submit(communication);
+   }
 
-         int commandOrdinalPosition = ois.readInt();
-         int numberOfParameters = ois.readInt();
-         Serializable[] parameters = new Serializable[numberOfParameters];
+   /**
+    * A server connection has responses pending
+    * @param connection The connection
+    */
+   void writeRequested(ServerConnection connection)
+   {
+      writers.add(connection);
 
-         for (int i = 0; i < numberOfParameters; i++)
-         {
-            Serializable parameter = (Serializable)ois.readObject();
-            parameters[i] = parameter;
-         }
+      Selector s = selector;
+      if (s != null)
+         s.wakeup();
+   }
 
-         Response response = Response.values()[commandOrdinalPosition];
+   private Serializable parseResponse(byte[] data) throws Throwable
+   {
+      ProtocolReader reader = new ProtocolReader(data);
 
-         switch (response)
-         {
-            case OK_VOID : {
-               return null;
-            }
-            case OK_SERIALIZABLE : {
-               return parameters[0];
-            }
-            case WORK_EXCEPTION : {
-               WorkException we = (WorkException)parameters[0];
-               throw we;
-            }
-            case GENERIC_EXCEPTION : {
-               Throwable t = (Throwable)parameters[0];
-               throw t;
-            }
-            default :
-               if (log.isDebugEnabled())
-               {
-                  log.debug("Unknown response received on socket Transport");
-               }
-               throw new WorkException("Unknown response received on socket Transport");
-         }
+      int commandOrdinalPosition = reader.getOrdinal();
+      int numberOfParameters = reader.getNumberOfParameters();
+      Serializable[] parameters = new Serializable[numberOfParameters];
+
+      for (int i = 0; i < numberOfParameters; i++)
+      {
+         Serializable parameter = reader.readObject();
+         parameters[i] = parameter;
       }
-      finally
+
+      Response response = Response.values()[commandOrdinalPosition];
+
+      switch (response)
       {
-         if (ois != null)
-         {
-            try
-            {
-               ois.close();
-            }
-            catch (IOException e)
+         case OK_VOID : {
+            return null;
+         }
+         case OK_SERIALIZABLE : {
+            return parameters[0];
+         }
+         case WORK_EXCEPTION : {
+            WorkException we = (WorkException)parameters[0];
+            throw we;
+         }
+         case GENERIC_EXCEPTION : {
+            Throwable t = (Throwable)parameters[0];
+            throw t;
+         }
+         default :
+            if (log.isDebugEnabled())
             {
-               //ignore it
+               log.debug("Unknown response received on socket Transport");
             }
-         }
+            throw new WorkException("Unknown response received on socket Transport");
       }
    }
 
@@ -328,6 +386,25 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
       this.port = port;
    }
 
+   /**
+    * Get the maximum size of a received frame
+    * @return The value
+    */
+   public int getMaxFrameSize()
+   {
+      return maxFrameSize;
+   }
+
+   /**
+    * Set the maximum size of a received frame. A connection that receives a
+    * larger frame is closed
+    * @param v The value in bytes
+    */
+   public void setMaxFrameSize(int v)
+   {
+      this.maxFrameSize = v;
+   }
+
    /**
     * Set the peers
     * @param peers The peers
@@ -349,26 +426,104 @@ public class SocketTransport extends AbstractRemoteTransport<String> implements
    @Override
    public void run()
    {
-      while (running.get())
+      try
       {
-         try
+         while (running.get())
+         {
+            try
+            {
+               selector.select();
+
+               ServerConnection writer = writers.poll();
+               while (writer != null)
+               {
+                  SelectionKey key = writer.getChannel().keyFor(selector);
+                  if (key != null && key.isValid())
+                     key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+
+                  writer = writers.poll();
+               }
+
+               Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+               while (it.hasNext())
+               {
+                  SelectionKey key = it.next();
+                  it.remove();
+
+                  if (!key.isValid())
+                     continue;
+
+                  if (key.isAcceptable())
+                  {
+                     accept();
+                  }
+                  else
+                  {
+                     ServerConnection connection = (ServerConnection)key.attachment();
+                     try
+                     {
+                        if (key.isReadable())
+                           connection.read();
+
+                        if (key.isValid() && key.isWritable() && connection.write())
+                           key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                     }
+                     catch (IOException ioe)
+                     {
+                        if (log.isTraceEnabled())
+                           log.tracef("%s: %s", connection.getRemoteAddress(), ioe.getMessage());
+
+                        key.cancel();
+                        connection.close();
+                     }
+                  }
+               }
+            }
+            catch (Exception e)
+            {
+               if (log.isTraceEnabled())
+                  log.trace(e.getMessage());
+            }
+         }
+      }
+      finally
+      {
+         for (SelectionKey key : selector.keys())
          {
-            java.net.Socket socket = ss.accept();
+            if (key.attachment() instanceof ServerConnection)
+               ((ServerConnection)key.attachment()).close();
+         }
 
-            Runnable r = new Communication(this, socket);
-            this.getExecutorService().submit(r);
+         try
+         {
+            selector.close();
          }
-         catch (Exception e)
+         catch (IOException ioe)
          {
-            if (log.isTraceEnabled())
-               log.trace(e.getMessage());
+            // Ignore
          }
       }
    }
 
+   /**
+    * Accept a new connection
+    * @exception IOException Thrown in case of an error
+    */
+   private void accept() throws IOException
+   {
+      SocketChannel channel = ssc.accept();
+
+      if (channel != null)
+      {
+         channel.configureBlocking(false);
+         channel.socket().setTcpNoDelay(true);
+         channel.register(selector, SelectionKey.OP_READ, new ServerConnection(this, channel));
+      }
+   }
+
    @Override
    public String toString()
    {
-      return "SocketTransport [host=" + host + ", port=" + port + ", running=" + running + ", ss=" + ss + "]";
+      return "SocketTransport [host=" + host + ", port=" + port + ", running=" + running + ", ssc=" + ssc + "]";
    }
 }
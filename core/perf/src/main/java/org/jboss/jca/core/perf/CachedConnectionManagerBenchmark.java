@@ -0,0 +1,210 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.AbstractConnectionManager;
+import org.jboss.jca.core.connectionmanager.ConnectionManagerFactory;
+import org.jboss.jca.core.connectionmanager.ccm.CachedConnectionManagerImpl;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolFactory;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolStrategy;
+import org.jboss.jca.core.tx.noopts.TransactionIntegrationImpl;
+import org.jboss.jca.core.tx.noopts.TransactionManagerImpl;
+import org.jboss.jca.core.tx.noopts.TransactionSynchronizationRegistryImpl;
+import org.jboss.jca.core.tx.noopts.TxRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.TransactionSupport.TransactionSupportLevel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cached connection manager when a component is invoked: the meta aware
+ * object is pushed, the connection handles used by the component are registered and
+ * unregistered, and the meta aware object is popped.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar CachedConnectionManagerBenchmark -t 8</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CachedConnectionManagerBenchmark
+{
+   /** The number of connection handles used per invocation */
+   @Param({"1", "4"})
+   public int connections;
+
+   /** Reuse the frames of the meta aware objects */
+   @Param({"false", "true"})
+   public boolean reuseFrames;
+
+   /** The pool */
+   private Pool pool;
+
+   /** The cached connection manager */
+   private CachedConnectionManagerImpl ccm;
+
+   /** The connection manager */
+   private AbstractConnectionManager cm;
+
+   /**
+    * Setup
+    */
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      TxRegistry registry = new TxRegistry();
+
+      TransactionManagerImpl tm = new TransactionManagerImpl();
+      tm.setRegistry(registry);
+
+      TransactionSynchronizationRegistryImpl tsr = new TransactionSynchronizationRegistryImpl();
+      tsr.setRegistry(registry);
+
+      ccm = new CachedConnectionManagerImpl(new TransactionIntegrationImpl(tm, tsr, null, null, null));
+      ccm.setReuseFrames(reuseFrames);
+      ccm.start();
+
+      PoolConfiguration pc = new PoolConfiguration();
+      pc.setMinSize(0);
+      pc.setMaxSize(1000);
+      pc.setBlockingTimeout(60000);
+
+      PoolFactory pf = new PoolFactory();
+      pool = pf.create(PoolStrategy.ONE_POOL, new PerfManagedConnectionFactory(), pc, false, true,
+                       "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool");
+
+      ConnectionManagerFactory cmf = new ConnectionManagerFactory();
+      cm = (AbstractConnectionManager)
+         cmf.createNonTransactional(TransactionSupportLevel.NoTransaction, pool, null, null, true, ccm,
+                                    true, true, false, null,
+                                    FlushStrategy.FAILING_CONNECTION_ONLY,
+                                    null, null);
+   }
+
+   /**
+    * Teardown
+    * @exception Exception In case of an error
+    */
+   @TearDown(Level.Trial)
+   public void teardown() throws Exception
+   {
+      pool.shutdown();
+      ccm.stop();
+   }
+
+   /**
+    * The connections of a component invocation
+    */
+   @State(Scope.Thread)
+   public static class Invocation
+   {
+      /** The key of the component */
+      private Object key;
+
+      /** The connection listener */
+      private ConnectionListener cl;
+
+      /** The connection handles */
+      private Object[] handles;
+
+      /**
+       * Setup
+       * @param benchmark The benchmark
+       * @exception Exception In case of an error
+       */
+      @Setup(Level.Trial)
+      public void setup(CachedConnectionManagerBenchmark benchmark) throws Exception
+      {
+         key = new Object();
+         cl = benchmark.cm.getManagedConnection(null, null);
+         handles = new Object[benchmark.connections];
+         for (int i = 0; i < handles.length; i++)
+         {
+            handles[i] = new Object();
+         }
+      }
+
+      /**
+       * Teardown
+       * @param benchmark The benchmark
+       * @exception Exception In case of an error
+       */
+      @TearDown(Level.Trial)
+      public void teardown(CachedConnectionManagerBenchmark benchmark) throws Exception
+      {
+         benchmark.cm.returnManagedConnection(cl, false);
+      }
+   }
+
+   /**
+    * Push the component, register and unregister its connections, and pop it
+    * @param invocation The invocation
+    * @return The key
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public Object pushPop(Invocation invocation) throws Exception
+   {
+      ccm.pushMetaAwareObject(invocation.key, null);
+      try
+      {
+         for (Object handle : invocation.handles)
+         {
+            ccm.registerConnection(cm, invocation.cl, handle);
+         }
+
+         for (Object handle : invocation.handles)
+         {
+            ccm.unregisterConnection(cm, invocation.cl, handle);
+         }
+      }
+      finally
+      {
+         ccm.popMetaAwareObject(null);
+      }
+
+      return invocation.key;
+   }
+}
@@ -0,0 +1,136 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.AbstractConnectionManager;
+import org.jboss.jca.core.connectionmanager.ConnectionManagerFactory;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolFactory;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolStrategy;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.TransactionSupport.TransactionSupportLevel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the getConnection / returnConnection cycle of the managed connection pool
+ * implementations through a non-transactional connection manager.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar ManagedConnectionPoolBenchmark -t 400</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagedConnectionPoolBenchmark
+{
+   /** The managed connection pool implementation */
+   @Param({"SemaphoreArrayList", "SemaphoreConcurrentLinkedDeque", "SemaphoreConcurrentLinkedDequeAffinity"})
+   public String mcp;
+
+   /** The maximum pool size */
+   @Param({"20"})
+   public int maxPoolSize;
+
+   /** The work done while the connection is checked out, in Blackhole tokens */
+   @Param({"0", "100"})
+   public long work;
+
+   /** The pool */
+   private Pool pool;
+
+   /** The connection manager */
+   private AbstractConnectionManager cm;
+
+   /**
+    * Setup
+    */
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      PoolConfiguration pc = new PoolConfiguration();
+      pc.setMinSize(0);
+      pc.setMaxSize(maxPoolSize);
+      pc.setBlockingTimeout(60000);
+
+      PoolFactory pf = new PoolFactory();
+      pool = pf.create(PoolStrategy.ONE_POOL, new PerfManagedConnectionFactory(), pc, true, true,
+                       "org.jboss.jca.core.connectionmanager.pool.mcp." + mcp + "ManagedConnectionPool");
+
+      ConnectionManagerFactory cmf = new ConnectionManagerFactory();
+      cm = (AbstractConnectionManager)
+         cmf.createNonTransactional(TransactionSupportLevel.NoTransaction, pool, null, null, false, null,
+                                    true, true, false, null,
+                                    FlushStrategy.FAILING_CONNECTION_ONLY,
+                                    null, null);
+   }
+
+   /**
+    * Teardown
+    */
+   @TearDown(Level.Trial)
+   public void teardown()
+   {
+      pool.shutdown();
+   }
+
+   /**
+    * Get a connection listener, and return it
+    * @return The listener
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public ConnectionListener getReturn() throws Exception
+   {
+      ConnectionListener cl = cm.getManagedConnection(null, null);
+
+      if (work > 0)
+         Blackhole.consumeCPU(work);
+
+      cm.returnManagedConnection(cl, false);
+
+      return cl;
+   }
+}
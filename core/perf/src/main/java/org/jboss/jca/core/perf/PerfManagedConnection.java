@@ -0,0 +1,254 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ConnectionEventListener;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.LocalTransaction;
+import javax.resource.spi.ManagedConnection;
+import javax.resource.spi.ManagedConnectionMetaData;
+import javax.security.auth.Subject;
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+/**
+ * A managed connection without any backend
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PerfManagedConnection implements ManagedConnection, LocalTransaction, XAResource
+{
+   /** Listeners */
+   private List<ConnectionEventListener> listeners;
+
+   /**
+    * Constructor
+    */
+   public PerfManagedConnection()
+   {
+      this.listeners = new CopyOnWriteArrayList<ConnectionEventListener>();
+   }
+
+   /**
+    * Close a connection handle
+    * @param handle The handle
+    */
+   void closeHandle(PerfConnection handle)
+   {
+      ConnectionEvent event = new ConnectionEvent(this, ConnectionEvent.CONNECTION_CLOSED);
+      event.setConnectionHandle(handle);
+
+      for (ConnectionEventListener cel : listeners)
+      {
+         cel.connectionClosed(event);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object getConnection(Subject subject, ConnectionRequestInfo cxRequestInfo) throws ResourceException
+   {
+      return new PerfConnection(this);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void destroy() throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void cleanup() throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void associateConnection(Object connection) throws ResourceException
+   {
+      ((PerfConnection)connection).setManagedConnection(this);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void addConnectionEventListener(ConnectionEventListener listener)
+   {
+      listeners.add(listener);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void removeConnectionEventListener(ConnectionEventListener listener)
+   {
+      listeners.remove(listener);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public XAResource getXAResource() throws ResourceException
+   {
+      return this;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public LocalTransaction getLocalTransaction() throws ResourceException
+   {
+      return this;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public ManagedConnectionMetaData getMetaData() throws ResourceException
+   {
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setLogWriter(PrintWriter out) throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public PrintWriter getLogWriter() throws ResourceException
+   {
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void begin() throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void commit() throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void rollback() throws ResourceException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void commit(Xid xid, boolean onePhase) throws XAException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void end(Xid xid, int flags) throws XAException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void forget(Xid xid) throws XAException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getTransactionTimeout() throws XAException
+   {
+      return 0;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean isSameRM(XAResource xaRes) throws XAException
+   {
+      return xaRes == this;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int prepare(Xid xid) throws XAException
+   {
+      return XAResource.XA_OK;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Xid[] recover(int flag) throws XAException
+   {
+      return new Xid[0];
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void rollback(Xid xid) throws XAException
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean setTransactionTimeout(int seconds) throws XAException
+   {
+      return false;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void start(Xid xid, int flags) throws XAException
+   {
+   }
+}
@@ -0,0 +1,82 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks for a range of thread counts with the allocation profiler enabled,
+ * and writes the results of each thread count as JSON, such that they can be compared
+ * between commits.
+ *
+ * Run with f.ex. <code>java -cp core/perf/target/benchmarks.jar org.jboss.jca.core.perf.PerfRunner</code>
+ *
+ * The benchmarks to run are given by a regular expression as the first argument; by default
+ * all benchmarks are run. The <code>ironjacamar.perf.threads</code> system property is a
+ * comma separated list of thread counts (default <code>1,4,16</code>), and the
+ * <code>ironjacamar.perf.result</code> system property is the prefix of the result files
+ * (default <code>jmh-result</code>).
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PerfRunner
+{
+   /**
+    * Constructor
+    */
+   private PerfRunner()
+   {
+   }
+
+   /**
+    * Main
+    * @param args The arguments
+    * @exception RunnerException In case of an error
+    */
+   public static void main(String[] args) throws RunnerException
+   {
+      String include = args.length > 0 ? args[0] : ".*";
+      String threads = System.getProperty("ironjacamar.perf.threads", "1,4,16");
+      String result = System.getProperty("ironjacamar.perf.result", "jmh-result");
+
+      for (String t : threads.split(","))
+      {
+         int count = Integer.parseInt(t.trim());
+
+         Options options = new OptionsBuilder()
+            .include(include)
+            .threads(count)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(result + "-t" + count + ".json")
+            .build();
+
+         new Runner(options).run();
+      }
+   }
+}
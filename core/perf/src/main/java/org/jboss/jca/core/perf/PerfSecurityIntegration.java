@@ -0,0 +1,84 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.core.spi.security.Callback;
+import org.jboss.jca.core.spi.security.SecurityContext;
+import org.jboss.jca.core.spi.security.SecurityIntegration;
+
+import javax.security.auth.callback.CallbackHandler;
+
+/**
+ * A security integration without any security services, for work which
+ * doesn't carry a security context
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PerfSecurityIntegration implements SecurityIntegration
+{
+   /**
+    * Constructor
+    */
+   public PerfSecurityIntegration()
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public SecurityContext createSecurityContext(String sd) throws Exception
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public SecurityContext getSecurityContext()
+   {
+      return null;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setSecurityContext(SecurityContext context)
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CallbackHandler createCallbackHandler()
+   {
+      throw new UnsupportedOperationException();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public CallbackHandler createCallbackHandler(Callback callback)
+   {
+      throw new UnsupportedOperationException();
+   }
+}
@@ -0,0 +1,115 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * A transaction synchronization registry which has a single active transaction
+ * shared by all threads, like a transaction propagated to many beans
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PerfTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry
+{
+   /** The transaction key */
+   private final Object key;
+
+   /** The resources */
+   private final Map<Object, Object> resources;
+
+   /**
+    * Constructor
+    */
+   public PerfTransactionSynchronizationRegistry()
+   {
+      this.key = Long.valueOf(1L);
+      this.resources = new ConcurrentHashMap<Object, Object>();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object getTransactionKey()
+   {
+      return key;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void putResource(Object k, Object value)
+   {
+      if (value != null)
+      {
+         resources.put(k, value);
+      }
+      else
+      {
+         resources.remove(k);
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public Object getResource(Object k)
+   {
+      return resources.get(k);
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void registerInterposedSynchronization(Synchronization sync)
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public int getTransactionStatus()
+   {
+      return Status.STATUS_ACTIVE;
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public void setRollbackOnly()
+   {
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   public boolean getRollbackOnly()
+   {
+      return false;
+   }
+}
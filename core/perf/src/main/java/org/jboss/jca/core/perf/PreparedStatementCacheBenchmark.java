@@ -0,0 +1,197 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.adapters.jdbc.CachedPreparedStatement;
+import org.jboss.jca.adapters.jdbc.PreparedStatementCache;
+import org.jboss.jca.adapters.jdbc.jdk8.CachedPreparedStatementJDK8;
+import org.jboss.jca.adapters.jdbc.statistics.JdbcStatisticsPlugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the prepared statement cache implementations for a statement heavy
+ * workload. Each thread acts as a connection with its own cache, while the
+ * statistics are shared like they are for all connections of a data source.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar PreparedStatementCacheBenchmark</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PreparedStatementCacheBenchmark
+{
+   /** The cache type */
+   @Param({PreparedStatementCache.LRU, PreparedStatementCache.CONCURRENT})
+   public String type;
+
+   /** The size of the cache */
+   @Param({"64"})
+   public int size;
+
+   /** The number of distinct statements; 80% of the lookups go to the first 20% */
+   @Param({"256"})
+   public int statements;
+
+   private String[] sql;
+   private JdbcStatisticsPlugin statistics;
+
+   /**
+    * Setup
+    */
+   @Setup
+   public void setup()
+   {
+      sql = new String[statements];
+      for (int i = 0; i < statements; i++)
+      {
+         sql[i] = "SELECT id, name, value FROM table_" + i + " WHERE id = ?";
+      }
+      statistics = new JdbcStatisticsPlugin();
+   }
+
+   /**
+    * The state of a connection
+    */
+   @State(Scope.Thread)
+   public static class ConnectionState
+   {
+      private static final int LOOKUPS = 1024;
+
+      private PreparedStatementCache cache;
+      private CachedPreparedStatement[] values;
+      private int[] lookups;
+      private int index;
+
+      /**
+       * Setup
+       * @param benchmark The benchmark
+       * @exception SQLException Thrown in case of an error
+       */
+      @Setup
+      public void setup(PreparedStatementCacheBenchmark benchmark) throws SQLException
+      {
+         cache = new PreparedStatementCache(benchmark.size, benchmark.type, benchmark.statistics);
+
+         PreparedStatement ps = (PreparedStatement)Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                                           new Class<?>[] {PreparedStatement.class},
+                                                                           new NoopHandler());
+         values = new CachedPreparedStatement[benchmark.statements];
+         for (int i = 0; i < values.length; i++)
+         {
+            values[i] = new CachedPreparedStatementJDK8(ps);
+         }
+
+         Random random = new Random(42);
+         int hot = Math.max(1, benchmark.statements / 5);
+         lookups = new int[LOOKUPS];
+         for (int i = 0; i < LOOKUPS; i++)
+         {
+            if (random.nextInt(10) < 8)
+            {
+               lookups[i] = random.nextInt(hot);
+            }
+            else
+            {
+               lookups[i] = hot + random.nextInt(Math.max(1, benchmark.statements - hot));
+            }
+         }
+         index = 0;
+      }
+   }
+
+   /**
+    * Looks up a statement, and inserts it on a miss
+    * @param state The connection state
+    * @return The statement
+    */
+   @Benchmark
+   public CachedPreparedStatement prepareStatement(ConnectionState state)
+   {
+      int i = state.lookups[state.index];
+      state.index = (state.index + 1) & (ConnectionState.LOOKUPS - 1);
+
+      statistics.deltaPreparedStatementCacheAccessCount();
+
+      CachedPreparedStatement cached = state.cache.get(sql[i], PreparedStatementCache.Key.PREPARED_STATEMENT,
+                                                       ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      if (cached != null)
+      {
+         statistics.deltaPreparedStatementCacheHitCount();
+         return cached;
+      }
+
+      cached = state.values[i];
+      state.cache.put(sql[i], PreparedStatementCache.Key.PREPARED_STATEMENT,
+                      ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, cached);
+      statistics.deltaPreparedStatementCacheAddCount();
+      return cached;
+   }
+
+   /**
+    * A prepared statement which does nothing
+    */
+   static class NoopHandler implements InvocationHandler
+   {
+      /**
+       * {@inheritDoc}
+       */
+      public Object invoke(Object proxy, Method method, Object[] args)
+      {
+         Class<?> returnType = method.getReturnType();
+         if (returnType == int.class)
+            return Integer.valueOf(0);
+
+         if (returnType == boolean.class)
+            return Boolean.FALSE;
+
+         return null;
+      }
+   }
+}
@@ -0,0 +1,189 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Response;
+import org.jboss.jca.core.workmanager.transport.remote.socket.ProtocolReader;
+import org.jboss.jca.core.workmanager.transport.remote.socket.ProtocolWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares encoding and decoding of socket transport messages using Java serialization,
+ * as done before version 1 of the protocol, against the binary protocol.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar ProtocolCodecBenchmark</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtocolCodecBenchmark
+{
+   /** The codec */
+   @Param({"serialization", "binary"})
+   public String codec;
+
+   /** The message */
+   @Param({"PING", "UPDATE_SHORTRUNNING_FREE", "GET_WORKMANAGERS"})
+   public String message;
+
+   /** The number of work managers in the GET_WORKMANAGERS response */
+   @Param({"16"})
+   public int nodes;
+
+   private boolean binary;
+   private int ordinal;
+   private int numberOfParameters;
+   private Serializable[] parameters;
+   private byte[] encoded;
+
+   /**
+    * Setup
+    * @exception IOException Thrown in case of an error
+    */
+   @Setup
+   public void setup() throws IOException
+   {
+      binary = "binary".equals(codec);
+
+      if ("GET_WORKMANAGERS".equals(message))
+      {
+         HashSet<Address> addresses = new HashSet<Address>();
+         for (int i = 0; i < nodes; i++)
+         {
+            addresses.add(new Address(UUID.randomUUID().toString(), "DistributedWorkManager", "socket"));
+         }
+
+         ordinal = Response.OK_SERIALIZABLE.ordinal();
+         numberOfParameters = Response.OK_SERIALIZABLE.getNumberOfParameter();
+         parameters = new Serializable[] {addresses};
+      }
+      else
+      {
+         Request request = Request.valueOf(message);
+         ordinal = request.ordinal();
+         numberOfParameters = request.getNumberOfParameter();
+
+         if (request == Request.PING)
+         {
+            parameters = new Serializable[0];
+         }
+         else
+         {
+            parameters = new Serializable[] {
+               new Address(UUID.randomUUID().toString(), "DistributedWorkManager", "socket"),
+               Long.valueOf(42L)
+            };
+         }
+      }
+
+      encoded = encode();
+   }
+
+   /**
+    * Encode the message
+    * @return The encoded message
+    * @exception IOException Thrown in case of an error
+    */
+   @Benchmark
+   public byte[] encode() throws IOException
+   {
+      if (binary)
+      {
+         ProtocolWriter writer = new ProtocolWriter(ordinal, numberOfParameters);
+         for (Serializable o : parameters)
+         {
+            writer.writeObject(o);
+         }
+         return writer.toByteArray();
+      }
+
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeInt(ordinal);
+      oos.writeInt(numberOfParameters);
+      for (Serializable o : parameters)
+      {
+         oos.writeObject(o);
+      }
+      oos.close();
+      return baos.toByteArray();
+   }
+
+   /**
+    * Decode the message
+    * @param bh The black hole
+    * @exception Exception Thrown in case of an error
+    */
+   @Benchmark
+   public void decode(Blackhole bh) throws Exception
+   {
+      if (binary)
+      {
+         ProtocolReader reader = new ProtocolReader(encoded);
+         bh.consume(reader.getOrdinal());
+         for (int i = 0; i < reader.getNumberOfParameters(); i++)
+         {
+            bh.consume(reader.readObject());
+         }
+         return;
+      }
+
+      ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(encoded));
+      bh.consume(ois.readInt());
+      int n = ois.readInt();
+      for (int i = 0; i < n; i++)
+      {
+         bh.consume(ois.readObject());
+      }
+      ois.close();
+   }
+}
@@ -0,0 +1,127 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManagerFactory;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolFactory;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolStrategy;
+import org.jboss.jca.core.tx.noopts.TransactionImpl;
+import org.jboss.jca.core.tx.noopts.TransactionIntegrationImpl;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.TransactionSupport.TransactionSupportLevel;
+import javax.transaction.Transaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of getting the connection listener which is already tracked
+ * by the active transaction, f.ex. when many beans use the same data source
+ * inside one transaction.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar TransactionConnectionBenchmark -t 8</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionConnectionBenchmark
+{
+   /** The pool */
+   private Pool pool;
+
+   /** The transaction */
+   private Transaction tx;
+
+   /**
+    * Setup
+    * @exception Exception In case of an error
+    */
+   @Setup(Level.Trial)
+   public void setup() throws Exception
+   {
+      PoolConfiguration pc = new PoolConfiguration();
+      pc.setMinSize(0);
+      pc.setMaxSize(20);
+      pc.setBlockingTimeout(60000);
+
+      PoolFactory pf = new PoolFactory();
+      pool = pf.create(PoolStrategy.ONE_POOL, new PerfManagedConnectionFactory(), pc, false, true,
+                       "org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool");
+
+      TransactionIntegrationImpl ti =
+         new TransactionIntegrationImpl(null, new PerfTransactionSynchronizationRegistry(), null, null, null);
+
+      ConnectionManagerFactory cmf = new ConnectionManagerFactory();
+      cmf.createTransactional(TransactionSupportLevel.LocalTransaction, pool, null, null, false, null,
+                              true, true, false, null, null,
+                              FlushStrategy.FAILING_CONNECTION_ONLY,
+                              null, null, ti,
+                              null, null, null, null, null);
+
+      tx = new TransactionImpl(Long.valueOf(1L));
+
+      // Track the first connection listener by the transaction
+      pool.getConnection(tx, null, null);
+   }
+
+   /**
+    * Teardown
+    */
+   @TearDown(Level.Trial)
+   public void teardown()
+   {
+      pool.shutdown();
+   }
+
+   /**
+    * Get the connection listener tracked by the transaction
+    * @return The listener
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public ConnectionListener getTracked() throws Exception
+   {
+      return pool.getConnection(tx, null, null);
+   }
+}
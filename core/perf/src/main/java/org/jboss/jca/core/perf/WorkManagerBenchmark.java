@@ -0,0 +1,176 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.perf;
+
+import org.jboss.jca.core.workmanager.WorkManagerImpl;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.work.Work;
+
+import org.jboss.threads.JBossExecutors;
+import org.jboss.threads.JBossThreadFactory;
+import org.jboss.threads.QueueExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the submission of work to the work manager.
+ *
+ * Run with f.ex. <code>java -jar core/perf/target/benchmarks.jar WorkManagerBenchmark -t 8</code>
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkManagerBenchmark
+{
+   /** The work done by each work instance, in Blackhole tokens */
+   @Param({"0", "1000"})
+   public long work;
+
+   /** The maximum number of threads in the short running thread pool */
+   @Param({"20"})
+   public int maxThreads;
+
+   /** The thread pool */
+   private QueueExecutor executor;
+
+   /** The work manager */
+   private WorkManagerImpl wm;
+
+   /**
+    * Setup
+    */
+   @Setup(Level.Trial)
+   public void setup()
+   {
+      executor = new QueueExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, 1024,
+                                   new JBossThreadFactory(null, Boolean.TRUE, null, "JCA Perf %t", null, null),
+                                   true, JBossExecutors.rejectingExecutor());
+
+      wm = new WorkManagerImpl();
+      wm.setName("Perf");
+      wm.setShortRunningThreadPool(executor);
+      wm.setSecurityIntegration(new PerfSecurityIntegration());
+   }
+
+   /**
+    * Teardown
+    */
+   @TearDown(Level.Trial)
+   public void teardown()
+   {
+      wm.shutdown();
+      executor.shutdown();
+   }
+
+   /**
+    * Execute work, and wait for its completion
+    * @return The work
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public Work doWork() throws Exception
+   {
+      Work w = new PerfWork(work);
+      wm.doWork(w);
+      return w;
+   }
+
+   /**
+    * Execute work, and wait for it to start
+    * @return The work
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public Work startWork() throws Exception
+   {
+      Work w = new PerfWork(work);
+      wm.startWork(w);
+      return w;
+   }
+
+   /**
+    * Execute work without waiting
+    * @return The work
+    * @exception Exception In case of an error
+    */
+   @Benchmark
+   public Work scheduleWork() throws Exception
+   {
+      Work w = new PerfWork(work);
+      wm.scheduleWork(w);
+      return w;
+   }
+
+   /**
+    * A work instance which consumes CPU
+    */
+   static class PerfWork implements Work
+   {
+      /** The tokens */
+      private final long tokens;
+
+      /**
+       * Constructor
+       * @param tokens The number of Blackhole tokens
+       */
+      PerfWork(long tokens)
+      {
+         this.tokens = tokens;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         if (tokens > 0)
+            Blackhole.consumeCPU(tokens);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -0,0 +1,226 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.ccm;
+
+import org.jboss.jca.core.connectionmanager.ConnectionRecord;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionCacheListener;
+import org.jboss.jca.core.tx.noopts.TransactionIntegrationImpl;
+import org.jboss.jca.core.tx.noopts.TransactionManagerImpl;
+import org.jboss.jca.core.tx.noopts.TransactionSynchronizationRegistryImpl;
+import org.jboss.jca.core.tx.noopts.TxRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.resource.ResourceException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * CachedConnectionManagerImpl tests when frames are reused
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ReuseFramesTestCase
+{
+   private CachedConnectionManagerImpl ccm;
+   private TestConnectionCacheListener cm;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setUp()
+   {
+      TxRegistry registry = new TxRegistry();
+
+      TransactionManagerImpl tm = new TransactionManagerImpl();
+      tm.setRegistry(registry);
+
+      TransactionSynchronizationRegistryImpl tsr = new TransactionSynchronizationRegistryImpl();
+      tsr.setRegistry(registry);
+
+      ccm = new CachedConnectionManagerImpl(new TransactionIntegrationImpl(tm, tsr, null, null, null));
+      ccm.setReuseFrames(true);
+
+      cm = new TestConnectionCacheListener();
+   }
+
+   /**
+    * Frames are reused, and cleared when popped
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testFramesReused() throws Exception
+   {
+      Object c1 = new Object();
+      Object c2 = new Object();
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      ContextFrame frame = ccm.getCurrentFrames().get().peek();
+
+      ccm.registerConnection(cm, null, c1);
+      ccm.registerConnection(cm, null, c2);
+      assertEquals(2, frame.size());
+
+      ccm.unregisterConnection(cm, null, c1);
+      assertEquals(1, frame.size());
+      assertSame(c2, frame.getConnection(0));
+
+      ccm.popMetaAwareObject(null);
+      assertTrue(ccm.getCurrentFrames().get().isEmpty());
+      assertEquals(0, frame.size());
+      assertNull(frame.getMetaAwareObject());
+
+      Object key = new Object();
+      ccm.pushMetaAwareObject(key, null);
+      assertSame(frame, ccm.getCurrentFrames().get().peek());
+      assertSame(key, frame.getMetaAwareObject());
+      ccm.popMetaAwareObject(null);
+   }
+
+   /**
+    * Connections are registered with the current frame only
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testNested() throws Exception
+   {
+      Object c1 = new Object();
+      Object c2 = new Object();
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      ccm.registerConnection(cm, null, c1);
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      ccm.registerConnection(cm, null, c2);
+
+      try
+      {
+         ccm.unregisterConnection(cm, null, c1);
+         fail("Connection of outer frame unregistered");
+      }
+      catch (IllegalStateException ise)
+      {
+         // Expected
+      }
+
+      ccm.unregisterConnection(cm, null, c2);
+      ccm.popMetaAwareObject(null);
+
+      ccm.unregisterConnection(cm, null, c1);
+      ccm.popMetaAwareObject(null);
+   }
+
+   /**
+    * The connections of the current frame are handed to the connection manager
+    * when a user transaction is started
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testUserTransactionStarted() throws Exception
+   {
+      Object c1 = new Object();
+      Object c2 = new Object();
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      ccm.registerConnection(cm, null, c1);
+      ccm.registerConnection(cm, null, c2);
+
+      ccm.userTransactionStarted();
+
+      assertEquals(1, cm.started.size());
+      assertEquals(2, cm.started.get(0).size());
+
+      ccm.unregisterConnection(cm, null, c1);
+      ccm.unregisterConnection(cm, null, c2);
+      ccm.popMetaAwareObject(null);
+   }
+
+   /**
+    * Connections that aren't closed are closed when the frame is popped
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testCloseAll() throws Exception
+   {
+      ccm.setDebug(true);
+      ccm.setError(true);
+
+      TestConnection c = new TestConnection();
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      ccm.registerConnection(cm, null, c);
+
+      try
+      {
+         ccm.popMetaAwareObject(null);
+         fail("Unclosed connection not reported");
+      }
+      catch (ResourceException re)
+      {
+         // Expected
+      }
+
+      assertTrue(c.closed);
+      assertTrue(ccm.getCurrentFrames().get().isEmpty());
+   }
+
+   /**
+    * Connection cache listener
+    */
+   static class TestConnectionCacheListener implements ConnectionCacheListener
+   {
+      /** The started connections */
+      List<Collection<ConnectionRecord>> started = new ArrayList<Collection<ConnectionRecord>>();
+
+      /**
+       * {@inheritDoc}
+       */
+      public void transactionStarted(Collection<ConnectionRecord> conns)
+      {
+         started.add(conns);
+      }
+   }
+
+   /**
+    * Connection handle
+    */
+   public static class TestConnection
+   {
+      /** Closed */
+      boolean closed = false;
+
+      /**
+       * Close
+       */
+      public void close()
+      {
+         closed = true;
+      }
+   }
+}
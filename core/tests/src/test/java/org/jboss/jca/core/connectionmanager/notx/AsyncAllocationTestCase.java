@@ -0,0 +1,470 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.notx;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManagerFactory;
+import org.jboss.jca.core.connectionmanager.ccm.CachedConnectionManagerImpl;
+import org.jboss.jca.core.connectionmanager.common.MockManagedConnectionFactory;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolFactory;
+import org.jboss.jca.core.connectionmanager.pool.api.PoolStrategy;
+import org.jboss.jca.core.connectionmanager.pool.api.Semaphore;
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPoolFactory;
+import org.jboss.jca.core.tx.noopts.TransactionIntegrationImpl;
+import org.jboss.jca.core.tx.noopts.TransactionManagerImpl;
+import org.jboss.jca.core.tx.noopts.TransactionSynchronizationRegistryImpl;
+import org.jboss.jca.core.tx.noopts.TxRegistry;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
+import javax.resource.spi.TransactionSupport.TransactionSupportLevel;
+import javax.security.auth.Subject;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Asynchronous connection allocation tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AsyncAllocationTestCase
+{
+   private RecordingManagedConnectionFactory mcf;
+   private Pool pool;
+   private NoTxConnectionManagerImpl cm;
+
+   /**
+    * Tear down
+    */
+   @After
+   public void tearDown()
+   {
+      if (cm != null)
+         cm.shutdown();
+   }
+
+   /**
+    * A request is served right away when the pool has an idle connection
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testImmediate() throws Throwable
+   {
+      createConnectionManager(2, 5000L, 0);
+
+      Object c = cm.allocateConnection(mcf, null);
+      close(c);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      assertTrue(f.isDone());
+      assertSame(c, f.get());
+      assertEquals(1, mcf.created.size());
+   }
+
+   /**
+    * A physical connection is never created on the caller's thread
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCreateOnExecutor() throws Throwable
+   {
+      createConnectionManager(2, 5000L, 0);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      Object c = f.get(5, TimeUnit.SECONDS);
+
+      assertSame(mcf.created.get(0).getConnection(null, null), c);
+      assertEquals(1, mcf.creators.size());
+      assertFalse(mcf.creators.contains(Thread.currentThread()));
+      assertEquals(1, pool.getLock().availablePermits());
+   }
+
+   /**
+    * Requests wait in order for connections to be returned
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testWaiters() throws Throwable
+   {
+      createConnectionManager(2, 5000L, 0);
+
+      Object c1 = cm.allocateConnection(mcf, null);
+      Object c2 = cm.allocateConnection(mcf, null);
+
+      CompletableFuture<Object> f1 = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+      CompletableFuture<Object> f2 = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      assertFalse(f1.isDone());
+      assertFalse(f2.isDone());
+
+      close(c2);
+
+      assertSame(c2, f1.get(5, TimeUnit.SECONDS));
+      assertFalse(f2.isDone());
+
+      close(c1);
+
+      assertSame(c1, f2.get(5, TimeUnit.SECONDS));
+      assertEquals(2, mcf.created.size());
+   }
+
+   /**
+    * A request fails when no connection is returned within the blocking timeout
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testTimeout() throws Throwable
+   {
+      createConnectionManager(1, 100L, 0);
+
+      Object c = cm.allocateConnection(mcf, null);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      try
+      {
+         f.get(5, TimeUnit.SECONDS);
+         fail("Connection allocated");
+      }
+      catch (ExecutionException ee)
+      {
+         assertTrue(ee.getCause() instanceof ResourceException);
+      }
+
+      close(c);
+
+      assertSame(c, cm.allocateConnectionAsync(mcf, null).toCompletableFuture().get(5, TimeUnit.SECONDS));
+   }
+
+   /**
+    * A parked request doesn't make a thread wait for a permit of the pool
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testNoWaitingThread() throws Throwable
+   {
+      createConnectionManager(1, 5000L, 0);
+
+      Object c = cm.allocateConnection(mcf, null);
+
+      CompletableFuture<Object> f1 = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+      CompletableFuture<Object> f2 = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      Thread.sleep(100L);
+
+      assertFalse(f1.isDone());
+      assertFalse(f2.isDone());
+      assertEquals(0, pool.getLock().getQueueLength());
+
+      close(c);
+
+      assertSame(c, f1.get(5, TimeUnit.SECONDS));
+      assertFalse(f2.isDone());
+      assertEquals(0, pool.getLock().getQueueLength());
+   }
+
+   /**
+    * A permit held by the caller is handed to the pool, and kept if only an idle
+    * connection was asked for and there is none
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testPermitHeld() throws Throwable
+   {
+      createConnectionManager(1, 5000L, 0);
+
+      Semaphore lock = pool.getLock();
+
+      assertTrue(lock.tryAcquire());
+      assertTrue(pool.isFull());
+
+      assertNull(pool.getConnection(null, null, true, false));
+      assertEquals(0, lock.availablePermits());
+      assertTrue(mcf.created.isEmpty());
+
+      ConnectionListener cl = pool.getConnection(null, null, true, true);
+      assertNotNull(cl);
+      assertEquals(0, lock.availablePermits());
+
+      pool.returnConnection(cl, false);
+      assertEquals(1, lock.availablePermits());
+
+      assertTrue(lock.tryAcquire());
+      assertSame(cl, pool.getConnection(null, null, true, false));
+      assertEquals(0, lock.availablePermits());
+
+      pool.returnConnection(cl, false);
+      assertEquals(1, lock.availablePermits());
+   }
+
+   /**
+    * A connection allocated on behalf of a parked request is registered with the
+    * context of the caller
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCachedConnectionManager() throws Throwable
+   {
+      testCachedConnectionManager(false);
+   }
+
+   /**
+    * A connection allocated on behalf of a parked request is registered with the
+    * context of the caller, when frames are reused
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCachedConnectionManagerReuseFrames() throws Throwable
+   {
+      testCachedConnectionManager(true);
+   }
+
+   /**
+    * A connection allocated after the context of the caller has ended isn't registered
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCachedConnectionManagerContextEnded() throws Throwable
+   {
+      CachedConnectionManagerImpl ccm = createCachedConnectionManager(true);
+      createConnectionManager(1, 5000L, 0, ccm);
+
+      Object c = cm.allocateConnection(mcf, null);
+
+      ccm.pushMetaAwareObject(new Object(), null);
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+      ccm.popMetaAwareObject(null);
+
+      ccm.pushMetaAwareObject(new Object(), null);
+
+      close(c);
+      assertSame(c, f.get(5, TimeUnit.SECONDS));
+
+      // The frame is reused, but the connection belongs to the previous context
+      ccm.popMetaAwareObject(null);
+   }
+
+   private void testCachedConnectionManager(boolean reuseFrames) throws Throwable
+   {
+      CachedConnectionManagerImpl ccm = createCachedConnectionManager(reuseFrames);
+      createConnectionManager(1, 5000L, 0, ccm);
+
+      ccm.pushMetaAwareObject(new Object(), null);
+
+      Object c = cm.allocateConnection(mcf, null);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+      assertFalse(f.isDone());
+
+      close(c);
+      assertSame(c, f.get(5, TimeUnit.SECONDS));
+
+      try
+      {
+         ccm.popMetaAwareObject(null);
+         fail("Connection not registered with the context");
+      }
+      catch (ResourceException re)
+      {
+         // Expected
+      }
+   }
+
+   private CachedConnectionManagerImpl createCachedConnectionManager(boolean reuseFrames)
+   {
+      TxRegistry registry = new TxRegistry();
+
+      TransactionManagerImpl tm = new TransactionManagerImpl();
+      tm.setRegistry(registry);
+
+      TransactionSynchronizationRegistryImpl tsr = new TransactionSynchronizationRegistryImpl();
+      tsr.setRegistry(registry);
+
+      CachedConnectionManagerImpl ccm =
+         new CachedConnectionManagerImpl(new TransactionIntegrationImpl(tm, tsr, null, null, null));
+      ccm.setReuseFrames(reuseFrames);
+      ccm.setDebug(true);
+      ccm.setError(true);
+
+      return ccm;
+   }
+
+   /**
+    * A failed allocation is retried
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRetry() throws Throwable
+   {
+      createConnectionManager(1, 5000L, 3);
+      mcf.failures.set(2);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      Object c = f.get(5, TimeUnit.SECONDS);
+
+      assertSame(mcf.created.get(0).getConnection(null, null), c);
+      assertEquals(0, mcf.failures.get());
+   }
+
+   /**
+    * A request fails when the retries are exhausted
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRetryExhausted() throws Throwable
+   {
+      createConnectionManager(1, 5000L, 1);
+      mcf.failures.set(2);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+
+      try
+      {
+         f.get(5, TimeUnit.SECONDS);
+         fail("Connection allocated");
+      }
+      catch (ExecutionException ee)
+      {
+         assertTrue(ee.getCause() instanceof ResourceException);
+      }
+   }
+
+   /**
+    * Waiting requests fail on shutdown
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testShutdown() throws Throwable
+   {
+      createConnectionManager(1, 5000L, 0);
+
+      cm.allocateConnection(mcf, null);
+
+      CompletableFuture<Object> f = cm.allocateConnectionAsync(mcf, null).toCompletableFuture();
+      assertFalse(f.isDone());
+
+      cm.shutdown();
+
+      assertTrue(f.isCompletedExceptionally());
+      assertTrue(cm.allocateConnectionAsync(mcf, null).toCompletableFuture().isCompletedExceptionally());
+   }
+
+   private void createConnectionManager(int maxSize, long blockingTimeout, int allocationRetry)
+   {
+      createConnectionManager(maxSize, blockingTimeout, allocationRetry, null);
+   }
+
+   private void createConnectionManager(int maxSize, long blockingTimeout, int allocationRetry,
+                                        CachedConnectionManagerImpl ccm)
+   {
+      mcf = new RecordingManagedConnectionFactory();
+
+      PoolConfiguration pc = new PoolConfiguration();
+      pc.setMinSize(0);
+      pc.setMaxSize(maxSize);
+      pc.setBlockingTimeout(blockingTimeout);
+
+      pool = new PoolFactory().create(PoolStrategy.ONE_POOL, mcf, pc, true, true,
+                                      ManagedConnectionPoolFactory.DEFAULT_IMPLEMENTATION);
+
+      cm = (NoTxConnectionManagerImpl)new ConnectionManagerFactory()
+         .createNonTransactional(TransactionSupportLevel.NoTransaction, pool,
+                                 null, null, ccm != null, ccm, true, true, false, null,
+                                 FlushStrategy.FAILING_CONNECTION_ONLY,
+                                 allocationRetry, 10L);
+   }
+
+   private void close(Object connection) throws Exception
+   {
+      for (ManagedConnection mc : mcf.created)
+      {
+         if (mc.getConnection(null, null) == connection)
+         {
+            ConnectionListener cl = pool.findConnectionListener(mc, connection);
+            ConnectionEvent ce = new ConnectionEvent(mc, ConnectionEvent.CONNECTION_CLOSED);
+            ce.setConnectionHandle(connection);
+            cl.connectionClosed(ce);
+            return;
+         }
+      }
+
+      fail("Unknown connection: " + connection);
+   }
+
+   /**
+    * A managed connection factory which records the managed connections, and
+    * can fail to create them
+    */
+   static class RecordingManagedConnectionFactory extends MockManagedConnectionFactory
+   {
+      private static final long serialVersionUID = 1L;
+
+      final List<ManagedConnection> created = new CopyOnWriteArrayList<ManagedConnection>();
+      final AtomicInteger failures = new AtomicInteger();
+      final List<Thread> creators = new CopyOnWriteArrayList<Thread>();
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri)
+         throws ResourceException
+      {
+         if (failures.get() > 0)
+         {
+            failures.decrementAndGet();
+            throw new ResourceException("Failure");
+         }
+
+         creators.add(Thread.currentThread());
+
+         ManagedConnection mc = super.createManagedConnection(subject, cri);
+         created.add(mc);
+         return mc;
+      }
+   }
+}
@@ -0,0 +1,171 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.capacity;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.listener.NoTxConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+import org.jboss.jca.core.connectionmanager.rar.SimpleManagedConnectionFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * AdaptiveIncrementer and AdaptiveDecrementer tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class AdaptiveCapacityTestCase
+{
+   private static final int POOL_SIZE = 20;
+   private Pool pool;
+   private ConnectionListener cl;
+   private int acquired;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setUp()
+   {
+      PoolConfiguration poolConfig = new PoolConfiguration();
+      poolConfig.setMinSize(0);
+      poolConfig.setMaxSize(POOL_SIZE);
+      pool = new OnePool(new SimpleManagedConnectionFactory(), poolConfig, false, false, "test");
+      cl = new NoTxConnectionListener(null, null, null, null, FlushStrategy.FAILING_CONNECTION_ONLY, null);
+      acquired = 0;
+   }
+
+   /**
+    * Teardown
+    */
+   @After
+   public void tearDown()
+   {
+      pool.getLock().release(acquired);
+   }
+
+   /**
+    * The pool is injected when the capacity is set
+    */
+   @Test
+   public void testPoolInjected()
+   {
+      AdaptiveIncrementer incrementer = new AdaptiveIncrementer();
+      AdaptiveDecrementer decrementer = new AdaptiveDecrementer();
+
+      assertFalse(incrementer.getEstimator().hasPool());
+      assertFalse(decrementer.getEstimator().hasPool());
+
+      pool.setCapacity(new ExplicitCapacity(incrementer, decrementer));
+
+      assertTrue(incrementer.getEstimator().hasPool());
+      assertTrue(decrementer.getEstimator().hasPool());
+      assertFalse(pool.isFIFO());
+   }
+
+   /**
+    * Without a pool the incrementer fills up to max-pool-size
+    */
+   @Test
+   public void testIncrementerWithoutPool()
+   {
+      AdaptiveIncrementer incrementer = new AdaptiveIncrementer();
+
+      assertTrue(incrementer.shouldCreate(5, POOL_SIZE, 1));
+      assertFalse(incrementer.shouldCreate(POOL_SIZE, POOL_SIZE, 1));
+   }
+
+   /**
+    * The incrementer stops at the demand plus headroom
+    */
+   @Test
+   public void testIncrementerFollowsDemand()
+   {
+      AdaptiveIncrementer incrementer = new AdaptiveIncrementer();
+      incrementer.setInterval(0L);
+      pool.setCapacity(new ExplicitCapacity(incrementer, null));
+
+      acquire(4);
+
+      // 4 in use plus 20 percent headroom
+      assertTrue(incrementer.shouldCreate(4, POOL_SIZE, 1));
+      assertFalse(incrementer.shouldCreate(5, POOL_SIZE, 1));
+
+      // Never above max-pool-size
+      incrementer.setHeadroom(1000);
+      assertFalse(incrementer.shouldCreate(POOL_SIZE, POOL_SIZE, 1));
+   }
+
+   /**
+    * The decrementer only destroys timed out connection listeners
+    */
+   @Test
+   public void testDecrementerTimedOut()
+   {
+      AdaptiveDecrementer decrementer = new AdaptiveDecrementer();
+
+      assertFalse(decrementer.shouldDestroy(cl, 0L, 10, 0, 0));
+      assertTrue(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 10, 0, 0));
+   }
+
+   /**
+    * The decrementer shrinks gradually towards the demand plus headroom
+    */
+   @Test
+   public void testDecrementerShrinks()
+   {
+      AdaptiveDecrementer decrementer = new AdaptiveDecrementer();
+      decrementer.setInterval(0L);
+      pool.setCapacity(new ExplicitCapacity(null, decrementer));
+
+      acquire(4);
+
+      // Floor is 5, so 25 percent of the 5 excess connections may go in one idle check
+      assertTrue(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 10, 0, 0));
+      assertTrue(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 9, 0, 1));
+      assertFalse(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 8, 0, 2));
+
+      // Never below the demand plus headroom
+      assertFalse(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 5, 0, 0));
+
+      // Never below min-pool-size
+      assertFalse(decrementer.shouldDestroy(cl, Long.MAX_VALUE, 8, 8, 0));
+   }
+
+   /**
+    * Acquire permits from the pool
+    * @param permits The number of permits
+    */
+   private void acquire(int permits)
+   {
+      assertTrue(pool.getLock().tryAcquire(permits));
+      acquired += permits;
+   }
+}
@@ -0,0 +1,299 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.pool.strategy;
+
+import java.security.Principal;
+
+import javax.security.auth.Subject;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * SubjectFingerprint tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SubjectFingerprintTestCase
+{
+   /**
+    * The fingerprint is cached per Subject instance
+    */
+   @Test
+   public void testCached()
+   {
+      Subject subject = createSubject("user", "password");
+
+      assertSame(SubjectFingerprint.of(subject), SubjectFingerprint.of(subject));
+      assertSame(SubjectFingerprint.NONE, SubjectFingerprint.of(null));
+   }
+
+   /**
+    * Fingerprints follow the equality of the Subject
+    */
+   @Test
+   public void testEquality()
+   {
+      Subject s1 = createSubject("user", "password");
+      Subject s2 = createSubject("user", "password");
+      Subject s3 = createSubject("user", "secret");
+      Subject s4 = createSubject("other", "password");
+
+      assertEquals(SubjectFingerprint.of(s1), SubjectFingerprint.of(s2));
+      assertEquals(SubjectFingerprint.of(s1).hashCode(), SubjectFingerprint.of(s2).hashCode());
+      assertFalse(SubjectFingerprint.of(s1).equals(SubjectFingerprint.of(s3)));
+      assertFalse(SubjectFingerprint.of(s1).equals(SubjectFingerprint.of(s4)));
+      assertFalse(SubjectFingerprint.of(s1).equals(SubjectFingerprint.NONE));
+      assertEquals(SubjectFingerprint.NONE, SubjectFingerprint.of(new Subject()));
+   }
+
+   /**
+    * A modified Subject gets a new fingerprint
+    */
+   @Test
+   public void testModified()
+   {
+      Subject subject = createSubject("user", "password");
+      SubjectFingerprint before = SubjectFingerprint.of(subject);
+
+      subject.getPrincipals().add(new TestPrincipal("role"));
+      SubjectFingerprint after = SubjectFingerprint.of(subject);
+
+      assertNotSame(before, after);
+      assertFalse(before.equals(after));
+   }
+
+   /**
+    * A replaced credential gets a new fingerprint, even though the size of the set is unchanged
+    */
+   @Test
+   public void testReplacedCredential()
+   {
+      Subject subject = createSubject("user", "password");
+      SubjectFingerprint before = SubjectFingerprint.of(subject);
+      SubjectKey key = new SubjectKey(subject, false);
+
+      subject.getPrivateCredentials().remove("password");
+      subject.getPrivateCredentials().add("secret");
+      SubjectFingerprint after = SubjectFingerprint.of(subject);
+
+      assertNotSame(before, after);
+      assertFalse(before.equals(after));
+      assertEquals(SubjectFingerprint.of(createSubject("user", "secret")), after);
+      assertFalse(key.equals(new SubjectKey(subject, false)));
+   }
+
+   /**
+    * A replaced principal gets a new fingerprint, even though the size of the set is unchanged
+    */
+   @Test
+   public void testReplacedPrincipal()
+   {
+      Subject subject = createSubject("user", "password");
+      SubjectFingerprint before = SubjectFingerprint.of(subject);
+
+      subject.getPrincipals().clear();
+      subject.getPrincipals().add(new TestPrincipal("other"));
+      SubjectFingerprint after = SubjectFingerprint.of(subject);
+
+      assertNotSame(before, after);
+      assertFalse(before.equals(after));
+      assertFalse(new SubjectCriKey(createSubject("user", "password"), null, false).equals(
+                     new SubjectCriKey(subject, null, false)));
+   }
+
+   /**
+    * A cache hit doesn't snapshot or hash the Subject again
+    */
+   @Test
+   public void testHitDoesNotRebuild()
+   {
+      TestCredential credential = new TestCredential("password");
+      Subject subject = new Subject();
+      subject.getPrincipals().add(new TestPrincipal("user"));
+      subject.getPrivateCredentials().add(credential);
+
+      SubjectFingerprint before = SubjectFingerprint.of(subject);
+      int hashed = credential.getHashed();
+
+      for (int i = 0; i < 10; i++)
+         assertSame(before, SubjectFingerprint.of(subject));
+
+      assertEquals(hashed, credential.getHashed());
+
+      subject.setReadOnly();
+      assertSame(before, SubjectFingerprint.of(subject));
+      assertEquals(hashed, credential.getHashed());
+   }
+
+   /**
+    * A mutable credential is only detected when it is replaced, not when it is modified in place
+    */
+   @Test
+   public void testMutableCredential()
+   {
+      TestCredential credential = new TestCredential("password");
+      Subject subject = new Subject();
+      subject.getPrincipals().add(new TestPrincipal("user"));
+      subject.getPrivateCredentials().add(credential);
+
+      SubjectFingerprint before = SubjectFingerprint.of(subject);
+      assertSame(before, SubjectFingerprint.of(subject));
+
+      credential.setValue("secret");
+      assertSame(before, SubjectFingerprint.of(subject));
+
+      subject.getPrivateCredentials().remove(credential);
+      subject.getPrivateCredentials().add(new TestCredential("secret"));
+      SubjectFingerprint after = SubjectFingerprint.of(subject);
+
+      assertNotSame(before, after);
+      assertSame(after, SubjectFingerprint.of(subject));
+   }
+
+   /**
+    * The keys of the pool strategies use the fingerprint
+    */
+   @Test
+   public void testKeys()
+   {
+      Subject s1 = createSubject("user", "password");
+      Subject s2 = createSubject("user", "password");
+
+      assertEquals(new SubjectKey(s1, false), new SubjectKey(s2, false));
+      assertEquals(new SubjectKey(s1, false).hashCode(), new SubjectKey(s2, false).hashCode());
+      assertFalse(new SubjectKey(s1, false).equals(new SubjectKey(s1, true)));
+      assertEquals(new SubjectKey(null, false), new SubjectKey(new Subject(), false));
+
+      assertEquals(new SubjectCriKey(s1, null, false), new SubjectCriKey(s2, null, false));
+      assertFalse(new SubjectCriKey(s1, null, false).equals(new SubjectCriKey(null, null, false)));
+   }
+
+   private static Subject createSubject(String user, String password)
+   {
+      Subject subject = new Subject();
+      subject.getPrincipals().add(new TestPrincipal(user));
+      subject.getPrivateCredentials().add(password);
+      return subject;
+   }
+
+   /**
+    * A mutable credential
+    */
+   static class TestCredential
+   {
+      private String value;
+
+      private int hashed;
+
+      /**
+       * Constructor
+       * @param value The value
+       */
+      TestCredential(String value)
+      {
+         this.value = value;
+      }
+
+      /**
+       * Set the value
+       * @param value The value
+       */
+      void setValue(String value)
+      {
+         this.value = value;
+      }
+
+      /**
+       * Get the number of hash code calls
+       * @return The value
+       */
+      int getHashed()
+      {
+         return hashed;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         hashed++;
+         return value.hashCode();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object obj)
+      {
+         return obj instanceof TestCredential && value.equals(((TestCredential)obj).value);
+      }
+   }
+
+   /**
+    * A principal
+    */
+   static class TestPrincipal implements Principal
+   {
+      private final String name;
+
+      /**
+       * Constructor
+       * @param name The name
+       */
+      TestPrincipal(String name)
+      {
+         this.name = name;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public String getName()
+      {
+         return name;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public int hashCode()
+      {
+         return name.hashCode();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public boolean equals(Object obj)
+      {
+         return obj instanceof TestPrincipal && name.equals(((TestPrincipal)obj).name);
+      }
+   }
+}
@@ -0,0 +1,272 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit;
+
+import org.jboss.jca.common.api.metadata.common.FlushStrategy;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.listener.NoTxConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.mcp.ManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.transaction.TransactionConnectionListeners;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TransactionConnectionListeners tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TransactionConnectionListenersTestCase
+{
+   /**
+    * Nothing is tracked before the first registration
+    */
+   @Test
+   public void testEmpty()
+   {
+      TransactionSynchronizationRegistry tsr = new TestTransactionSynchronizationRegistry();
+      ManagedConnectionPool mcp = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+
+      assertNull(TransactionConnectionListeners.get(tsr, mcp));
+   }
+
+   /**
+    * A registered connection listener is found for its pool only, and can be removed
+    */
+   @Test
+   public void testPutGetRemove()
+   {
+      TransactionSynchronizationRegistry tsr = new TestTransactionSynchronizationRegistry();
+      ManagedConnectionPool mcp1 = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      ManagedConnectionPool mcp2 = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      ConnectionListener cl = createConnectionListener();
+
+      TransactionConnectionListeners.put(tsr, new ReentrantLock(), mcp1, cl);
+
+      assertSame(cl, TransactionConnectionListeners.get(tsr, mcp1));
+      assertSame(cl, tsr.getResource(mcp1));
+      assertNull(TransactionConnectionListeners.get(tsr, mcp2));
+
+      TransactionConnectionListeners.put(tsr, new ReentrantLock(), mcp1, null);
+
+      assertNull(TransactionConnectionListeners.get(tsr, mcp1));
+      assertNull(tsr.getResource(mcp1));
+   }
+
+   /**
+    * The index is scoped to the transaction
+    */
+   @Test
+   public void testTransactionScope()
+   {
+      TransactionSynchronizationRegistry tsr1 = new TestTransactionSynchronizationRegistry();
+      TransactionSynchronizationRegistry tsr2 = new TestTransactionSynchronizationRegistry();
+      ManagedConnectionPool mcp = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      ConnectionListener cl = createConnectionListener();
+
+      TransactionConnectionListeners.put(tsr1, new ReentrantLock(), mcp, cl);
+
+      assertSame(cl, TransactionConnectionListeners.get(tsr1, mcp));
+      assertNull(TransactionConnectionListeners.get(tsr2, mcp));
+   }
+
+   /**
+    * Threads enlisting in the same transaction concurrently agree on one connection listener
+    * per pool, and the index is only created once
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testConcurrentEnlistment() throws Exception
+   {
+      final int threads = 16;
+      final AtomicInteger indexes = new AtomicInteger();
+      final TransactionSynchronizationRegistry tsr = new TestTransactionSynchronizationRegistry()
+      {
+         @Override
+         public void putResource(Object key, Object value)
+         {
+            if (value instanceof TransactionConnectionListeners)
+               indexes.incrementAndGet();
+
+            super.putResource(key, value);
+         }
+      };
+      final Lock lock = new ReentrantLock(true);
+      final ManagedConnectionPool[] mcps = new ManagedConnectionPool[4];
+      for (int i = 0; i < mcps.length; i++)
+      {
+         mcps[i] = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+      }
+
+      final ConnectionListener[] results = new ConnectionListener[threads];
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threads);
+
+      for (int i = 0; i < threads; i++)
+      {
+         final int index = i;
+         Thread t = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  start.await();
+
+                  ManagedConnectionPool mcp = mcps[index % mcps.length];
+                  ConnectionListener cl = TransactionConnectionListeners.get(tsr, mcp);
+
+                  if (cl == null)
+                  {
+                     lock.lock();
+                     try
+                     {
+                        cl = TransactionConnectionListeners.get(tsr, mcp);
+
+                        if (cl == null)
+                        {
+                           cl = createConnectionListener();
+                           TransactionConnectionListeners.put(tsr, lock, mcp, cl);
+                        }
+                     }
+                     finally
+                     {
+                        lock.unlock();
+                     }
+                  }
+
+                  results[index] = cl;
+               }
+               catch (InterruptedException ie)
+               {
+                  Thread.currentThread().interrupt();
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         });
+         t.start();
+      }
+
+      start.countDown();
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+
+      assertEquals(1, indexes.get());
+      for (int i = 0; i < threads; i++)
+      {
+         assertNotNull(results[i]);
+         assertSame(results[i % mcps.length], results[i]);
+         assertSame(results[i], TransactionConnectionListeners.get(tsr, mcps[i % mcps.length]));
+      }
+   }
+
+   private static ConnectionListener createConnectionListener()
+   {
+      return new NoTxConnectionListener(null, null, null, null, FlushStrategy.FAILING_CONNECTION_ONLY, null);
+   }
+
+   /**
+    * A transaction synchronization registry for a single transaction
+    */
+   static class TestTransactionSynchronizationRegistry implements TransactionSynchronizationRegistry
+   {
+      private Map<Object, Object> resources = new ConcurrentHashMap<Object, Object>();
+
+      /**
+       * {@inheritDoc}
+       */
+      public Object getTransactionKey()
+      {
+         return this;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void putResource(Object key, Object value)
+      {
+         if (value != null)
+         {
+            resources.put(key, value);
+         }
+         else
+         {
+            resources.remove(key);
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public Object getResource(Object key)
+      {
+         return resources.get(key);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void registerInterposedSynchronization(Synchronization sync)
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public int getTransactionStatus()
+      {
+         return Status.STATUS_ACTIVE;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void setRollbackOnly()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public boolean getRollbackOnly()
+      {
+         return false;
+      }
+   }
+}
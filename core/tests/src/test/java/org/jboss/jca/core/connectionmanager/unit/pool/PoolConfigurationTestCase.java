@@ -93,12 +93,15 @@ public class PoolConfigurationTestCase
       PoolConfiguration params = new PoolConfiguration();
       assertFalse(params.isBackgroundValidation());
       assertEquals(0L, params.getBackgroundValidationMillis());
+      assertFalse(params.isBackgroundValidationBatch());
 
       params.setBackgroundValidation(true);
       params.setBackgroundValidationMillis(5000);
+      params.setBackgroundValidationBatch(true);
 
       assertTrue(params.isBackgroundValidation());
       assertEquals(5000, params.getBackgroundValidationMillis());
+      assertTrue(params.isBackgroundValidationBatch());
    }
 
    /**
@@ -0,0 +1,184 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool;
+
+import org.jboss.jca.core.connectionmanager.pool.PoolStatisticsImpl;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PoolStatistics tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PoolStatisticsTestCase
+{
+   /**
+    * Percentiles of the get time
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testGetTimePercentiles() throws Exception
+   {
+      PoolStatisticsImpl ps = new PoolStatisticsImpl(10);
+
+      assertTrue(ps.getNames().contains("P50GetTime"));
+      assertTrue(ps.getNames().contains("P99GetTime"));
+      assertTrue(ps.getNames().contains("P999GetTime"));
+      assertEquals(long.class, ps.getType("P99GetTime"));
+      assertEquals(0L, ps.getValue("P99GetTime"));
+
+      for (int i = 1; i <= 1000; i++)
+         ps.deltaTotalGetTime(i);
+
+      assertWithin(500L, (Long)ps.getValue("P50GetTime"));
+      assertWithin(990L, (Long)ps.getValue("P99GetTime"));
+      assertWithin(999L, (Long)ps.getValue("P999GetTime"));
+      assertEquals(1000L, ps.getMaxGetTime());
+      assertEquals(500500L, ps.getTotalGetTime());
+      assertEquals(500L, ps.getAverageGetTime());
+
+      ps.clear();
+      assertEquals(0L, ps.getValue("P50GetTime"));
+      assertEquals(0L, ps.getMaxGetTime());
+   }
+
+   /**
+    * Small values are exact
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testExact() throws Exception
+   {
+      PoolStatisticsImpl ps = new PoolStatisticsImpl(10);
+
+      for (int i = 0; i < 99; i++)
+         ps.deltaTotalCreationTime(3L);
+      ps.deltaTotalCreationTime(17L);
+
+      assertEquals(3L, ps.getValue("P50CreationTime"));
+      assertEquals(3L, ps.getValue("P99CreationTime"));
+      assertEquals(17L, ps.getValue("P999CreationTime"));
+   }
+
+   /**
+    * XA prepare and commit percentiles
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testXA() throws Exception
+   {
+      PoolStatisticsImpl ps = new PoolStatisticsImpl(10);
+
+      ps.deltaPrepare(5L);
+      ps.deltaCommit(7L);
+      ps.deltaCommit(0L);
+
+      assertEquals(5L, ps.getValue("XAPrepareP99Time"));
+      assertEquals(7L, ps.getValue("XACommitP50Time"));
+      assertEquals(2L, ps.getCommitCount());
+      assertEquals(7L, ps.getCommitMaxTime());
+   }
+
+   /**
+    * Disabled statistics report nothing
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testDisabled() throws Exception
+   {
+      PoolStatisticsImpl ps = new PoolStatisticsImpl(10);
+      ps.setEnabled(false);
+
+      ps.deltaTotalUsageTime(42L);
+      ps.deltaCreatedCount();
+
+      assertEquals(0L, ps.getValue("P50UsageTime"));
+      assertEquals(0, ps.getCreatedCount());
+   }
+
+   /**
+    * Concurrent updates are not lost
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testConcurrent() throws Exception
+   {
+      final PoolStatisticsImpl ps = new PoolStatisticsImpl(10);
+      final int threads = 8;
+      final int iterations = 10000;
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threads);
+
+      for (int i = 0; i < threads; i++)
+      {
+         Thread t = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  start.await();
+                  for (int j = 0; j < iterations; j++)
+                  {
+                     ps.deltaCreatedCount();
+                     ps.deltaTotalBlockingTime(2L);
+                  }
+               }
+               catch (InterruptedException ie)
+               {
+                  Thread.currentThread().interrupt();
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         });
+         t.start();
+      }
+
+      start.countDown();
+      done.await();
+
+      assertEquals(threads * iterations, ps.getCreatedCount());
+      assertEquals(2L * threads * iterations, ps.getTotalBlockingTime());
+      assertEquals(2L, ps.getValue("P999BlockingTime"));
+   }
+
+   /**
+    * A bucketed percentile is within 1/16 of the expected value
+    * @param expected The expected value
+    * @param actual The actual value
+    */
+   private static void assertWithin(long expected, long actual)
+   {
+      assertTrue("Expected " + expected + " but was " + actual,
+                 actual >= expected && actual <= expected + expected / 16);
+   }
+}
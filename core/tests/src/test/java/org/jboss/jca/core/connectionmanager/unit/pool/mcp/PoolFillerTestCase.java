@@ -0,0 +1,110 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+import org.jboss.jca.core.connectionmanager.rar.SimpleManagedConnectionFactory;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
+import javax.security.auth.Subject;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * PoolFiller tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class PoolFillerTestCase
+{
+   private static final int POOL_SIZE = 5;
+   private static final long CREATION_TIME = 20L;
+
+   /**
+    * Several pools are prefilled, and the fill time is recorded in the statistics
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testFill() throws Exception
+   {
+      Pool[] pools = new Pool[3];
+      SemaphoreConcurrentLinkedDequeManagedConnectionPool[] mcps =
+         new SemaphoreConcurrentLinkedDequeManagedConnectionPool[pools.length];
+
+      for (int i = 0; i < pools.length; i++)
+      {
+         SlowManagedCF mcf = new SlowManagedCF();
+         PoolConfiguration pc = new PoolConfiguration();
+         pc.setPrefill(true);
+         pc.setMinSize(POOL_SIZE);
+         pc.setMaxSize(POOL_SIZE);
+
+         pools[i] = new OnePool(mcf, pc, false, false, "test" + i);
+         mcps[i] = new SemaphoreConcurrentLinkedDequeManagedConnectionPool();
+         mcps[i].initialize(mcf, new TestConnectionManager(pools[i]), null, null, pc, pools[i]);
+      }
+
+      long timeout = System.currentTimeMillis() + 10000L;
+      for (int i = 0; i < pools.length; i++)
+      {
+         while (pools[i].getStatistics().getTotalFillTime() == 0L && System.currentTimeMillis() < timeout)
+         {
+            Thread.sleep(50);
+         }
+
+         Assert.assertEquals(POOL_SIZE, mcps[i].getActive());
+         Assert.assertTrue(pools[i].getStatistics().getTotalFillTime() >= POOL_SIZE * CREATION_TIME);
+         Assert.assertTrue(pools[i].getStatistics().getMaxFillTime() >= POOL_SIZE * CREATION_TIME);
+         Assert.assertTrue(pools[i].getStatistics().getNames().contains("AverageFillTime"));
+      }
+   }
+
+   /**
+    * A managed connection factory with slow connection creation
+    */
+   static class SlowManagedCF extends SimpleManagedConnectionFactory
+   {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cxRequestInfo)
+         throws ResourceException
+      {
+         try
+         {
+            Thread.sleep(CREATION_TIME);
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+         }
+
+         return super.createManagedConnection(subject, cxRequestInfo);
+      }
+   }
+}
@@ -22,12 +22,18 @@
 
 package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 import javax.resource.ResourceException;
 import javax.resource.spi.ConnectionRequestInfo;
 
 import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
 import org.jboss.jca.core.connectionmanager.ConnectionManager;
 import org.jboss.jca.core.connectionmanager.connections.adapter.TestConnectionRequestInfo;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
 import org.jboss.jca.core.connectionmanager.pool.api.Capacity;
 import org.jboss.jca.core.connectionmanager.pool.api.CapacityDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.api.CapacityIncrementer;
@@ -37,6 +43,7 @@ import org.jboss.jca.core.connectionmanager.pool.capacity.SizeIncrementer;
 import org.jboss.jca.core.connectionmanager.pool.capacity.WatermarkDecrementer;
 import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreArrayListManagedConnectionPool;
 import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+import org.jboss.jca.core.connectionmanager.rar.SimpleManagedConnectionFactory;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -150,6 +157,51 @@ public class SemaphoreArrayListManagedConnectionPoolTestCase
    }
 
 
+   /**
+    * Batched background validation checks all idle connections with one call
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testBatchValidation() throws Exception
+   {
+      final List<Integer> calls = new ArrayList<Integer>();
+      SimpleManagedConnectionFactory vmcf = new SimpleManagedConnectionFactory()
+      {
+         @Override
+         @SuppressWarnings("rawtypes")
+         public Set getInvalidConnections(Set connectionSet) throws ResourceException
+         {
+            calls.add(Integer.valueOf(connectionSet.size()));
+            return Collections.singleton(connectionSet.iterator().next());
+         }
+      };
+      poolConfig.setPrefill(false);
+      poolConfig.setStrictMin(false);
+      poolConfig.setMinSize(0);
+      poolConfig.setBackgroundValidationMillis(0L);
+      poolConfig.setBackgroundValidationBatch(true);
+      Pool vpool = new OnePool(vmcf, poolConfig, false, false, "test");
+
+      SemaphoreArrayListManagedConnectionPool mcp = new SemaphoreArrayListManagedConnectionPool();
+      mcp.initialize(vmcf, new TestConnectionManager(vpool), null, null, poolConfig, vpool);
+
+      List<ConnectionListener> listeners = new ArrayList<ConnectionListener>();
+      for (int i = 0; i < POOL_SIZE; i++)
+      {
+         listeners.add(mcp.getConnection(null, null));
+      }
+      for (ConnectionListener cl : listeners)
+      {
+         mcp.returnConnection(cl, false);
+      }
+
+      mcp.validateConnections();
+
+      Assert.assertEquals(1, calls.size());
+      Assert.assertEquals(POOL_SIZE, calls.get(0).intValue());
+      Assert.assertEquals(POOL_SIZE - 1, mcp.getActive());
+      Assert.assertTrue(mcp.isIdle());
+   }
+
    private PoolConfiguration incrementerPoolConfiguration()
    {
       PoolConfiguration pc = new PoolConfiguration();
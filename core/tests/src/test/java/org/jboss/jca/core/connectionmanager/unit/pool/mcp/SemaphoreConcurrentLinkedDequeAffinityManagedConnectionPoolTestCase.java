@@ -0,0 +1,294 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool.mcp;
+
+import org.jboss.jca.core.api.connectionmanager.pool.FlushMode;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.ConnectionManager;
+import org.jboss.jca.core.connectionmanager.listener.ConnectionListener;
+import org.jboss.jca.core.connectionmanager.pool.api.Pool;
+import org.jboss.jca.core.connectionmanager.pool.mcp.SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool;
+import org.jboss.jca.core.connectionmanager.pool.strategy.OnePool;
+import org.jboss.jca.core.connectionmanager.rar.SimpleManagedConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.resource.ResourceException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPoolTestCase
+{
+   private static final int POOL_SIZE = 5;
+   private FailingManagedCF mcf;
+   private Pool pool;
+   private ConnectionManager cm;
+   private PoolConfiguration poolConfig;
+
+   @Before public void setUp() throws Exception
+   {
+      mcf = new FailingManagedCF();
+      poolConfig = new PoolConfiguration();
+      poolConfig.setPrefill(false);
+      poolConfig.setStrictMin(false);
+      poolConfig.setMinSize(0);
+      poolConfig.setMaxSize(POOL_SIZE);
+      poolConfig.setBlockingTimeout(5000);
+      pool = new OnePool(mcf, poolConfig, false, false, "test");
+      cm = new TestConnectionManager(pool);
+   }
+
+   /**
+    * A returned connection is handed back to the same thread
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testAffinity() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = createPool();
+
+      ConnectionListener cl1 = mcp.getConnection(null, null);
+      ConnectionListener cl2 = mcp.getConnection(null, null);
+      mcp.returnConnection(cl2, false);
+      mcp.returnConnection(cl1, false);
+
+      Assert.assertSame(cl1, mcp.getConnection(null, null));
+      Assert.assertEquals(2, mcp.getActive());
+      Assert.assertFalse(mcp.isIdle());
+
+      mcp.returnConnection(cl1, false);
+      Assert.assertTrue(mcp.isIdle());
+   }
+
+   /**
+    * A connection parked by one thread is used by another thread instead of creating a new one
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testSteal() throws Exception
+   {
+      final SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = createPool();
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      mcp.returnConnection(cl, false);
+
+      final AtomicReference<ConnectionListener> other = new AtomicReference<ConnectionListener>();
+      Thread t = new Thread(new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               other.set(mcp.getConnection(null, null));
+            }
+            catch (Exception e)
+            {
+               // Checked below
+            }
+         }
+      });
+      t.start();
+      t.join();
+
+      Assert.assertSame(cl, other.get());
+      Assert.assertEquals(1, mcp.getActive());
+
+      mcp.returnConnection(cl, false);
+   }
+
+   /**
+    * Parked connections are destroyed by a flush
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testFlush() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = createPool();
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      mcp.returnConnection(cl, false);
+
+      Collection<ConnectionListener> toDestroy = new ArrayList<ConnectionListener>();
+      mcp.flush(FlushMode.ALL, toDestroy);
+
+      Assert.assertEquals(1, toDestroy.size());
+      Assert.assertTrue(toDestroy.contains(cl));
+      Assert.assertTrue(mcp.isEmpty());
+
+      Assert.assertNotSame(cl, mcp.getConnection(null, null));
+   }
+
+   /**
+    * A fair pool doesn't hand out a parked connection ahead of a waiting thread
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testFairWaiters() throws Exception
+   {
+      SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = createPool();
+      Assert.assertTrue(pool.getLock().isFair());
+
+      ConnectionListener cl = mcp.getConnection(null, null);
+      mcp.returnConnection(cl, false);
+
+      Thread waiter = new Thread(new Runnable()
+      {
+         public void run()
+         {
+            try
+            {
+               // More permits than the pool has, so it waits until the timeout
+               pool.getLock().tryAcquire(POOL_SIZE + 1, 500, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException ie)
+            {
+               // Ignore
+            }
+         }
+      });
+      waiter.start();
+
+      while (!pool.getLock().hasQueuedThreads())
+         Thread.sleep(1L);
+
+      long start = System.currentTimeMillis();
+      Assert.assertSame(cl, mcp.getConnection(null, null));
+      Assert.assertTrue(System.currentTimeMillis() - start >= 250L);
+
+      waiter.join();
+      mcp.returnConnection(cl, false);
+      Assert.assertEquals(POOL_SIZE, pool.getLock().availablePermits());
+   }
+
+   /**
+    * The pool never exceeds its maximum size when threads share slots
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testConcurrent() throws Exception
+   {
+      final SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = createPool();
+      final int threads = POOL_SIZE * 4;
+      final CountDownLatch done = new CountDownLatch(threads);
+      final AtomicInteger failures = new AtomicInteger();
+
+      for (int i = 0; i < threads; i++)
+      {
+         Thread t = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  for (int j = 0; j < 1000; j++)
+                  {
+                     ConnectionListener cl = mcp.getConnection(null, null);
+                     if (mcp.getActive() > POOL_SIZE)
+                        failures.incrementAndGet();
+                     mcp.returnConnection(cl, false);
+                  }
+               }
+               catch (Exception e)
+               {
+                  failures.incrementAndGet();
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         });
+         t.start();
+      }
+
+      done.await();
+
+      Assert.assertEquals(0, failures.get());
+      Assert.assertTrue(mcp.getActive() <= POOL_SIZE);
+      Assert.assertTrue(mcp.isIdle());
+      Assert.assertEquals(POOL_SIZE, pool.getLock().availablePermits());
+   }
+
+   /**
+    * Batched background validation checks all idle connections with one call
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testBatchValidation() throws Exception
+   {
+      final List<Integer> calls = new ArrayList<Integer>();
+      SimpleManagedConnectionFactory vmcf = new SimpleManagedConnectionFactory()
+      {
+         @Override
+         @SuppressWarnings("rawtypes")
+         public Set getInvalidConnections(Set connectionSet) throws ResourceException
+         {
+            calls.add(Integer.valueOf(connectionSet.size()));
+            return Collections.singleton(connectionSet.iterator().next());
+         }
+      };
+      poolConfig.setPrefill(false);
+      poolConfig.setStrictMin(false);
+      poolConfig.setMinSize(0);
+      poolConfig.setBackgroundValidationMillis(0L);
+      poolConfig.setBackgroundValidationBatch(true);
+      Pool vpool = new OnePool(vmcf, poolConfig, false, false, "test");
+
+      SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp = new SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool();
+      mcp.initialize(vmcf, new TestConnectionManager(vpool), null, null, poolConfig, vpool);
+
+      List<ConnectionListener> listeners = new ArrayList<ConnectionListener>();
+      for (int i = 0; i < POOL_SIZE; i++)
+      {
+         listeners.add(mcp.getConnection(null, null));
+      }
+      for (ConnectionListener cl : listeners)
+      {
+         mcp.returnConnection(cl, false);
+      }
+
+      mcp.validateConnections();
+
+      Assert.assertEquals(1, calls.size());
+      Assert.assertEquals(POOL_SIZE, calls.get(0).intValue());
+      Assert.assertEquals(POOL_SIZE - 1, mcp.getActive());
+      Assert.assertTrue(mcp.isIdle());
+   }
+
+   private SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool createPool()
+   {
+      SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool mcp =
+         new SemaphoreConcurrentLinkedDequeAffinityManagedConnectionPool();
+      mcp.initialize(mcf, cm, null, null, poolConfig, pool);
+      return mcp;
+   }
+}
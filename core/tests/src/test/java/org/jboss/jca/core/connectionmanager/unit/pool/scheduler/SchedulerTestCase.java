@@ -0,0 +1,172 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.connectionmanager.unit.pool.scheduler;
+
+import org.jboss.jca.core.connectionmanager.pool.scheduler.ScheduledTask;
+import org.jboss.jca.core.connectionmanager.pool.scheduler.Scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Scheduler tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SchedulerTestCase
+{
+   private Scheduler scheduler;
+
+   @Before public void setUp()
+   {
+      scheduler = new Scheduler(10L, 8, 2, 10);
+   }
+
+   @After public void tearDown()
+   {
+      scheduler.shutdown();
+   }
+
+   /**
+    * A task is executed periodically
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testPeriodic() throws Exception
+   {
+      final CountDownLatch latch = new CountDownLatch(3);
+
+      scheduler.schedule(new Runnable()
+      {
+         public void run()
+         {
+            latch.countDown();
+         }
+      }, 30L);
+
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+   }
+
+   /**
+    * A task with an interval longer than a round of the wheel is executed at its deadline
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testRounds() throws Exception
+   {
+      final CountDownLatch latch = new CountDownLatch(1);
+      long start = System.currentTimeMillis();
+
+      scheduler.schedule(new Runnable()
+      {
+         public void run()
+         {
+            latch.countDown();
+         }
+      }, 250L);
+
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+      Assert.assertTrue(System.currentTimeMillis() - start >= 250L);
+   }
+
+   /**
+    * A cancelled task isn't executed anymore
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testCancel() throws Exception
+   {
+      final AtomicInteger count = new AtomicInteger();
+
+      ScheduledTask st = scheduler.schedule(new Runnable()
+      {
+         public void run()
+         {
+            count.incrementAndGet();
+         }
+      }, 20L);
+
+      while (count.get() == 0)
+      {
+         Thread.sleep(10);
+      }
+
+      st.cancel();
+      Thread.sleep(50);
+      int value = count.get();
+      Thread.sleep(200);
+
+      Assert.assertTrue(st.isCancelled());
+      Assert.assertEquals(value, count.get());
+   }
+
+   /**
+    * A slow task neither overlaps itself nor delays other tasks
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testSlowTask() throws Exception
+   {
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger overlaps = new AtomicInteger();
+      final CountDownLatch slow = new CountDownLatch(1);
+      final CountDownLatch fast = new CountDownLatch(5);
+
+      scheduler.schedule(new Runnable()
+      {
+         public void run()
+         {
+            if (running.incrementAndGet() > 1)
+               overlaps.incrementAndGet();
+
+            try
+            {
+               slow.await();
+            }
+            catch (InterruptedException ie)
+            {
+               Thread.currentThread().interrupt();
+            }
+            finally
+            {
+               running.decrementAndGet();
+            }
+         }
+      }, 10L);
+
+      scheduler.schedule(new Runnable()
+      {
+         public void run()
+         {
+            fast.countDown();
+         }
+      }, 20L);
+
+      Assert.assertTrue(fast.await(5, TimeUnit.SECONDS));
+      slow.countDown();
+
+      Assert.assertEquals(0, overlaps.get());
+   }
+}
@@ -125,6 +125,7 @@ public class PureInflowTestCase
          List<MessageListener> listeners = raRepository.getMessageListeners(piId);
          assertNotNull(listeners);
          assertEquals(1, listeners.size());
+         assertSame(listeners, raRepository.getMessageListeners(piId));
 
          MessageListener listener = listeners.get(0);
 
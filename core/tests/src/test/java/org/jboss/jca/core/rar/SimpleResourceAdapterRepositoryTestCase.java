@@ -0,0 +1,150 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.core.rar;
+
+import org.jboss.jca.common.api.metadata.spec.Connector;
+import org.jboss.jca.common.metadata.spec.RaParser;
+import org.jboss.jca.core.inflow.ra.PureInflowResourceAdapter;
+import org.jboss.jca.core.inflow.ra.inflow.PureInflowActivationSpec;
+import org.jboss.jca.core.mdr.SimpleMetadataRepository;
+import org.jboss.jca.core.spi.rar.MessageListener;
+import org.jboss.jca.core.spi.rar.NotFoundException;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit test for the message listener cache of the SimpleResourceAdapterRepository
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SimpleResourceAdapterRepositoryTestCase
+{
+   /** The resource adapter repository */
+   private SimpleResourceAdapterRepository repository;
+
+   /**
+    * Register the metadata of the inflow resource adapter
+    * @exception Throwable Thrown in case of an error
+    */
+   @Before
+   public void before() throws Throwable
+   {
+      Connector md = null;
+      InputStream is = SimpleResourceAdapterRepositoryTestCase.class.getClassLoader()
+         .getResourceAsStream("rars/inflow/META-INF/ra.xml");
+      try
+      {
+         md = new RaParser().parse(is);
+      }
+      finally
+      {
+         is.close();
+      }
+
+      SimpleMetadataRepository mdr = new SimpleMetadataRepository();
+      mdr.registerResourceAdapter("inflow.rar", new File("inflow.rar"), md, null);
+
+      repository = new SimpleResourceAdapterRepository();
+      repository.setMetadataRepository(mdr);
+   }
+
+   /**
+    * Test: The message listeners are loaded once per registration
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCacheHit() throws Throwable
+   {
+      PureInflowResourceAdapter ra = new PureInflowResourceAdapter();
+      String key = repository.registerResourceAdapter(ra);
+
+      List<MessageListener> listeners = repository.getMessageListeners(key);
+
+      assertNotNull(listeners);
+      assertEquals(1, listeners.size());
+      assertEquals("javax.jms.MessageListener", listeners.get(0).getType().getName());
+      assertTrue(listeners.get(0).getActivation().getConfigProperties().containsKey("defaultString"));
+      assertTrue(listeners.get(0).getActivation().createInstance() instanceof PureInflowActivationSpec);
+
+      assertSame(listeners, repository.getMessageListeners(key));
+   }
+
+   /**
+    * Test: Unregistering a resource adapter removes its message listeners
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testUnregister() throws Throwable
+   {
+      PureInflowResourceAdapter ra = new PureInflowResourceAdapter();
+      String key = repository.registerResourceAdapter(ra);
+
+      assertNotNull(repository.getMessageListeners(key));
+
+      repository.unregisterResourceAdapter(key);
+
+      try
+      {
+         repository.getMessageListeners(key);
+         fail("Message listeners found for an unregistered resource adapter");
+      }
+      catch (NotFoundException nfe)
+      {
+         // Ok
+      }
+   }
+
+   /**
+    * Test: A resource adapter registered again gets its message listeners loaded again
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRegisterAfterUnregister() throws Throwable
+   {
+      PureInflowResourceAdapter ra = new PureInflowResourceAdapter();
+      String key = repository.registerResourceAdapter(ra);
+
+      List<MessageListener> listeners = repository.getMessageListeners(key);
+
+      repository.unregisterResourceAdapter(key);
+
+      String newKey = repository.registerResourceAdapter(ra);
+      assertFalse(key.equals(newKey));
+
+      List<MessageListener> newListeners = repository.getMessageListeners(newKey);
+
+      assertNotNull(newListeners);
+      assertNotSame(listeners, newListeners);
+      assertEquals(listeners.size(), newListeners.size());
+      assertEquals(listeners.get(0).getType(), newListeners.get(0).getType());
+      assertEquals(listeners.get(0).getActivation().getConfigProperties(),
+                   newListeners.get(0).getActivation().getConfigProperties());
+
+      assertSame(newListeners, repository.getMessageListeners(newKey));
+   }
+}
@@ -0,0 +1,158 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tracer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Binary trace file tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class TraceFileTestCase
+{
+   private File directory;
+
+   @Before public void setUp() throws Exception
+   {
+      directory = File.createTempFile("tracer", "");
+      directory.delete();
+      directory.mkdirs();
+   }
+
+   @After public void tearDown() throws Exception
+   {
+      File[] files = directory.listFiles();
+      if (files != null)
+      {
+         for (File f : files)
+            f.delete();
+      }
+      directory.delete();
+   }
+
+   /**
+    * Events recorded by several threads are read back in timestamp order
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testRecord() throws Exception
+   {
+      TraceFileWriter writer = new TraceFileWriter(directory.getAbsolutePath() + "/trace", 1024 * 1024, 2);
+      final TraceRecorder recorder = new TraceRecorder(writer, 1024, 10L);
+      recorder.start();
+
+      final Object mcp = new Object();
+      final Object cl = new Object();
+
+      List<Thread> threads = new ArrayList<Thread>();
+      for (int i = 0; i < 4; i++)
+      {
+         Thread t = new Thread(new Runnable()
+         {
+            public void run()
+            {
+               for (int j = 0; j < 100; j++)
+               {
+                  recorder.record(new TraceEvent("pool-1",
+                                                 Integer.toHexString(System.identityHashCode(mcp)),
+                                                 TraceEvent.GET_CONNECTION_LISTENER,
+                                                 Integer.toHexString(System.identityHashCode(cl)),
+                                                 "tx_" + j));
+               }
+            }
+         });
+         threads.add(t);
+         t.start();
+      }
+
+      for (Thread t : threads)
+         t.join();
+
+      recorder.stop();
+
+      File file = writer.getFile(0);
+      Assert.assertTrue(TraceFile.isTraceFile(file));
+
+      List<TraceEvent> events = TraceFile.read(file);
+      Assert.assertEquals(0, recorder.getDropped());
+      Assert.assertEquals(401, events.size());
+      Assert.assertEquals(TraceEvent.VERSION, events.get(0).getType());
+
+      long timestamp = Long.MIN_VALUE;
+      for (TraceEvent te : events)
+      {
+         Assert.assertTrue(te.getTimestamp() >= timestamp);
+         timestamp = te.getTimestamp();
+      }
+
+      TraceEvent te = events.get(events.size() - 1);
+      Assert.assertEquals("pool_1", te.getPool());
+      Assert.assertEquals(Integer.toHexString(System.identityHashCode(mcp)), te.getManagedConnectionPool());
+      Assert.assertEquals(Integer.toHexString(System.identityHashCode(cl)), te.getConnectionListener());
+      Assert.assertTrue(te.getPayload1().startsWith("tx_"));
+      Assert.assertEquals("", te.getPayload2());
+   }
+
+   /**
+    * The writer rolls over to a new file, and only keeps the most recent files
+    * @exception Exception Thrown in case of an error
+    */
+   @Test public void testRoll() throws Exception
+   {
+      TraceFileWriter writer = new TraceFileWriter(directory.getAbsolutePath() + "/trace", 4096, 2);
+
+      for (int i = 0; i < 1000; i++)
+      {
+         writer.write(new TraceEvent("pool", "NONE", TraceEvent.RETURN_CONNECTION_LISTENER, "0"));
+      }
+      writer.close();
+
+      Assert.assertTrue(writer.getIndex() >= 2);
+      Assert.assertFalse(writer.getFile(writer.getIndex() - 2).exists());
+      Assert.assertTrue(writer.getFile(writer.getIndex() - 1).exists());
+
+      List<TraceEvent> events = TraceFile.read(writer.getFile(writer.getIndex()));
+      int versions = 0;
+      for (TraceEvent te : events)
+      {
+         if (te.getType() == TraceEvent.VERSION)
+         {
+            versions++;
+         }
+         else
+         {
+            Assert.assertEquals("pool", te.getPool());
+            Assert.assertEquals("NONE", te.getManagedConnectionPool());
+            Assert.assertEquals("0", te.getConnectionListener());
+         }
+      }
+      Assert.assertEquals(1, versions);
+   }
+}
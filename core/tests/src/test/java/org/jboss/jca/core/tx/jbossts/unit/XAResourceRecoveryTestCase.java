@@ -0,0 +1,224 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.tx.jbossts.unit;
+
+import org.jboss.jca.core.connectionmanager.common.MockManagedConnectionFactory;
+import org.jboss.jca.core.spi.recovery.RecoveryPlugin;
+import org.jboss.jca.core.tx.jbossts.XAResourceRecoveryImpl;
+import org.jboss.jca.core.tx.vts.TransactionIntegrationImpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
+import javax.security.auth.Subject;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * XAResourceRecoveryImpl tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class XAResourceRecoveryTestCase
+{
+   /**
+    * Clear the system properties
+    */
+   @After
+   public void clear()
+   {
+      System.clearProperty("ironjacamar.recovery.parallel");
+      System.clearProperty("ironjacamar.recovery.timeout");
+      System.clearProperty("ironjacamar.recovery.maxage");
+   }
+
+   /**
+    * The recovery connection is kept between scans
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testReuse() throws Exception
+   {
+      CountingManagedConnectionFactory mcf = new CountingManagedConnectionFactory(null);
+      XAResourceRecoveryImpl recovery = createRecovery(mcf);
+
+      Assert.assertEquals(1, recovery.getXAResources().length);
+      Assert.assertEquals(1, recovery.getXAResources().length);
+      Assert.assertEquals(1, mcf.getCreated());
+
+      recovery.shutdown();
+   }
+
+   /**
+    * The recovery connection is replaced when it is too old
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testMaxAge() throws Exception
+   {
+      System.setProperty("ironjacamar.recovery.maxage", "1");
+
+      CountingManagedConnectionFactory mcf = new CountingManagedConnectionFactory(null);
+      XAResourceRecoveryImpl recovery = createRecovery(mcf);
+
+      Assert.assertEquals(1, recovery.getXAResources().length);
+      Thread.sleep(20L);
+      Assert.assertEquals(1, recovery.getXAResources().length);
+      Assert.assertEquals(2, mcf.getCreated());
+
+      recovery.shutdown();
+   }
+
+   /**
+    * A slow resource doesn't delay the other resources in a parallel scan
+    * @exception Exception Thrown in case of an error
+    */
+   @Test
+   public void testParallel() throws Exception
+   {
+      System.setProperty("ironjacamar.recovery.parallel", "true");
+      System.setProperty("ironjacamar.recovery.timeout", "500");
+
+      CountDownLatch release = new CountDownLatch(1);
+      CountingManagedConnectionFactory slowMcf = new CountingManagedConnectionFactory(release);
+      CountingManagedConnectionFactory fastMcf = new CountingManagedConnectionFactory(null);
+
+      XAResourceRecoveryImpl slow = createRecovery(slowMcf);
+      XAResourceRecoveryImpl fast = createRecovery(fastMcf);
+      slow.initialize();
+      fast.initialize();
+
+      try
+      {
+         long start = System.nanoTime();
+         Assert.assertEquals(1, fast.getXAResources().length);
+         Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500L);
+
+         Assert.assertEquals(0, slow.getXAResources().length);
+
+         release.countDown();
+
+         Assert.assertEquals(1, slow.getXAResources().length);
+         Assert.assertEquals(1, slowMcf.getCreated());
+         Assert.assertEquals(1, fastMcf.getCreated());
+      }
+      finally
+      {
+         release.countDown();
+         slow.shutdown();
+         fast.shutdown();
+      }
+   }
+
+   private XAResourceRecoveryImpl createRecovery(CountingManagedConnectionFactory mcf)
+   {
+      XAResourceRecoveryImpl recovery =
+         new XAResourceRecoveryImpl(new TransactionIntegrationImpl(null, null, null, null, null),
+                                    mcf, Boolean.FALSE, null, Boolean.FALSE,
+                                    "user", "password", null, null,
+                                    new ValidRecoveryPlugin(), null);
+      recovery.setJndiName("java:/eis/Recovery");
+      return recovery;
+   }
+
+   /**
+    * A recovery plugin where all connections are valid
+    */
+   static class ValidRecoveryPlugin implements RecoveryPlugin
+   {
+      /**
+       * {@inheritDoc}
+       */
+      public boolean isValid(Object c) throws ResourceException
+      {
+         return true;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void close(Object c) throws ResourceException
+      {
+      }
+   }
+
+   /**
+    * Counts the managed connections created, and optionally waits before creating them
+    */
+   static class CountingManagedConnectionFactory extends MockManagedConnectionFactory
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final transient CountDownLatch release;
+
+      private final AtomicInteger created = new AtomicInteger();
+
+      /**
+       * Constructor
+       * @param release The latch to wait for; <code>null</code> if none
+       */
+      CountingManagedConnectionFactory(CountDownLatch release)
+      {
+         this.release = release;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cxRequestInfo)
+         throws ResourceException
+      {
+         if (release != null)
+         {
+            try
+            {
+               release.await();
+            }
+            catch (InterruptedException ie)
+            {
+               Thread.currentThread().interrupt();
+               throw new ResourceException(ie);
+            }
+         }
+
+         created.incrementAndGet();
+         return super.createManagedConnection(subject, cxRequestInfo);
+      }
+
+      /**
+       * Get the number of managed connections created
+       * @return The value
+       */
+      int getCreated()
+      {
+         return created.get();
+      }
+   }
+}
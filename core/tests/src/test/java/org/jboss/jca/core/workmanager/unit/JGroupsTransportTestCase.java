@@ -0,0 +1,166 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jgroups.JChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JGroupsTransport tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class JGroupsTransportTestCase
+{
+   private static final String STACK =
+      "SHARED_LOOPBACK:PING(timeout=100):pbcast.NAKACK2:UNICAST2:pbcast.STABLE:pbcast.GMS(join_timeout=100)";
+
+   private ExecutorService executor;
+   private CountingJGroupsTransport client;
+   private CountingJGroupsTransport server;
+   private Address serverAddress;
+
+   /**
+    * Setup
+    * @exception Throwable Thrown in case of an error
+    */
+   @Before
+   public void setUp() throws Throwable
+   {
+      executor = Executors.newCachedThreadPool();
+
+      server = createTransport("server");
+      server.startup();
+
+      client = createTransport("client");
+      client.setAsyncRpc(true);
+      client.setMaxInFlight(4);
+      client.startup();
+
+      serverAddress = new Address("wm-server", "wm-server", "server");
+      client.join(serverAddress, server.getOwnAddress());
+   }
+
+   /**
+    * Tear down
+    * @exception Throwable Thrown in case of an error
+    */
+   @After
+   public void tearDown() throws Throwable
+   {
+      client.shutdown();
+      server.shutdown();
+      executor.shutdownNow();
+   }
+
+   /**
+    * Requests with a result are still answered in asynchronous mode
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRequest() throws Throwable
+   {
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+      assertEquals(0L, client.getShortRunningFree(serverAddress));
+   }
+
+   /**
+    * Statistics updates are sent asynchronously, within the window of requests in flight
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testAsyncUpdates() throws Throwable
+   {
+      Address clientAddress = new Address("wm-client", "wm-client", "client");
+
+      for (int i = 0; i < 1000; i++)
+      {
+         client.deltaDoWorkAccepted(serverAddress);
+         client.updateShortRunningFree(clientAddress, i);
+         assertTrue(client.getInFlight() <= client.getMaxInFlight());
+      }
+
+      long end = System.currentTimeMillis() + 10000L;
+      while ((server.doWorkAccepted.get() < 1000 || server.shortRunningFree.get() != 999L ||
+              client.getInFlight() > 0) &&
+             System.currentTimeMillis() < end)
+      {
+         Thread.sleep(10L);
+      }
+
+      assertEquals(1000, server.doWorkAccepted.get());
+      assertEquals(999L, server.shortRunningFree.get());
+      assertEquals(0, client.getInFlight());
+   }
+
+   private CountingJGroupsTransport createTransport(String id) throws Exception
+   {
+      CountingJGroupsTransport transport = new CountingJGroupsTransport();
+      transport.setId(id);
+      transport.setChannel(new JChannel(STACK));
+      transport.setClusterName("JGroupsTransportTestCase");
+      transport.setExecutorService(executor);
+      return transport;
+   }
+
+   /**
+    * A JGroups transport which counts the received statistics
+    */
+   static class CountingJGroupsTransport extends JGroupsTransport
+   {
+      final AtomicInteger doWorkAccepted = new AtomicInteger();
+      final AtomicLong shortRunningFree = new AtomicLong(-1L);
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void deltaDoWorkAccepted(Map<String, String> logicalAddressMap)
+      {
+         doWorkAccepted.incrementAndGet();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void updateShortRunningFree(Map<String, String> logicalAddressMap, Long freeCount)
+      {
+         shortRunningFree.set(freeCount.longValue());
+      }
+   }
+}
@@ -0,0 +1,201 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.selector.AbstractSelector;
+import org.jboss.jca.core.workmanager.selector.LatencyAware;
+import org.jboss.jca.core.workmanager.selector.PingTime;
+import org.jboss.jca.core.workmanager.transport.remote.NodeStatistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.resource.spi.work.DistributableWork;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Selector tests using the round trip times of the nodes
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class LatencySelectorTestCase
+{
+   private Address own;
+   private Address near;
+   private Address far;
+   private Map<Address, NodeStatistics> statistics;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setUp()
+   {
+      own = new Address("wm", "wm", "own");
+      near = new Address("wm", "wm", "near");
+      far = new Address("wm", "wm", "far");
+      statistics = new HashMap<Address, NodeStatistics>();
+
+      statistics.put(near, statistics(1000000L));
+      statistics.put(far, statistics(50000000L));
+   }
+
+   /**
+    * PingTime selects the node with the lowest round trip time
+    */
+   @Test
+   public void testPingTime()
+   {
+      TestPingTime selector = new TestPingTime();
+      join(selector, 10L, 10L);
+
+      assertEquals(near, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      statistics.get(near).pingFailed();
+
+      assertEquals(far, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      statistics.get(far).pingFailed();
+
+      assertNull(selector.selectDistributedWorkManager(own, new MyWork()));
+   }
+
+   /**
+    * LatencyAware selects the near node, unless it has few free threads or rejects work
+    */
+   @Test
+   public void testLatencyAware()
+   {
+      TestLatencyAware selector = new TestLatencyAware();
+      join(selector, 10L, 10L);
+
+      assertEquals(near, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      for (int i = 0; i < 100; i++)
+         statistics.get(near).workRejected();
+
+      assertEquals(far, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      for (int i = 0; i < 100; i++)
+         statistics.get(near).workAccepted();
+
+      assertEquals(near, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      selector.updateShortRunningFree(near, 0L);
+
+      assertEquals(far, selector.selectDistributedWorkManager(own, new MyWork()));
+   }
+
+   /**
+    * LatencyAware treats a node without a round trip time as the slowest known node
+    */
+   @Test
+   public void testLatencyAwareUnknown()
+   {
+      TestLatencyAware selector = new TestLatencyAware();
+      join(selector, 10L, 10L);
+
+      statistics.put(near, new NodeStatistics());
+
+      assertEquals(far, selector.selectDistributedWorkManager(own, new MyWork()));
+
+      selector.updateShortRunningFree(near, 100L);
+
+      assertEquals(near, selector.selectDistributedWorkManager(own, new MyWork()));
+   }
+
+   private void join(AbstractSelector selector, long nearFree, long farFree)
+   {
+      selector.join(own);
+      selector.join(near);
+      selector.join(far);
+      selector.updateShortRunningFree(own, 100L);
+      selector.updateShortRunningFree(near, nearFree);
+      selector.updateShortRunningFree(far, farFree);
+   }
+
+   private static NodeStatistics statistics(long rtt)
+   {
+      NodeStatistics ns = new NodeStatistics();
+      ns.pingSucceeded(rtt);
+      return ns;
+   }
+
+   /**
+    * PingTime with fixed statistics
+    */
+   class TestPingTime extends PingTime
+   {
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      protected NodeStatistics getNodeStatistics(Address o, Address id)
+      {
+         return statistics.get(id);
+      }
+   }
+
+   /**
+    * LatencyAware with fixed statistics
+    */
+   class TestLatencyAware extends LatencyAware
+   {
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      protected NodeStatistics getNodeStatistics(Address o, Address id)
+      {
+         return statistics.get(id);
+      }
+   }
+
+   /**
+    * A distributable work instance
+    */
+   public static class MyWork implements DistributableWork
+   {
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -0,0 +1,201 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.api.workmanager.DistributedWorkManagerStatisticsValues;
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
+import org.jboss.jca.core.workmanager.transport.remote.socket.ProtocolReader;
+import org.jboss.jca.core.workmanager.transport.remote.socket.ProtocolWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashSet;
+
+import javax.resource.spi.work.WorkException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ProtocolWriter / ProtocolReader tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ProtocolCodecTestCase
+{
+   /**
+    * Scalar values survive a round trip
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testScalars() throws Throwable
+   {
+      Serializable[] values = new Serializable[] {
+         null, Long.valueOf(0L), Long.valueOf(-1L), Long.valueOf(Long.MAX_VALUE), Long.valueOf(Long.MIN_VALUE),
+         Integer.valueOf(Integer.MIN_VALUE), Integer.valueOf(300), "", "localhost:1202", "\u00e6\u00f8\u00e5"
+      };
+
+      ProtocolReader reader = roundTrip(7, values);
+
+      assertEquals(7, reader.getOrdinal());
+      assertEquals(values.length, reader.getNumberOfParameters());
+      for (Serializable v : values)
+      {
+         assertEquals(v, reader.readObject());
+      }
+   }
+
+   /**
+    * Addresses, statistics and serialized values survive a round trip
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testTypes() throws Throwable
+   {
+      Address a = new Address("wm-1", "wm", "transport");
+      Address b = new Address("wm-2", "wm", null);
+
+      HashSet<Address> addresses = new HashSet<Address>();
+      addresses.add(a);
+      addresses.add(b);
+
+      StatisticsBatch batch = new StatisticsBatch();
+      batch.delta(a, StatisticsBatch.WORK_SUCCESSFUL);
+      batch.delta(a, StatisticsBatch.WORK_SUCCESSFUL);
+      batch.gauge(b, StatisticsBatch.LONGRUNNING_FREE, 5L);
+
+      DistributedWorkManagerStatisticsValues values =
+         new DistributedWorkManagerStatisticsValues(1, 2, 3, 4, 5, 6, 7, 8);
+
+      ProtocolReader reader = roundTrip(0, a, b, addresses, batch, values, new WorkException("failed"));
+
+      assertEquals(a, reader.readObject());
+      assertEquals(b, reader.readObject());
+      assertNull(((Address)roundTrip(0, b).readObject()).getTransportId());
+      assertEquals(addresses, reader.readObject());
+
+      StatisticsBatch result = (StatisticsBatch)reader.readObject();
+      assertEquals(2L, result.getDelta(a, StatisticsBatch.WORK_SUCCESSFUL));
+      assertNull(result.getGauge(a, StatisticsBatch.LONGRUNNING_FREE));
+      assertEquals(Long.valueOf(5L), result.getGauge(b, StatisticsBatch.LONGRUNNING_FREE));
+      assertEquals(batch.getAddresses(), result.getAddresses());
+
+      DistributedWorkManagerStatisticsValues v = (DistributedWorkManagerStatisticsValues)reader.readObject();
+      assertEquals(1, v.getWorkSuccessful());
+      assertEquals(2, v.getWorkFailed());
+      assertEquals(3, v.getDoWorkAccepted());
+      assertEquals(4, v.getDoWorkRejected());
+      assertEquals(5, v.getScheduleWorkAccepted());
+      assertEquals(6, v.getScheduleWorkRejected());
+      assertEquals(7, v.getStartWorkAccepted());
+      assertEquals(8, v.getStartWorkRejected());
+
+      assertEquals("failed", ((WorkException)reader.readObject()).getMessage());
+   }
+
+   /**
+    * A message is smaller than its Java serialized form, and strings are written once
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testCompact() throws Throwable
+   {
+      Address a = new Address("1f0c2a6e-8d2b-4f43-9d0e-3a1b2c3d4e5f", "DistributedWorkManager", "socket");
+      Address b = new Address("2f0c2a6e-8d2b-4f43-9d0e-3a1b2c3d4e5f", "DistributedWorkManager", "socket");
+
+      ProtocolWriter one = new ProtocolWriter(0, 2);
+      one.writeObject(a);
+      one.writeObject(Long.valueOf(10L));
+
+      ProtocolWriter two = new ProtocolWriter(0, 3);
+      two.writeObject(a);
+      two.writeObject(b);
+      two.writeObject(Long.valueOf(10L));
+
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeInt(0);
+      oos.writeInt(2);
+      oos.writeObject(a);
+      oos.writeObject(Long.valueOf(10L));
+      oos.close();
+
+      assertTrue(one.toByteArray().length * 2 < baos.size());
+      assertTrue(two.toByteArray().length - one.toByteArray().length <
+                 b.getWorkManagerId().length() + b.getWorkManagerName().length());
+   }
+
+   /**
+    * An unknown version or a truncated message is rejected
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testInvalid() throws Throwable
+   {
+      byte[] data = new ProtocolWriter(0, 1).toByteArray();
+      data[0] = (byte)(ProtocolWriter.VERSION + 1);
+
+      try
+      {
+         new ProtocolReader(data);
+         fail("Unknown version accepted");
+      }
+      catch (IOException ioe)
+      {
+         // Expected
+      }
+
+      ProtocolWriter writer = new ProtocolWriter(0, 1);
+      writer.writeObject("localhost:1202");
+      byte[] full = writer.toByteArray();
+      byte[] truncated = new byte[full.length - 1];
+      System.arraycopy(full, 0, truncated, 0, truncated.length);
+
+      try
+      {
+         new ProtocolReader(truncated).readObject();
+         fail("Truncated message accepted");
+      }
+      catch (IOException ioe)
+      {
+         // Expected
+      }
+   }
+
+   private static ProtocolReader roundTrip(int ordinal, Serializable... values) throws IOException
+   {
+      ProtocolWriter writer = new ProtocolWriter(ordinal, values.length);
+      for (Serializable v : values)
+      {
+         writer.writeObject(v);
+      }
+      return new ProtocolReader(writer.toByteArray());
+   }
+}
@@ -0,0 +1,514 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.ClassBundle;
+import org.jboss.jca.core.workmanager.ClassBundleFactory;
+import org.jboss.jca.core.workmanager.ClassDefinition;
+import org.jboss.jca.core.workmanager.WorkClassLoader;
+import org.jboss.jca.core.workmanager.transport.remote.NodeStatistics;
+import org.jboss.jca.core.workmanager.transport.remote.StatisticsBatch;
+import org.jboss.jca.core.workmanager.transport.remote.socket.SocketTransport;
+
+import java.io.DataOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.resource.spi.work.DistributableWork;
+import javax.resource.spi.work.WorkException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * SocketTransport tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class SocketTransportTestCase
+{
+   private ExecutorService executor;
+   private CountingSocketTransport client;
+   private CountingSocketTransport server;
+   private Address serverAddress;
+   private int serverPort;
+
+   /**
+    * Setup
+    * @exception Throwable Thrown in case of an error
+    */
+   @Before
+   public void setUp() throws Throwable
+   {
+      executor = Executors.newCachedThreadPool();
+
+      server = createTransport("server", freePort());
+      serverPort = port(server);
+      server.startup();
+
+      client = createTransport("client", freePort());
+      client.startup();
+
+      serverAddress = new Address("wm-server", "wm-server", "server");
+      client.join(serverAddress, "localhost:" + serverPort);
+   }
+
+   /**
+    * Tear down
+    * @exception Throwable Thrown in case of an error
+    */
+   @After
+   public void tearDown() throws Throwable
+   {
+      client.shutdown();
+      server.shutdown();
+      executor.shutdownNow();
+   }
+
+   /**
+    * Requests are answered
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRequest() throws Throwable
+   {
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+      assertEquals(0L, client.getShortRunningFree(serverAddress));
+      assertEquals(0L, client.getLongRunningFree(serverAddress));
+   }
+
+   /**
+    * Concurrent requests share the connection and get their own responses
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testConcurrent() throws Throwable
+   {
+      final int threads = 16;
+      final CountDownLatch done = new CountDownLatch(threads);
+      final AtomicInteger failures = new AtomicInteger();
+
+      for (int i = 0; i < threads; i++)
+      {
+         executor.submit(new Runnable()
+         {
+            public void run()
+            {
+               try
+               {
+                  for (int j = 0; j < 200; j++)
+                  {
+                     if (client.ping(serverAddress) == Long.MAX_VALUE)
+                        failures.incrementAndGet();
+
+                     if (client.getShortRunningFree(serverAddress) != 0L)
+                        failures.incrementAndGet();
+                  }
+               }
+               finally
+               {
+                  done.countDown();
+               }
+            }
+         });
+      }
+
+      done.await();
+      assertEquals(0, failures.get());
+   }
+
+   /**
+    * A failure on the remote side is reported to the caller, and the connection stays usable
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testRemoteFailure() throws Throwable
+   {
+      try
+      {
+         client.doWork(serverAddress, new MyWork());
+         fail("Work executed on unknown work manager");
+      }
+      catch (WorkException we)
+      {
+         // Expected
+      }
+
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+   }
+
+   /**
+    * A restarted peer is reconnected to
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testReconnect() throws Throwable
+   {
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+
+      server.shutdown();
+      Thread.sleep(100L);
+
+      // The first request may still see the old connection
+      client.ping(serverAddress);
+
+      server = createTransport("server", serverPort);
+      server.startup();
+
+      long result = client.ping(serverAddress);
+      if (result == Long.MAX_VALUE)
+         result = client.ping(serverAddress);
+
+      assertTrue(result != Long.MAX_VALUE);
+   }
+
+   /**
+    * The server closes a connection which announces a frame above the limit
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testServerFrameTooLarge() throws Throwable
+   {
+      Socket socket = new Socket("localhost", serverPort);
+      try
+      {
+         socket.setSoTimeout(5000);
+
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         out.writeInt(server.getMaxFrameSize() + 1);
+         out.writeLong(1L);
+         out.flush();
+
+         assertEquals(-1, socket.getInputStream().read());
+      }
+      finally
+      {
+         socket.close();
+      }
+
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+   }
+
+   /**
+    * The client closes a connection which receives a frame above the limit
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testClientFrameTooLarge() throws Throwable
+   {
+      client.setMaxFrameSize(1);
+
+      assertEquals(Long.MAX_VALUE, client.ping(serverAddress));
+
+      client.setMaxFrameSize(1024 * 1024);
+
+      assertTrue(client.ping(serverAddress) != Long.MAX_VALUE);
+   }
+
+   /**
+    * The round trip time of the other nodes is measured by the probes
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testProbe() throws Throwable
+   {
+      client.probe();
+
+      NodeStatistics ns = client.getNodeStatistics(serverAddress);
+      assertNotNull(ns);
+      assertTrue(ns.isReachable());
+      assertTrue(ns.getRoundTripTime() >= 0L);
+
+      server.shutdown();
+      Thread.sleep(100L);
+
+      client.probe();
+      client.probe();
+
+      assertFalse(ns.isReachable());
+      assertTrue(ns.getRoundTripTime() >= 0L);
+   }
+
+   /**
+    * The background probes are started with the transport
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testProber() throws Throwable
+   {
+      CountingSocketTransport other = createTransport("other", freePort());
+      other.setPingInterval(10L);
+      other.startup();
+      try
+      {
+         other.join(serverAddress, "localhost:" + serverPort);
+
+         long end = System.currentTimeMillis() + 5000L;
+         while (other.getNodeStatistics(serverAddress) == null && System.currentTimeMillis() < end)
+            Thread.sleep(10L);
+
+         assertNotNull(other.getNodeStatistics(serverAddress));
+      }
+      finally
+      {
+         other.shutdown();
+      }
+   }
+
+   /**
+    * Statistics updates are coalesced into batches
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testStatisticsBatch() throws Throwable
+   {
+      client.setStatisticsBatchInterval(60000L);
+      client.setStatisticsBatchSize(Integer.MAX_VALUE);
+
+      Address clientAddress = new Address("wm-client", "wm-client", "client");
+
+      for (int i = 0; i < 1000; i++)
+      {
+         client.deltaDoWorkAccepted(serverAddress);
+         client.deltaWorkSuccessful(serverAddress);
+         client.updateShortRunningFree(clientAddress, i);
+      }
+
+      assertEquals(0, server.batches.get());
+
+      client.flushStatistics();
+
+      assertEquals(1, server.batches.get());
+      assertEquals(1000, server.doWorkAccepted.get());
+      assertEquals(1000, server.workSuccessful.get());
+      assertEquals(999L, server.shortRunningFree.get());
+   }
+
+   /**
+    * A full statistics batch is sent before the interval expires
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testStatisticsBatchSize() throws Throwable
+   {
+      client.setStatisticsBatchInterval(60000L);
+      client.setStatisticsBatchSize(100);
+
+      for (int i = 0; i < 100; i++)
+         client.deltaDoWorkRejected(serverAddress);
+
+      long end = System.currentTimeMillis() + 5000L;
+      while (server.doWorkRejected.get() < 100 && System.currentTimeMillis() < end)
+         Thread.sleep(10L);
+
+      assertEquals(1, server.batches.get());
+      assertEquals(100, server.doWorkRejected.get());
+   }
+
+   /**
+    * Classes are sent once, and the receiver reuses the class loader of a known bundle
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testClassBundleCache() throws Throwable
+   {
+      server.acceptWork = true;
+
+      client.doWork(serverAddress, new MyWork());
+      client.doWork(serverAddress, new MyWork());
+
+      assertEquals(2, server.work.size());
+      assertTrue(server.work.get(0) instanceof WorkClassLoader);
+      assertSame(server.work.get(0), server.work.get(1));
+
+      ClassBundle cb = ClassBundleFactory.createClassBundle(new MyWork());
+      assertSame(cb, ClassBundleFactory.createClassBundle(new MyWork()));
+
+      ClassBundle sent = client.getClassBundleCache().compress("localhost:" + serverPort, cb);
+      assertEquals(cb.getDefinitions().size(), sent.getDefinitions().size());
+      for (ClassDefinition cd : sent.getDefinitions())
+      {
+         assertTrue(cd.isReference());
+      }
+   }
+
+   /**
+    * The classes are sent again when the receiver doesn't know them anymore
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testClassBundleResend() throws Throwable
+   {
+      server.acceptWork = true;
+
+      client.doWork(serverAddress, new MyWork());
+      server.getClassBundleCache().clear();
+      client.doWork(serverAddress, new MyWork());
+
+      assertEquals(2, server.work.size());
+      assertNotSame(server.work.get(0), server.work.get(1));
+   }
+
+   private CountingSocketTransport createTransport(String id, int port)
+   {
+      CountingSocketTransport transport = new CountingSocketTransport();
+      transport.setId(id);
+      transport.setHost("localhost");
+      transport.setPort(port);
+      transport.setExecutorService(executor);
+      return transport;
+   }
+
+   private static int port(SocketTransport transport)
+   {
+      String address = transport.getOwnAddress();
+      return Integer.parseInt(address.substring(address.lastIndexOf(':') + 1));
+   }
+
+   private static int freePort() throws Exception
+   {
+      ServerSocket ss = new ServerSocket(0);
+      try
+      {
+         return ss.getLocalPort();
+      }
+      finally
+      {
+         ss.close();
+      }
+   }
+
+   /**
+    * A socket transport which counts the received statistics
+    */
+   static class CountingSocketTransport extends SocketTransport
+   {
+      final AtomicInteger batches = new AtomicInteger();
+      final AtomicInteger doWorkAccepted = new AtomicInteger();
+      final AtomicInteger doWorkRejected = new AtomicInteger();
+      final AtomicInteger workSuccessful = new AtomicInteger();
+      final AtomicLong shortRunningFree = new AtomicLong(-1L);
+      final List<ClassLoader> work = new CopyOnWriteArrayList<ClassLoader>();
+      volatile boolean acceptWork = false;
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localDoWork(Address address, DistributableWork dw) throws WorkException
+      {
+         if (!acceptWork)
+         {
+            super.localDoWork(address, dw);
+            return;
+         }
+
+         work.add(dw.getClass().getClassLoader());
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localStatisticsBatch(StatisticsBatch batch)
+      {
+         batches.incrementAndGet();
+         super.localStatisticsBatch(batch);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localDeltaDoWorkAccepted(Address address)
+      {
+         doWorkAccepted.incrementAndGet();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localDeltaDoWorkRejected(Address address)
+      {
+         doWorkRejected.incrementAndGet();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localDeltaWorkSuccessful(Address address)
+      {
+         workSuccessful.incrementAndGet();
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      @Override
+      public void localUpdateShortRunningFree(Address address, Long freeCount)
+      {
+         shortRunningFree.set(freeCount.longValue());
+      }
+   }
+
+   /**
+    * A distributable work instance
+    */
+   public static class MyWork implements DistributableWork
+   {
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
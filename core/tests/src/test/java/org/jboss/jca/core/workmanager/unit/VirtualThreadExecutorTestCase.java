@@ -0,0 +1,257 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.core.workmanager.unit;
+
+import org.jboss.jca.core.security.picketbox.PicketBoxSecurityIntegration;
+import org.jboss.jca.core.workmanager.VirtualThreadExecutor;
+import org.jboss.jca.core.workmanager.WorkManagerImpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.resource.spi.work.Work;
+import javax.resource.spi.work.WorkAdapter;
+import javax.resource.spi.work.WorkEvent;
+import javax.resource.spi.work.WorkManager;
+import javax.resource.spi.work.WorkRejectedException;
+
+import org.jboss.threads.ExecutionTimedOutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * VirtualThreadExecutor tests
+ *
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class VirtualThreadExecutorTestCase
+{
+   private VirtualThreadExecutor executor;
+
+   /**
+    * Setup
+    */
+   @Before
+   public void setUp()
+   {
+      executor = new VirtualThreadExecutor(2, "Test");
+   }
+
+   /**
+    * Tear down
+    */
+   @After
+   public void tearDown()
+   {
+      executor.shutdown();
+   }
+
+   /**
+    * The number of concurrent tasks is limited
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testConcurrency() throws Throwable
+   {
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch started = new CountDownLatch(2);
+
+      executor.executeBlocking(new BlockingTask(started, release));
+      executor.executeBlocking(new BlockingTask(started, release));
+
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      assertEquals(0L, executor.getNumberOfFreeThreads());
+      assertEquals(2, executor.getActiveCount());
+
+      try
+      {
+         executor.executeNonBlocking(new BlockingTask(started, release));
+         fail("Task executed");
+      }
+      catch (RejectedExecutionException ree)
+      {
+         // Expected
+      }
+
+      try
+      {
+         executor.executeBlocking(new BlockingTask(started, release), 50L, TimeUnit.MILLISECONDS);
+         fail("Task executed");
+      }
+      catch (ExecutionTimedOutException etoe)
+      {
+         // Expected
+      }
+
+      release.countDown();
+
+      long end = System.currentTimeMillis() + 5000L;
+      while (executor.getNumberOfFreeThreads() < 2L && System.currentTimeMillis() < end)
+         Thread.sleep(10L);
+
+      assertEquals(2L, executor.getNumberOfFreeThreads());
+   }
+
+   /**
+    * Many blocking tasks are run with a small number of permits
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testMany() throws Throwable
+   {
+      final int tasks = 1000;
+      final CountDownLatch done = new CountDownLatch(tasks);
+      final AtomicInteger max = new AtomicInteger();
+
+      for (int i = 0; i < tasks; i++)
+      {
+         executor.execute(new Runnable()
+         {
+            public void run()
+            {
+               int active = executor.getActiveCount();
+               if (active > max.get())
+                  max.set(active);
+
+               done.countDown();
+            }
+         });
+      }
+
+      assertTrue(done.await(30, TimeUnit.SECONDS));
+      assertTrue(max.get() <= 2);
+   }
+
+   /**
+    * A shutdown executor rejects tasks
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test(expected = RejectedExecutionException.class)
+   public void testShutdown() throws Throwable
+   {
+      executor.shutdown();
+      executor.executeNonBlocking(new BlockingTask(null, null));
+   }
+
+   /**
+    * The work manager reports a start timeout, and keeps the listener and statistics informed
+    * @exception Throwable Thrown in case of an error
+    */
+   @Test
+   public void testWorkManager() throws Throwable
+   {
+      WorkManagerImpl wm = new WorkManagerImpl();
+      wm.setShortRunningThreadPool(executor);
+      wm.setSecurityIntegration(new PicketBoxSecurityIntegration());
+
+      CountDownLatch release = new CountDownLatch(1);
+      CountDownLatch started = new CountDownLatch(2);
+
+      wm.startWork(new BlockingTask(started, release));
+      wm.startWork(new BlockingTask(started, release));
+
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      final AtomicInteger rejected = new AtomicInteger();
+      try
+      {
+         wm.doWork(new BlockingTask(null, null), 50L, null, new WorkAdapter()
+         {
+            @Override
+            public void workRejected(WorkEvent e)
+            {
+               rejected.incrementAndGet();
+            }
+         });
+         fail("Work executed");
+      }
+      catch (WorkRejectedException wre)
+      {
+         assertEquals(WorkRejectedException.START_TIMED_OUT, wre.getErrorCode());
+      }
+
+      assertEquals(1, rejected.get());
+      assertEquals(1, wm.getStatistics().getDoWorkRejected());
+      assertEquals(2, wm.getStatistics().getStartWorkAccepted());
+
+      release.countDown();
+
+      int accepted = wm.getStatistics().getDoWorkAccepted();
+      wm.doWork(new BlockingTask(null, null), WorkManager.INDEFINITE, null, null);
+      assertEquals(accepted + 1, wm.getStatistics().getDoWorkAccepted());
+   }
+
+   /**
+    * A task which waits to be released
+    */
+   static class BlockingTask implements Work
+   {
+      private final CountDownLatch started;
+      private final CountDownLatch release;
+
+      /**
+       * Constructor
+       * @param started Counted down when started
+       * @param release Awaited before completing
+       */
+      BlockingTask(CountDownLatch started, CountDownLatch release)
+      {
+         this.started = started;
+         this.release = release;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void run()
+      {
+         if (started != null)
+            started.countDown();
+
+         try
+         {
+            if (release != null)
+               release.await();
+         }
+         catch (InterruptedException ie)
+         {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release()
+      {
+      }
+   }
+}
@@ -1329,6 +1329,9 @@ public abstract class AbstractDsDeployer
          if (vp.getBackgroundValidationMillis() != null)
             pc.setBackgroundValidationMillis(vp.getBackgroundValidationMillis().intValue());
 
+         if (vp.isBackgroundValidationBatch() != null)
+            pc.setBackgroundValidationBatch(vp.isBackgroundValidationBatch().booleanValue());
+
          if (vp.isUseFastFail() != null)
             pc.setUseFastFail(vp.isUseFastFail());
       }
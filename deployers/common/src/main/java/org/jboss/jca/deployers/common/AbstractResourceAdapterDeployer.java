@@ -697,6 +697,9 @@ public abstract class AbstractResourceAdapterDeployer
          if (vp.getBackgroundValidationMillis() != null)
             pc.setBackgroundValidationMillis(vp.getBackgroundValidationMillis().intValue());
 
+         if (vp.isBackgroundValidationBatch() != null)
+            pc.setBackgroundValidationBatch(vp.isBackgroundValidationBatch().booleanValue());
+
          if (vp.isUseFastFail() != null)
             pc.setUseFastFail(vp.isUseFastFail());
       }
@@ -204,6 +204,8 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
          if (!f.exists())
             throw new IOException("Deployment " + url.toExternalForm() + " doesnt exists");
 
+         long start = System.currentTimeMillis();
+
          is = new FileInputStream(f);
          DsParser dsParser = new DsParser();
 
@@ -211,6 +213,8 @@ public class DsXmlDeployer extends AbstractDsDeployer implements Deployer
 
          String deploymentName = f.getName();
 
+         log.debugf("Parsed %s: parse=%dms", url.toExternalForm(), System.currentTimeMillis() - start);
+
          Set<String> raDeployments = mdr.getResourceAdapters();
          String uniqueJdbcLocalId = null;
          String uniqueJdbcXAId = null;
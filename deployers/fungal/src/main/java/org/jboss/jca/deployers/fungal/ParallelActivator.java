@@ -0,0 +1,223 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.jca.deployers.fungal;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prepares deployments concurrently, and activates them one at a time in the
+ * order they were given. When a preparation or an activation fails the
+ * deployments that won't be activated are released
+ * @param <T> The type of a prepared deployment
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public final class ParallelActivator<T>
+{
+   /**
+    * The steps of a deployment
+    * @param <T> The type of a prepared deployment
+    */
+   public interface Steps<T>
+   {
+      /**
+       * Prepare a deployment. Called concurrently
+       * @param url The url
+       * @return The prepared deployment; <code>null</code> if there is nothing to activate
+       * @exception Exception Thrown if an error occurs
+       */
+      public T prepare(URL url) throws Exception;
+
+      /**
+       * Activate a prepared deployment. Called in order, one at a time
+       * @param prepared The prepared deployment
+       * @exception Throwable Thrown if an error occurs
+       */
+      public void activate(T prepared) throws Throwable;
+
+      /**
+       * Release a prepared deployment that won't be activated
+       * @param prepared The prepared deployment
+       */
+      public void release(T prepared);
+   }
+
+   /** The executor */
+   private final ExecutorService executor;
+
+   /** The steps */
+   private final Steps<T> steps;
+
+   /**
+    * Constructor
+    * @param executor The executor used for the preparations
+    * @param steps The steps
+    */
+   public ParallelActivator(ExecutorService executor, Steps<T> steps)
+   {
+      this.executor = executor;
+      this.steps = steps;
+   }
+
+   /**
+    * Prepare and activate the deployments
+    * @param urls The urls, in activation order
+    * @exception Throwable Thrown if a preparation or an activation fails
+    */
+   public void activate(List<URL> urls) throws Throwable
+   {
+      List<PrepareTask> tasks = new ArrayList<PrepareTask>(urls.size());
+
+      for (URL url : urls)
+      {
+         PrepareTask task = new PrepareTask(url);
+         task.future = executor.submit(task);
+         tasks.add(task);
+      }
+
+      for (int i = 0; i < tasks.size(); i++)
+      {
+         T prepared = null;
+         try
+         {
+            prepared = get(tasks.get(i).future);
+
+            if (prepared != null)
+               steps.activate(prepared);
+         }
+         catch (Throwable t)
+         {
+            if (prepared != null)
+               steps.release(prepared);
+
+            cancel(tasks.subList(i + 1, tasks.size()));
+            throw t;
+         }
+      }
+   }
+
+   /**
+    * Get the result of a prepare task
+    * @param future The future
+    * @return The prepared deployment
+    * @exception Throwable Thrown if the preparation failed
+    */
+   private T get(Future<T> future) throws Throwable
+   {
+      try
+      {
+         return future.get();
+      }
+      catch (InterruptedException ie)
+      {
+         Thread.currentThread().interrupt();
+         throw ie;
+      }
+      catch (ExecutionException ee)
+      {
+         throw ee.getCause();
+      }
+   }
+
+   /**
+    * Cancel the preparation of deployments that won't be activated. Tasks that
+    * already have been started are waited for, and their deployments are released
+    * @param tasks The tasks
+    */
+   private void cancel(List<PrepareTask> tasks)
+   {
+      for (PrepareTask task : tasks)
+      {
+         if (!task.cancel())
+         {
+            try
+            {
+               T prepared = get(task.future);
+
+               if (prepared != null)
+                  steps.release(prepared);
+            }
+            catch (Throwable t)
+            {
+               // The preparation failed, so there is nothing to release
+            }
+         }
+      }
+   }
+
+   /**
+    * The preparation of a deployment. A task that hasn't been started can be
+    * cancelled, a started task always runs to completion
+    */
+   private class PrepareTask implements Callable<T>
+   {
+      /** The url */
+      private final URL url;
+
+      /** Started, or cancelled */
+      private final AtomicBoolean started;
+
+      /** The future */
+      Future<T> future;
+
+      /**
+       * Constructor
+       * @param url The url
+       */
+      PrepareTask(URL url)
+      {
+         this.url = url;
+         this.started = new AtomicBoolean(false);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public T call() throws Exception
+      {
+         if (!started.compareAndSet(false, true))
+            return null;
+
+         return steps.prepare(url);
+      }
+
+      /**
+       * Cancel the task, unless it has been started
+       * @return <code>true</code> if the task won't run, otherwise <code>false</code>
+       */
+      boolean cancel()
+      {
+         if (!started.compareAndSet(false, true))
+            return false;
+
+         future.cancel(false);
+         return true;
+      }
+   }
+}
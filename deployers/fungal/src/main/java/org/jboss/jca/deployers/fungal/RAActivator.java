@@ -36,6 +36,7 @@ import org.jboss.jca.deployers.DeployersLogger;
 import org.jboss.jca.deployers.common.CommonDeployment;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -43,6 +44,12 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.management.ObjectName;
 
@@ -73,6 +80,30 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
    /** The list of generated deployments */
    private List<Deployment> deployments;
 
+   /**
+    * Holder for the executor, so it is only created when used
+    */
+   private static class Holder
+   {
+      /** The executor */
+      static final ExecutorService EXECUTOR;
+
+      static
+      {
+         int threads = Runtime.getRuntime().availableProcessors();
+
+         String t = SecurityActions.getSystemProperty("ironjacamar.deployers.threads");
+         if (t != null && !t.trim().equals(""))
+            threads = Math.max(1, Integer.parseInt(t.trim()));
+
+         ThreadPoolExecutor tpe = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<Runnable>(),
+                                                         new DeployerThreadFactory());
+         tpe.allowCoreThreadTimeOut(true);
+         EXECUTOR = tpe;
+      }
+   }
+
    /**
     * Constructor
     */
@@ -149,9 +180,14 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
          MetadataRepository mdr = ((RAConfiguration) getConfiguration()).getMetadataRepository();
          ResourceAdapterRepository rar = ((RAConfiguration) getConfiguration()).getResourceAdapterRepository();
 
-         Set<String> rarDeployments = mdr.getResourceAdapters();
+         SortedSet<String> rarDeployments = new TreeSet<String>(new RAActivatorComparator());
+         rarDeployments.addAll(mdr.getResourceAdapters());
+
          Set<String> configuredRars = getConfiguredResourceAdapters(mdr, rar);
 
+         ClassLoader parent = kernel.getKernelClassLoader();
+         List<URL> urls = new ArrayList<URL>();
+
          for (String deployment : rarDeployments)
          {
             log.tracef("Processing: %s", deployment);
@@ -171,18 +207,15 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
             {
                // If there isn't any JNDI mappings then the archive isn't active
                // so activate it
-               Deployment raDeployment = deploy(new URL(deployment), kernel.getKernelClassLoader());
-               if (raDeployment != null)
-               {
-                  if (deployments == null)
-                     deployments = new ArrayList<Deployment>(1);
-
-                  deployments.add(raDeployment);
-                  
-                  kernel.getMainDeployer().registerDeployment(raDeployment);
-               }
+               urls.add(new URL(deployment));
             }
          }
+
+         // Activate in the sorted order, so the JNDI bindings are deterministic
+         ParallelActivator<PreparedDeployment> activator =
+            new ParallelActivator<PreparedDeployment>(Holder.EXECUTOR, new ActivatorSteps(parent));
+
+         activator.activate(urls);
       }
    }
 
@@ -444,29 +477,69 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
    }
 
    /**
-    * Deploy
+    * Release the resources of a deployment that won't be activated; shutdown
+    * the classloader and delete the root if it was extracted
+    * @param pd The prepared deployment
+    */
+   private void cleanup(PreparedDeployment pd)
+   {
+      if (pd == null)
+         return;
+
+      log.debugf("Releasing: %s", pd.url.toExternalForm());
+
+      if (pd.cl != null)
+      {
+         try
+         {
+            pd.cl.shutdown();
+         }
+         catch (IOException ioe)
+         {
+            // Swallow
+         }
+      }
+
+      if (pd.extracted && pd.root != null && pd.root.exists())
+      {
+         try
+         {
+            FileUtil fileUtil = new FileUtil();
+            fileUtil.delete(pd.root);
+         }
+         catch (IOException ioe)
+         {
+            // Ignore
+         }
+      }
+   }
+
+   /**
+    * Prepare a deployment; extract the archive, create the classloader and merge the metadata.
+    * Doesn't depend on any other archive, so it can be done concurrently
     * @param url The url
     * @param parent The parent classloader
-    * @return The deployment
-    * @exception DeployException Thrown if an error occurs during deployment
+    * @return The prepared deployment; <code>null</code> if the archive doesn't exist
+    * @exception DeployException Thrown if an error occurs during preparation
     */
-   private Deployment deploy(URL url, ClassLoader parent) throws DeployException
+   private PreparedDeployment prepare(URL url, ClassLoader parent) throws DeployException
    {
-
       if (log.isDebugEnabled())
       {
          log.debug("Deploying: " + url.toExternalForm());
       }
       ClassLoader oldTCCL = SecurityActions.getThreadContextClassLoader();
+      PreparedDeployment pd = new PreparedDeployment();
+      pd.url = url;
       try
       {
+         long start = System.currentTimeMillis();
+
          File f = new File(url.toURI());
 
          if (!f.exists())
             return null;
 
-         File root = null;
-
          if (f.isFile())
          {
             File destination = new File(SecurityActions.getSystemProperty("iron.jacamar.home"), "/tmp/");
@@ -475,31 +548,33 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
             if (!target.exists())
             {
                FileUtil fileUtil = new FileUtil();
-               root = fileUtil.extract(f, destination);
+               pd.root = fileUtil.extract(f, destination);
+               pd.extracted = true;
             }
             else
             {
-               root = target;
+               pd.root = target;
             }
          }
          else
          {
-            root = f;
+            pd.root = f;
          }
-         String deploymentName = f.getName().substring(0, f.getName().indexOf(".rar"));
+         pd.deploymentName = f.getName().substring(0, f.getName().indexOf(".rar"));
+
+         long extracted = System.currentTimeMillis();
 
          // Create classloader
-         URL[] urls = getUrls(root);
-         KernelClassLoader cl = null;
+         URL[] urls = getUrls(pd.root);
          if (((RAConfiguration) getConfiguration()).getScopeDeployment())
          {
-            cl = ClassLoaderFactory.create(ClassLoaderFactory.TYPE_PARENT_LAST, urls, parent);
+            pd.cl = ClassLoaderFactory.create(ClassLoaderFactory.TYPE_PARENT_LAST, urls, parent);
          }
          else
          {
-            cl = ClassLoaderFactory.create(ClassLoaderFactory.TYPE_PARENT_FIRST, urls, parent);
+            pd.cl = ClassLoaderFactory.create(ClassLoaderFactory.TYPE_PARENT_FIRST, urls, parent);
          }
-         SecurityActions.setThreadContextClassLoader(cl);
+         SecurityActions.setThreadContextClassLoader(pd.cl);
 
          // Get metadata
          MetadataRepository metadataRepository = ((RAConfiguration) getConfiguration()).getMetadataRepository();
@@ -512,13 +587,56 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
 
          cmd = (new Merger()).mergeConnectorWithCommonIronJacamar(activation, cmd);
 
-         CommonDeployment c = createObjectsAndInjectValue(url, deploymentName, root, cl, cmd, activation);
+         long merged = System.currentTimeMillis();
+
+         pd.cmd = cmd;
+         pd.activation = activation;
+         pd.extract = extracted - start;
+         pd.metadata = merged - extracted;
+
+         return pd;
+      }
+      catch (Throwable t)
+      {
+         cleanup(pd);
+         throw new DeployException("Deployment " + url.toExternalForm() + " failed", t);
+      }
+      finally
+      {
+         SecurityActions.setThreadContextClassLoader(oldTCCL);
+      }
+   }
+
+   /**
+    * Activate a prepared deployment; create the objects and bind them into JNDI
+    * @param pd The prepared deployment
+    * @return The deployment
+    * @exception DeployException Thrown if an error occurs during deployment
+    */
+   private Deployment activate(PreparedDeployment pd) throws DeployException
+   {
+      if (pd == null)
+         return null;
+
+      ClassLoader oldTCCL = SecurityActions.getThreadContextClassLoader();
+      try
+      {
+         long start = System.currentTimeMillis();
+
+         SecurityActions.setThreadContextClassLoader(pd.cl);
+
+         CommonDeployment c = createObjectsAndInjectValue(pd.url, pd.deploymentName, pd.root, pd.cl,
+                                                          pd.cmd, pd.activation);
 
          List<ObjectName> ons = registerManagementView(c.getConnector(),
                                                        kernel.getMBeanServer(),
                                                        kernel.getName());
 
+         log.debugf("Activated %s: extract=%dms, metadata=%dms, activate=%dms",
+                    pd.url.toExternalForm(), pd.extract, pd.metadata, System.currentTimeMillis() - start);
+
          JndiStrategy jndiStrategy = ((RAConfiguration) getConfiguration()).getJndiStrategy();
+         MetadataRepository metadataRepository = ((RAConfiguration) getConfiguration()).getMetadataRepository();
          ResourceAdapterRepository resourceAdapterRepository =
             ((RAConfiguration) getConfiguration()).getResourceAdapterRepository();
 
@@ -531,7 +649,7 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
                                           ((RAConfiguration)getConfiguration()).getManagementRepository(), 
                                           c.getConnector(),
                                           kernel.getMBeanServer(), ons,
-                                          cl, c.getLog());
+                                          pd.cl, c.getLog());
       }
       catch (DeployException de)
       {
@@ -544,11 +662,8 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
       }
       catch (Throwable t)
       {
-
-         throw new DeployException("Deployment " + url.toExternalForm() + " failed", t);
-
+         throw new DeployException("Deployment " + pd.url.toExternalForm() + " failed", t);
       }
-
       finally
       {
          SecurityActions.setThreadContextClassLoader(oldTCCL);
@@ -614,4 +729,108 @@ public final class RAActivator extends AbstractFungalRADeployer implements Deplo
 
       return mcfs <= 1 && aos <= 1;
    }
+
+   /**
+    * A deployment that has been prepared, but not activated yet
+    */
+   private static class PreparedDeployment
+   {
+      /** The url */
+      URL url;
+
+      /** The deployment name */
+      String deploymentName;
+
+      /** The root */
+      File root;
+
+      /** Was the root extracted by this deployment */
+      boolean extracted;
+
+      /** The classloader */
+      KernelClassLoader cl;
+
+      /** The merged metadata */
+      Connector cmd;
+
+      /** The activation */
+      Activation activation;
+
+      /** Time spent on extraction */
+      long extract;
+
+      /** Time spent on the classloader and the metadata */
+      long metadata;
+   }
+
+   /**
+    * The steps of an RA activator deployment
+    */
+   private class ActivatorSteps implements ParallelActivator.Steps<PreparedDeployment>
+   {
+      /** The parent classloader */
+      private final ClassLoader parent;
+
+      /**
+       * Constructor
+       * @param parent The parent classloader
+       */
+      ActivatorSteps(ClassLoader parent)
+      {
+         this.parent = parent;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public PreparedDeployment prepare(URL url) throws Exception
+      {
+         return RAActivator.this.prepare(url, parent);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void activate(PreparedDeployment pd) throws Throwable
+      {
+         Deployment raDeployment = RAActivator.this.activate(pd);
+
+         if (raDeployment != null)
+         {
+            if (deployments == null)
+               deployments = new ArrayList<Deployment>(1);
+
+            deployments.add(raDeployment);
+
+            kernel.getMainDeployer().registerDeployment(raDeployment);
+         }
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release(PreparedDeployment pd)
+      {
+         cleanup(pd);
+      }
+   }
+
+   /**
+    * Creates daemon threads for the deployments
+    */
+   private static class DeployerThreadFactory implements ThreadFactory
+   {
+      /** The thread counter */
+      private final AtomicInteger counter = new AtomicInteger();
+
+      /**
+       * {@inheritDoc}
+       */
+      public Thread newThread(Runnable r)
+      {
+         Thread t = new Thread(r, "JCA Deployer-" + counter.incrementAndGet());
+         t.setDaemon(true);
+         return t;
+      }
+   }
 }
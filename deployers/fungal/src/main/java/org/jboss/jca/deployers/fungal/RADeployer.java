@@ -108,7 +108,7 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
    /**
     * {@inheritDoc}
     */
-   public synchronized com.github.fungal.spi.deployers.Deployment deploy(URL url, Context context, ClassLoader parent)
+   public com.github.fungal.spi.deployers.Deployment deploy(URL url, Context context, ClassLoader parent)
       throws DeployException
    {
       if (log.isDebugEnabled())
@@ -118,6 +118,8 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
       ClassLoader oldTCCL = SecurityActions.getThreadContextClassLoader();
       try
       {
+         long start = System.currentTimeMillis();
+
          File f = getFileFromUrl(url);
 
          if (!f.exists())
@@ -138,6 +140,8 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
          }
          String deploymentName = f.getName().substring(0, f.getName().indexOf(".rar"));
 
+         long extracted = System.currentTimeMillis();
+
          // Create classloader
          URL[] urls = getUrls(root);
          KernelClassLoader cl = null;
@@ -156,6 +160,8 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
          Connector cmd = metadataFactory.getStandardMetaData(root);
          Activation activation = metadataFactory.getIronJacamarMetaData(root);
 
+         long parsed = System.currentTimeMillis();
+
          // Annotation scanning
          if (scanArchive(cmd))
          {
@@ -165,19 +171,37 @@ public class RADeployer extends AbstractFungalRADeployer implements Deployer
             cmd = annotator.merge(cmd, repository, cl);
          }
 
+         long scanned = System.currentTimeMillis();
+
          // Validate metadata
          cmd.validate();
 
          // Merge metadata
          cmd = (new Merger()).mergeConnectorWithCommonIronJacamar(activation, cmd);
 
-         CommonDeployment c = createObjectsAndInjectValue(url, deploymentName, root, cl, cmd, activation);
+         long validated = System.currentTimeMillis();
 
+         // The phases above only touch the archive itself, so independent archives
+         // can be prepared concurrently by the kernel. Object creation and binding
+         // are done one deployment at a time
+         CommonDeployment c = null;
          List<ObjectName> ons = null;
-         if (c.isActivateDeployment())
-            ons = registerManagementView(c.getConnector(),
-                                         kernel.getMBeanServer(),
-                                         kernel.getName());
+
+         synchronized (this)
+         {
+            c = createObjectsAndInjectValue(url, deploymentName, root, cl, cmd, activation);
+
+            if (c.isActivateDeployment())
+               ons = registerManagementView(c.getConnector(),
+                                            kernel.getMBeanServer(),
+                                            kernel.getName());
+         }
+
+         long activated = System.currentTimeMillis();
+
+         log.debugf("Deployed %s: extract=%dms, parse=%dms, scan=%dms, validate=%dms, activate=%dms",
+                    url.toExternalForm(), extracted - start, parsed - extracted, scanned - parsed,
+                    validated - scanned, activated - validated);
 
          JndiStrategy jndiStrategy = ((RAConfiguration) getConfiguration()).getJndiStrategy();
          MetadataRepository metadataRepository = ((RAConfiguration) getConfiguration()).getMetadataRepository();
@@ -160,7 +160,7 @@ public class RaXmlDeployer extends AbstractFungalRADeployer
     * {@inheritDoc}
     */
    @Override
-   public synchronized Deployment deploy(URL url, Context context, ClassLoader parent) throws DeployException
+   public Deployment deploy(URL url, Context context, ClassLoader parent) throws DeployException
    {
       if (log.isDebugEnabled())
       {
@@ -175,29 +175,37 @@ public class RaXmlDeployer extends AbstractFungalRADeployer
          if (!f.exists())
             throw new IOException("Archive " + url.toExternalForm() + " doesnt exists");
 
+         long start = System.currentTimeMillis();
+
          // Parse metadata
          is = new FileInputStream(f);
          ResourceAdapterParser parser = new ResourceAdapterParser();
          Activations raXmlDeployment = parser.parse(is);
 
-         int size = raXmlDeployment.getActivations().size();
-         if (size == 1)
-         {
-            return doDeploy(url, raXmlDeployment.getActivations().get(0), parent);
-         }
-         else
-         {
-            deployments = new ArrayList<Deployment>(size);
+         log.debugf("Parsed %s: parse=%dms", url.toExternalForm(), System.currentTimeMillis() - start);
 
-            for (org.jboss.jca.common.api.metadata.resourceadapter.Activation activation : raXmlDeployment
-               .getActivations())
+         // Activate the entries under the deployer lock
+         synchronized (this)
+         {
+            int size = raXmlDeployment.getActivations().size();
+            if (size == 1)
             {
-               Deployment raDeployment = doDeploy(url, activation, parent);
-               deployments.add(raDeployment);
-               kernel.getMainDeployer().registerDeployment(raDeployment);
+               return doDeploy(url, raXmlDeployment.getActivations().get(0), parent);
             }
+            else
+            {
+               deployments = new ArrayList<Deployment>(size);
 
-            return null;
+               for (org.jboss.jca.common.api.metadata.resourceadapter.Activation activation : raXmlDeployment
+                  .getActivations())
+               {
+                  Deployment raDeployment = doDeploy(url, activation, parent);
+                  deployments.add(raDeployment);
+                  kernel.getMainDeployer().registerDeployment(raDeployment);
+               }
+
+               return null;
+            }
          }
       }
       catch (DeployException de)
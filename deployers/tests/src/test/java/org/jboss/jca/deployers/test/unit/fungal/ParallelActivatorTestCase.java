@@ -0,0 +1,264 @@
+/*
+ * IronJacamar, a Java EE Connector Architecture implementation
+ * Copyright 2026, Red Hat Inc, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.jca.deployers.test.unit.fungal;
+
+import org.jboss.jca.deployers.fungal.ParallelActivator;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the parallel preparation and ordered activation used by the RA activator
+ * @author <a href="mailto:jesper.pedersen@ironjacamar.org">Jesper Pedersen</a>
+ */
+public class ParallelActivatorTestCase
+{
+   /** The number of deployments */
+   private static final int DEPLOYMENTS = 8;
+
+   /** The executor */
+   private ExecutorService executor;
+
+   /**
+    * Create the executor
+    */
+   @Before
+   public void before()
+   {
+      executor = Executors.newFixedThreadPool(4);
+   }
+
+   /**
+    * Shutdown the executor
+    * @exception Throwable Thrown if case of an error
+    */
+   @After
+   public void after() throws Throwable
+   {
+      executor.shutdownNow();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+   }
+
+   /**
+    * Deployments are activated in the given order, even when later deployments
+    * are prepared first
+    * @exception Throwable Thrown if case of an error
+    */
+   @Test
+   public void testOrder() throws Throwable
+   {
+      List<URL> urls = urls();
+      RecordingSteps steps = new RecordingSteps(-1, -1);
+
+      new ParallelActivator<URL>(executor, steps).activate(urls);
+
+      assertEquals(urls, steps.activated);
+      assertTrue(steps.released.isEmpty());
+   }
+
+   /**
+    * A failed activation releases the failed deployment and every deployment
+    * prepared after it, and the deployments before it stay active
+    * @exception Throwable Thrown if case of an error
+    */
+   @Test
+   public void testActivationFailure() throws Throwable
+   {
+      List<URL> urls = urls();
+      RecordingSteps steps = new RecordingSteps(-1, 3);
+
+      try
+      {
+         new ParallelActivator<URL>(executor, steps).activate(urls);
+         fail("Activation didn't fail");
+      }
+      catch (Exception e)
+      {
+         assertSame(steps.failure, e);
+      }
+
+      assertEquals(urls.subList(0, 3), steps.activated);
+      assertTrue(steps.released.contains(urls.get(3)));
+      assertReleased(steps);
+   }
+
+   /**
+    * A failed preparation releases every deployment prepared after it, and
+    * the deployments before it stay active
+    * @exception Throwable Thrown if case of an error
+    */
+   @Test
+   public void testPreparationFailure() throws Throwable
+   {
+      List<URL> urls = urls();
+      RecordingSteps steps = new RecordingSteps(2, -1);
+
+      try
+      {
+         new ParallelActivator<URL>(executor, steps).activate(urls);
+         fail("Activation didn't fail");
+      }
+      catch (Exception e)
+      {
+         assertSame(steps.failure, e);
+      }
+
+      assertEquals(urls.subList(0, 2), steps.activated);
+      assertTrue(!steps.released.contains(urls.get(2)));
+      assertReleased(steps);
+   }
+
+   /**
+    * Every prepared deployment is either active or released, and no
+    * preparation is running once the activation has returned
+    * @param steps The steps
+    * @exception Throwable Thrown if case of an error
+    */
+   private void assertReleased(RecordingSteps steps) throws Throwable
+   {
+      Set<URL> prepared = new HashSet<URL>(steps.prepared);
+
+      Thread.sleep(200L);
+
+      assertEquals(prepared, new HashSet<URL>(steps.prepared));
+      assertEquals(prepared.size(), steps.activated.size() + steps.released.size());
+
+      for (URL url : steps.activated)
+         assertTrue(!steps.released.contains(url));
+
+      prepared.removeAll(steps.activated);
+      assertEquals(prepared, new HashSet<URL>(steps.released));
+   }
+
+   /**
+    * Get the urls in activation order
+    * @return The urls
+    * @exception Throwable Thrown if case of an error
+    */
+   private List<URL> urls() throws Throwable
+   {
+      List<URL> urls = new ArrayList<URL>(DEPLOYMENTS);
+      for (int i = 0; i < DEPLOYMENTS; i++)
+      {
+         urls.add(new URL("file:/deploy/ra" + i + ".rar"));
+      }
+      return urls;
+   }
+
+   /**
+    * Steps that record the deployments. The first deployments take the longest to
+    * prepare, so they are prepared last
+    */
+   static class RecordingSteps implements ParallelActivator.Steps<URL>
+   {
+      /** The index of the deployment that fails to prepare */
+      private final int prepareFailure;
+
+      /** The index of the deployment that fails to activate */
+      private final int activateFailure;
+
+      /** The failure */
+      final Exception failure = new Exception("Failure");
+
+      /** The prepared deployments */
+      final List<URL> prepared = Collections.synchronizedList(new ArrayList<URL>());
+
+      /** The activated deployments */
+      final List<URL> activated = new ArrayList<URL>();
+
+      /** The released deployments */
+      final List<URL> released = Collections.synchronizedList(new ArrayList<URL>());
+
+      /**
+       * Constructor
+       * @param prepareFailure The index of the deployment that fails to prepare, or -1
+       * @param activateFailure The index of the deployment that fails to activate, or -1
+       */
+      RecordingSteps(int prepareFailure, int activateFailure)
+      {
+         this.prepareFailure = prepareFailure;
+         this.activateFailure = activateFailure;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public URL prepare(URL url) throws Exception
+      {
+         int index = index(url);
+
+         Thread.sleep(10L * (DEPLOYMENTS - index));
+
+         if (index == prepareFailure)
+            throw failure;
+
+         prepared.add(url);
+         return url;
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void activate(URL url) throws Exception
+      {
+         if (index(url) == activateFailure)
+            throw failure;
+
+         activated.add(url);
+      }
+
+      /**
+       * {@inheritDoc}
+       */
+      public void release(URL url)
+      {
+         released.add(url);
+      }
+
+      /**
+       * Get the index of a deployment
+       * @param url The url
+       * @return The index
+       */
+      private int index(URL url)
+      {
+         String file = url.getFile();
+         return Integer.parseInt(file.substring(file.indexOf("ra") + 2, file.indexOf(".rar")));
+      }
+   }
+}